@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.codegen;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateExceptionHandler;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@SupportedAnnotationTypes(TableMetadataProcessor.TABLE)
+public class TableMetadataProcessor extends AbstractProcessor {
+    static final String TABLE = "javax.persistence.Table";
+    private static final String MAPPED_SUPERCLASS = "javax.persistence.MappedSuperclass";
+    private static final String COLUMN = "javax.persistence.Column";
+    private static final String TRANSIENT = "javax.persistence.Transient";
+    private static final String SUFFIX = "TableDescriptor";
+
+    private Configuration cfg;
+    private Elements elements;
+    private Types types;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        messager = processingEnv.getMessager();
+
+        cfg = new Configuration(Configuration.VERSION_2_3_23);
+        cfg.setClassForTemplateLoading(TableMetadataProcessor.class, "templates");
+        cfg.setDefaultEncoding("UTF-8");
+        cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation)).stream()
+                .filter(type -> type.getKind() == ElementKind.CLASS)
+                .forEach(this::generate);
+        }
+        return false;
+    }
+
+    private void generate(TypeElement rowType) {
+        if (rowType.getModifiers().contains(Modifier.PRIVATE)) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "Not generating a table descriptor for private class " + rowType, rowType);
+            return;
+        }
+        String packageName = elements.getPackageOf(rowType).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(rowType).toString();
+        String flatName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_');
+        String descriptorName = flatName + SUFFIX;
+        String metamodelName = flatName + "_";
+
+        List<Map<String,Object>> fields = new ArrayList<>();
+        mappedClasses(rowType)
+            .flatMap(cls -> ElementFilter.fieldsIn(cls.getEnclosedElements()).stream())
+            .filter(f -> !f.getModifiers().contains(Modifier.STATIC))
+            .filter(f -> !annotation(f, TRANSIENT).isPresent())
+            .filter(f -> !isCollection(f.asType()))
+            .forEach(f -> fields.add(field(rowType, packageName, f, fields.size())));
+
+        Map<String,Object> input = new HashMap<>();
+        input.put("packageName", packageName);
+        input.put("descriptorName", descriptorName);
+        input.put("metamodelName", metamodelName);
+        input.put("rowClass", rowType.getQualifiedName().toString());
+        input.put("newRow", hasAccessibleDefaultConstructor(rowType, packageName));
+        input.put("fields", fields);
+
+        generate("TableDescriptor.ftl", input, qualifiedName(packageName, descriptorName), rowType);
+        generate("Metamodel.ftl", input, qualifiedName(packageName, metamodelName), rowType);
+    }
+
+    private void generate(String templateName, Map<String,Object> input, String className, TypeElement rowType) {
+        try (Writer writer = processingEnv.getFiler().createSourceFile(className, rowType).openWriter()) {
+            Template template = cfg.getTemplate(templateName);
+            template.process(input, writer);
+        } catch (Exception e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Unable to generate " + className + ": " + e.getMessage(), rowType);
+        }
+    }
+
+    private Map<String,Object> field(TypeElement rowType, String packageName, VariableElement field, int index) {
+        String name = field.getSimpleName().toString();
+        TypeMirror fieldType = field.asType();
+        boolean optional = isOptional(fieldType);
+        TypeMirror valueType = optional
+            ? types.erasure(((DeclaredType) fieldType).getTypeArguments().get(0))
+            : types.erasure(fieldType);
+        boolean primitive = valueType.getKind().isPrimitive();
+        Optional<ExecutableElement> getterMethod = getterMethod(rowType, field, optional);
+        Optional<ExecutableElement> setterMethod = setterMethod(rowType, field, valueType, optional);
+
+        Map<String,Object> result = new HashMap<>();
+        result.put("name", name);
+        result.put("getterName", getterMethod.map(m -> m.getSimpleName().toString()).orElse(""));
+        result.put("constant", name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase());
+        result.put("boxedType", primitive ? types.boxedClass((javax.lang.model.type.PrimitiveType) valueType).getQualifiedName().toString() : valueType.toString());
+        result.put("valueClass", valueType + ".class");
+        result.put("columnName", columnName(getterMethod, field)
+            .map(c -> "Optional.of(" + elements.getConstantExpression(c) + ")")
+            .orElse("Optional.empty()"));
+
+        String getter;
+        if (getterMethod.filter(m -> isAccessible(m, packageName)).isPresent()) {
+            String call = "row." + getterMethod.get().getSimpleName() + "()";
+            getter = "row -> " + (optional ? call : "Optional.ofNullable(" + call + ")");
+        } else if (isAccessible(field, packageName)) {
+            getter = "row -> " + (optional ? "row." + name : "Optional.ofNullable(row." + name + ")");
+        } else {
+            getter = result.get("constant") + "_GETTER";
+        }
+        result.put("getter", getter);
+        result.put("getterConstant", getter.endsWith("_GETTER"));
+
+        String value = "value" + index;
+        String setter;
+        String assignment;
+        if (setterMethod.filter(m -> isAccessible(m, packageName)).isPresent()) {
+            String method = "row." + setterMethod.get().getSimpleName();
+            boolean optionalParameter = optional || isOptional(setterMethod.get().getParameters().get(0).asType());
+            setter = setterCode(method + "(", ")", optionalParameter, primitive);
+            assignment = assignmentCode(method + "(", ")", value, optionalParameter, primitive);
+        } else if (isAccessible(field, packageName) && !field.getModifiers().contains(Modifier.FINAL)) {
+            setter = setterCode("row." + name + " = ", "", optional, primitive);
+            assignment = assignmentCode("row." + name + " = ", "", value, optional, primitive);
+        } else {
+            setter = result.get("constant") + "_SETTER";
+            assignment = setter + ".accept(row, " + value + ");";
+        }
+        result.put("setter", setter);
+        result.put("setterConstant", setter.endsWith("_SETTER"));
+        result.put("index", Integer.toString(index));
+        result.put("assignment", assignment);
+        return result;
+    }
+
+    private static String setterCode(String prefix, String suffix, boolean optional, boolean primitive) {
+        if (optional) {
+            return "(row, v) -> " + prefix + "v" + suffix;
+        }
+        if (primitive) {
+            return "(row, v) -> v.ifPresent(x -> " + prefix + "x" + suffix + ")";
+        }
+        return "(row, v) -> " + prefix + "v.orElse(null)" + suffix;
+    }
+
+    private static String assignmentCode(String prefix, String suffix, String value, boolean optional, boolean primitive) {
+        if (optional) {
+            return prefix + value + suffix + ";";
+        }
+        if (primitive) {
+            return "if (" + value + ".isPresent()) { " + prefix + value + ".get()" + suffix + "; }";
+        }
+        return prefix + value + ".orElse(null)" + suffix + ";";
+    }
+
+    private Stream<TypeElement> mappedClasses(TypeElement startingWith) {
+        Deque<TypeElement> classes = new LinkedList<>();
+        classes.push(startingWith);
+        Optional<TypeElement> superclass = superclass(startingWith);
+        while (superclass.isPresent() && (annotation(superclass.get(), MAPPED_SUPERCLASS).isPresent() || annotation(superclass.get(), TABLE).isPresent())) {
+            classes.push(superclass.get());
+            superclass = superclass(superclass.get());
+        }
+        return classes.stream();
+    }
+
+    private Optional<TypeElement> superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED
+            ? Optional.of((TypeElement) types.asElement(superclass))
+            : Optional.empty();
+    }
+
+    private Optional<ExecutableElement> getterMethod(TypeElement rowType, VariableElement field, boolean optional) {
+        String name = field.getSimpleName().toString();
+        return Stream.of("get" + uppercaseFirst(name), name, "is" + uppercaseFirst(name))
+            .flatMap(methodName -> methods(rowType)
+                .filter(m -> m.getSimpleName().contentEquals(methodName))
+                .filter(m -> m.getParameters().isEmpty())
+                .filter(m -> !m.getModifiers().contains(Modifier.STATIC))
+                .filter(m -> optional ? isOptional(m.getReturnType()) : types.isSameType(m.getReturnType(), field.asType())))
+            .findFirst();
+    }
+
+    private Optional<ExecutableElement> setterMethod(TypeElement rowType, VariableElement field, TypeMirror valueType, boolean optional) {
+        String name = field.getSimpleName().toString();
+        return Stream.of("with" + uppercaseFirst(name), "set" + uppercaseFirst(name), name)
+            .flatMap(methodName -> methods(rowType)
+                .filter(m -> m.getSimpleName().contentEquals(methodName))
+                .filter(m -> m.getParameters().size() == 1)
+                .filter(m -> !m.getModifiers().contains(Modifier.STATIC))
+                .filter(m -> {
+                    TypeMirror parameterType = m.getParameters().get(0).asType();
+                    return isOptional(parameterType) || (!optional && types.isSameType(types.erasure(parameterType), valueType));
+                }))
+            .findFirst();
+    }
+
+    private Stream<ExecutableElement> methods(TypeElement rowType) {
+        return ElementFilter.methodsIn(elements.getAllMembers(rowType)).stream();
+    }
+
+    private Optional<String> columnName(Optional<ExecutableElement> getterMethod, VariableElement field) {
+        Optional<String> fromMethod = getterMethod.flatMap(m -> annotationValue(m, COLUMN, "name"));
+        return fromMethod.isPresent()
+            ? fromMethod
+            : annotationValue(field, COLUMN, "name");
+    }
+
+    private boolean hasAccessibleDefaultConstructor(TypeElement rowType, String packageName) {
+        if (rowType.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        if (rowType.getNestingKind() != NestingKind.TOP_LEVEL && !rowType.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+        return ElementFilter.constructorsIn(rowType.getEnclosedElements()).stream()
+            .filter(c -> c.getParameters().isEmpty())
+            .anyMatch(c -> isAccessible(c, packageName));
+    }
+
+    private boolean isAccessible(Element element, String packageName) {
+        if (element.getModifiers().contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !element.getModifiers().contains(Modifier.PRIVATE)
+            && elements.getPackageOf(element).getQualifiedName().contentEquals(packageName);
+    }
+
+    private boolean isOptional(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+            && ((TypeElement) types.asElement(type)).getQualifiedName().contentEquals(Optional.class.getName());
+    }
+
+    private boolean isCollection(TypeMirror type) {
+        TypeElement collection = elements.getTypeElement("java.util.Collection");
+        return type.getKind() == TypeKind.DECLARED
+            && types.isAssignable(types.erasure(type), types.erasure(collection.asType()));
+    }
+
+    private Optional<AnnotationMirror> annotation(Element element, String annotationName) {
+        return element.getAnnotationMirrors().stream()
+            .filter(a -> ((TypeElement) a.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName))
+            .map(a -> (AnnotationMirror) a)
+            .findFirst();
+    }
+
+    private Optional<String> annotationValue(Element element, String annotationName, String attribute) {
+        return annotation(element, annotationName)
+            .flatMap(a -> a.getElementValues().entrySet().stream()
+                .filter(e -> e.getKey().getSimpleName().contentEquals(attribute))
+                .map(Map.Entry::getValue)
+                .map(AnnotationValue::getValue)
+                .map(Object::toString)
+                .filter(s -> !s.trim().isEmpty())
+                .findFirst());
+    }
+
+    private static String qualifiedName(String packageName, String className) {
+        return packageName.isEmpty() ? className : packageName + "." + className;
+    }
+
+    private static String uppercaseFirst(String s) {
+        return s.isEmpty() ? s : Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+}
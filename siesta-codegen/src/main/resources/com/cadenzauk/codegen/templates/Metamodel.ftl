@@ -0,0 +1,16 @@
+<#if packageName?has_content>
+package ${packageName};
+
+</#if>
+import com.cadenzauk.siesta.grammar.expression.ColumnRef;
+
+public final class ${metamodelName} {
+<#list fields as field>
+<#if field.getterName?has_content>
+    public static final ColumnRef<${rowClass},${field.boxedType}> ${field.constant} = ColumnRef.of(${rowClass}.class, "${field.getterName}", ${field.valueClass});
+</#if>
+</#list>
+
+    private ${metamodelName}() {
+    }
+}
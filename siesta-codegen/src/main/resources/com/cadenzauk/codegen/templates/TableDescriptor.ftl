@@ -0,0 +1,64 @@
+<#if packageName?has_content>
+package ${packageName};
+
+</#if>
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.DataType;
+import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.catalog.Table;
+import com.cadenzauk.siesta.catalog.TableDescriptor;
+import com.cadenzauk.siesta.catalog.TableDescriptors;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public final class ${descriptorName} implements TableDescriptor<${rowClass}> {
+<#list fields as field>
+<#if field.getterConstant>
+    private static final Function<${rowClass},Optional<${field.boxedType}>> ${field.constant}_GETTER = TableDescriptors.fieldGetter(${rowClass}.class, "${field.name}");
+</#if>
+<#if field.setterConstant>
+    private static final BiConsumer<${rowClass},Optional<${field.boxedType}>> ${field.constant}_SETTER = TableDescriptors.fieldSetter(${rowClass}.class, "${field.name}");
+</#if>
+</#list>
+
+    @Override
+    public Class<${rowClass}> rowClass() {
+        return ${rowClass}.class;
+    }
+
+    @Override
+    public void describe(Table.Builder<${rowClass},${rowClass}> builder) {
+<#if newRow>
+        builder.newBuilder(${rowClass}::new);
+</#if>
+<#list fields as field>
+        builder.field("${field.name}", ${field.columnName}, ${field.valueClass}, ${field.getter}, ${field.setter});
+</#list>
+    }
+<#if newRow && fields?has_content>
+
+    @Override
+    public Optional<RowMapper<${rowClass}>> rowMapper(Database database, List<String> labels) {
+<#list fields as field>
+        DataType<${field.boxedType}> type${field.index} = database.getDataTypeOf(${field.valueClass});
+        String label${field.index} = labels.get(${field.index});
+</#list>
+        return Optional.of(rs -> {
+<#list fields as field>
+            Optional<${field.boxedType}> value${field.index} = type${field.index}.get(rs, label${field.index}, database);
+</#list>
+            if (<#list fields as field>!value${field.index}.isPresent()<#if field_has_next> && </#if></#list>) {
+                return null;
+            }
+            ${rowClass} row = new ${rowClass}();
+<#list fields as field>
+            ${field.assignment}
+</#list>
+            return row;
+        });
+    }
+</#if>
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.codegen;
+
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.catalog.TableDescriptor;
+import com.google.common.reflect.TypeToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TableMetadataProcessorTest {
+    private static final String BASE_ROW = String.join("\n",
+        "package sample;",
+        "",
+        "@javax.persistence.MappedSuperclass",
+        "public abstract class BaseRow {",
+        "    private String createdBy;",
+        "",
+        "    public String getCreatedBy() {",
+        "        return createdBy;",
+        "    }",
+        "",
+        "    public void setCreatedBy(String createdBy) {",
+        "        this.createdBy = createdBy;",
+        "    }",
+        "}");
+
+    private static final String SAMPLE_ROW = String.join("\n",
+        "package sample;",
+        "",
+        "import java.util.Optional;",
+        "",
+        "@javax.persistence.Table(name = \"SAMPLE\")",
+        "public class SampleRow extends BaseRow {",
+        "    private long sampleId;",
+        "    @javax.persistence.Column(name = \"SAMPLE_NAME\")",
+        "    private String name;",
+        "    private Optional<String> description = Optional.empty();",
+        "    @javax.persistence.Transient",
+        "    private String ignored;",
+        "",
+        "    public long getSampleId() {",
+        "        return sampleId;",
+        "    }",
+        "",
+        "    public void setSampleId(long sampleId) {",
+        "        this.sampleId = sampleId;",
+        "    }",
+        "",
+        "    public String getName() {",
+        "        return name;",
+        "    }",
+        "",
+        "    public void setName(String name) {",
+        "        this.name = name;",
+        "    }",
+        "",
+        "    public Optional<String> getDescription() {",
+        "        return description;",
+        "    }",
+        "}");
+
+    private Path root;
+
+    @BeforeEach
+    void createDirectories() throws IOException {
+        root = Files.createTempDirectory("codegen");
+    }
+
+    @AfterEach
+    void deleteDirectories() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    void generatedSourcesCompile() throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile();
+
+        assertThat(errors, empty());
+        assertThat(Files.exists(root.resolve("generated/sample/SampleRowTableDescriptor.java")), is(true));
+        assertThat(Files.exists(root.resolve("generated/sample/SampleRow_.java")), is(true));
+    }
+
+    @Test
+    void descriptorUsesAccessorsAndColumnAnnotations() throws IOException {
+        compile();
+
+        String descriptor = generated("SampleRowTableDescriptor");
+        assertThat(descriptor, containsString("builder.field(\"name\", Optional.of(\"SAMPLE_NAME\"), java.lang.String.class, row -> Optional.ofNullable(row.getName()), (row, v) -> row.setName(v.orElse(null)));"));
+        assertThat(descriptor, containsString("builder.field(\"sampleId\", Optional.empty(), long.class, row -> Optional.ofNullable(row.getSampleId()), (row, v) -> v.ifPresent(x -> row.setSampleId(x)));"));
+        assertThat(descriptor, not(containsString("ignored")));
+    }
+
+    @Test
+    void inheritedFieldsUseInheritedAccessors() throws IOException {
+        compile();
+
+        assertThat(generated("SampleRowTableDescriptor"), containsString("builder.field(\"createdBy\", Optional.empty(), java.lang.String.class, row -> Optional.ofNullable(row.getCreatedBy()), (row, v) -> row.setCreatedBy(v.orElse(null)));"));
+        assertThat(generated("SampleRow_"), containsString("CREATED_BY = ColumnRef.of(sample.SampleRow.class, \"getCreatedBy\", java.lang.String.class);"));
+    }
+
+    @Test
+    void generatedRowMapperReadsEachLabel() throws Exception {
+        compile();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("S_CREATED_BY")).thenReturn("Bob");
+        when(rs.getLong("S_SAMPLE_ID")).thenReturn(42L);
+        when(rs.getString("S_SAMPLE_NAME")).thenReturn("Widget");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{root.resolve("classes").toUri().toURL()}, getClass().getClassLoader())) {
+            @SuppressWarnings("unchecked")
+            TableDescriptor<Object> descriptor = (TableDescriptor<Object>) classLoader.loadClass("sample.SampleRowTableDescriptor").newInstance();
+            Optional<RowMapper<Object>> rowMapper = descriptor.rowMapper(Database.newBuilder().build(),
+                Arrays.asList("S_CREATED_BY", "S_SAMPLE_ID", "S_SAMPLE_NAME", "S_DESCRIPTION"));
+            Object row = rowMapper.map(m -> m.mapRow(rs)).orElseThrow(AssertionError::new);
+
+            assertThat(call(row, "getCreatedBy"), is("Bob"));
+            assertThat(call(row, "getSampleId"), is(42L));
+            assertThat(call(row, "getName"), is("Widget"));
+            assertThat(call(row, "getDescription"), is(Optional.empty()));
+        }
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile() throws IOException {
+        Path sources = Files.createDirectories(root.resolve("src/sample"));
+        Files.write(sources.resolve("BaseRow.java"), BASE_ROW.getBytes(StandardCharsets.UTF_8));
+        Files.write(sources.resolve("SampleRow.java"), SAMPLE_ROW.getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(root.resolve("generated"));
+        Files.createDirectories(root.resolve("classes"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(
+                sources.resolve("BaseRow.java").toFile(),
+                sources.resolve("SampleRow.java").toFile());
+            List<String> options = Arrays.asList(
+                "-classpath", classpath(),
+                "-s", root.resolve("generated").toString(),
+                "-d", root.resolve("classes").toString());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, units);
+            task.setProcessors(Collections.singletonList(new TableMetadataProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics().stream()
+            .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+            .collect(Collectors.toList());
+    }
+
+    private static String classpath() {
+        return Stream.concat(
+            Stream.of(System.getProperty("java.class.path")),
+            Stream.of(Database.class, javax.persistence.Table.class, TypeToken.class)
+                .map(cls -> Paths.get(cls.getProtectionDomain().getCodeSource().getLocation().getPath()).toString()))
+            .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private String generated(String className) throws IOException {
+        return new String(Files.readAllBytes(root.resolve("generated/sample/" + className + ".java")), StandardCharsets.UTF_8);
+    }
+
+    private static Object call(Object row, String methodName) throws ReflectiveOperationException {
+        Method method = row.getClass().getMethod(methodName);
+        return method.invoke(row);
+    }
+}
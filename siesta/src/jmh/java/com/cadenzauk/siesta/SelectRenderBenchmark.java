@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.cadenzauk.siesta.dialect.AnsiDialect;
+import com.cadenzauk.siesta.grammar.select.InWhereExpectingAnd;
+import com.cadenzauk.siesta.grammar.select.Select;
+import com.cadenzauk.siesta.model.ManufacturerRow;
+import com.cadenzauk.siesta.model.WidgetRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.cadenzauk.siesta.model.TestDatabase.testDatabase;
+
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SelectRenderBenchmark {
+    @Param({"1", "10", "100"})
+    private int terms;
+
+    private Scope scope;
+    private Select<?> select;
+
+    @Setup
+    public void setup() {
+        Database database = testDatabase(new AnsiDialect());
+        scope = new Scope(database);
+        InWhereExpectingAnd<?> where = database.from(WidgetRow.class, "w")
+            .join(ManufacturerRow.class, "m").on(ManufacturerRow::manufacturerId).isEqualTo(WidgetRow::manufacturerId)
+            .where(WidgetRow::name).isEqualTo("Widget");
+        for (int i = 1; i < terms; i++) {
+            where = where.and(WidgetRow::widgetId).isNotEqualTo((long) i);
+        }
+        select = where.orderBy(WidgetRow::widgetId);
+    }
+
+    @Benchmark
+    public void separateSqlAndArgs(Blackhole blackhole) {
+        blackhole.consume(select.sql());
+        blackhole.consume(select.args(scope).toArray());
+    }
+
+    @Benchmark
+    public void singlePassRender(Blackhole blackhole) {
+        SqlBuilder builder = new SqlBuilder();
+        select.render(builder, scope);
+        blackhole.consume(builder.sql());
+        blackhole.consume(builder.args());
+    }
+}
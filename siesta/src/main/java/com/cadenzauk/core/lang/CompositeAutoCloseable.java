@@ -28,20 +28,24 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.IntStream;
 
 public class CompositeAutoCloseable implements UncheckedAutoCloseable {
-    private final Object lock = new Object[0];
+    private final ReentrantLock lock = new ReentrantLock();
     private List<AutoCloseable> closeables = new ArrayList<>();
 
     @Override
     public void close() {
         List<AutoCloseable> copy = null;
-        synchronized (lock) {
+        lock.lock();
+        try {
             if (closeables != null) {
                 copy = closeables;
                 closeables = null;
             }
+        } finally {
+            lock.unlock();
         }
         if (copy != null) {
             closeAll(copy);
@@ -56,12 +60,15 @@ public class CompositeAutoCloseable implements UncheckedAutoCloseable {
     public <T extends AutoCloseable> T add(T closeable) {
         Objects.requireNonNull(closeable, "closeable");
         boolean alreadyClosed = false;
-        synchronized (lock) {
+        lock.lock();
+        try {
             if (closeables == null) {
                 alreadyClosed = true;
             } else {
                 closeables.add(closeable);
             }
+        } finally {
+            lock.unlock();
         }
         if (alreadyClosed) {
             closeOne(closeable);
@@ -24,7 +24,9 @@ package com.cadenzauk.core.reflect;
 
 import com.cadenzauk.core.function.Function1;
 import com.cadenzauk.core.function.FunctionOptional1;
+import com.cadenzauk.core.reflect.util.ClassUtil;
 import com.cadenzauk.core.reflect.util.MethodUtil;
+import com.cadenzauk.core.stream.StreamUtil;
 import com.google.common.reflect.TypeToken;
 
 import java.lang.annotation.Annotation;
@@ -32,8 +34,12 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
+import static com.cadenzauk.core.reflect.util.TypeUtil.actualTypeArgument;
+import static com.cadenzauk.core.reflect.util.TypeUtil.boxedType;
+
 public class MethodInfo<C, R> {
     private final TypeToken<C> declaringType;
     private final Method method;
@@ -93,4 +99,21 @@ public class MethodInfo<C, R> {
         Type argType = genericType.getActualTypeArguments()[0];
         return new MethodInfo<>(TypeToken.of((Class<C>) method.getDeclaringClass()), method, method.getReturnType(), (Class<F>) argType);
     }
+
+    @SuppressWarnings("unchecked")
+    public static <C, F> MethodInfo<C,F> of(Class<C> declaringClass, String getterName, Class<F> effectiveType) {
+        Method method = ClassUtil.superclasses(declaringClass)
+            .map(cls -> ClassUtil.declaredMethod(cls, getterName))
+            .flatMap(StreamUtil::of)
+            .findFirst()
+            .orElseThrow(() -> new NoSuchElementException("No getter called " + getterName + " in " + declaringClass));
+        Class<?> returnType = method.getReturnType();
+        Class<?> actualEffectiveType = returnType == Optional.class
+            ? actualTypeArgument((ParameterizedType) method.getGenericReturnType(), 0)
+            : returnType;
+        if (boxedType(actualEffectiveType) != boxedType(effectiveType)) {
+            throw new IllegalArgumentException("Getter " + method + " does not return a " + effectiveType);
+        }
+        return new MethodInfo<>(TypeToken.of((Class<C>) method.getDeclaringClass()), method, returnType, (Class<F>) actualEffectiveType);
+    }
 }
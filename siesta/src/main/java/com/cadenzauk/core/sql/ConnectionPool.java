@@ -0,0 +1,473 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.core.sql;
+
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+public class ConnectionPool implements DataSource, AutoCloseable {
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private final DataSource dataSource;
+    private final int maxSize;
+    private final long connectionTimeoutNanos;
+    private final Optional<Long> maxLifetimeNanos;
+    private final long validateAfterIdleNanos;
+    private final int validationTimeoutSeconds;
+    private final Optional<Long> leakDetectionThresholdNanos;
+    private final Optional<ScheduledExecutorService> leakDetector;
+    private final List<Entry> entries = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Entry> lastUsed = new ThreadLocal<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final AtomicLong releaseCount = new AtomicLong();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private volatile boolean closed;
+
+    private ConnectionPool(Builder builder) {
+        dataSource = builder.dataSource;
+        maxSize = builder.maxSize;
+        connectionTimeoutNanos = builder.connectionTimeout.toNanos();
+        maxLifetimeNanos = builder.maxLifetime.map(Duration::toNanos);
+        validateAfterIdleNanos = builder.validateAfterIdle.toNanos();
+        validationTimeoutSeconds = (int) Math.max(1L, builder.validationTimeout.plusNanos(999_999_999L).getSeconds());
+        leakDetectionThresholdNanos = builder.leakDetectionThreshold.map(Duration::toNanos);
+        leakDetector = leakDetectionThresholdNanos.map(t -> Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-leak-detector");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public ConnectionPoolMetrics metrics() {
+        int active = 0;
+        int idle = 0;
+        for (Entry entry : entries) {
+            int state = entry.state.get();
+            if (state == Entry.IN_USE) {
+                active++;
+            } else if (state == Entry.IDLE) {
+                idle++;
+            }
+        }
+        return new ConnectionPoolMetrics(
+            active,
+            idle,
+            waiters.get(),
+            borrowCount.sum(),
+            Duration.ofNanos(waitNanos.sum()),
+            Duration.ofNanos(maxWaitNanos.get()),
+            timeoutCount.sum(),
+            leakCount.sum());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Entry entry = tryBorrow();
+        if (entry == null) {
+            entry = await(start + connectionTimeoutNanos);
+        }
+        recordWait(System.nanoTime() - start);
+        return lease(entry);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("A connection pool only hands out connections for its configured user.");
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return dataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || dataSource.isWrapperFor(iface);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        dataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        dataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return dataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return dataSource.getParentLogger();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        entries.stream()
+            .filter(e -> e.state.compareAndSet(Entry.IDLE, Entry.RETIRED))
+            .forEach(this::discard);
+        signalWaiters();
+        leakDetector.ifPresent(ScheduledExecutorService::shutdownNow);
+    }
+
+    private Entry tryBorrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection pool has been closed.");
+        }
+        Entry last = lastUsed.get();
+        if (last != null && claim(last)) {
+            return last;
+        }
+        for (Entry entry : entries) {
+            if (claim(entry)) {
+                return entry;
+            }
+        }
+        return tryCreate();
+    }
+
+    private Entry await(long deadline) throws SQLException {
+        waiters.incrementAndGet();
+        try {
+            while (true) {
+                long released = releaseCount.get();
+                Entry entry = tryBorrow();
+                if (entry != null) {
+                    return entry;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeoutCount.increment();
+                    throw new SQLTransientConnectionException("Timed out waiting for a connection, " + metrics());
+                }
+                lock.lock();
+                try {
+                    if (releaseCount.get() == released) {
+                        available.awaitNanos(remaining);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a connection.", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private boolean claim(Entry entry) {
+        if (!entry.state.compareAndSet(Entry.IDLE, Entry.IN_USE)) {
+            return false;
+        }
+        if (isAlive(entry)) {
+            return true;
+        }
+        retire(entry);
+        return false;
+    }
+
+    private Entry tryCreate() throws SQLException {
+        int current;
+        while ((current = size.get()) < maxSize) {
+            if (size.compareAndSet(current, current + 1)) {
+                try {
+                    Entry entry = new Entry(dataSource.getConnection());
+                    entries.add(entry);
+                    return entry;
+                } catch (SQLException | RuntimeException e) {
+                    size.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean isAlive(Entry entry) {
+        long now = System.nanoTime();
+        if (isExpired(entry, now)) {
+            return false;
+        }
+        if (now - entry.lastReturned < validateAfterIdleNanos) {
+            return true;
+        }
+        try {
+            return entry.connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            LOG.debug("Validation of pooled connection failed", e);
+            return false;
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return maxLifetimeNanos.map(max -> now - entry.created >= max).orElse(false);
+    }
+
+    private Connection lease(Entry entry) {
+        lastUsed.set(entry);
+        entry.leakTask = leakDetector.map(detector -> {
+            Exception borrowedAt = new Exception("Connection borrowed here");
+            return detector.schedule(() -> reportLeak(borrowedAt), leakDetectionThresholdNanos.get(), TimeUnit.NANOSECONDS);
+        });
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            new LeasedConnection(entry));
+    }
+
+    private void release(Entry entry) {
+        entry.leakTask.ifPresent(task -> task.cancel(false));
+        entry.leakTask = Optional.empty();
+        if (closed || isExpired(entry, System.nanoTime()) || !reset(entry.connection)) {
+            retire(entry);
+            return;
+        }
+        entry.lastReturned = System.nanoTime();
+        entry.state.set(Entry.IDLE);
+        signalWaiters();
+    }
+
+    private void signalWaiters() {
+        releaseCount.incrementAndGet();
+        if (waiters.get() > 0) {
+            lock.lock();
+            try {
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean reset(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            LOG.debug("Reset of pooled connection failed", e);
+            return false;
+        }
+    }
+
+    private void retire(Entry entry) {
+        entry.state.set(Entry.RETIRED);
+        discard(entry);
+        signalWaiters();
+    }
+
+    private void discard(Entry entry) {
+        if (entries.remove(entry)) {
+            size.decrementAndGet();
+        }
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            LOG.debug("Close of pooled connection failed", e);
+        }
+    }
+
+    private void reportLeak(Exception borrowedAt) {
+        leakCount.increment();
+        LOG.warn("A pooled connection has been in use for longer than the leak detection threshold", borrowedAt);
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.increment();
+        waitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public static Builder newBuilder(DataSource dataSource) {
+        return new Builder(dataSource);
+    }
+
+    private static final class Entry {
+        private static final int IDLE = 0;
+        private static final int IN_USE = 1;
+        private static final int RETIRED = 2;
+
+        private final Connection connection;
+        private final long created = System.nanoTime();
+        private final AtomicInteger state = new AtomicInteger(IN_USE);
+        private volatile long lastReturned = created;
+        private volatile Optional<ScheduledFuture<?>> leakTask = Optional.empty();
+
+        private Entry(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private final class LeasedConnection implements InvocationHandler {
+        private final Entry entry;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        private LeasedConnection(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    if (returned.get()) {
+                        return true;
+                    }
+                    break;
+                case "isValid":
+                    if (returned.get()) {
+                        return false;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled(" + entry.connection + ")";
+                default:
+                    break;
+            }
+            if (returned.get()) {
+                throw new SQLException("The connection has already been returned to the pool.");
+            }
+            try {
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    public static final class Builder {
+        private final DataSource dataSource;
+        private int maxSize = 10;
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+        private Optional<Duration> maxLifetime = Optional.of(Duration.ofMinutes(30));
+        private Duration validateAfterIdle = Duration.ofMillis(500);
+        private Duration validationTimeout = Duration.ofSeconds(5);
+        private Optional<Duration> leakDetectionThreshold = Optional.empty();
+
+        private Builder(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        public Builder maxSize(int val) {
+            if (val <= 0) {
+                throw new IllegalArgumentException("The maximum pool size must be positive.");
+            }
+            maxSize = val;
+            return this;
+        }
+
+        public Builder connectionTimeout(Duration val) {
+            connectionTimeout = val;
+            return this;
+        }
+
+        public Builder maxLifetime(Duration val) {
+            maxLifetime = Optional.of(val);
+            return this;
+        }
+
+        public Builder unlimitedLifetime() {
+            maxLifetime = Optional.empty();
+            return this;
+        }
+
+        public Builder validateAfterIdle(Duration val) {
+            validateAfterIdle = val;
+            return this;
+        }
+
+        public Builder validationTimeout(Duration val) {
+            validationTimeout = val;
+            return this;
+        }
+
+        public Builder leakDetectionThreshold(Duration val) {
+            leakDetectionThreshold = Optional.of(val);
+            return this;
+        }
+
+        public ConnectionPool build() {
+            return new ConnectionPool(this);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.core.sql;
+
+import java.time.Duration;
+
+public final class ConnectionPoolMetrics {
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final long borrowCount;
+    private final Duration totalWait;
+    private final Duration maxWait;
+    private final long timeoutCount;
+    private final long leakCount;
+
+    ConnectionPoolMetrics(int active, int idle, int waiting, long borrowCount, Duration totalWait, Duration maxWait, long timeoutCount, long leakCount) {
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.borrowCount = borrowCount;
+        this.totalWait = totalWait;
+        this.maxWait = maxWait;
+        this.timeoutCount = timeoutCount;
+        this.leakCount = leakCount;
+    }
+
+    public int active() {
+        return active;
+    }
+
+    public int idle() {
+        return idle;
+    }
+
+    public int total() {
+        return active + idle;
+    }
+
+    public int waiting() {
+        return waiting;
+    }
+
+    public long borrowCount() {
+        return borrowCount;
+    }
+
+    public Duration totalWait() {
+        return totalWait;
+    }
+
+    public Duration averageWait() {
+        return borrowCount == 0 ? Duration.ZERO : totalWait.dividedBy(borrowCount);
+    }
+
+    public Duration maxWait() {
+        return maxWait;
+    }
+
+    public long timeoutCount() {
+        return timeoutCount;
+    }
+
+    public long leakCount() {
+        return leakCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolMetrics{" +
+            "active=" + active +
+            ", idle=" + idle +
+            ", waiting=" + waiting +
+            ", borrowCount=" + borrowCount +
+            ", averageWait=" + averageWait() +
+            ", maxWait=" + maxWait +
+            ", timeoutCount=" + timeoutCount +
+            ", leakCount=" + leakCount +
+            '}';
+    }
+}
@@ -30,6 +30,8 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 
 public class ConnectionUtil extends UtilityClass {
@@ -59,6 +61,32 @@ public class ConnectionUtil extends UtilityClass {
         }
     }
 
+    public static Savepoint setSavepoint(Connection connection) {
+        try {
+            return connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new RuntimeSqlException(e);
+        }
+    }
+
+    public static void rollback(Connection connection, Savepoint savepoint) {
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            throw new RuntimeSqlException(e);
+        }
+    }
+
+    public static void releaseSavepoint(Connection connection, Savepoint savepoint) {
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLFeatureNotSupportedException e) {
+            LOG.debug("Driver cannot release savepoints, leaving it to the end of the transaction", e);
+        } catch (SQLException e) {
+            throw new RuntimeSqlException(e);
+        }
+    }
+
     public static boolean execute(Connection connection, String sql) {
         try (Statement statement = connection.createStatement()) {
             LOG.debug(sql);
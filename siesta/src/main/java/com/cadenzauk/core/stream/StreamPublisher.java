@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.core.stream;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class StreamPublisher<T> implements Publisher<T> {
+    private final Supplier<Stream<T>> source;
+    private final Executor executor;
+    private final int batchSize;
+
+    public StreamPublisher(Supplier<Stream<T>> source, Executor executor, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+        this.source = source;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        StreamSubscription subscription = new StreamSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private class StreamSubscription implements Subscription, Runnable {
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private volatile IllegalArgumentException invalidRequest;
+        private Stream<T> stream;
+        private Iterator<T> iterator;
+        private boolean done;
+
+        private StreamSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested " + n + " rows; requests must be positive.");
+                cancelled.set(true);
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled.set(true);
+            schedule();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = pending.get();
+            boolean more = false;
+            while (true) {
+                if (!done) {
+                    more = drain();
+                }
+                missed = pending.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+            if (more && !done) {
+                schedule();
+            }
+        }
+
+        private boolean drain() {
+            try {
+                if (cancelled.get()) {
+                    stop();
+                    return false;
+                }
+                if (iterator == null) {
+                    stream = source.get();
+                    iterator = stream.iterator();
+                }
+                int emitted = 0;
+                while (emitted < batchSize && demand.get() > 0 && !cancelled.get()) {
+                    if (!iterator.hasNext()) {
+                        finish();
+                        subscriber.onComplete();
+                        return false;
+                    }
+                    subscriber.onNext(iterator.next());
+                    demand.decrementAndGet();
+                    emitted++;
+                }
+                if (cancelled.get()) {
+                    stop();
+                    return false;
+                }
+                return demand.get() > 0;
+            } catch (RuntimeException e) {
+                try {
+                    finish();
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                subscriber.onError(e);
+                return false;
+            }
+        }
+
+        private void stop() {
+            finish();
+            if (invalidRequest != null) {
+                subscriber.onError(invalidRequest);
+            }
+        }
+
+        private void finish() {
+            done = true;
+            Stream<T> toClose = stream;
+            stream = null;
+            if (toClose != null) {
+                toClose.close();
+            }
+        }
+    }
+}
@@ -24,11 +24,72 @@ package com.cadenzauk.core.stream;
 
 import com.cadenzauk.core.util.UtilityClass;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public final class StreamUtil extends UtilityClass {
     public static <T> Stream<T> of(Optional<T> opt) {
         return opt.map(Stream::of).orElseGet(Stream::empty);
     }
+
+    public static <T, K> Stream<List<T>> groupAdjacent(Stream<T> stream, Function<? super T,? extends K> key) {
+        Iterator<T> iterator = stream.iterator();
+        Spliterator<List<T>> groups = new Spliterators.AbstractSpliterator<List<T>>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private boolean pending;
+            private T next;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super List<T>> action) {
+                if (!pending && !advance()) {
+                    return false;
+                }
+                K groupKey = key.apply(next);
+                List<T> group = new ArrayList<>();
+                do {
+                    group.add(next);
+                } while (advance() && Objects.equals(groupKey, key.apply(next)));
+                action.accept(group);
+                return true;
+            }
+
+            private boolean advance() {
+                pending = iterator.hasNext();
+                next = pending ? iterator.next() : null;
+                return pending;
+            }
+        };
+        return StreamSupport.stream(groups, false).onClose(stream::close);
+    }
+
+    public static <T> Stream<T> whenDone(Stream<T> stream, Runnable action) {
+        AtomicBoolean done = new AtomicBoolean();
+        Runnable once = () -> {
+            if (done.compareAndSet(false, true)) {
+                action.run();
+            }
+        };
+        Iterator<T> iterator = stream.iterator();
+        Spliterator<T> items = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> consumer) {
+                if (!iterator.hasNext()) {
+                    once.run();
+                    return false;
+                }
+                consumer.accept(iterator.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(items, false).onClose(stream::close).onClose(once);
+    }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.cadenzauk.core.stream.StreamUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+public class Aggregate<T, E> {
+    private final Function<T,E> entity;
+    private final Function<E,?> key;
+    private final List<Child<T,E,?>> children;
+
+    private Aggregate(Builder<T,E> builder) {
+        entity = builder.entity;
+        key = builder.key;
+        children = new ArrayList<>(builder.children);
+    }
+
+    public Stream<E> assemble(Stream<T> rows) {
+        return StreamUtil.groupAdjacent(rows, row -> key.apply(entity.apply(row)))
+            .map(this::build);
+    }
+
+    private List<E> distinct(List<T> rows) {
+        Map<Object,List<T>> rowsByKey = new LinkedHashMap<>();
+        rows.forEach(row -> {
+            E value = entity.apply(row);
+            if (value != null) {
+                rowsByKey.computeIfAbsent(key.apply(value), k -> new ArrayList<>()).add(row);
+            }
+        });
+        return rowsByKey.values().stream()
+            .map(this::build)
+            .collect(toList());
+    }
+
+    private E build(List<T> rows) {
+        E result = entity.apply(rows.get(0));
+        for (Child<T,E,?> child : children) {
+            result = child.attach(result, rows);
+        }
+        return result;
+    }
+
+    public static <T, E> Builder<T,E> newBuilder(Function<T,E> entity, Function<E,?> key) {
+        return new Builder<>(entity, key);
+    }
+
+    private static class Child<T, E, C> {
+        private final Aggregate<T,C> aggregate;
+        private final BiFunction<E,List<C>,E> attach;
+
+        private Child(Aggregate<T,C> aggregate, BiFunction<E,List<C>,E> attach) {
+            this.aggregate = aggregate;
+            this.attach = attach;
+        }
+
+        private E attach(E parent, List<T> rows) {
+            return attach.apply(parent, aggregate.distinct(rows));
+        }
+    }
+
+    public static final class Builder<T, E> {
+        private final Function<T,E> entity;
+        private final Function<E,?> key;
+        private final List<Child<T,E,?>> children = new ArrayList<>();
+
+        private Builder(Function<T,E> entity, Function<E,?> key) {
+            this.entity = entity;
+            this.key = key;
+        }
+
+        public <C> Builder<T,E> child(Aggregate<T,C> val, BiFunction<E,List<C>,E> attach) {
+            children.add(new Child<>(val, attach));
+            return this;
+        }
+
+        public Aggregate<T,E> build() {
+            return new Aggregate<>(this);
+        }
+    }
+}
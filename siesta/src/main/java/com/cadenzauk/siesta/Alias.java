@@ -26,22 +26,21 @@ import com.cadenzauk.core.function.Function1;
 import com.cadenzauk.core.function.FunctionOptional1;
 import com.cadenzauk.core.reflect.MethodInfo;
 import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.core.stream.StreamUtil;
 import com.cadenzauk.siesta.catalog.Column;
 import com.cadenzauk.siesta.catalog.Table;
 import com.cadenzauk.siesta.grammar.expression.BooleanExpression;
 import com.cadenzauk.siesta.grammar.expression.ExpressionBuilder;
 import com.cadenzauk.siesta.grammar.expression.TypedExpression;
 import com.google.common.reflect.TypeToken;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 
-import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 public class Alias<R> {
     private final Table<R> table;
     private final Optional<String> aliasName;
+    private int hash;
 
     protected Alias(Table<R> table, Optional<String> aliasName) {
         this.table = table;
@@ -56,18 +55,18 @@ public class Alias<R> {
 
         Alias<?> alias = (Alias<?>) o;
 
-        return new EqualsBuilder()
-            .append(table.qualifiedName(), alias.table.qualifiedName())
-            .append(aliasName, alias.aliasName)
-            .isEquals();
+        return (table == alias.table || table.qualifiedName().equals(alias.table.qualifiedName()))
+            && aliasName.equals(alias.aliasName);
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-            .append(table.qualifiedName())
-            .append(aliasName)
-            .toHashCode();
+        int h = hash;
+        if (h == 0) {
+            h = 31 * table.qualifiedName().hashCode() + aliasName.hashCode();
+            hash = h;
+        }
+        return h;
     }
 
     public TypeToken<R> type() {
@@ -83,16 +82,28 @@ public class Alias<R> {
             return table.database().dialect().dual();
         }
         return aliasName
-            .map(a -> String.format("%s %s", table.qualifiedName(), a))
+            .map(a -> table.qualifiedName() + " " + a)
             .orElseGet(table::qualifiedName);
     }
 
     public String inSelectClauseSql(String columnName) {
-        return String.format("%s.%s", aliasName.orElseGet(table::qualifiedName), columnName);
+        return columnQualifier() + "." + columnName;
+    }
+
+    public void renderInSelectClause(SqlBuilder builder, String columnName) {
+        builder.append(columnQualifier()).append('.').append(columnName);
     }
 
     public String inSelectClauseLabel(String columnName) {
-        return String.format("%s_%s", columnLabelPrefix(), columnName);
+        return columnLabelPrefix() + "_" + columnName;
+    }
+
+    public void renderSelectClauseLabel(SqlBuilder builder, String columnName) {
+        builder.append(columnLabelPrefix()).append('_').append(columnName);
+    }
+
+    protected String columnQualifier() {
+        return aliasName.orElseGet(table::qualifiedName);
     }
 
     protected String columnLabelPrefix() {
@@ -127,23 +138,31 @@ public class Alias<R> {
         return table.dynamicRowMapper(columnLabelPrefix() + "_");
     }
 
-    @SuppressWarnings("unchecked")
     <R2> Stream<Alias<R2>> as(Class<R2> requiredRowClass, String requiredAlias) {
-        if (Objects.equals(Optional.of(requiredAlias), aliasName)) {
+        return StreamUtil.of(findAs(requiredRowClass, requiredAlias));
+    }
+
+    <R2> Stream<Alias<R2>> as(Class<R2> requiredRowClass) {
+        return StreamUtil.of(findAs(requiredRowClass));
+    }
+
+    @SuppressWarnings("unchecked")
+    <R2> Optional<Alias<R2>> findAs(Class<R2> requiredRowClass, String requiredAlias) {
+        if (aliasName.isPresent() && aliasName.get().equals(requiredAlias)) {
             if (requiredRowClass.isAssignableFrom(table.rowType().getRawType())) {
-                return Stream.of((Alias<R2>) this);
+                return Optional.of((Alias<R2>) this);
             }
             throw new IllegalArgumentException("Alias " + columnLabelPrefix() + " is an alias for " + table().rowType() + " and not " + requiredRowClass);
         }
-        return Stream.empty();
+        return Optional.empty();
     }
 
     @SuppressWarnings("unchecked")
-    <R2> Stream<Alias<R2>> as(Class<R2> requiredRowClass) {
+    <R2> Optional<Alias<R2>> findAs(Class<R2> requiredRowClass) {
         if (requiredRowClass.isAssignableFrom(table.rowType().getRawType())) {
-            return Stream.of((Alias<R2>) this);
+            return Optional.of((Alias<R2>) this);
         }
-        return Stream.empty();
+        return Optional.empty();
     }
 
     public static <U> Alias<U> of(Table<U> table) {
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.cadenzauk.core.lang.UncheckedAutoCloseable;
+import com.cadenzauk.core.sql.RuntimeSqlException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+public final class BlobStream implements UncheckedAutoCloseable {
+    private final Optional<Blob> locator;
+    private final OptionalLong length;
+    private InputStream inputStream;
+
+    private BlobStream(InputStream inputStream, OptionalLong length) {
+        Objects.requireNonNull(inputStream, "inputStream");
+        this.locator = Optional.empty();
+        this.inputStream = inputStream;
+        this.length = length;
+    }
+
+    private BlobStream(Blob blob) {
+        Objects.requireNonNull(blob, "blob");
+        this.locator = Optional.of(blob);
+        this.length = OptionalLong.empty();
+    }
+
+    public synchronized InputStream inputStream() {
+        if (inputStream == null) {
+            try {
+                inputStream = locator.get().getBinaryStream();
+            } catch (SQLException e) {
+                throw new RuntimeSqlException(e);
+            }
+        }
+        return inputStream;
+    }
+
+    public ReadableByteChannel channel() {
+        return Channels.newChannel(inputStream());
+    }
+
+    public OptionalLong length() {
+        if (!locator.isPresent()) {
+            return length;
+        }
+        try {
+            return OptionalLong.of(locator.get().length());
+        } catch (SQLException e) {
+            throw new RuntimeSqlException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (inputStream != null) {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            free();
+        }
+    }
+
+    private void free() {
+        if (locator.isPresent()) {
+            try {
+                locator.get().free();
+            } catch (SQLException e) {
+                throw new RuntimeSqlException(e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BlobStream" + (length.isPresent() ? "(" + length.getAsLong() + " bytes)" : "");
+    }
+
+    public static BlobStream of(InputStream inputStream) {
+        return new BlobStream(inputStream, OptionalLong.empty());
+    }
+
+    public static BlobStream of(InputStream inputStream, long length) {
+        return new BlobStream(inputStream, OptionalLong.of(length));
+    }
+
+    public static BlobStream of(byte[] bytes) {
+        return new BlobStream(new ByteArrayInputStream(bytes), OptionalLong.of(bytes.length));
+    }
+
+    public static BlobStream of(Blob blob) {
+        return new BlobStream(blob);
+    }
+}
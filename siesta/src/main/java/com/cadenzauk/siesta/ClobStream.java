@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.cadenzauk.core.lang.UncheckedAutoCloseable;
+import com.cadenzauk.core.sql.RuntimeSqlException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+public final class ClobStream implements UncheckedAutoCloseable {
+    private final Optional<Clob> locator;
+    private final OptionalLong length;
+    private Reader reader;
+
+    private ClobStream(Reader reader, OptionalLong length) {
+        Objects.requireNonNull(reader, "reader");
+        this.locator = Optional.empty();
+        this.reader = reader;
+        this.length = length;
+    }
+
+    private ClobStream(Clob clob) {
+        Objects.requireNonNull(clob, "clob");
+        this.locator = Optional.of(clob);
+        this.length = OptionalLong.empty();
+    }
+
+    public synchronized Reader reader() {
+        if (reader == null) {
+            try {
+                reader = locator.get().getCharacterStream();
+            } catch (SQLException e) {
+                throw new RuntimeSqlException(e);
+            }
+        }
+        return reader;
+    }
+
+    public OptionalLong length() {
+        if (!locator.isPresent()) {
+            return length;
+        }
+        try {
+            return OptionalLong.of(locator.get().length());
+        } catch (SQLException e) {
+            throw new RuntimeSqlException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (reader != null) {
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            free();
+        }
+    }
+
+    private void free() {
+        if (locator.isPresent()) {
+            try {
+                locator.get().free();
+            } catch (SQLException e) {
+                throw new RuntimeSqlException(e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ClobStream" + (length.isPresent() ? "(" + length.getAsLong() + " chars)" : "");
+    }
+
+    public static ClobStream of(Reader reader) {
+        return new ClobStream(reader, OptionalLong.empty());
+    }
+
+    public static ClobStream of(Reader reader, long length) {
+        return new ClobStream(reader, OptionalLong.of(length));
+    }
+
+    public static ClobStream of(String value) {
+        return new ClobStream(new StringReader(value), OptionalLong.of(value.length()));
+    }
+
+    public static ClobStream of(Clob clob) {
+        return new ClobStream(clob);
+    }
+}
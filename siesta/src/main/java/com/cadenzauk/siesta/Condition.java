@@ -22,6 +22,7 @@
 
 package com.cadenzauk.siesta;
 
+import java.util.Optional;
 import java.util.stream.Stream;
 
 @SuppressWarnings("unused")
@@ -29,4 +30,12 @@ public interface Condition<T> {
     String sql(Scope scope);
 
     Stream<Object> args(Scope scope);
+
+    default void render(SqlBuilder builder, Scope scope) {
+        builder.append(sql(scope)).args(args(scope));
+    }
+
+    default Optional<T> equalityValue() {
+        return Optional.empty();
+    }
 }
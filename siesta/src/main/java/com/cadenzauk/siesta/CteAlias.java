@@ -34,10 +34,9 @@ public class CteAlias<RT> extends Alias<RT> {
         this.commonTableExpression = commonTableExpression;
     }
 
-
     @Override
-    public String inSelectClauseSql(String columnName) {
-        return String.format("%s.%s", aliasName().orElseGet(commonTableExpression::name), columnName);
+    protected String columnQualifier() {
+        return aliasName().orElseGet(commonTableExpression::name);
     }
 
     @Override
@@ -36,6 +36,8 @@ import java.time.ZonedDateTime;
 import java.util.Optional;
 
 public class DataType<T> {
+    public static final DataType<BlobStream> BLOB_STREAM = new DataType<>(BlobStream.class, DbTypeId.BLOB);
+    public static final DataType<ClobStream> CLOB_STREAM = new DataType<>(ClobStream.class, DbTypeId.CLOB);
     public static final DataType<BigDecimal> BIG_DECIMAL = new DataType<>(BigDecimal.class, DbTypeId.DECIMAL);
     public static final DataType<Byte> BYTE = new DataType<>(Byte.class, DbTypeId.TINYINT);
     public static final DataType<byte[]> BYTE_ARRAY = new DataType<>(byte[].class, DbTypeId.VARBINARY);
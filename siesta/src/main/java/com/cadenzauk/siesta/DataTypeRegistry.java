@@ -37,8 +37,10 @@ public class DataTypeRegistry {
 
     public DataTypeRegistry() {
         register(DataType.BIG_DECIMAL);
+        register(DataType.BLOB_STREAM);
         register(DataType.BYTE);
         register(DataType.BYTE_ARRAY);
+        register(DataType.CLOB_STREAM);
         register(DataType.DOUBLE);
         register(DataType.FLOAT);
         register(DataType.INTEGER);
@@ -40,23 +40,33 @@ import com.cadenzauk.siesta.grammar.select.CommonTableExpression;
 import com.cadenzauk.siesta.grammar.select.CommonTableExpressionBuilder;
 import com.cadenzauk.siesta.grammar.select.ExpectingJoin1;
 import com.cadenzauk.siesta.grammar.select.InProjectionExpectingComma1;
+import com.cadenzauk.siesta.grammar.select.RecursiveCommonTableExpressionBuilder;
 import com.cadenzauk.siesta.grammar.select.Select;
 import com.cadenzauk.siesta.name.UppercaseUnderscores;
 import com.cadenzauk.siesta.type.DbType;
 import com.cadenzauk.siesta.type.DbTypeId;
 import com.cadenzauk.siesta.type.EnumByName;
 import com.google.common.reflect.TypeToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import static java.util.stream.Collectors.toList;
+
 public class Database {
+    private static final Logger LOG = LoggerFactory.getLogger(Database.class);
     private final Map<TypeToken<?>,Table<?>> metadataCache = new ConcurrentHashMap<>();
     private final DataTypeRegistry dataTypeRegistry;
     private final String defaultCatalog;
@@ -65,6 +75,9 @@ public class Database {
     private final Dialect dialect;
     private final Optional<SqlExecutor> defaultSqlExecutor;
     private final ZoneId databaseTimeZone;
+    private final boolean canonicalSql;
+    private final SqlShapes sqlShapes;
+    private volatile WarmUpReport warmUpReport = WarmUpReport.empty();
 
     private Database(Builder builder) {
         dataTypeRegistry = new DataTypeRegistry();
@@ -74,6 +87,8 @@ public class Database {
         dialect = builder.dialect();
         defaultSqlExecutor = builder.defaultSqlExecutor;
         databaseTimeZone = builder.databaseTimeZone;
+        canonicalSql = builder.canonicalSql;
+        sqlShapes = new SqlShapes(builder.trackSqlShapes, builder.sqlShapeCapacity);
 
         builder.customizations.forEach(c -> c.accept(dialect));
         builder.dataTypes.forEach(d -> d.accept(dataTypeRegistry));
@@ -123,6 +138,14 @@ public class Database {
         return table(rowType, Function.identity());
     }
 
+    public boolean canonicalSql() {
+        return canonicalSql;
+    }
+
+    public SqlShapes sqlShapes() {
+        return sqlShapes;
+    }
+
     public <T> InProjectionExpectingComma1<T> select(TypedExpression<T> what) {
         return from(Dual.class).select(what);
     }
@@ -135,6 +158,31 @@ public class Database {
         return databaseTimeZone;
     }
 
+    public WarmUpReport warmUpReport() {
+        return warmUpReport;
+    }
+
+    private void warmUp(List<Class<?>> rowClasses, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        List<Duration> durations = pool.submit(() -> rowClasses.parallelStream()
+            .map(this::timeWarmUp)
+            .collect(toList()))
+            .join();
+        Map<TypeToken<?>,Duration> tables = new LinkedHashMap<>();
+        for (int i = 0; i < rowClasses.size(); i++) {
+            tables.put(TypeToken.of(rowClasses.get(i)), durations.get(i));
+        }
+        WarmUpReport report = new WarmUpReport(tables, Duration.ofNanos(System.nanoTime() - start));
+        LOG.info("{}", report);
+        warmUpReport = report;
+    }
+
+    private Duration timeWarmUp(Class<?> rowClass) {
+        long start = System.nanoTime();
+        table(rowClass).warmUp();
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
     @SuppressWarnings("unchecked")
     private <R, B> Table<R> table(TypeToken<R> rowType, Function<Table.Builder<R,R>,Table.Builder<R,B>> init) {
         return (Table<R>) metadataCache.computeIfAbsent(rowType, k -> {
@@ -248,10 +296,27 @@ public class Database {
         table(rowClass).insert(transaction, rows);
     }
 
+    public <R> List<R> fetchChildren(List<R> parents) {
+        return fetchChildren(getDefaultSqlExecutor(), parents);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <R> List<R> fetchChildren(SqlExecutor sqlExecutor, List<R> parents) {
+        if (parents.isEmpty()) {
+            return parents;
+        }
+        Class<R> rowClass = (Class<R>) parents.get(0).getClass();
+        return table(rowClass).fetchChildren(sqlExecutor, parents);
+    }
+
     public CommonTableExpressionBuilder with(String name) {
         return new CommonTableExpressionBuilder(this, name);
     }
 
+    public RecursiveCommonTableExpressionBuilder withRecursive(String name) {
+        return new RecursiveCommonTableExpressionBuilder(this, name);
+    }
+
     public <R> ExpectingJoin1<R> from(Class<R> rowClass) {
         return Select.from(this, table(rowClass));
     }
@@ -307,9 +372,14 @@ public class Database {
         private Optional<Dialect> dialect = Optional.empty();
         private Optional<SqlExecutor> defaultSqlExecutor = Optional.empty();
         private ZoneId databaseTimeZone = ZoneId.systemDefault();
+        private boolean canonicalSql = false;
+        private boolean trackSqlShapes = false;
+        private int sqlShapeCapacity = SqlShapes.DEFAULT_CAPACITY;
         private final List<Consumer<Dialect>> customizations = new ArrayList<>();
         private final List<Consumer<DataTypeRegistry>> dataTypes = new ArrayList<>();
         private final List<Consumer<Database>> tables = new ArrayList<>();
+        private final List<Class<?>> warmUp = new ArrayList<>();
+        private Optional<ForkJoinPool> warmUpPool = Optional.empty();
 
         private Builder() {
         }
@@ -344,6 +414,21 @@ public class Database {
             return this;
         }
 
+        public Builder canonicalSql(boolean val) {
+            canonicalSql = val;
+            return this;
+        }
+
+        public Builder trackSqlShapes(boolean val) {
+            trackSqlShapes = val;
+            return this;
+        }
+
+        public Builder sqlShapeCapacity(int val) {
+            sqlShapeCapacity = val;
+            return this;
+        }
+
         public <T> Builder function(FunctionName functionName, FunctionSpec functionSpec) {
             customizations.add(dialect -> dialect.registerFunction(functionName, functionSpec));
             return this;
@@ -364,6 +449,21 @@ public class Database {
             return this;
         }
 
+        public Builder warmUp(Class<?>... rowClasses) {
+            warmUp.addAll(Arrays.asList(rowClasses));
+            return this;
+        }
+
+        public Builder warmUp(Iterable<Class<?>> rowClasses) {
+            rowClasses.forEach(warmUp::add);
+            return this;
+        }
+
+        public Builder warmUpPool(ForkJoinPool val) {
+            warmUpPool = Optional.of(val);
+            return this;
+        }
+
         private Dialect dialect() {
             return dialect.orElseGet(this::detectDialect);
         }
@@ -375,7 +475,11 @@ public class Database {
         }
 
         public Database build() {
-            return new Database(this);
+            Database database = new Database(this);
+            if (!warmUp.isEmpty()) {
+                database.warmUp(warmUp, warmUpPool.orElseGet(ForkJoinPool::commonPool));
+            }
+            return database;
         }
     }
 }
@@ -27,6 +27,7 @@ import com.cadenzauk.siesta.dialect.function.FunctionSpec;
 import com.cadenzauk.siesta.type.DbTypeId;
 import com.cadenzauk.siesta.type.DbType;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -49,6 +50,12 @@ public interface Dialect {
 
     boolean supportsMultiInsert();
 
+    boolean supportsGroupingSets();
+
+    boolean prefersExistsToInSelect();
+
+    String withRecursive();
+
     String concat(Stream<String> sql);
 
     String fetchFirst(String sql, long n);
@@ -57,6 +64,21 @@ public interface Dialect {
 
     String isolationLevelSql(String sql, IsolationLevel level, Optional<LockLevel> keepLocks);
 
+    String isolationLevelSql(String sql, IsolationLevel level, Optional<LockLevel> keepLocks, LockWait lockWait);
+
+    String tableLockHints(Optional<LockLevel> keepLocks, LockWait lockWait);
+
+    boolean supportsFetchFirstWithLocks();
+
+    boolean serverSideCursorRequiresTransaction();
+
+    String selectHints(List<QueryHint> hints);
+
+    String queryOptions(String sql, List<QueryHint> hints, List<String> fromOrder);
+
     String nextFromSequence(String catalog, String schema, String sequenceName);
 
+    InListStrategy inListStrategy(int size);
+
+    int maxInListSize();
 }
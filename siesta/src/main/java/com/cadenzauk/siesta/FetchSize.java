@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import java.util.Optional;
+
+public class FetchSize {
+    public static final FetchSize DEFAULT = new FetchSize(0, Optional.empty());
+
+    private final int rows;
+    private final Optional<Long> targetBytes;
+
+    private FetchSize(int rows, Optional<Long> targetBytes) {
+        this.rows = rows;
+        this.targetBytes = targetBytes;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public Optional<Long> targetBytes() {
+        return targetBytes;
+    }
+
+    public boolean isAdaptive() {
+        return targetBytes.isPresent();
+    }
+
+    @Override
+    public String toString() {
+        return targetBytes.map(b -> "adaptive(" + b + " bytes)").orElseGet(() -> rows + " rows");
+    }
+
+    public static FetchSize rows(int rows) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("The fetch size must be positive.");
+        }
+        return new FetchSize(rows, Optional.empty());
+    }
+
+    public static FetchSize adaptive(long targetBytes) {
+        if (targetBytes <= 0) {
+            throw new IllegalArgumentException("The target fetch size in bytes must be positive.");
+        }
+        return new FetchSize(0, Optional.of(targetBytes));
+    }
+}
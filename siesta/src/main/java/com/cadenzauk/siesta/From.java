@@ -27,14 +27,26 @@ import com.cadenzauk.siesta.grammar.expression.BooleanExpression;
 import java.util.stream.Stream;
 
 public abstract class From {
-    public abstract String sql(Scope scope);
+    public String sql(Scope scope) {
+        return SqlBuilder.sqlOf(this::render, scope);
+    }
+
+    public Stream<Object> args(Scope scope) {
+        return SqlBuilder.argsOf(this::render, scope);
+    }
+
+    public void render(SqlBuilder builder, Scope scope) {
+        render(builder, scope, "");
+    }
 
-    public abstract Stream<Object> args(Scope scope);
+    public abstract void render(SqlBuilder builder, Scope scope, String tableHints);
 
     public abstract void on(BooleanExpression expression);
 
     public abstract BooleanExpression on();
 
+    public abstract Stream<Alias<?>> aliases();
+
     private static class FromAlias extends From {
         private final Alias<?> alias;
 
@@ -43,15 +55,10 @@ public abstract class From {
         }
 
         @Override
-        public String sql(Scope scope) {
-            return scope.dialect().requiresFromDual() || !alias.isDual()
-                ? " from " + alias.inWhereClause()
-                : "";
-        }
-
-        @Override
-        public Stream<Object> args(Scope scope) {
-            return Stream.empty();
+        public void render(SqlBuilder builder, Scope scope, String tableHints) {
+            if (scope.dialect().requiresFromDual() || !alias.isDual()) {
+                builder.append(" from ").append(alias.inWhereClause()).append(tableHints);
+            }
         }
 
         @Override
@@ -63,6 +70,11 @@ public abstract class From {
         public BooleanExpression on() {
             return null;
         }
+
+        @Override
+        public Stream<Alias<?>> aliases() {
+            return Stream.of(alias);
+        }
     }
 
     private static class FromJoin extends From {
@@ -78,17 +90,15 @@ public abstract class From {
         }
 
         @Override
-        public String sql(Scope scope) {
-            return String.format("%s %s %s on %s",
-                lhs.sql(scope),
-                join.sql(),
-                next.inWhereClause(),
-                onClause.sql(scope));
-        }
-
-        @Override
-        public Stream<Object> args(Scope scope) {
-            return Stream.concat(lhs.args(scope), onClause.args(scope));
+        public void render(SqlBuilder builder, Scope scope, String tableHints) {
+            lhs.render(builder, scope, tableHints);
+            builder.append(' ')
+                .append(join.sql())
+                .append(' ')
+                .append(next.inWhereClause())
+                .append(tableHints)
+                .append(" on ");
+            onClause.render(builder, scope);
         }
 
         @Override
@@ -100,6 +110,11 @@ public abstract class From {
         public BooleanExpression on() {
             return onClause;
         }
+
+        @Override
+        public Stream<Alias<?>> aliases() {
+            return Stream.concat(lhs.aliases(), Stream.of(next));
+        }
     }
 
     public From join(JoinType join, Alias<?> next) {
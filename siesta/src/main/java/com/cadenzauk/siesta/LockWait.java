@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import java.util.Objects;
+import java.util.Optional;
+
+public class LockWait {
+    public enum Type {
+        WAIT,
+        NO_WAIT,
+        SKIP_LOCKED,
+        WAIT_SECONDS
+    }
+
+    public static final LockWait WAIT = new LockWait(Type.WAIT, Optional.empty());
+    public static final LockWait NO_WAIT = new LockWait(Type.NO_WAIT, Optional.empty());
+    public static final LockWait SKIP_LOCKED = new LockWait(Type.SKIP_LOCKED, Optional.empty());
+
+    private final Type type;
+    private final Optional<Integer> seconds;
+
+    private LockWait(Type type, Optional<Integer> seconds) {
+        this.type = type;
+        this.seconds = seconds;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public Optional<Integer> seconds() {
+        return seconds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LockWait lockWait = (LockWait) o;
+
+        return type == lockWait.type && seconds.equals(lockWait.seconds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, seconds);
+    }
+
+    @Override
+    public String toString() {
+        return seconds.map(s -> type + "(" + s + ")").orElseGet(type::toString);
+    }
+
+    public static LockWait seconds(int seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("The lock wait cannot be negative.");
+        }
+        return new LockWait(Type.WAIT_SECONDS, Optional.of(seconds));
+    }
+}
@@ -27,7 +27,10 @@ import com.cadenzauk.siesta.projection.AliasColumns;
 import com.cadenzauk.siesta.projection.ExpressionProjection;
 import com.cadenzauk.siesta.projection.ProjectionList;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.stream.Stream;
 
 public interface Projection {
@@ -35,8 +38,21 @@ public interface Projection {
 
     Stream<Object> args(Scope scope);
 
+    default void render(SqlBuilder builder, Scope scope) {
+        builder.append(sql(scope)).args(args(scope));
+    }
+
     String labelList(Scope scope);
 
+    Optional<String> labelOf(String sql, Scope scope);
+
+    default OptionalInt columnNumberOf(String sql, Scope scope) {
+        List<String> labels = Arrays.asList(labelList(scope).split(", "));
+        return labelOf(sql, scope)
+            .map(label -> OptionalInt.of(labels.indexOf(label) + 1))
+            .orElse(OptionalInt.empty());
+    }
+
     static <T> Projection of(TypedExpression<T> column) {
         return new ExpressionProjection<>(column, Optional.empty());
     }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class QueryHint {
+    public enum Type {
+        INDEX,
+        LEADING,
+        PARALLEL,
+        RECOMPILE,
+        OPTIMIZE_FOR_UNKNOWN
+    }
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$#@]*");
+
+    private final Type type;
+    private final List<String> arguments;
+
+    private QueryHint(Type type, List<String> arguments) {
+        this.type = type;
+        this.arguments = arguments;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    public List<String> arguments() {
+        return arguments;
+    }
+
+    public String argument(int index) {
+        return arguments.get(index);
+    }
+
+    @Override
+    public String toString() {
+        return type + arguments.toString();
+    }
+
+    public static QueryHint index(String aliasName, String indexName) {
+        return new QueryHint(Type.INDEX, ImmutableList.of(identifier(aliasName), identifier(indexName)));
+    }
+
+    public static QueryHint leading(String... aliasNames) {
+        if (aliasNames.length == 0) {
+            throw new IllegalArgumentException("At least one alias is required for a join order hint.");
+        }
+        Arrays.stream(aliasNames).forEach(QueryHint::identifier);
+        return new QueryHint(Type.LEADING, ImmutableList.copyOf(aliasNames));
+    }
+
+    public static QueryHint parallel(int degree) {
+        if (degree < 1) {
+            throw new IllegalArgumentException("The degree of parallelism must be positive.");
+        }
+        return new QueryHint(Type.PARALLEL, ImmutableList.of(Integer.toString(degree)));
+    }
+
+    public static QueryHint recompile() {
+        return new QueryHint(Type.RECOMPILE, ImmutableList.of());
+    }
+
+    public static QueryHint optimizeForUnknown() {
+        return new QueryHint(Type.OPTIMIZE_FOR_UNKNOWN, ImmutableList.of());
+    }
+
+    private static String identifier(String name) {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("'" + name + "' is not a valid identifier for a query hint.");
+        }
+        return name;
+    }
+}
@@ -24,31 +24,39 @@ package com.cadenzauk.siesta;
 
 import com.cadenzauk.core.sql.RowMapper;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.reflect.TypeToken;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
-
-import static java.util.stream.Collectors.toList;
+import java.util.stream.Stream;
 
 public class Scope {
     private final Optional<Scope> outer;
     private final List<Alias<?>> aliases;
     private final Database database;
+    private final Optional<Set<String>> rolledUp;
     private final AtomicLong labelCounter = new AtomicLong();
 
     public Scope(Database database, Alias<?>... aliases) {
         this.database = database;
         this.outer = Optional.empty();
         this.aliases = ImmutableList.copyOf(aliases);
+        this.rolledUp = Optional.empty();
     }
 
     private Scope(Scope outer, List<Alias<?>> aliases) {
+        this(outer, aliases, outer.rolledUp);
+    }
+
+    private Scope(Scope outer, List<Alias<?>> aliases, Optional<Set<String>> rolledUp) {
         this.database = outer.database;
         this.outer = Optional.of(outer);
         this.aliases = ImmutableList.copyOf(aliases);
+        this.rolledUp = rolledUp;
     }
 
     public Database database() {
@@ -60,22 +68,42 @@ public class Scope {
     }
 
     public <R> Alias<R> findAlias(Class<R> requiredRowClass, String requiredAlias) {
-        Optional<Alias<R>> found = aliases.stream().flatMap(a -> a.as(requiredRowClass, requiredAlias)).findFirst();
-        return found
-            .orElseGet(() -> outer.map(o -> o.findAlias(requiredRowClass, requiredAlias))
-                .orElseThrow(() -> new IllegalArgumentException("No such alias as " + requiredAlias + " in scope.")));
+        for (Alias<?> alias : aliases) {
+            Optional<Alias<R>> found = alias.findAs(requiredRowClass, requiredAlias);
+            if (found.isPresent()) {
+                return found.get();
+            }
+        }
+        return outer.map(o -> o.findAlias(requiredRowClass, requiredAlias))
+            .orElseThrow(() -> new IllegalArgumentException("No such alias as " + requiredAlias + " in scope."));
     }
 
     public <R> Alias<R> findAlias(Class<R> requiredRowClass) {
-        List<Alias<R>> found = aliases.stream().flatMap(a -> a.as(requiredRowClass)).collect(toList());
-        if (found.isEmpty()) {
+        Alias<R> found = null;
+        for (Alias<?> alias : aliases) {
+            Optional<Alias<R>> candidate = alias.findAs(requiredRowClass);
+            if (candidate.isPresent()) {
+                if (found != null) {
+                    throw new IllegalArgumentException("More than one alias for " + requiredRowClass + " in scope.");
+                }
+                found = candidate.get();
+            }
+        }
+        if (found == null) {
             return outer.map(o -> o.findAlias(requiredRowClass))
                 .orElseThrow(() -> new IllegalArgumentException("No alias for " + requiredRowClass + " in scope."));
         }
-        if (found.size() > 1) {
-            throw new IllegalArgumentException("More than one alias for " + requiredRowClass + " in scope.");
-        }
-        return found.get(0);
+        return found;
+    }
+
+    public <R> Stream<Alias<R>> aliasesOf(Class<R> requiredRowClass) {
+        Stream<Alias<R>> inner = aliases.stream()
+            .map(alias -> alias.findAs(requiredRowClass))
+            .filter(Optional::isPresent)
+            .map(Optional::get);
+        return outer
+            .map(o -> Stream.concat(inner, o.aliasesOf(requiredRowClass)))
+            .orElse(inner);
     }
 
     public <R> Scope plus(Alias<R> alias) {
@@ -88,6 +116,18 @@ public class Scope {
             .orElseGet(() ->new Scope(this, inner.aliases));
     }
 
+    public Scope rollingUp(Set<String> groupingSql) {
+        return new Scope(this, ImmutableList.of(), Optional.of(ImmutableSet.copyOf(groupingSql)));
+    }
+
+    public Optional<Set<String>> rolledUp() {
+        return rolledUp;
+    }
+
+    public boolean isRolledUp(String groupingSql) {
+        return rolledUp.filter(r -> r.contains(groupingSql)).isPresent();
+    }
+
     public Dialect dialect() {
         return database().dialect();
     }
@@ -96,6 +136,12 @@ public class Scope {
         return !outer.isPresent();
     }
 
+    public Scope labelScope() {
+        return outer
+            .map(Scope::labelScope)
+            .orElse(this);
+    }
+
     public long newLabel() {
         return outer
             .map(Scope::newLabel)
@@ -20,39 +20,29 @@
  * SOFTWARE.
  */
 
-package com.cadenzauk.siesta.grammar.expression.condition;
-
-import com.cadenzauk.siesta.Condition;
-import com.cadenzauk.siesta.DataType;
-import com.cadenzauk.siesta.Scope;
+package com.cadenzauk.siesta;
 
 import java.util.Arrays;
-import java.util.Optional;
-import java.util.stream.Stream;
 
-import static java.util.stream.Collectors.joining;
+public class SqlArray {
+    private final String typeName;
+    private final Object[] elements;
 
-public class InListCondition<T> implements Condition<T> {
-    private final String operator;
-    private final T[] values;
+    public SqlArray(String typeName, Object[] elements) {
+        this.typeName = typeName;
+        this.elements = elements;
+    }
 
-    public InListCondition(String operator, T[] values) {
-        this.operator = operator;
-        this.values = values;
+    public String typeName() {
+        return typeName;
     }
 
-    @Override
-    public String sql(Scope scope) {
-        return operator + " (" + Arrays.stream(values)
-            .map(x -> "?")
-            .collect(joining(", ")) + ")";
+    public Object[] elements() {
+        return elements;
     }
 
     @Override
-    public Stream<Object> args(Scope scope) {
-        DataType<T> dataType = scope.database().getDataTypeOf(values[0]);
-        return Arrays.stream(values)
-            .map(Optional::of)
-            .map(val -> dataType.toDatabase(scope.database(), val));
+    public String toString() {
+        return typeName + Arrays.toString(elements);
     }
 }
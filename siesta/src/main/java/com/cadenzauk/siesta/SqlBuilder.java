@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+public class SqlBuilder {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final StringBuilder sql;
+    private Object[] args;
+    private int argCount;
+
+    public SqlBuilder() {
+        this(256, 16);
+    }
+
+    public SqlBuilder(int sqlCapacity, int argCapacity) {
+        this.sql = new StringBuilder(sqlCapacity);
+        this.args = argCapacity == 0 ? NO_ARGS : new Object[argCapacity];
+    }
+
+    public SqlBuilder append(String text) {
+        sql.append(text);
+        return this;
+    }
+
+    public SqlBuilder append(char c) {
+        sql.append(c);
+        return this;
+    }
+
+    public SqlBuilder append(long n) {
+        sql.append(n);
+        return this;
+    }
+
+    public SqlBuilder arg(Object arg) {
+        if (argCount == args.length) {
+            args = Arrays.copyOf(args, Math.max(16, args.length * 2));
+        }
+        args[argCount++] = arg;
+        return this;
+    }
+
+    public SqlBuilder args(Stream<Object> values) {
+        values.forEachOrdered(this::arg);
+        return this;
+    }
+
+    public SqlBuilder ensureArgCapacity(int additional) {
+        int required = argCount + additional;
+        if (required > args.length) {
+            args = Arrays.copyOf(args, Math.max(required, args.length * 2));
+        }
+        return this;
+    }
+
+    public int length() {
+        return sql.length();
+    }
+
+    public SqlBuilder rewriteFrom(int start, UnaryOperator<String> rewrite) {
+        String rewritten = rewrite.apply(sql.substring(start));
+        sql.setLength(start);
+        sql.append(rewritten);
+        return this;
+    }
+
+    public String sql() {
+        return sql.toString();
+    }
+
+    public Object[] args() {
+        if (argCount == 0) {
+            return NO_ARGS;
+        }
+        return Arrays.copyOf(args, argCount);
+    }
+
+    public int argCount() {
+        return argCount;
+    }
+
+    public static String sqlOf(BiConsumer<SqlBuilder,Scope> renderer, Scope scope) {
+        SqlBuilder builder = new SqlBuilder();
+        renderer.accept(builder, scope);
+        return builder.sql();
+    }
+
+    public static Stream<Object> argsOf(BiConsumer<SqlBuilder,Scope> renderer, Scope scope) {
+        SqlBuilder builder = new SqlBuilder();
+        renderer.accept(builder, scope);
+        return Arrays.stream(builder.args, 0, builder.argCount);
+    }
+}
@@ -25,6 +25,7 @@ package com.cadenzauk.siesta;
 import com.cadenzauk.core.sql.RowMapper;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public interface SqlExecutor {
@@ -37,4 +38,32 @@ public interface SqlExecutor {
     <T> Stream<T> stream(String sql, Object[] args, RowMapper<T> rowMapper);
 
     int update(String sql, Object[] args);
+
+    default int fetchSize() {
+        return 0;
+    }
+
+    default boolean inTransaction() {
+        return false;
+    }
+
+    default SqlExecutor readExecutor(IsolationLevel isolationLevel, Optional<LockLevel> keepLocks) {
+        return this;
+    }
+
+    default SqlExecutor route(RoutingContext context) {
+        return this;
+    }
+
+    default SqlExecutor withFetchSize(FetchSize fetchSize) {
+        return this;
+    }
+
+    default SqlExecutor withServerSideCursor() {
+        return this;
+    }
+
+    default boolean scattersAcrossShards() {
+        return false;
+    }
 }
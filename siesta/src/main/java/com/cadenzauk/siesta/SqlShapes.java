@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SqlShapes {
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final boolean enabled;
+    private final int capacity;
+    private final ConcurrentMap<String,LongAdder> executions = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+
+    public SqlShapes(boolean enabled) {
+        this(enabled, DEFAULT_CAPACITY);
+    }
+
+    public SqlShapes(boolean enabled, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The SQL shape capacity must be positive.");
+        }
+        this.enabled = enabled;
+        this.capacity = capacity;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(String sql) {
+        if (!enabled) {
+            return;
+        }
+        LongAdder count = executions.get(sql);
+        if (count == null) {
+            if (executions.size() >= capacity) {
+                untracked.increment();
+                return;
+            }
+            count = executions.computeIfAbsent(sql, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    public int distinctCount() {
+        return executions.size();
+    }
+
+    public long executionCount(String sql) {
+        LongAdder count = executions.get(sql);
+        return count == null ? 0L : count.sum();
+    }
+
+    public long untrackedCount() {
+        return untracked.sum();
+    }
+
+    public Map<String,Long> snapshot() {
+        ImmutableMap.Builder<String,Long> builder = ImmutableMap.builder();
+        executions.forEach((sql, count) -> builder.put(sql, count.sum()));
+        return builder.build();
+    }
+
+    public void clear() {
+        executions.clear();
+        untracked.reset();
+    }
+}
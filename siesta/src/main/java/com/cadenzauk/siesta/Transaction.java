@@ -38,10 +38,22 @@ public interface Transaction extends AutoCloseable {
 
     <T> List<T> query(String sql, Object[] args, RowMapper<T> rowMapper);
 
+    default <T> List<T> query(String sql, Object[] args, RowMapper<T> rowMapper, FetchSize fetchSize) {
+        return query(sql, args, rowMapper);
+    }
+
     <T> CompletableFuture<List<T>> queryAsync(String sql, Object[] args, RowMapper<T> rowMapper);
 
+    default <T> CompletableFuture<List<T>> queryAsync(String sql, Object[] args, RowMapper<T> rowMapper, FetchSize fetchSize) {
+        return queryAsync(sql, args, rowMapper);
+    }
+
     <T> Stream<T> stream(String sql, Object[] args, RowMapper<T> rowMapper);
 
+    default <T> Stream<T> stream(String sql, Object[] args, RowMapper<T> rowMapper, FetchSize fetchSize) {
+        return stream(sql, args, rowMapper);
+    }
+
     int update(String sql, Object[] args);
 
     CompletableFuture<Integer> updateAsync(String sql, Object[] args);
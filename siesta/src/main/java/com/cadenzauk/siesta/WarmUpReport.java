@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.reflect.TypeToken;
+
+import java.time.Duration;
+import java.util.Map;
+
+public class WarmUpReport {
+    private final Map<TypeToken<?>,Duration> tables;
+    private final Duration elapsed;
+
+    WarmUpReport(Map<TypeToken<?>,Duration> tables, Duration elapsed) {
+        this.tables = ImmutableMap.copyOf(tables);
+        this.elapsed = elapsed;
+    }
+
+    public Map<TypeToken<?>,Duration> tables() {
+        return tables;
+    }
+
+    public Duration timeFor(TypeToken<?> rowType) {
+        return tables.getOrDefault(rowType, Duration.ZERO);
+    }
+
+    public Duration timeFor(Class<?> rowClass) {
+        return timeFor(TypeToken.of(rowClass));
+    }
+
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+            .append("Warmed up ").append(tables.size()).append(" tables in ").append(elapsed.toMillis()).append("ms");
+        tables.forEach((rowType, duration) -> builder
+            .append(System.lineSeparator())
+            .append("  ").append(rowType).append(": ").append(duration.toMillis()).append("ms"));
+        return builder.toString();
+    }
+
+    static WarmUpReport empty() {
+        return new WarmUpReport(ImmutableMap.of(), Duration.ZERO);
+    }
+}
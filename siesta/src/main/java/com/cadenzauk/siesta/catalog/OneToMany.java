@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.catalog;
+
+import com.cadenzauk.core.function.Function1;
+import com.cadenzauk.core.stream.StreamUtil;
+import com.cadenzauk.core.tuple.Tuple2;
+import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.SqlExecutor;
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+class OneToMany<R, B, C, K> {
+    private final Function<R,K> parentKey;
+    private final Class<C> childClass;
+    private final Function1<C,K> foreignKey;
+    private final BiConsumer<B,List<C>> setter;
+    private final int fetchSize;
+
+    OneToMany(Function<R,K> parentKey, Class<C> childClass, Function1<C,K> foreignKey, BiConsumer<B,List<C>> setter, int fetchSize) {
+        this.parentKey = parentKey;
+        this.childClass = childClass;
+        this.foreignKey = foreignKey;
+        this.setter = setter;
+        this.fetchSize = fetchSize;
+    }
+
+    Class<C> childClass() {
+        return childClass;
+    }
+
+    BiConsumer<R,B> fetch(Database database, SqlExecutor sqlExecutor, List<R> parents) {
+        List<K> keys = parents.stream()
+            .map(parentKey)
+            .filter(Objects::nonNull)
+            .distinct()
+            .collect(toList());
+        Map<K,List<C>> childrenByKey = new HashMap<>();
+        Lists.partition(keys, fetchSize).forEach(chunk ->
+            database.from(childClass)
+                .where(foreignKey).isIn(keyArray(chunk))
+                .list(sqlExecutor)
+                .forEach(child -> childrenByKey.computeIfAbsent(foreignKey.apply(child), k -> new ArrayList<>()).add(child)));
+        return (row, builder) -> setter.accept(builder, childrenByKey.getOrDefault(parentKey.apply(row), new ArrayList<>()));
+    }
+
+    Stream<R> assemble(Stream<Tuple2<R,C>> joined, BiFunction<R,BiConsumer<R,B>,R> attach) {
+        return StreamUtil.groupAdjacent(joined, row -> parentKey.apply(row.item1()))
+            .map(group -> {
+                List<C> children = group.stream()
+                    .map(Tuple2::item2)
+                    .filter(Objects::nonNull)
+                    .collect(toList());
+                return attach.apply(group.get(0).item1(), (row, builder) -> setter.accept(builder, children));
+            });
+    }
+
+    @SuppressWarnings("unchecked")
+    private K[] keyArray(List<K> keys) {
+        return (K[]) keys.toArray();
+    }
+}
@@ -30,11 +30,14 @@ import com.cadenzauk.core.reflect.util.ClassUtil;
 import com.cadenzauk.core.reflect.util.FieldUtil;
 import com.cadenzauk.core.sql.RowMapper;
 import com.cadenzauk.core.stream.StreamUtil;
+import com.cadenzauk.core.tuple.Tuple;
+import com.cadenzauk.core.tuple.Tuple2;
 import com.cadenzauk.core.util.OptionalUtil;
 import com.cadenzauk.siesta.Alias;
 import com.cadenzauk.siesta.DataType;
 import com.cadenzauk.siesta.Database;
 import com.cadenzauk.siesta.DynamicRowMapper;
+import com.cadenzauk.siesta.RoutingContext;
 import com.cadenzauk.siesta.SqlExecutor;
 import com.cadenzauk.siesta.Transaction;
 import com.cadenzauk.siesta.catalog.TableColumn.ResultSetValue;
@@ -47,15 +50,19 @@ import org.slf4j.LoggerFactory;
 import javax.persistence.MappedSuperclass;
 import javax.persistence.Transient;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -69,12 +76,16 @@ import static java.util.stream.Collectors.toList;
 
 public class Table<R> {
     private static final Logger LOG = LoggerFactory.getLogger(Table.class);
+    private static final int DEFAULT_FETCH_SIZE = 500;
     private final Database database;
     private final TypeToken<R> rowType;
     private final String catalog;
     private final String schema;
     private final String tableName;
     private final Impl<?> impl;
+    private final Map<Tuple2<Method,Class<?>>,Column<?,R>> columnsByGetter = new ConcurrentHashMap<>();
+    private volatile String qualifiedName;
+    private volatile String columnList;
 
     private <B> Table(Builder<R,B> builder) {
         database = builder.database;
@@ -82,7 +93,7 @@ public class Table<R> {
         catalog = builder.catalog;
         schema = builder.schema;
         tableName = builder.tableName;
-        impl = new Impl<>(builder.newBuilder, builder.buildRow, builder.columns);
+        impl = new Impl<>(builder.newBuilder, builder.buildRow, builder.columns, builder.children, builder.builderType.equals(builder.rowType), builder.descriptor);
     }
 
     public TypeToken<R> rowType() {
@@ -114,7 +125,27 @@ public class Table<R> {
     }
 
     public String qualifiedName() {
-        return database.dialect().qualifiedName(catalog, schema, tableName());
+        String result = qualifiedName;
+        if (result == null) {
+            result = database.dialect().qualifiedName(catalog, schema, tableName());
+            qualifiedName = result;
+        }
+        return result;
+    }
+
+    public String columnList() {
+        String result = columnList;
+        if (result == null) {
+            result = columns().map(Column::name).collect(joining(", "));
+            columnList = result;
+        }
+        return result;
+    }
+
+    public void warmUp() {
+        qualifiedName();
+        columnList();
+        columns().forEach(c -> database.dialect().type(c.dataType().dbTypeId()));
     }
 
     public Alias<R> as(String alias) {
@@ -122,6 +153,12 @@ public class Table<R> {
     }
 
     public void insert(SqlExecutor sqlExecutor, R[] rows) {
+        if (sqlExecutor.scattersAcrossShards()) {
+            Map<SqlExecutor,List<R>> rowsByShard = new LinkedHashMap<>();
+            Arrays.stream(rows).forEach(r -> rowsByShard.computeIfAbsent(shardFor(sqlExecutor, r), k -> new ArrayList<>()).add(r));
+            rowsByShard.forEach((shard, shardRows) -> insert(shard, shardRows.toArray(Arrays.copyOf(rows, 0))));
+            return;
+        }
         if (database().dialect().supportsMultiInsert()) {
             impl.insert(sqlExecutor, rows);
         } else {
@@ -137,7 +174,48 @@ public class Table<R> {
         }
     }
 
+    public List<R> fetchChildren(SqlExecutor sqlExecutor, List<R> parents) {
+        return impl.fetchChildren(sqlExecutor, parents);
+    }
+
+    public <C> Stream<R> assemble(Class<C> childClass, Stream<Tuple2<R,C>> joined) {
+        return impl.assemble(childClass, joined);
+    }
+
+    private SqlExecutor shardFor(SqlExecutor sqlExecutor, R row) {
+        List<String> shardKeys = new ArrayList<>();
+        RoutingContext context = routingContext(row);
+        SqlExecutor shard = sqlExecutor.route((rowClass, getter) -> {
+            shardKeys.add(getter.method().getName());
+            return context.fixedValue(rowClass, getter);
+        });
+        if (shard == sqlExecutor) {
+            throw new IllegalArgumentException(shardKeys.isEmpty()
+                ? "Cannot insert into " + qualifiedName() + " across shards as it has no shard key."
+                : "Cannot insert into " + qualifiedName() + " across shards without a value for the shard key " + String.join(" or ", shardKeys) + ".");
+        }
+        return shard;
+    }
+
+    private RoutingContext routingContext(R row) {
+        return (rowClass, getter) -> rowClass.isAssignableFrom(rowType.getRawType())
+            ? routingColumn(getter).getter().apply(row).map(Object.class::cast)
+            : Optional.empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Column<?,R> routingColumn(MethodInfo<?,?> getter) {
+        return column((MethodInfo<R,Object>) getter);
+    }
+
+    @SuppressWarnings("unchecked")
     public <T> Column<T,R> column(MethodInfo<R,T> methodInfo) {
+        return (Column<T,R>) columnsByGetter.computeIfAbsent(
+            Tuple.of(methodInfo.method(), methodInfo.effectiveType()),
+            k -> resolveColumn(methodInfo));
+    }
+
+    private <T> Column<T,R> resolveColumn(MethodInfo<R,T> methodInfo) {
         String columnName = database.columnNameFor(methodInfo);
         return database.dataTypeOf(methodInfo)
             .flatMap(dataType -> findColumn(dataType, columnName))
@@ -158,11 +236,52 @@ public class Table<R> {
         private final Supplier<B> newBuilder;
         private final Function<B,R> buildRow;
         private final List<TableColumn<Object,R,B>> columns;
+        private final List<OneToMany<R,B,?,?>> children;
+        private final boolean mutableRows;
+        private final Optional<TableDescriptor<R>> descriptor;
 
-        Impl(Supplier<B> newBuilder, Function<B,R> buildRow, List<TableColumn<Object,R,B>> columns) {
+        Impl(Supplier<B> newBuilder, Function<B,R> buildRow, List<TableColumn<Object,R,B>> columns, List<OneToMany<R,B,?,?>> children, boolean mutableRows, Optional<TableDescriptor<R>> descriptor) {
             this.newBuilder = newBuilder;
             this.buildRow = buildRow;
+            this.mutableRows = mutableRows;
+            this.descriptor = descriptor;
             this.columns = ImmutableList.copyOf(columns);
+            this.children = ImmutableList.copyOf(children);
+        }
+
+        List<R> fetchChildren(SqlExecutor sqlExecutor, List<R> parents) {
+            if (children.isEmpty() || parents.isEmpty()) {
+                return parents;
+            }
+            List<BiConsumer<R,B>> attachments = children.stream()
+                .map(c -> c.fetch(database, sqlExecutor, parents))
+                .collect(toList());
+            return parents.stream()
+                .map(p -> attach(p, (row, builder) -> attachments.forEach(a -> a.accept(row, builder))))
+                .collect(toList());
+        }
+
+        @SuppressWarnings("unchecked")
+        <C> Stream<R> assemble(Class<C> childClass, Stream<Tuple2<R,C>> joined) {
+            return children.stream()
+                .filter(c -> c.childClass() == childClass)
+                .map(c -> (OneToMany<R,B,C,?>) c)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No one-to-many relationship to " + childClass.getName() + " has been mapped for " + qualifiedName()))
+                .assemble(joined, this::attach);
+        }
+
+        @SuppressWarnings("unchecked")
+        private R attach(R row, BiConsumer<R,B> setChildren) {
+            B builder = mutableRows ? (B) row : copyOf(row);
+            setChildren.accept(row, builder);
+            return buildRow.apply(builder);
+        }
+
+        private B copyOf(R row) {
+            B builder = newBuilder.get();
+            columns.forEach(c -> c.copy(row, builder));
+            return builder;
         }
 
         @SuppressWarnings("unchecked")
@@ -202,11 +321,12 @@ public class Table<R> {
             int nCols = columns.size();
             String sql = String.format("insert into %s (%s) values %s",
                 qualifiedName(),
-                columns.stream().map(Column::name).collect(joining(", ")),
+                columnList(),
                 IntStream.range(0, rows.length)
                     .mapToObj(i -> "(" + IntStream.range(0, nCols).mapToObj(j -> "?").collect(joining(", ")) + ")")
                     .collect(joining(", ")));
             LOG.debug(sql);
+            database.sqlShapes().record(sql);
             return sql;
         }
 
@@ -215,6 +335,12 @@ public class Table<R> {
         }
 
         public RowMapper<R> rowMapper(Optional<String> prefix) {
+            String labelPrefix = prefix.orElse(tableName + "_");
+            Optional<RowMapper<R>> generated = descriptor
+                .flatMap(d -> d.rowMapper(database, columns.stream().map(c -> labelPrefix + c.name()).collect(toList())));
+            if (generated.isPresent()) {
+                return generated.get();
+            }
             return rs -> {
                 List<ResultSetValue<B>> values = columns.stream()
                     .map(c -> c.extract(database, rs, prefix.orElse(tableName + "_") + c.name()))
@@ -262,10 +388,12 @@ public class Table<R> {
         private final Function<B,R> buildRow;
         private final Set<String> excludedFields = new HashSet<>();
         private final List<TableColumn<Object,R,B>> columns = new ArrayList<>();
+        private final List<OneToMany<R,B,?,?>> children = new ArrayList<>();
         private String catalog;
         private String schema;
         private String tableName;
         private Supplier<B> newBuilder;
+        private Optional<TableDescriptor<R>> descriptor = Optional.empty();
 
         public Builder(Database database, TypeToken<R> rowType, TypeToken<B> builderType, Function<B,R> buildRow) {
             this.database = database;
@@ -292,21 +420,33 @@ public class Table<R> {
         }
 
         public Table<R> build() {
+            if (!columns.isEmpty() || !applyDescriptor()) {
+                mappedClasses(rowType.getRawType())
+                    .flatMap(cls -> Arrays.stream(cls.getDeclaredFields()))
+                    .filter(f -> !Modifier.isStatic(f.getModifiers()))
+                    .filter(f -> !FieldUtil.hasAnnotation(Transient.class, f))
+                    .filter(f -> !excludedFields.contains(f.getName()))
+                    .forEach(this::addField);
+            }
             if (newBuilder == null) {
                 this.newBuilder = Factory.forType(builderType);
             }
-            mappedClasses(rowType.getRawType())
-                .flatMap(cls -> Arrays.stream(cls.getDeclaredFields()))
-                .filter(f -> !Modifier.isStatic(f.getModifiers()))
-                .filter(f -> !FieldUtil.hasAnnotation(Transient.class, f))
-                .filter(f -> !excludedFields.contains(f.getName()))
-                .forEach(this::addField);
             return new Table<>(this);
         }
 
+        @SuppressWarnings("unchecked")
+        private boolean applyDescriptor() {
+            if (!builderType.equals(rowType)) {
+                return false;
+            }
+            descriptor = TableDescriptors.find((Class<R>) rowType.getRawType());
+            descriptor.ifPresent(d -> d.describe((Builder<R,R>) this));
+            return descriptor.isPresent();
+        }
+
         private void addField(Field field) {
             if (Collection.class.isAssignableFrom(field.getType())) {
-                // TODO! add collection support
+                // Collections are not columns, they are mapped with oneToMany
                 return;
             }
             columns.add(TableColumn.fromField(database, rowType, builderType, field));
@@ -336,6 +476,20 @@ public class Table<R> {
             return this;
         }
 
+        public Builder<R,B> newBuilder(Supplier<B> val) {
+            newBuilder = val;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> Builder<R,B> field(String fieldName, Optional<String> columnName, Class<T> valueClass, Function<R,Optional<T>> getter, BiConsumer<B,Optional<T>> setter) {
+            excludedFields.add(fieldName);
+            String name = columnName.orElseGet(() -> database.namingStrategy().columnName(fieldName));
+            TableColumn.Builder<T,R,B> columnBuilder = TableColumn.optional(name, database.getDataTypeOf(valueClass), rowType, getter, setter);
+            columns.add((TableColumn<Object,R,B>) columnBuilder.build());
+            return this;
+        }
+
         public <BB> Builder<R,BB> builder(Function1<BB,R> buildRow) {
             MethodInfo<BB,R> buildMethod = MethodInfo.of(buildRow);
             return new Builder<>(database, rowType, buildMethod.declaringType(), buildRow)
@@ -344,6 +498,18 @@ public class Table<R> {
                 .tableName(tableName);
         }
 
+        public <C, K> Builder<R,B> oneToMany(Function1<R,K> parentKey, Class<C> childClass, Function1<C,K> foreignKey, BiConsumer<B,List<C>> setter) {
+            return oneToMany(parentKey, childClass, foreignKey, setter, DEFAULT_FETCH_SIZE);
+        }
+
+        public <C, K> Builder<R,B> oneToMany(Function1<R,K> parentKey, Class<C> childClass, Function1<C,K> foreignKey, BiConsumer<B,List<C>> setter, int fetchSize) {
+            if (fetchSize < 1) {
+                throw new IllegalArgumentException("The fetch size must be positive.");
+            }
+            children.add(new OneToMany<>(parentKey, childClass, foreignKey, setter, fetchSize));
+            return this;
+        }
+
         public <T> Builder<R,B> column(Function1<R,T> getter, BiConsumer<B,T> setter) {
             return mandatory(getter, setter, Optional.empty());
         }
@@ -107,6 +107,10 @@ public class TableColumn<T, R, B> implements Column<T,R> {
         };
     }
 
+    void copy(R row, B builder) {
+        setter.accept(builder, getter.apply(row));
+    }
+
     public String label(String prefix) {
         return prefix + name;
     }
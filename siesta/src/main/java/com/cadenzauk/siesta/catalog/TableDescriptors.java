@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.catalog;
+
+import com.cadenzauk.core.reflect.FieldInfo;
+import com.cadenzauk.core.reflect.Setter;
+import com.cadenzauk.core.reflect.util.ClassUtil;
+import com.cadenzauk.core.util.UtilityClass;
+
+import java.lang.reflect.Field;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public final class TableDescriptors extends UtilityClass {
+    public static final String SUFFIX = "TableDescriptor";
+
+    public static String descriptorClassName(Class<?> rowClass) {
+        return rowClass.getName().replace('$', '_') + SUFFIX;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <R> Optional<TableDescriptor<R>> find(Class<R> rowClass) {
+        try {
+            Class<?> descriptorClass = Class.forName(descriptorClassName(rowClass), true, rowClass.getClassLoader());
+            if (!TableDescriptor.class.isAssignableFrom(descriptorClass)) {
+                return Optional.empty();
+            }
+            TableDescriptor<R> descriptor = (TableDescriptor<R>) descriptorClass.getDeclaredConstructor().newInstance();
+            return descriptor.rowClass() == rowClass
+                ? Optional.of(descriptor)
+                : Optional.empty();
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to instantiate the table descriptor for " + rowClass, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <R, T> Function<R,Optional<T>> fieldGetter(Class<R> rowClass, String fieldName) {
+        return ((FieldInfo<R,T>) FieldInfo.of(rowClass, field(rowClass, fieldName))).optionalGetter();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <R, T> BiConsumer<R,Optional<T>> fieldSetter(Class<R> rowClass, String fieldName) {
+        Field field = field(rowClass, fieldName);
+        FieldInfo<R,T> fieldInfo = (FieldInfo<R,T>) FieldInfo.of(rowClass, field);
+        return Setter.forField(rowClass, fieldInfo.effectiveType(), field);
+    }
+
+    private static Field field(Class<?> rowClass, String fieldName) {
+        return ClassUtil.findField(rowClass, fieldName)
+            .orElseThrow(() -> new NoSuchElementException("No such field as " + fieldName + " in " + rowClass));
+    }
+}
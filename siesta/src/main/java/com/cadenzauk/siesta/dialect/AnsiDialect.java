@@ -23,19 +23,24 @@
 package com.cadenzauk.siesta.dialect;
 
 import com.cadenzauk.siesta.Dialect;
+import com.cadenzauk.siesta.InListStrategy;
 import com.cadenzauk.siesta.IsolationLevel;
 import com.cadenzauk.siesta.LockLevel;
+import com.cadenzauk.siesta.LockWait;
+import com.cadenzauk.siesta.QueryHint;
 import com.cadenzauk.siesta.dialect.function.FunctionName;
 import com.cadenzauk.siesta.dialect.function.FunctionRegistry;
 import com.cadenzauk.siesta.dialect.function.FunctionSpec;
 import com.cadenzauk.siesta.dialect.function.aggregate.AggregateFunctionSpecs;
 import com.cadenzauk.siesta.dialect.function.date.DateFunctionSpecs;
 import com.cadenzauk.siesta.dialect.function.string.StringFunctionSpecs;
+import com.cadenzauk.siesta.dialect.function.window.WindowFunctionSpecs;
 import com.cadenzauk.siesta.type.DbTypeId;
 import com.cadenzauk.siesta.type.DbType;
 import com.cadenzauk.siesta.type.DbTypeRegistry;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -49,6 +54,7 @@ public class AnsiDialect implements Dialect {
         AggregateFunctionSpecs.registerDefaults(functions);
         DateFunctionSpecs.registerDefaults(functions);
         StringFunctionSpecs.registerDefaults(functions);
+        WindowFunctionSpecs.registerDefaults(functions);
     }
 
     @Override
@@ -100,6 +106,21 @@ public class AnsiDialect implements Dialect {
         return false;
     }
 
+    @Override
+    public boolean supportsGroupingSets() {
+        return true;
+    }
+
+    @Override
+    public boolean prefersExistsToInSelect() {
+        return false;
+    }
+
+    @Override
+    public String withRecursive() {
+        return "with recursive";
+    }
+
     @Override
     public String concat(Stream<String> sql) {
         return sql.collect(joining(" || "));
@@ -120,11 +141,56 @@ public class AnsiDialect implements Dialect {
         return sql;
     }
 
+    @Override
+    public String isolationLevelSql(String sql, IsolationLevel level, Optional<LockLevel> keepLocks, LockWait lockWait) {
+        return isolationLevelSql(sql, level, keepLocks);
+    }
+
+    @Override
+    public String tableLockHints(Optional<LockLevel> keepLocks, LockWait lockWait) {
+        return "";
+    }
+
+    @Override
+    public boolean supportsFetchFirstWithLocks() {
+        return true;
+    }
+
+    @Override
+    public boolean serverSideCursorRequiresTransaction() {
+        return false;
+    }
+
+    @Override
+    public String selectHints(List<QueryHint> hints) {
+        return "";
+    }
+
+    @Override
+    public String queryOptions(String sql, List<QueryHint> hints, List<String> fromOrder) {
+        return sql;
+    }
+
     @Override
     public String nextFromSequence(String catalog, String schema, String sequenceName) {
         return String.format("%s.NEXTVAL", qualifiedName(catalog, schema, sequenceName));
     }
 
+    @Override
+    public InListStrategy inListStrategy(int size) {
+        if (size <= 8) {
+            return InListStrategy.EXPAND;
+        }
+        return size > maxInListSize()
+            ? InListStrategy.CHUNK
+            : InListStrategy.PAD;
+    }
+
+    @Override
+    public int maxInListSize() {
+        return 1000;
+    }
+
     protected DbTypeRegistry types() {
         return types;
     }
@@ -25,6 +25,7 @@ package com.cadenzauk.siesta.dialect;
 import com.cadenzauk.siesta.Database;
 import com.cadenzauk.siesta.IsolationLevel;
 import com.cadenzauk.siesta.LockLevel;
+import com.cadenzauk.siesta.LockWait;
 import com.cadenzauk.siesta.dialect.function.date.DateFunctionSpecs;
 import com.cadenzauk.siesta.type.DefaultTinyint;
 import com.cadenzauk.siesta.type.DefaultVarbinary;
@@ -66,6 +67,11 @@ public class Db2Dialect extends AnsiDialect {
         return true;
     }
 
+    @Override
+    public String withRecursive() {
+        return "with";
+    }
+
     @Override
     public String fetchFirst(String sql, long n) {
         return String.format("%s fetch first %d rows only", sql, n);
@@ -83,6 +89,19 @@ public class Db2Dialect extends AnsiDialect {
             .orElseGet(() -> isolationLevelWithNoLocks(sql, level));
     }
 
+    @Override
+    public String isolationLevelSql(String sql, IsolationLevel level, Optional<LockLevel> keepLocks, LockWait lockWait) {
+        String isolationSql = isolationLevelSql(sql, level, keepLocks);
+        switch (lockWait.type()) {
+            case WAIT:
+                return isolationSql;
+            case SKIP_LOCKED:
+                return isolationSql + " skip locked data";
+            default:
+                throw new IllegalArgumentException("DB2 does not support a lock wait of " + lockWait + " on a select; set the CURRENT LOCK TIMEOUT special register instead.");
+        }
+    }
+
     private String isolationLevelSqlWithLocks(String sql, IsolationLevel level, LockLevel keepLocks) {
         return String.format("%s for read only with %s use and keep %s locks",
             sql,
@@ -27,6 +27,7 @@ import com.cadenzauk.siesta.dialect.function.date.DateFunctionSpecs;
 import com.cadenzauk.siesta.type.DefaultInteger;
 import com.cadenzauk.siesta.type.DefaultTimestamp;
 import com.cadenzauk.siesta.type.DefaultTinyint;
+import com.cadenzauk.siesta.type.DefaultClob;
 import com.cadenzauk.siesta.type.DefaultUtcTimestamp;
 import com.cadenzauk.siesta.type.DbTypeId;
 
@@ -41,6 +42,7 @@ public class FirebirdDialect extends AnsiDialect {
 
         types()
             .register(DbTypeId.TINYINT, new DefaultTinyint("smallint"))
+            .register(DbTypeId.CLOB, new DefaultClob("blob sub_type text"))
             .register(DbTypeId.INTEGER, new DefaultInteger() {
                 @Override
                 public String parameter(Database database, Integer value) {
@@ -87,6 +89,16 @@ public class FirebirdDialect extends AnsiDialect {
         return "RDB$DATABASE";
     }
 
+    @Override
+    public boolean supportsGroupingSets() {
+        return false;
+    }
+
+    @Override
+    public boolean prefersExistsToInSelect() {
+        return true;
+    }
+
     @Override
     public String fetchFirst(String sql, long n) {
         return String.format("%s rows %d", sql, n);
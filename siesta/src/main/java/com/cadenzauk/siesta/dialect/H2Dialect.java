@@ -24,6 +24,7 @@ package com.cadenzauk.siesta.dialect;
 
 import com.cadenzauk.siesta.IsolationLevel;
 import com.cadenzauk.siesta.LockLevel;
+import com.cadenzauk.siesta.LockWait;
 import com.cadenzauk.siesta.dialect.function.date.DateFunctionSpecs;
 
 import java.util.Optional;
@@ -38,6 +39,11 @@ public class H2Dialect extends AnsiDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsGroupingSets() {
+        return false;
+    }
+
     @Override
     public String fetchFirst(String sql, long n) {
         return String.format("%s limit %d", sql, n);
@@ -51,4 +57,28 @@ public class H2Dialect extends AnsiDialect {
             .orElse(sql);
     }
 
+    @Override
+    public String isolationLevelSql(String sql, IsolationLevel level, Optional<LockLevel> keepLocks, LockWait lockWait) {
+        if (lockWait.type() == LockWait.Type.WAIT) {
+            return isolationLevelSql(sql, level, keepLocks);
+        }
+        return keepLocks
+            .filter(ll -> ll.ordinal() >= LockLevel.UPDATE.ordinal())
+            .map(ll -> sql + " for update" + lockWaitSql(lockWait))
+            .orElseThrow(() -> new IllegalArgumentException("H2 only supports a lock wait of " + lockWait + " with update locks."));
+    }
+
+    private static String lockWaitSql(LockWait lockWait) {
+        switch (lockWait.type()) {
+            case NO_WAIT:
+                return " nowait";
+            case SKIP_LOCKED:
+                return " skip locked";
+            case WAIT_SECONDS:
+                return " wait " + lockWait.seconds().orElse(0);
+            default:
+                return "";
+        }
+    }
+
 }
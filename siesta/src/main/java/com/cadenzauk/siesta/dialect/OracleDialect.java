@@ -23,6 +23,10 @@
 package com.cadenzauk.siesta.dialect;
 
 import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.IsolationLevel;
+import com.cadenzauk.siesta.LockLevel;
+import com.cadenzauk.siesta.LockWait;
+import com.cadenzauk.siesta.QueryHint;
 import com.cadenzauk.siesta.Scope;
 import com.cadenzauk.siesta.dialect.function.ArgumentlessFunctionSpec;
 import com.cadenzauk.siesta.dialect.function.FunctionSpec;
@@ -42,12 +46,15 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static com.cadenzauk.core.lang.StringUtil.hex;
 import static com.cadenzauk.siesta.dialect.function.date.DateFunctionSpecs.HOUR_DIFF;
+import static java.util.stream.Collectors.joining;
 
 public class OracleDialect extends AnsiDialect {
     public OracleDialect() {
@@ -136,9 +143,68 @@ public class OracleDialect extends AnsiDialect {
         });
     }
 
+    @Override
+    public String selectHints(List<QueryHint> hints) {
+        String hintSql = hints.stream()
+            .map(OracleDialect::hintSql)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(joining(" "));
+        return hintSql.isEmpty() ? "" : "/*+ " + hintSql + " */ ";
+    }
+
+    private static Optional<String> hintSql(QueryHint hint) {
+        switch (hint.type()) {
+            case INDEX:
+                return Optional.of(String.format("INDEX(%s %s)", hint.argument(0), hint.argument(1)));
+            case LEADING:
+                return Optional.of(String.format("LEADING(%s)", String.join(" ", hint.arguments())));
+            case PARALLEL:
+                return Optional.of(String.format("PARALLEL(%s)", hint.argument(0)));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    @Override
+    public String isolationLevelSql(String sql, IsolationLevel level, Optional<LockLevel> keepLocks, LockWait lockWait) {
+        return keepLocks
+            .filter(ll -> ll.ordinal() >= LockLevel.UPDATE.ordinal())
+            .map(ll -> sql + " for update" + lockWaitSql(lockWait))
+            .orElse(sql);
+    }
+
+    private static String lockWaitSql(LockWait lockWait) {
+        switch (lockWait.type()) {
+            case NO_WAIT:
+                return " nowait";
+            case SKIP_LOCKED:
+                return " skip locked";
+            case WAIT_SECONDS:
+                return " wait " + lockWait.seconds().orElse(0);
+            default:
+                return "";
+        }
+    }
+
+    @Override
+    public boolean supportsFetchFirstWithLocks() {
+        return false;
+    }
+
+    @Override
+    public String withRecursive() {
+        return "with";
+    }
+
     @Override
     public String fetchFirst(String sql, long n) {
         return String.format("select * from (%s) where rownum <= %d", sql, n);
     }
 
+    @Override
+    public int maxInListSize() {
+        return 1000;
+    }
+
 }
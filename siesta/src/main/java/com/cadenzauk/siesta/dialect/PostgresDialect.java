@@ -23,16 +23,23 @@
 package com.cadenzauk.siesta.dialect;
 
 import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.InListStrategy;
+import com.cadenzauk.siesta.IsolationLevel;
+import com.cadenzauk.siesta.LockLevel;
+import com.cadenzauk.siesta.LockWait;
 import com.cadenzauk.siesta.Scope;
 import com.cadenzauk.siesta.dialect.function.ArgumentlessFunctionSpec;
 import com.cadenzauk.siesta.dialect.function.FunctionSpec;
 import com.cadenzauk.siesta.dialect.function.date.DateFunctionSpecs;
 import com.cadenzauk.siesta.type.DefaultTinyint;
+import com.cadenzauk.siesta.type.DefaultBlob;
+import com.cadenzauk.siesta.type.DefaultClob;
 import com.cadenzauk.siesta.type.DefaultVarbinary;
 import com.cadenzauk.siesta.grammar.expression.TypedExpression;
 import com.cadenzauk.siesta.type.DbTypeId;
 
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static com.cadenzauk.core.lang.StringUtil.octal;
@@ -59,6 +66,8 @@ public class PostgresDialect extends AnsiDialect {
 
         types()
             .register(DbTypeId.TINYINT, new DefaultTinyint("smallint"))
+            .register(DbTypeId.BLOB, DefaultBlob.byValue("bytea"))
+            .register(DbTypeId.CLOB, DefaultClob.byValue("text"))
             .register(DbTypeId.VARBINARY, new DefaultVarbinary() {
                 @Override
                 public String literal(Database database, byte[] value) {
@@ -88,8 +97,38 @@ public class PostgresDialect extends AnsiDialect {
         return String.format("%s offset 0 rows fetch next %d rows only", sql, n);
     }
 
+    @Override
+    public boolean serverSideCursorRequiresTransaction() {
+        return true;
+    }
+
+    @Override
+    public String isolationLevelSql(String sql, IsolationLevel level, Optional<LockLevel> keepLocks, LockWait lockWait) {
+        return keepLocks
+            .map(ll -> sql + (ll == LockLevel.SHARE ? " for share" : " for update") + lockWaitSql(lockWait))
+            .orElse(sql);
+    }
+
+    private static String lockWaitSql(LockWait lockWait) {
+        switch (lockWait.type()) {
+            case NO_WAIT:
+                return " nowait";
+            case SKIP_LOCKED:
+                return " skip locked";
+            default:
+                return "";
+        }
+    }
+
     @Override
     public String nextFromSequence(String catalog, String schema, String sequenceName) {
         return "nextval('" + sequenceName + "')";
     }
+
+    @Override
+    public InListStrategy inListStrategy(int size) {
+        return size <= 8
+            ? InListStrategy.EXPAND
+            : InListStrategy.ARRAY;
+    }
 }
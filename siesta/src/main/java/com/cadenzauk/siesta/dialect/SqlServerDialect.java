@@ -23,9 +23,15 @@
 package com.cadenzauk.siesta.dialect;
 
 import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.InListStrategy;
+import com.cadenzauk.siesta.LockLevel;
+import com.cadenzauk.siesta.LockWait;
+import com.cadenzauk.siesta.QueryHint;
 import com.cadenzauk.siesta.dialect.function.SimpleFunctionSpec;
 import com.cadenzauk.siesta.dialect.function.date.DateFunctionSpecs;
 import com.cadenzauk.siesta.type.DefaultVarbinary;
+import com.cadenzauk.siesta.type.DefaultBlob;
+import com.cadenzauk.siesta.type.DefaultClob;
 import com.cadenzauk.siesta.type.DefaultTinyint;
 import com.cadenzauk.siesta.type.DefaultTimestamp;
 import com.cadenzauk.siesta.type.DefaultDate;
@@ -38,6 +44,9 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -46,6 +55,7 @@ import static java.util.stream.Collectors.joining;
 
 public class SqlServerDialect extends AnsiDialect {
     private static final Pattern SELECT_PATTERN = Pattern.compile("(select (distinct )?)");
+    private static final int MAX_IN_LIST_PARAMETERS = 2000;
 
     public SqlServerDialect() {
         DateFunctionSpecs.registerDatePart(functions());
@@ -67,6 +77,8 @@ public class SqlServerDialect extends AnsiDialect {
                     return String.format("0x%s", hex(value));
                 }
             })
+            .register(DbTypeId.BLOB, new DefaultBlob("varbinary(max)"))
+            .register(DbTypeId.CLOB, new DefaultClob("varchar(max)"))
             .register(DbTypeId.DATE, new DefaultDate() {
                 @Override
                 public String literal(Database database, LocalDate value) {
@@ -119,6 +131,73 @@ public class SqlServerDialect extends AnsiDialect {
         return true;
     }
 
+    @Override
+    public String withRecursive() {
+        return "with";
+    }
+
+    @Override
+    public String tableLockHints(Optional<LockLevel> keepLocks, LockWait lockWait) {
+        List<String> hints = new ArrayList<>();
+        keepLocks.map(SqlServerDialect::lockHint).ifPresent(hints::add);
+        if (lockWait.type() == LockWait.Type.SKIP_LOCKED) {
+            hints.add("readpast");
+        } else if (lockWait.type() == LockWait.Type.NO_WAIT) {
+            hints.add("nowait");
+        }
+        return hints.isEmpty() ? "" : " with (" + String.join(", ", hints) + ")";
+    }
+
+    private static String lockHint(LockLevel lockLevel) {
+        switch (lockLevel) {
+            case SHARE:
+                return "holdlock";
+            case UPDATE:
+                return "updlock";
+            default:
+                return "xlock";
+        }
+    }
+
+    @Override
+    public String queryOptions(String sql, List<QueryHint> hints, List<String> fromOrder) {
+        String options = hints.stream()
+            .map(hint -> optionSql(hint, fromOrder))
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(joining(", "));
+        return options.isEmpty() ? sql : sql + " option (" + options + ")";
+    }
+
+    private static Optional<String> optionSql(QueryHint hint, List<String> fromOrder) {
+        switch (hint.type()) {
+            case INDEX:
+                return Optional.of(String.format("table hint(%s, index(%s))", hint.argument(0), hint.argument(1)));
+            case LEADING:
+                return isLeadingInFromOrder(hint.arguments(), fromOrder) ? Optional.of("force order") : Optional.empty();
+            case PARALLEL:
+                return Optional.of("maxdop " + hint.argument(0));
+            case RECOMPILE:
+                return Optional.of("recompile");
+            case OPTIMIZE_FOR_UNKNOWN:
+                return Optional.of("optimize for unknown");
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private static boolean isLeadingInFromOrder(List<String> leading, List<String> fromOrder) {
+        if (leading.size() > fromOrder.size()) {
+            return false;
+        }
+        for (int i = 0; i < leading.size(); i++) {
+            if (!leading.get(i).equalsIgnoreCase(fromOrder.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean requiresFromDual() {
         return false;
@@ -129,6 +208,13 @@ public class SqlServerDialect extends AnsiDialect {
         return "concat(" + sql.collect(joining(", ")) + ")";
     }
 
+    @Override
+    public InListStrategy inListStrategy(int size) {
+        return size > MAX_IN_LIST_PARAMETERS
+            ? InListStrategy.INLINE
+            : super.inListStrategy(size);
+    }
+
     @Override
     public String fetchFirst(String sql, long n) {
         return SELECT_PATTERN.matcher(sql).replaceFirst("$1top " + n + " ");
@@ -31,11 +31,13 @@ public class AggregateFunctionSpecs {
     public static final FunctionName MIN = new FunctionName("min");
     public static final FunctionName SUM = new FunctionName("sum");
     public static final FunctionName AVG = new FunctionName("avg");
+    public static final FunctionName GROUPING = new FunctionName("grouping");
 
     public static void registerDefaults(FunctionRegistry functions) {
         functions.register(MAX, SimpleFunctionSpec.of("max"));
         functions.register(MIN, SimpleFunctionSpec.of("min"));
         functions.register(SUM, SimpleFunctionSpec.of("sum"));
         functions.register(AVG, SimpleFunctionSpec.of("avg"));
+        functions.register(GROUPING, SimpleFunctionSpec.of("grouping"));
     }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.dialect.function.window;
+
+import com.cadenzauk.siesta.dialect.function.FunctionName;
+import com.cadenzauk.siesta.dialect.function.FunctionRegistry;
+import com.cadenzauk.siesta.dialect.function.SimpleFunctionSpec;
+
+public class WindowFunctionSpecs {
+    public static final FunctionName OVER = new FunctionName("over");
+    public static final FunctionName ROW_NUMBER = new FunctionName("row_number");
+    public static final FunctionName RANK = new FunctionName("rank");
+    public static final FunctionName DENSE_RANK = new FunctionName("dense_rank");
+    public static final FunctionName NTILE = new FunctionName("ntile");
+    public static final FunctionName LAG = new FunctionName("lag");
+    public static final FunctionName LEAD = new FunctionName("lead");
+    public static final FunctionName FIRST_VALUE = new FunctionName("first_value");
+    public static final FunctionName LAST_VALUE = new FunctionName("last_value");
+
+    public static void registerDefaults(FunctionRegistry functions) {
+        functions.register(OVER, argsSql -> argsSql[0] + " over (" + argsSql[1] + ")");
+        functions.register(ROW_NUMBER, SimpleFunctionSpec.of("row_number"));
+        functions.register(RANK, SimpleFunctionSpec.of("rank"));
+        functions.register(DENSE_RANK, SimpleFunctionSpec.of("dense_rank"));
+        functions.register(NTILE, SimpleFunctionSpec.of("ntile"));
+        functions.register(LAG, SimpleFunctionSpec.of("lag"));
+        functions.register(LEAD, SimpleFunctionSpec.of("lead"));
+        functions.register(FIRST_VALUE, SimpleFunctionSpec.of("first_value"));
+        functions.register(LAST_VALUE, SimpleFunctionSpec.of("last_value"));
+    }
+}
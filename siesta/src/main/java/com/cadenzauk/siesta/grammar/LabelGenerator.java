@@ -25,25 +25,40 @@ package com.cadenzauk.siesta.grammar;
 import com.cadenzauk.siesta.Scope;
 import com.cadenzauk.siesta.grammar.expression.TypedExpression;
 
+import java.util.function.Supplier;
+
 public class LabelGenerator {
     private final String prefix;
-    private String label;
+    private volatile Assigned assigned;
 
     public LabelGenerator(String prefix) {
         this.prefix = prefix;
     }
 
     public String label(Scope scope) {
-        if (label == null) {
-            label = prefix + scope.newLabel();
-        }
-        return label;
+        return label(scope, () -> prefix + scope.newLabel());
     }
 
     public String label(Scope scope, TypedExpression<?> arg) {
-        if (label == null) {
-            label = prefix + arg.label(scope);
+        return label(scope, () -> prefix + arg.label(scope));
+    }
+
+    private String label(Scope scope, Supplier<String> newLabel) {
+        Assigned current = assigned;
+        if (current == null || current.labelScope != scope.labelScope() && scope.database().canonicalSql()) {
+            current = new Assigned(newLabel.get(), scope.labelScope());
+            assigned = current;
+        }
+        return current.label;
+    }
+
+    private static final class Assigned {
+        private final String label;
+        private final Scope labelScope;
+
+        private Assigned(String label, Scope labelScope) {
+            this.label = label;
+            this.labelScope = labelScope;
         }
-        return label;
     }
 }
@@ -23,6 +23,7 @@
 package com.cadenzauk.siesta.grammar.dml;
 
 import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.RoutingContext;
 import com.cadenzauk.siesta.Scope;
 import com.cadenzauk.siesta.SqlExecutor;
 import com.cadenzauk.siesta.Transaction;
@@ -45,16 +46,22 @@ public abstract class ExecutableStatement {
         Object[] args = args(scope).toArray();
         String sql = sql(scope);
         LOG.debug(sql);
-        return sqlExecutor.update(sql, args);
+        database().sqlShapes().record(sql);
+        return sqlExecutor.route(routingContext()).update(sql, args);
     }
 
     int execute(Transaction transaction) {
         Object[] args = args(scope).toArray();
         String sql = sql(scope);
         LOG.debug(sql);
+        database().sqlShapes().record(sql);
         return transaction.update(sql, args);
     }
 
+    private RoutingContext routingContext() {
+        return whereClause == null ? RoutingContext.NONE : whereClause.routingContext(scope);
+    }
+
     Database database() {
         return scope.database();
     }
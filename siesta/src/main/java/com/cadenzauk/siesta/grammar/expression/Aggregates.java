@@ -26,6 +26,7 @@ import com.cadenzauk.core.function.Function1;
 import com.cadenzauk.core.function.FunctionOptional1;
 import com.cadenzauk.core.util.UtilityClass;
 import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.grammar.expression.window.AnalyticFunction;
 
 import static com.cadenzauk.siesta.dialect.function.aggregate.AggregateFunctionSpecs.AVG;
 import static com.cadenzauk.siesta.dialect.function.aggregate.AggregateFunctionSpecs.MAX;
@@ -34,135 +35,135 @@ import static com.cadenzauk.siesta.dialect.function.aggregate.AggregateFunctionS
 
 public final class Aggregates extends UtilityClass {
 
-    public static <T> TypedExpression<T> max(T arg) {
+    public static <T> AnalyticFunction<T> max(T arg) {
         return SqlFunction.of(MAX, TypedExpression.value(arg));
     }
 
-    public static <T> TypedExpression<T> max(TypedExpression<T> arg) {
+    public static <T> AnalyticFunction<T> max(TypedExpression<T> arg) {
         return SqlFunction.of(MAX, arg);
     }
 
-    public static <T, R> TypedExpression<T> max(Function1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> max(Function1<R,T> arg) {
         return SqlFunction.of(MAX, arg);
     }
 
-    public static <T, R> TypedExpression<T> max(FunctionOptional1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> max(FunctionOptional1<R,T> arg) {
         return SqlFunction.of(MAX, arg);
     }
 
-    public static <T, R> TypedExpression<T> max(String alias, Function1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> max(String alias, Function1<R,T> arg) {
         return SqlFunction.of(MAX, alias, arg);
     }
 
-    public static <T, R> TypedExpression<T> max(String alias, FunctionOptional1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> max(String alias, FunctionOptional1<R,T> arg) {
         return SqlFunction.of(MAX, alias, arg);
     }
 
-    public static <T, R> TypedExpression<T> max(Alias<R> alias, Function1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> max(Alias<R> alias, Function1<R,T> arg) {
         return SqlFunction.of(MAX, alias, arg);
     }
 
-    public static <T, R> TypedExpression<T> max(Alias<R> alias, FunctionOptional1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> max(Alias<R> alias, FunctionOptional1<R,T> arg) {
         return SqlFunction.of(MAX, alias, arg);
     }
 
-    public static <T> TypedExpression<T> min(T arg) {
+    public static <T> AnalyticFunction<T> min(T arg) {
         return SqlFunction.of(MIN, TypedExpression.value(arg));
     }
 
-    public static <T> TypedExpression<T> min(TypedExpression<T> arg) {
+    public static <T> AnalyticFunction<T> min(TypedExpression<T> arg) {
         return SqlFunction.of(MIN, arg);
     }
 
-    public static <T, R> TypedExpression<T> min(Function1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> min(Function1<R,T> arg) {
         return SqlFunction.of(MIN, arg);
     }
 
-    public static <T, R> TypedExpression<T> min(FunctionOptional1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> min(FunctionOptional1<R,T> arg) {
         return SqlFunction.of(MIN, arg);
     }
 
-    public static <T, R> TypedExpression<T> min(String alias, Function1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> min(String alias, Function1<R,T> arg) {
         return SqlFunction.of(MIN, alias, arg);
     }
 
-    public static <T, R> TypedExpression<T> min(String alias, FunctionOptional1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> min(String alias, FunctionOptional1<R,T> arg) {
         return SqlFunction.of(MIN, alias, arg);
     }
 
-    public static <T, R> TypedExpression<T> min(Alias<R> alias, Function1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> min(Alias<R> alias, Function1<R,T> arg) {
         return SqlFunction.of(MIN, alias, arg);
     }
 
-    public static <T, R> TypedExpression<T> min(Alias<R> alias, FunctionOptional1<R,T> arg) {
+    public static <T, R> AnalyticFunction<T> min(Alias<R> alias, FunctionOptional1<R,T> arg) {
         return SqlFunction.of(MIN, alias, arg);
     }
 
-    public static <T> TypedExpression<T> sum(T arg) {
+    public static <T> AnalyticFunction<T> sum(T arg) {
         return SqlFunction.of(SUM, TypedExpression.value(arg));
     }
 
-    public static <T extends Number> TypedExpression<T> sum(TypedExpression<T> arg) {
+    public static <T extends Number> AnalyticFunction<T> sum(TypedExpression<T> arg) {
         return SqlFunction.of(SUM, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> sum(Function1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> sum(Function1<R,T> arg) {
         return SqlFunction.of(SUM, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> sum(FunctionOptional1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> sum(FunctionOptional1<R,T> arg) {
         return SqlFunction.of(SUM, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> sum(String alias, Function1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> sum(String alias, Function1<R,T> arg) {
         return SqlFunction.of(SUM, alias, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> sum(String alias, FunctionOptional1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> sum(String alias, FunctionOptional1<R,T> arg) {
         return SqlFunction.of(SUM, alias, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> sum(Alias<R> alias, Function1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> sum(Alias<R> alias, Function1<R,T> arg) {
         return SqlFunction.of(SUM, alias, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> sum(Alias<R> alias, FunctionOptional1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> sum(Alias<R> alias, FunctionOptional1<R,T> arg) {
         return SqlFunction.of(SUM, alias, arg);
     }
 
-    public static <T> TypedExpression<T> avg(T arg) {
+    public static <T> AnalyticFunction<T> avg(T arg) {
         return SqlFunction.of(AVG, TypedExpression.value(arg));
     }
 
-    public static <T extends Number> TypedExpression<T> avg(TypedExpression<T> arg) {
+    public static <T extends Number> AnalyticFunction<T> avg(TypedExpression<T> arg) {
         return SqlFunction.of(AVG, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> avg(Function1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> avg(Function1<R,T> arg) {
         return SqlFunction.of(AVG, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> avg(FunctionOptional1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> avg(FunctionOptional1<R,T> arg) {
         return SqlFunction.of(AVG, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> avg(String alias, Function1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> avg(String alias, Function1<R,T> arg) {
         return SqlFunction.of(AVG, alias, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> avg(String alias, FunctionOptional1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> avg(String alias, FunctionOptional1<R,T> arg) {
         return SqlFunction.of(AVG, alias, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> avg(Alias<R> alias, Function1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> avg(Alias<R> alias, Function1<R,T> arg) {
         return SqlFunction.of(AVG, alias, arg);
     }
 
-    public static <T extends Number, R> TypedExpression<T> avg(Alias<R> alias, FunctionOptional1<R,T> arg) {
+    public static <T extends Number, R> AnalyticFunction<T> avg(Alias<R> alias, FunctionOptional1<R,T> arg) {
         return SqlFunction.of(AVG, alias, arg);
     }
 
-    public static TypedExpression<Integer> count() {
+    public static AnalyticFunction<Integer> count() {
         return new CountFunction();
     }
 
@@ -193,4 +194,32 @@ public final class Aggregates extends UtilityClass {
     public static <T, R> TypedExpression<Integer> countDistinct(Alias<R> alias, FunctionOptional1<R,T> arg) {
         return new CountDistinctFunction<>(ResolvedColumn.of(alias, arg));
     }
+
+    public static <T> TypedExpression<Integer> grouping(TypedExpression<T> arg) {
+        return new GroupingFunction<>(arg);
+    }
+
+    public static <T, R> TypedExpression<Integer> grouping(Function1<R,T> arg) {
+        return new GroupingFunction<>(UnresolvedColumn.of(arg));
+    }
+
+    public static <T, R> TypedExpression<Integer> grouping(FunctionOptional1<R,T> arg) {
+        return new GroupingFunction<>(UnresolvedColumn.of(arg));
+    }
+
+    public static <T, R> TypedExpression<Integer> grouping(String alias, Function1<R,T> arg) {
+        return new GroupingFunction<>(UnresolvedColumn.of(alias, arg));
+    }
+
+    public static <T, R> TypedExpression<Integer> grouping(String alias, FunctionOptional1<R,T> arg) {
+        return new GroupingFunction<>(UnresolvedColumn.of(alias, arg));
+    }
+
+    public static <T, R> TypedExpression<Integer> grouping(Alias<R> alias, Function1<R,T> arg) {
+        return new GroupingFunction<>(ResolvedColumn.of(alias, arg));
+    }
+
+    public static <T, R> TypedExpression<Integer> grouping(Alias<R> alias, FunctionOptional1<R,T> arg) {
+        return new GroupingFunction<>(ResolvedColumn.of(alias, arg));
+    }
 }
@@ -24,36 +24,25 @@ package com.cadenzauk.siesta.grammar.expression;
 
 import com.cadenzauk.siesta.Scope;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Stream;
-
-import static java.util.stream.Collectors.joining;
-
-public class AndExpression extends BooleanExpression {
-    private final List<BooleanExpression> expressions = new ArrayList<>();
+import java.util.Optional;
 
+public class AndExpression extends JunctionExpression {
     public AndExpression(BooleanExpression lhs, BooleanExpression rhs) {
-        expressions.add(lhs);
-        expressions.add(rhs);
+        super(" and ", lhs, rhs);
     }
 
     @Override
-    public String sql(Scope scope) {
-        return expressions.stream()
-                .map(e -> sql(e, scope))
-                .collect(joining(" and "));
+    public Precedence precedence() {
+        return Precedence.AND;
     }
 
     @Override
-    public Stream<Object> args(Scope scope) {
+    public Optional<Object> equalityValue(Scope scope, String columnSql) {
         return expressions.stream()
-            .flatMap(e -> e.args(scope));
-    }
-
-    @Override
-    public Precedence precedence() {
-        return Precedence.AND;
+            .map(e -> e.equalityValue(scope, columnSql))
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .findFirst();
     }
 
     @Override
@@ -23,6 +23,7 @@
 package com.cadenzauk.siesta.grammar.expression;
 
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 
 import java.util.stream.Stream;
 
@@ -41,12 +42,21 @@ public class BetweenExpression<T> extends BooleanExpression {
 
     @Override
     public String sql(Scope scope) {
-        return String.format("%s %sbetween %s and %s", lhs.sql(scope), prefix, lowValue.sql(scope), highValue.sql(scope));
+        return SqlBuilder.sqlOf(this::render, scope);
     }
 
     @Override
     public Stream<Object> args(Scope scope) {
-        return Stream.of(lhs, lowValue, highValue).flatMap(v -> v.args(scope));
+        return SqlBuilder.argsOf(this::render, scope);
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        lhs.render(builder, scope);
+        builder.append(' ').append(prefix).append("between ");
+        lowValue.render(builder, scope);
+        builder.append(" and ");
+        highValue.render(builder, scope);
     }
 
     @Override
@@ -24,7 +24,12 @@ package com.cadenzauk.siesta.grammar.expression;
 
 import com.cadenzauk.core.function.Function1;
 import com.cadenzauk.core.function.FunctionOptional1;
+import com.cadenzauk.core.reflect.MethodInfo;
 import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.RoutingContext;
+import com.cadenzauk.siesta.Scope;
+
+import java.util.Optional;
 
 public abstract class BooleanExpression implements Expression {
     public abstract BooleanExpression appendOr(BooleanExpression expression);
@@ -93,4 +98,21 @@ public abstract class BooleanExpression implements Expression {
     public <T, R> ExpressionBuilder<T,BooleanExpression> or(Alias<R> alias, FunctionOptional1<R,T> lhs) {
         return ExpressionBuilder.of(ResolvedColumn.of(alias, lhs), this::appendOr);
     }
+
+    public Optional<Object> equalityValue(Scope scope, String columnSql) {
+        return Optional.empty();
+    }
+
+    public RoutingContext routingContext(Scope scope) {
+        return (rowClass, getter) -> equalityValue(scope, rowClass, getter);
+    }
+
+    private <R> Optional<Object> equalityValue(Scope scope, Class<R> rowClass, MethodInfo<?,?> getter) {
+        @SuppressWarnings("unchecked") MethodInfo<R,?> rowGetter = (MethodInfo<R,?>) getter;
+        return scope.aliasesOf(rowClass)
+            .map(alias -> equalityValue(scope, ResolvedColumn.of(alias, rowGetter).sql(scope)))
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .findFirst();
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression;
+
+import com.cadenzauk.core.reflect.MethodInfo;
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
+import com.google.common.reflect.TypeToken;
+
+import java.util.stream.Stream;
+
+public class ColumnRef<R, T> implements TypedExpression<T> {
+    private final Class<R> rowClass;
+    private final String getterName;
+    private final Class<T> valueClass;
+    private volatile MethodInfo<R,T> getterMethod;
+    private volatile UnresolvedColumn<T,R> column;
+
+    private ColumnRef(Class<R> rowClass, String getterName, Class<T> valueClass) {
+        this.rowClass = rowClass;
+        this.getterName = getterName;
+        this.valueClass = valueClass;
+    }
+
+    public Class<R> rowClass() {
+        return rowClass;
+    }
+
+    public String getterName() {
+        return getterName;
+    }
+
+    public MethodInfo<R,T> getterMethod() {
+        MethodInfo<R,T> result = getterMethod;
+        if (result == null) {
+            result = MethodInfo.of(rowClass, getterName, valueClass);
+            getterMethod = result;
+        }
+        return result;
+    }
+
+    public TypedExpression<T> in(String alias) {
+        return UnresolvedColumn.of(alias, getterMethod());
+    }
+
+    public TypedExpression<T> in(Alias<R> alias) {
+        return ResolvedColumn.of(alias, getterMethod());
+    }
+
+    @Override
+    public String sql(Scope scope) {
+        return column().sql(scope);
+    }
+
+    @Override
+    public Stream<Object> args(Scope scope) {
+        return Stream.empty();
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        column().render(builder, scope);
+    }
+
+    @Override
+    public Precedence precedence() {
+        return Precedence.COLUMN;
+    }
+
+    @Override
+    public String label(Scope scope) {
+        return column().label(scope);
+    }
+
+    @Override
+    public RowMapper<T> rowMapper(Scope scope, String label) {
+        return column().rowMapper(scope, label);
+    }
+
+    @Override
+    public TypeToken<T> type() {
+        return column().type();
+    }
+
+    @Override
+    public String toString() {
+        return rowClass.getSimpleName() + "." + getterName;
+    }
+
+    private UnresolvedColumn<T,R> column() {
+        UnresolvedColumn<T,R> result = column;
+        if (result == null) {
+            result = UnresolvedColumn.of(getterMethod());
+            column = result;
+        }
+        return result;
+    }
+
+    public static <R, T> ColumnRef<R,T> of(Class<R> rowClass, String getterName, Class<T> valueClass) {
+        return new ColumnRef<>(rowClass, getterName, valueClass);
+    }
+}
@@ -25,11 +25,12 @@ package com.cadenzauk.siesta.grammar.expression;
 import com.cadenzauk.core.sql.RowMapper;
 import com.cadenzauk.siesta.Scope;
 import com.cadenzauk.siesta.grammar.LabelGenerator;
+import com.cadenzauk.siesta.grammar.expression.window.AnalyticFunction;
 import com.google.common.reflect.TypeToken;
 
 import java.util.stream.Stream;
 
-public class CountFunction implements TypedExpression<Integer> {
+public class CountFunction implements AnalyticFunction<Integer> {
     private final LabelGenerator labelGenerator = new LabelGenerator("count_");
 
     @Override
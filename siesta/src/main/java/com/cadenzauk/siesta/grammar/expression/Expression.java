@@ -23,6 +23,7 @@
 package com.cadenzauk.siesta.grammar.expression;
 
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 
 import java.util.stream.Stream;
 
@@ -33,9 +34,23 @@ public interface Expression {
 
     Precedence precedence();
 
+    default void render(SqlBuilder builder, Scope scope) {
+        builder.append(sql(scope)).args(args(scope));
+    }
+
     default String sql(Expression e, Scope scope) {
         return e.precedence().compareTo(precedence()) < 0
             ? "(" + e.sql(scope) + ")"
             : e.sql(scope);
     }
+
+    default void render(SqlBuilder builder, Expression e, Scope scope) {
+        if (e.precedence().compareTo(precedence()) < 0) {
+            builder.append('(');
+            e.render(builder, scope);
+            builder.append(')');
+        } else {
+            e.render(builder, scope);
+        }
+    }
 }
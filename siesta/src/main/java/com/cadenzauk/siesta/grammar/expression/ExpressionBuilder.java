@@ -29,7 +29,6 @@ import com.cadenzauk.core.util.OptionalUtil;
 import com.cadenzauk.siesta.Alias;
 import com.cadenzauk.siesta.Condition;
 import com.cadenzauk.siesta.Scope;
-import com.cadenzauk.siesta.grammar.expression.condition.InListCondition;
 import com.cadenzauk.siesta.grammar.expression.condition.InSelectCondition;
 import com.cadenzauk.siesta.grammar.expression.condition.IsNullCondition;
 import com.cadenzauk.siesta.grammar.expression.condition.LikeCondition;
@@ -282,31 +281,20 @@ public class ExpressionBuilder<T, N> implements TypedExpression<T> {
     //--- IS [NOT] IN
     @SafeVarargs
     public final N isIn(T... values) {
-        return isOpIn("in", values);
+        return onComplete.apply(new InListExpression<>(lhs, false, values));
     }
 
     @SafeVarargs
     public final N isNotIn(T... values) {
-        return isOpIn("not in", values);
+        return onComplete.apply(new InListExpression<>(lhs, true, values));
     }
 
     public N isIn(Select<T> select) {
-        return isOpIn("in", select);
+        return onComplete.apply(new InSelectExpression<>(lhs, select));
     }
 
     public N isNotIn(Select<T> select) {
-        return isOpIn("not in", select);
-    }
-
-    private N isOpIn(String operator, T[] values) {
-        if (values.length == 0) {
-            throw new IllegalArgumentException("At least one value is required for an IN expression.");
-        }
-        return complete(new InListCondition<>(operator, values));
-    }
-
-    private N isOpIn(String operator, Select<T> select) {
-        return complete(new InSelectCondition<>(operator, select));
+        return complete(new InSelectCondition<>("not in", select));
     }
 
     //--- IS [NOT] NULL
@@ -24,6 +24,7 @@ package com.cadenzauk.siesta.grammar.expression;
 
 import com.cadenzauk.siesta.*;
 
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public class FullExpression<T> extends BooleanExpression {
@@ -37,12 +38,26 @@ public class FullExpression<T> extends BooleanExpression {
 
     @Override
     public String sql(Scope scope) {
-        return sql(lhs, scope) + " " + rhs.sql(scope);
+        return SqlBuilder.sqlOf(this::render, scope);
     }
 
     @Override
     public Stream<Object> args(Scope scope) {
-        return Stream.concat(lhs.args(scope), rhs.args(scope));
+        return SqlBuilder.argsOf(this::render, scope);
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        render(builder, lhs, scope);
+        builder.append(' ');
+        rhs.render(builder, scope);
+    }
+
+    @Override
+    public Optional<Object> equalityValue(Scope scope, String columnSql) {
+        return rhs.equalityValue()
+            .filter(v -> columnSql.equals(lhs.sql(scope)))
+            .map(Object.class::cast);
     }
 
     @Override
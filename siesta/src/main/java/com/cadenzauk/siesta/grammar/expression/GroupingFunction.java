@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression;
+
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.grammar.LabelGenerator;
+import com.google.common.reflect.TypeToken;
+
+import java.util.stream.Stream;
+
+import static com.cadenzauk.siesta.dialect.function.aggregate.AggregateFunctionSpecs.GROUPING;
+
+public class GroupingFunction<T> implements TypedExpression<Integer> {
+    private final LabelGenerator labelGenerator = new LabelGenerator("grouping_");
+    private final TypedExpression<T> arg;
+
+    public GroupingFunction(TypedExpression<T> arg) {
+        this.arg = arg;
+    }
+
+    @Override
+    public String sql(Scope scope) {
+        String argSql = arg.sql(scope);
+        return scope.rolledUp()
+            .map(rolledUp -> rolledUp.contains(argSql) ? "1" : "0")
+            .orElseGet(() -> scope.dialect().function(GROUPING).sql(new String[]{argSql}));
+    }
+
+    @Override
+    public Stream<Object> args(Scope scope) {
+        return scope.rolledUp().isPresent()
+            ? Stream.empty()
+            : arg.args(scope);
+    }
+
+    @Override
+    public Precedence precedence() {
+        return Precedence.UNARY;
+    }
+
+    @Override
+    public String label(Scope scope) {
+        return labelGenerator.label(scope, arg);
+    }
+
+    @Override
+    public RowMapper<Integer> rowMapper(Scope scope, String label) {
+        return rs -> scope.database().getDataTypeOf(Integer.class).get(rs, label, scope.database()).orElse(null);
+    }
+
+    @Override
+    public TypeToken<Integer> type() {
+        return TypeToken.of(Integer.class);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression;
+
+import com.cadenzauk.siesta.DataType;
+import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.InListStrategy;
+import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlArray;
+import com.cadenzauk.siesta.SqlBuilder;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+public class InListExpression<T> extends BooleanExpression {
+    private final TypedExpression<T> lhs;
+    private final boolean negated;
+    private final T[] values;
+
+    public InListExpression(TypedExpression<T> lhs, boolean negated, T[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("At least one value is required for an IN expression.");
+        }
+        this.lhs = lhs;
+        this.negated = negated;
+        this.values = values;
+    }
+
+    @Override
+    public String sql(Scope scope) {
+        return SqlBuilder.sqlOf(this::render, scope);
+    }
+
+    @Override
+    public Stream<Object> args(Scope scope) {
+        return SqlBuilder.argsOf(this::render, scope);
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        Database database = scope.database();
+        DataType<T> dataType = database.getDataTypeOf(values[0]);
+        switch (strategy(scope)) {
+            case ARRAY:
+                renderArray(builder, scope, dataType);
+                break;
+            case INLINE:
+                renderInline(builder, scope, dataType);
+                break;
+            case CHUNK:
+                renderChunks(builder, scope, dataType);
+                break;
+            case PAD:
+                int length = paddedLength(values.length, scope.dialect().maxInListSize());
+                renderList(builder, scope, dataType, padded(length), 0, length);
+                break;
+            default:
+                renderList(builder, scope, dataType, values, 0, values.length);
+        }
+    }
+
+    private InListStrategy strategy(Scope scope) {
+        InListStrategy strategy = scope.dialect().inListStrategy(values.length);
+        return strategy == InListStrategy.EXPAND && scope.database().canonicalSql()
+            ? InListStrategy.PAD
+            : strategy;
+    }
+
+    @Override
+    public Precedence precedence() {
+        return Precedence.COMPARISON;
+    }
+
+    @Override
+    public BooleanExpression appendOr(BooleanExpression expression) {
+        return new OrExpression(this, expression);
+    }
+
+    @Override
+    public BooleanExpression appendAnd(BooleanExpression expression) {
+        return new AndExpression(this, expression);
+    }
+
+    private void renderList(SqlBuilder builder, Scope scope, DataType<T> dataType, T[] list, int from, int to) {
+        Database database = scope.database();
+        render(builder, lhs, scope);
+        builder.append(negated ? " not in (" : " in (").ensureArgCapacity(to - from);
+        for (int i = from; i < to; i++) {
+            builder.append(i == from ? "?" : ", ?").arg(dataType.toDatabase(database, list[i]));
+        }
+        builder.append(')');
+    }
+
+    private void renderChunks(SqlBuilder builder, Scope scope, DataType<T> dataType) {
+        int chunkSize = scope.dialect().maxInListSize();
+        int remainder = values.length % chunkSize;
+        T[] list = remainder == 0 ? values : padded(values.length - remainder + paddedLength(remainder, chunkSize));
+        builder.append('(');
+        for (int from = 0; from < list.length; from += chunkSize) {
+            if (from > 0) {
+                builder.append(negated ? " and " : " or ");
+            }
+            renderList(builder, scope, dataType, list, from, Math.min(from + chunkSize, list.length));
+        }
+        builder.append(')');
+    }
+
+    private void renderArray(SqlBuilder builder, Scope scope, DataType<T> dataType) {
+        Database database = scope.database();
+        Object[] elements = Arrays.stream(values)
+            .map(v -> dataType.toDatabase(database, v))
+            .toArray();
+        render(builder, lhs, scope);
+        builder.append(negated ? " <> all(?)" : " = any(?)")
+            .arg(new SqlArray(dataType.dbType(database).sqlType(), elements));
+    }
+
+    private void renderInline(SqlBuilder builder, Scope scope, DataType<T> dataType) {
+        Database database = scope.database();
+        render(builder, lhs, scope);
+        builder.append(negated ? " not in (" : " in (");
+        for (int i = 0; i < values.length; i++) {
+            builder.append(i == 0 ? "" : ", ").append(dataType.literal(database, values[i]));
+        }
+        builder.append(')');
+    }
+
+    private T[] padded(int length) {
+        T[] padded = Arrays.copyOf(values, length);
+        Arrays.fill(padded, values.length, padded.length, values[values.length - 1]);
+        return padded;
+    }
+
+    static int paddedLength(int size, int max) {
+        return size <= 1 ? size : Math.min(Integer.highestOneBit(size - 1) << 1, Math.max(size, max));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression;
+
+import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
+import com.cadenzauk.siesta.grammar.select.Select;
+
+import java.util.stream.Stream;
+
+public class InSelectExpression<T> extends BooleanExpression {
+    private final TypedExpression<T> lhs;
+    private final Select<T> select;
+
+    public InSelectExpression(TypedExpression<T> lhs, Select<T> select) {
+        this.lhs = lhs;
+        this.select = select;
+    }
+
+    @Override
+    public String sql(Scope scope) {
+        return SqlBuilder.sqlOf(this::render, scope);
+    }
+
+    @Override
+    public Stream<Object> args(Scope scope) {
+        return SqlBuilder.argsOf(this::render, scope);
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        if (scope.dialect().prefersExistsToInSelect() && select.canRenderAsExists()) {
+            builder.append("exists ");
+            select.renderAsExists(builder, scope, lhs);
+        } else {
+            render(builder, lhs, scope);
+            builder.append(" in ");
+            select.render(builder, scope);
+        }
+    }
+
+    @Override
+    public Precedence precedence() {
+        return Precedence.COMPARISON;
+    }
+
+    @Override
+    public BooleanExpression appendOr(BooleanExpression expression) {
+        return new OrExpression(this, expression);
+    }
+
+    @Override
+    public BooleanExpression appendAnd(BooleanExpression expression) {
+        return new AndExpression(this, expression);
+    }
+}
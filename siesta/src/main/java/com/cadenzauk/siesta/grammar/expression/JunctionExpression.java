@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression;
+
+import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+
+abstract class JunctionExpression extends BooleanExpression {
+    protected final List<BooleanExpression> expressions = new ArrayList<>();
+    private final String operator;
+
+    JunctionExpression(String operator, BooleanExpression lhs, BooleanExpression rhs) {
+        this.operator = operator;
+        expressions.add(lhs);
+        expressions.add(rhs);
+    }
+
+    @Override
+    public String sql(Scope scope) {
+        return SqlBuilder.sqlOf(this::render, scope);
+    }
+
+    @Override
+    public Stream<Object> args(Scope scope) {
+        return SqlBuilder.argsOf(this::render, scope);
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        Deque<Object> pending = new ArrayDeque<>();
+        pushOperands(pending);
+        while (!pending.isEmpty()) {
+            Object next = pending.pop();
+            if (next instanceof String) {
+                builder.append((String) next);
+            } else if (next instanceof JunctionExpression) {
+                ((JunctionExpression) next).pushOperands(pending);
+            } else if (next instanceof ParenthesisedExpression) {
+                pending.push(((ParenthesisedExpression) next).inner());
+            } else {
+                ((Expression) next).render(builder, scope);
+            }
+        }
+    }
+
+    private void pushOperands(Deque<Object> pending) {
+        for (int i = expressions.size() - 1; i >= 0; i--) {
+            BooleanExpression expression = expressions.get(i);
+            if (expression.precedence().compareTo(precedence()) < 0) {
+                pending.push(")");
+                pending.push(expression);
+                pending.push("(");
+            } else {
+                pending.push(expression);
+            }
+            if (i > 0) {
+                pending.push(operator);
+            }
+        }
+    }
+}
@@ -22,33 +22,9 @@
 
 package com.cadenzauk.siesta.grammar.expression;
 
-import com.cadenzauk.siesta.Scope;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Stream;
-
-import static java.util.stream.Collectors.joining;
-
-public class OrExpression extends BooleanExpression {
-    private final List<BooleanExpression> expressions = new ArrayList<>();
-
+public class OrExpression extends JunctionExpression {
     public OrExpression(BooleanExpression lhs, BooleanExpression rhs) {
-        expressions.add(lhs);
-        expressions.add(rhs);
-    }
-
-    @Override
-    public String sql(Scope scope) {
-        return expressions.stream()
-            .map(e -> sql(e, scope))
-            .collect(joining(" or "));
-    }
-
-    @Override
-    public Stream<Object> args(Scope scope) {
-        return expressions.stream()
-            .flatMap(e -> e.args(scope));
+        super(" or ", lhs, rhs);
     }
 
     @Override
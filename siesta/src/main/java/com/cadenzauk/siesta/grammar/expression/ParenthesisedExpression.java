@@ -23,7 +23,9 @@
 package com.cadenzauk.siesta.grammar.expression;
 
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public class ParenthesisedExpression extends BooleanExpression {
@@ -43,6 +45,20 @@ public class ParenthesisedExpression extends BooleanExpression {
         return inner.args(scope);
     }
 
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        inner.render(builder, scope);
+    }
+
+    @Override
+    public Optional<Object> equalityValue(Scope scope, String columnSql) {
+        return inner.equalityValue(scope, columnSql);
+    }
+
+    BooleanExpression inner() {
+        return inner;
+    }
+
     @Override
     public Precedence precedence() {
         return Precedence.PARENTHESES;
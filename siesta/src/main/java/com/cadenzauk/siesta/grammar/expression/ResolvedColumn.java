@@ -28,6 +28,7 @@ import com.cadenzauk.core.reflect.MethodInfo;
 import com.cadenzauk.siesta.Alias;
 import com.cadenzauk.core.sql.RowMapper;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.catalog.Column;
 import com.google.common.reflect.TypeToken;
 
@@ -55,6 +56,11 @@ public class ResolvedColumn<T,R> implements TypedExpression<T> {
         return Stream.empty();
     }
 
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        alias.renderInSelectClause(builder, column.name());
+    }
+
     @Override
     public Precedence precedence() {
         return Precedence.COLUMN;
@@ -75,6 +81,10 @@ public class ResolvedColumn<T,R> implements TypedExpression<T> {
         return type;
     }
 
+    public static <T, R> ResolvedColumn<T,R> of(Alias<R> alias, MethodInfo<R,T> getter) {
+        return new ResolvedColumn<>(alias, getter);
+    }
+
     public static <T, R> ResolvedColumn<T,R> of(Alias<R> alias, Function1<R,T> getterReference) {
         MethodInfo<R,T> method = MethodInfo.of(getterReference);
         return new ResolvedColumn<>(alias, method);
@@ -29,13 +29,14 @@ import com.cadenzauk.siesta.Alias;
 import com.cadenzauk.siesta.Scope;
 import com.cadenzauk.siesta.dialect.function.FunctionName;
 import com.cadenzauk.siesta.grammar.LabelGenerator;
+import com.cadenzauk.siesta.grammar.expression.window.AnalyticFunction;
 import com.google.common.reflect.TypeToken;
 
 import java.util.Arrays;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
 
-public class SqlFunction<T> implements TypedExpression<T> {
+public class SqlFunction<T> implements AnalyticFunction<T> {
     private final LabelGenerator labelGenerator;
     private final FunctionName functionName;
     private final TypeToken<T> type;
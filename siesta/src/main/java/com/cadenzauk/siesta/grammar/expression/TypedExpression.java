@@ -29,6 +29,7 @@ import com.cadenzauk.siesta.Alias;
 import com.cadenzauk.siesta.Scope;
 import com.google.common.reflect.TypeToken;
 
+import java.util.Optional;
 import java.util.function.Function;
 
 public interface TypedExpression<T> extends Expression {
@@ -38,6 +39,10 @@ public interface TypedExpression<T> extends Expression {
 
     TypeToken<T> type();
 
+    default Optional<T> constantValue() {
+        return Optional.empty();
+    }
+
     static <T> ExpressionBuilder<T,BooleanExpression> column(TypedExpression<T> lhs) {
         return ExpressionBuilder.of(lhs, Function.identity());
     }
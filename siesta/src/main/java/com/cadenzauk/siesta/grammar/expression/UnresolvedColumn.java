@@ -28,6 +28,7 @@ import com.cadenzauk.core.reflect.MethodInfo;
 import com.cadenzauk.siesta.Alias;
 import com.cadenzauk.core.sql.RowMapper;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.catalog.Column;
 import com.google.common.reflect.TypeToken;
 
@@ -63,6 +64,11 @@ public class UnresolvedColumn<T,R> implements TypedExpression<T> {
         return Stream.empty();
     }
 
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        resolve(scope).renderInSelectClause(builder, columnName(scope));
+    }
+
     @Override
     public Precedence precedence() {
         return Precedence.COLUMN;
@@ -94,6 +100,14 @@ public class UnresolvedColumn<T,R> implements TypedExpression<T> {
             .orElseGet(() -> scope.findAlias(rowClass));
     }
 
+    public static <T, R> UnresolvedColumn<T,R> of(MethodInfo<R,T> getter) {
+        return new UnresolvedColumn<>(getter);
+    }
+
+    public static <T, R> UnresolvedColumn<T,R> of(String alias, MethodInfo<R,T> getter) {
+        return new UnresolvedColumn<>(alias, getter);
+    }
+
     public static <T, R> UnresolvedColumn<T,R> of(Function1<R,T> getter) {
         MethodInfo<R,T> method = MethodInfo.of(getter);
         return new UnresolvedColumn<>(method);
@@ -25,10 +25,12 @@ package com.cadenzauk.siesta.grammar.expression;
 import com.cadenzauk.siesta.DataType;
 import com.cadenzauk.core.sql.RowMapper;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.grammar.LabelGenerator;
 import com.google.common.reflect.TypeToken;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public class ValueExpression<T> implements TypedExpression<T> {
@@ -55,6 +57,18 @@ public class ValueExpression<T> implements TypedExpression<T> {
         return Stream.of(scope.database().getDataTypeOf(value).toDatabase(scope.database(), value));
     }
 
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        DataType<T> dataType = scope.database().getDataTypeOf(value);
+        builder.append(dataType.sqlType(scope.database(), value))
+            .arg(dataType.toDatabase(scope.database(), value));
+    }
+
+    @Override
+    public Optional<T> constantValue() {
+        return Optional.of(value);
+    }
+
     @Override
     public Precedence precedence() {
         return Precedence.COLUMN;
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression;
+
+import com.cadenzauk.core.function.Function1;
+import com.cadenzauk.core.function.FunctionOptional1;
+import com.cadenzauk.core.util.UtilityClass;
+import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.grammar.expression.window.AnalyticFunction;
+
+import static com.cadenzauk.siesta.dialect.function.window.WindowFunctionSpecs.DENSE_RANK;
+import static com.cadenzauk.siesta.dialect.function.window.WindowFunctionSpecs.FIRST_VALUE;
+import static com.cadenzauk.siesta.dialect.function.window.WindowFunctionSpecs.LAG;
+import static com.cadenzauk.siesta.dialect.function.window.WindowFunctionSpecs.LAST_VALUE;
+import static com.cadenzauk.siesta.dialect.function.window.WindowFunctionSpecs.LEAD;
+import static com.cadenzauk.siesta.dialect.function.window.WindowFunctionSpecs.NTILE;
+import static com.cadenzauk.siesta.dialect.function.window.WindowFunctionSpecs.RANK;
+import static com.cadenzauk.siesta.dialect.function.window.WindowFunctionSpecs.ROW_NUMBER;
+
+public final class WindowFunctions extends UtilityClass {
+    //--
+    public static AnalyticFunction<Long> rowNumber() {
+        return SqlFunction.of(ROW_NUMBER, Long.class, new TypedExpression<?>[0]);
+    }
+
+    //--
+    public static AnalyticFunction<Long> rank() {
+        return SqlFunction.of(RANK, Long.class, new TypedExpression<?>[0]);
+    }
+
+    //--
+    public static AnalyticFunction<Long> denseRank() {
+        return SqlFunction.of(DENSE_RANK, Long.class, new TypedExpression<?>[0]);
+    }
+
+    //--
+    public static AnalyticFunction<Integer> ntile(int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("The number of buckets must be positive.");
+        }
+        return SqlFunction.of(NTILE, Integer.class, LiteralExpression.of(buckets));
+    }
+
+    //--
+    public static <T> AnalyticFunction<T> lag(TypedExpression<T> expression) {
+        return SqlFunction.of(LAG, expression);
+    }
+
+    public static <T> AnalyticFunction<T> lag(TypedExpression<T> expression, int offset) {
+        return SqlFunction.of(LAG, expression.type(), expression, LiteralExpression.of(offset));
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(Function1<R,T> columnGetter) {
+        return lag(UnresolvedColumn.of(columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(Function1<R,T> columnGetter, int offset) {
+        return lag(UnresolvedColumn.of(columnGetter), offset);
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(FunctionOptional1<R,T> columnGetter) {
+        return lag(UnresolvedColumn.of(columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(FunctionOptional1<R,T> columnGetter, int offset) {
+        return lag(UnresolvedColumn.of(columnGetter), offset);
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(String alias, Function1<R,T> columnGetter) {
+        return lag(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(String alias, Function1<R,T> columnGetter, int offset) {
+        return lag(UnresolvedColumn.of(alias, columnGetter), offset);
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(String alias, FunctionOptional1<R,T> columnGetter) {
+        return lag(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(String alias, FunctionOptional1<R,T> columnGetter, int offset) {
+        return lag(UnresolvedColumn.of(alias, columnGetter), offset);
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(Alias<R> alias, Function1<R,T> columnGetter) {
+        return lag(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(Alias<R> alias, Function1<R,T> columnGetter, int offset) {
+        return lag(ResolvedColumn.of(alias, columnGetter), offset);
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return lag(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lag(Alias<R> alias, FunctionOptional1<R,T> columnGetter, int offset) {
+        return lag(ResolvedColumn.of(alias, columnGetter), offset);
+    }
+
+    //--
+    public static <T> AnalyticFunction<T> lead(TypedExpression<T> expression) {
+        return SqlFunction.of(LEAD, expression);
+    }
+
+    public static <T> AnalyticFunction<T> lead(TypedExpression<T> expression, int offset) {
+        return SqlFunction.of(LEAD, expression.type(), expression, LiteralExpression.of(offset));
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(Function1<R,T> columnGetter) {
+        return lead(UnresolvedColumn.of(columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(Function1<R,T> columnGetter, int offset) {
+        return lead(UnresolvedColumn.of(columnGetter), offset);
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(FunctionOptional1<R,T> columnGetter) {
+        return lead(UnresolvedColumn.of(columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(FunctionOptional1<R,T> columnGetter, int offset) {
+        return lead(UnresolvedColumn.of(columnGetter), offset);
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(String alias, Function1<R,T> columnGetter) {
+        return lead(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(String alias, Function1<R,T> columnGetter, int offset) {
+        return lead(UnresolvedColumn.of(alias, columnGetter), offset);
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(String alias, FunctionOptional1<R,T> columnGetter) {
+        return lead(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(String alias, FunctionOptional1<R,T> columnGetter, int offset) {
+        return lead(UnresolvedColumn.of(alias, columnGetter), offset);
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(Alias<R> alias, Function1<R,T> columnGetter) {
+        return lead(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(Alias<R> alias, Function1<R,T> columnGetter, int offset) {
+        return lead(ResolvedColumn.of(alias, columnGetter), offset);
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return lead(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lead(Alias<R> alias, FunctionOptional1<R,T> columnGetter, int offset) {
+        return lead(ResolvedColumn.of(alias, columnGetter), offset);
+    }
+
+    //--
+    public static <T> AnalyticFunction<T> firstValue(TypedExpression<T> expression) {
+        return SqlFunction.of(FIRST_VALUE, expression);
+    }
+
+    public static <T, R> AnalyticFunction<T> firstValue(Function1<R,T> columnGetter) {
+        return firstValue(UnresolvedColumn.of(columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> firstValue(FunctionOptional1<R,T> columnGetter) {
+        return firstValue(UnresolvedColumn.of(columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> firstValue(String alias, Function1<R,T> columnGetter) {
+        return firstValue(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> firstValue(String alias, FunctionOptional1<R,T> columnGetter) {
+        return firstValue(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> firstValue(Alias<R> alias, Function1<R,T> columnGetter) {
+        return firstValue(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> firstValue(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return firstValue(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    //--
+    public static <T> AnalyticFunction<T> lastValue(TypedExpression<T> expression) {
+        return SqlFunction.of(LAST_VALUE, expression);
+    }
+
+    public static <T, R> AnalyticFunction<T> lastValue(Function1<R,T> columnGetter) {
+        return lastValue(UnresolvedColumn.of(columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lastValue(FunctionOptional1<R,T> columnGetter) {
+        return lastValue(UnresolvedColumn.of(columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lastValue(String alias, Function1<R,T> columnGetter) {
+        return lastValue(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lastValue(String alias, FunctionOptional1<R,T> columnGetter) {
+        return lastValue(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lastValue(Alias<R> alias, Function1<R,T> columnGetter) {
+        return lastValue(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    public static <T, R> AnalyticFunction<T> lastValue(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return lastValue(ResolvedColumn.of(alias, columnGetter));
+    }
+}
@@ -24,6 +24,7 @@ package com.cadenzauk.siesta.grammar.expression.condition;
 
 import com.cadenzauk.siesta.Condition;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.grammar.select.Select;
 
 import java.util.stream.Stream;
@@ -46,4 +47,10 @@ public class InSelectCondition<T> implements Condition<T> {
     public Stream<Object> args(Scope scope) {
         return innerSelect.args(scope);
     }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        builder.append(operator).append(' ');
+        innerSelect.render(builder, scope);
+    }
 }
@@ -24,6 +24,7 @@ package com.cadenzauk.siesta.grammar.expression.condition;
 
 import com.cadenzauk.siesta.Condition;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.grammar.expression.TypedExpression;
 
 import java.util.Optional;
@@ -49,4 +50,16 @@ public class OperatorExpressionCondition<T> implements Condition<T> {
     public Stream<Object> args(Scope scope) {
         return expression.args(scope);
     }
+
+    @Override
+    public Optional<T> equalityValue() {
+        return "=".equals(operator) ? expression.constantValue() : Optional.empty();
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        builder.append(operator).append(' ');
+        expression.render(builder, scope);
+        selectivity.ifPresent(s -> builder.append(scope.database().dialect().selectivity(s)));
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression.window;
+
+public final class FrameBound {
+    private static final FrameBound UNBOUNDED_PRECEDING = new FrameBound("unbounded preceding");
+    private static final FrameBound CURRENT_ROW = new FrameBound("current row");
+    private static final FrameBound UNBOUNDED_FOLLOWING = new FrameBound("unbounded following");
+
+    private final String sql;
+
+    private FrameBound(String sql) {
+        this.sql = sql;
+    }
+
+    public String sql() {
+        return sql;
+    }
+
+    public static FrameBound unboundedPreceding() {
+        return UNBOUNDED_PRECEDING;
+    }
+
+    public static FrameBound preceding(int rows) {
+        return new FrameBound(offset(rows) + " preceding");
+    }
+
+    public static FrameBound currentRow() {
+        return CURRENT_ROW;
+    }
+
+    public static FrameBound following(int rows) {
+        return new FrameBound(offset(rows) + " following");
+    }
+
+    public static FrameBound unboundedFollowing() {
+        return UNBOUNDED_FOLLOWING;
+    }
+
+    private static int offset(int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("A window frame offset cannot be negative.");
+        }
+        return rows;
+    }
+}
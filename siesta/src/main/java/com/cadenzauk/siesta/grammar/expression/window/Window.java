@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression.window;
+
+import com.cadenzauk.core.function.Function1;
+import com.cadenzauk.core.function.FunctionOptional1;
+import com.cadenzauk.core.util.UtilityClass;
+import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.Order;
+import com.cadenzauk.siesta.grammar.expression.TypedExpression;
+
+public final class Window extends UtilityClass {
+    public static <T> WindowSpec partitionBy(TypedExpression<T> expression) {
+        return new WindowSpec().partitionBy(expression);
+    }
+
+    public static <T, R> WindowSpec partitionBy(Function1<R,T> columnGetter) {
+        return new WindowSpec().partitionBy(columnGetter);
+    }
+
+    public static <T, R> WindowSpec partitionBy(FunctionOptional1<R,T> columnGetter) {
+        return new WindowSpec().partitionBy(columnGetter);
+    }
+
+    public static <T, R> WindowSpec partitionBy(String alias, Function1<R,T> columnGetter) {
+        return new WindowSpec().partitionBy(alias, columnGetter);
+    }
+
+    public static <T, R> WindowSpec partitionBy(String alias, FunctionOptional1<R,T> columnGetter) {
+        return new WindowSpec().partitionBy(alias, columnGetter);
+    }
+
+    public static <T, R> WindowSpec partitionBy(Alias<R> alias, Function1<R,T> columnGetter) {
+        return new WindowSpec().partitionBy(alias, columnGetter);
+    }
+
+    public static <T, R> WindowSpec partitionBy(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return new WindowSpec().partitionBy(alias, columnGetter);
+    }
+
+    public static <T> WindowSpec orderBy(TypedExpression<T> expression) {
+        return new WindowSpec().orderBy(expression);
+    }
+
+    public static <T, R> WindowSpec orderBy(Function1<R,T> columnGetter) {
+        return new WindowSpec().orderBy(columnGetter);
+    }
+
+    public static <T, R> WindowSpec orderBy(FunctionOptional1<R,T> columnGetter) {
+        return new WindowSpec().orderBy(columnGetter);
+    }
+
+    public static <T, R> WindowSpec orderBy(String alias, Function1<R,T> columnGetter) {
+        return new WindowSpec().orderBy(alias, columnGetter);
+    }
+
+    public static <T, R> WindowSpec orderBy(String alias, FunctionOptional1<R,T> columnGetter) {
+        return new WindowSpec().orderBy(alias, columnGetter);
+    }
+
+    public static <T, R> WindowSpec orderBy(Alias<R> alias, Function1<R,T> columnGetter) {
+        return new WindowSpec().orderBy(alias, columnGetter);
+    }
+
+    public static <T, R> WindowSpec orderBy(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return new WindowSpec().orderBy(alias, columnGetter);
+    }
+
+    public static <T> WindowSpec orderBy(TypedExpression<T> expression, Order order) {
+        return new WindowSpec().orderBy(expression, order);
+    }
+
+    public static <T, R> WindowSpec orderBy(Function1<R,T> columnGetter, Order order) {
+        return new WindowSpec().orderBy(columnGetter, order);
+    }
+
+    public static <T, R> WindowSpec orderBy(FunctionOptional1<R,T> columnGetter, Order order) {
+        return new WindowSpec().orderBy(columnGetter, order);
+    }
+
+    public static <T, R> WindowSpec orderBy(String alias, Function1<R,T> columnGetter, Order order) {
+        return new WindowSpec().orderBy(alias, columnGetter, order);
+    }
+
+    public static <T, R> WindowSpec orderBy(String alias, FunctionOptional1<R,T> columnGetter, Order order) {
+        return new WindowSpec().orderBy(alias, columnGetter, order);
+    }
+
+    public static <T, R> WindowSpec orderBy(Alias<R> alias, Function1<R,T> columnGetter, Order order) {
+        return new WindowSpec().orderBy(alias, columnGetter, order);
+    }
+
+    public static <T, R> WindowSpec orderBy(Alias<R> alias, FunctionOptional1<R,T> columnGetter, Order order) {
+        return new WindowSpec().orderBy(alias, columnGetter, order);
+    }
+}
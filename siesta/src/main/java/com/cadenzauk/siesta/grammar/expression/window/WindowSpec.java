@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression.window;
+
+import com.cadenzauk.core.function.Function1;
+import com.cadenzauk.core.function.FunctionOptional1;
+import com.cadenzauk.core.stream.StreamUtil;
+import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.Order;
+import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.grammar.expression.ResolvedColumn;
+import com.cadenzauk.siesta.grammar.expression.TypedExpression;
+import com.cadenzauk.siesta.grammar.expression.UnresolvedColumn;
+import com.cadenzauk.siesta.grammar.select.Ordering;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+
+public class WindowSpec {
+    private final List<TypedExpression<?>> partitionBy = new ArrayList<>();
+    private final List<Ordering<?>> orderBy = new ArrayList<>();
+    private Optional<String> frame = Optional.empty();
+
+    WindowSpec() {
+    }
+
+    String sql(Scope scope) {
+        return Stream.of(
+            partitionBy.isEmpty()
+                ? Optional.<String>empty()
+                : Optional.of("partition by " + partitionBy.stream().map(p -> p.sql(scope)).collect(joining(", "))),
+            orderBy.isEmpty()
+                ? Optional.<String>empty()
+                : Optional.of("order by " + orderBy.stream().map(o -> o.sql(scope)).collect(joining(", "))),
+            frame)
+            .flatMap(StreamUtil::of)
+            .collect(joining(" "));
+    }
+
+    Stream<Object> args(Scope scope) {
+        return Stream.concat(
+            partitionBy.stream().flatMap(p -> p.args(scope)),
+            orderBy.stream().flatMap(o -> o.args(scope)));
+    }
+
+    public <T> WindowSpec partitionBy(TypedExpression<T> expression) {
+        partitionBy.add(expression);
+        return this;
+    }
+
+    public <T, R> WindowSpec partitionBy(Function1<R,T> columnGetter) {
+        return partitionBy(UnresolvedColumn.of(columnGetter));
+    }
+
+    public <T, R> WindowSpec partitionBy(FunctionOptional1<R,T> columnGetter) {
+        return partitionBy(UnresolvedColumn.of(columnGetter));
+    }
+
+    public <T, R> WindowSpec partitionBy(String alias, Function1<R,T> columnGetter) {
+        return partitionBy(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public <T, R> WindowSpec partitionBy(String alias, FunctionOptional1<R,T> columnGetter) {
+        return partitionBy(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public <T, R> WindowSpec partitionBy(Alias<R> alias, Function1<R,T> columnGetter) {
+        return partitionBy(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    public <T, R> WindowSpec partitionBy(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return partitionBy(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    public <T> WindowSpec orderBy(TypedExpression<T> expression) {
+        return orderBy(expression, Order.ASC);
+    }
+
+    public <T, R> WindowSpec orderBy(Function1<R,T> columnGetter) {
+        return orderBy(columnGetter, Order.ASC);
+    }
+
+    public <T, R> WindowSpec orderBy(FunctionOptional1<R,T> columnGetter) {
+        return orderBy(columnGetter, Order.ASC);
+    }
+
+    public <T, R> WindowSpec orderBy(String alias, Function1<R,T> columnGetter) {
+        return orderBy(alias, columnGetter, Order.ASC);
+    }
+
+    public <T, R> WindowSpec orderBy(String alias, FunctionOptional1<R,T> columnGetter) {
+        return orderBy(alias, columnGetter, Order.ASC);
+    }
+
+    public <T, R> WindowSpec orderBy(Alias<R> alias, Function1<R,T> columnGetter) {
+        return orderBy(alias, columnGetter, Order.ASC);
+    }
+
+    public <T, R> WindowSpec orderBy(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return orderBy(alias, columnGetter, Order.ASC);
+    }
+
+    public <T> WindowSpec orderBy(TypedExpression<T> expression, Order order) {
+        orderBy.add(new Ordering<>(expression, order));
+        return this;
+    }
+
+    public <T, R> WindowSpec orderBy(Function1<R,T> columnGetter, Order order) {
+        return orderBy(UnresolvedColumn.of(columnGetter), order);
+    }
+
+    public <T, R> WindowSpec orderBy(FunctionOptional1<R,T> columnGetter, Order order) {
+        return orderBy(UnresolvedColumn.of(columnGetter), order);
+    }
+
+    public <T, R> WindowSpec orderBy(String alias, Function1<R,T> columnGetter, Order order) {
+        return orderBy(UnresolvedColumn.of(alias, columnGetter), order);
+    }
+
+    public <T, R> WindowSpec orderBy(String alias, FunctionOptional1<R,T> columnGetter, Order order) {
+        return orderBy(UnresolvedColumn.of(alias, columnGetter), order);
+    }
+
+    public <T, R> WindowSpec orderBy(Alias<R> alias, Function1<R,T> columnGetter, Order order) {
+        return orderBy(ResolvedColumn.of(alias, columnGetter), order);
+    }
+
+    public <T, R> WindowSpec orderBy(Alias<R> alias, FunctionOptional1<R,T> columnGetter, Order order) {
+        return orderBy(ResolvedColumn.of(alias, columnGetter), order);
+    }
+
+    public WindowSpec rows(FrameBound start) {
+        return frame("rows " + start.sql());
+    }
+
+    public WindowSpec rows(FrameBound start, FrameBound end) {
+        return frame("rows between " + start.sql() + " and " + end.sql());
+    }
+
+    public WindowSpec range(FrameBound start) {
+        return frame("range " + start.sql());
+    }
+
+    public WindowSpec range(FrameBound start, FrameBound end) {
+        return frame("range between " + start.sql() + " and " + end.sql());
+    }
+
+    private WindowSpec frame(String sql) {
+        frame = Optional.of(sql);
+        return this;
+    }
+}
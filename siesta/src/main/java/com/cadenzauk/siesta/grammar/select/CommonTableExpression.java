@@ -25,6 +25,7 @@ package com.cadenzauk.siesta.grammar.select;
 import com.cadenzauk.siesta.Alias;
 import com.cadenzauk.siesta.CteAlias;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.catalog.Column;
 import com.cadenzauk.siesta.catalog.Table;
 
@@ -36,7 +37,7 @@ import static java.util.stream.Collectors.joining;
 public class CommonTableExpression<RT> {
     private final Table<RT> table;
     private final String name;
-    private final SelectStatement<RT> select;
+    protected final SelectStatement<RT> select;
 
     CommonTableExpression(Table<RT> table, String name, SelectStatement<RT> select) {
         this.table = table;
@@ -57,6 +58,15 @@ public class CommonTableExpression<RT> {
         return select.args(actualScope);
     }
 
+    void render(SqlBuilder builder, Scope scope) {
+        Scope actualScope = scope.plus(select.scope());
+        builder.append(name)
+            .append('(')
+            .append(table.columns().map(Column::name).collect(joining(", ")))
+            .append(") as ");
+        select.render(builder, actualScope);
+    }
+
     public Alias<RT> as(String alias) {
         return new CteAlias<>(this, Optional.of(alias));
     }
@@ -73,6 +83,10 @@ public class CommonTableExpression<RT> {
         return table;
     }
 
+    public boolean isRecursive() {
+        return false;
+    }
+
     public Stream<CommonTableExpression<?>> commonTableExpressions() {
         return Stream.concat(select.commonTableExpressions(), Stream.of(this));
     }
@@ -32,6 +32,10 @@ public abstract class ExpectingGroupBy<RT> extends ExpectingUnion<RT> {
         super(statement);
     }
 
+    public InGroupByExpectingComma<RT> groupBy(Grouping grouping) {
+        return new InGroupByExpectingComma<>(statement).comma(grouping);
+    }
+
     public <T> InGroupByExpectingComma<RT> groupBy(TypedExpression<T> expression) {
         return new InGroupByExpectingComma<>(statement).comma(expression);
     }
@@ -97,23 +97,23 @@ public abstract class ExpectingSelect<RT> extends ExpectingWhere<RT> {
         return select(ResolvedColumn.of(alias, methodReference), label);
     }
 
-    public <R> InProjectionExpectingComma1<R> select(Class<R> rowClass) {
+    public <R> InProjectionExpectingOnly<R> select(Class<R> rowClass) {
         Alias<R> alias = scope().findAlias(rowClass);
         return select(alias);
     }
 
-    public <R> InProjectionExpectingComma1<R> select(Class<R> rowClass, String aliasName) {
+    public <R> InProjectionExpectingOnly<R> select(Class<R> rowClass, String aliasName) {
         Alias<R> alias = scope().findAlias(rowClass, aliasName);
         return select(alias);
     }
 
-    public <R> InProjectionExpectingComma1<R> select(Alias<R> alias) {
+    public <R> InProjectionExpectingOnly<R> select(Alias<R> alias) {
         SelectStatement<R> select = new SelectStatement<>(scope(),
             alias.type(),
             statement.from(),
             alias.rowMapper(),
             Projection.of(alias));
-        return new InProjectionExpectingComma1<>(select);
+        return new InProjectionExpectingOnly<>(select, alias);
     }
 
     public <R> InSelectIntoExpectingWith<R> selectInto(Class<R> rowClass) {
@@ -137,11 +137,12 @@ public abstract class ExpectingSelect<RT> extends ExpectingWhere<RT> {
     }
 
     private <T> InProjectionExpectingComma1<T> select(TypedExpression<T> column, Optional<String> label) {
+        String actualLabel = label.orElseGet(() -> column.label(scope()));
         SelectStatement<T> select = new SelectStatement<>(scope(),
             column.type(),
             statement.from(),
-            column.rowMapper(scope(), label.orElseGet(() -> column.label(scope()))),
-            Projection.of(column, label));
+            column.rowMapper(scope(), actualLabel),
+            Projection.of(column, actualLabel));
         return new InProjectionExpectingComma1<>(select);
     }
 }
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.select;
+
+import com.cadenzauk.core.function.Function1;
+import com.cadenzauk.core.function.FunctionOptional1;
+import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.grammar.expression.Expression;
+import com.cadenzauk.siesta.grammar.expression.Precedence;
+import com.cadenzauk.siesta.grammar.expression.ResolvedColumn;
+import com.cadenzauk.siesta.grammar.expression.TypedExpression;
+import com.cadenzauk.siesta.grammar.expression.UnresolvedColumn;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+public class Grouping implements Expression {
+    private final Kind kind;
+    private final List<Expression> elements = new ArrayList<>();
+
+    private Grouping(Kind kind) {
+        this.kind = kind;
+    }
+
+    @Override
+    public String sql(Scope scope) {
+        return kind.prefix + "(" + elements.stream().map(e -> e.sql(scope)).collect(joining(", ")) + ")";
+    }
+
+    @Override
+    public Stream<Object> args(Scope scope) {
+        return elements.stream().flatMap(e -> e.args(scope));
+    }
+
+    @Override
+    public Precedence precedence() {
+        return Precedence.UNARY;
+    }
+
+    public <T> Grouping comma(TypedExpression<T> expression) {
+        elements.add(expression);
+        return this;
+    }
+
+    public <T, R> Grouping comma(Function1<R,T> columnGetter) {
+        return comma(UnresolvedColumn.of(columnGetter));
+    }
+
+    public <T, R> Grouping comma(FunctionOptional1<R,T> columnGetter) {
+        return comma(UnresolvedColumn.of(columnGetter));
+    }
+
+    public <T, R> Grouping comma(String alias, Function1<R,T> columnGetter) {
+        return comma(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public <T, R> Grouping comma(String alias, FunctionOptional1<R,T> columnGetter) {
+        return comma(UnresolvedColumn.of(alias, columnGetter));
+    }
+
+    public <T, R> Grouping comma(Alias<R> alias, Function1<R,T> columnGetter) {
+        return comma(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    public <T, R> Grouping comma(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return comma(ResolvedColumn.of(alias, columnGetter));
+    }
+
+    List<List<Expression>> groupingSets() {
+        switch (kind) {
+            case ROLLUP:
+                return IntStream.rangeClosed(0, elements.size())
+                    .mapToObj(i -> ImmutableList.copyOf(elements.subList(0, elements.size() - i)))
+                    .collect(toList());
+            case CUBE:
+                return IntStream.range(0, 1 << elements.size())
+                    .map(i -> (1 << elements.size()) - 1 - i)
+                    .mapToObj(mask -> IntStream.range(0, elements.size())
+                        .filter(i -> (mask & (1 << i)) != 0)
+                        .mapToObj(elements::get)
+                        .collect(toList()))
+                    .collect(toList());
+            case SETS:
+                return elements.stream()
+                    .flatMap(e -> groupingSetsOf(e).stream())
+                    .collect(toList());
+            default:
+                return ImmutableList.of(ImmutableList.copyOf(elements));
+        }
+    }
+
+    static List<List<Expression>> groupingSetsOf(Expression expression) {
+        return expression instanceof Grouping
+            ? ((Grouping) expression).groupingSets()
+            : ImmutableList.of(ImmutableList.of(expression));
+    }
+
+    public static <T> Grouping rollup(TypedExpression<T> expression) {
+        return new Grouping(Kind.ROLLUP).comma(expression);
+    }
+
+    public static <T, R> Grouping rollup(Function1<R,T> columnGetter) {
+        return new Grouping(Kind.ROLLUP).comma(columnGetter);
+    }
+
+    public static <T, R> Grouping rollup(FunctionOptional1<R,T> columnGetter) {
+        return new Grouping(Kind.ROLLUP).comma(columnGetter);
+    }
+
+    public static <T, R> Grouping rollup(String alias, Function1<R,T> columnGetter) {
+        return new Grouping(Kind.ROLLUP).comma(alias, columnGetter);
+    }
+
+    public static <T, R> Grouping rollup(String alias, FunctionOptional1<R,T> columnGetter) {
+        return new Grouping(Kind.ROLLUP).comma(alias, columnGetter);
+    }
+
+    public static <T, R> Grouping rollup(Alias<R> alias, Function1<R,T> columnGetter) {
+        return new Grouping(Kind.ROLLUP).comma(alias, columnGetter);
+    }
+
+    public static <T, R> Grouping rollup(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return new Grouping(Kind.ROLLUP).comma(alias, columnGetter);
+    }
+
+    public static <T> Grouping cube(TypedExpression<T> expression) {
+        return new Grouping(Kind.CUBE).comma(expression);
+    }
+
+    public static <T, R> Grouping cube(Function1<R,T> columnGetter) {
+        return new Grouping(Kind.CUBE).comma(columnGetter);
+    }
+
+    public static <T, R> Grouping cube(FunctionOptional1<R,T> columnGetter) {
+        return new Grouping(Kind.CUBE).comma(columnGetter);
+    }
+
+    public static <T, R> Grouping cube(String alias, Function1<R,T> columnGetter) {
+        return new Grouping(Kind.CUBE).comma(alias, columnGetter);
+    }
+
+    public static <T, R> Grouping cube(String alias, FunctionOptional1<R,T> columnGetter) {
+        return new Grouping(Kind.CUBE).comma(alias, columnGetter);
+    }
+
+    public static <T, R> Grouping cube(Alias<R> alias, Function1<R,T> columnGetter) {
+        return new Grouping(Kind.CUBE).comma(alias, columnGetter);
+    }
+
+    public static <T, R> Grouping cube(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return new Grouping(Kind.CUBE).comma(alias, columnGetter);
+    }
+
+    public static Grouping set() {
+        return new Grouping(Kind.SET);
+    }
+
+    public static <T> Grouping set(TypedExpression<T> expression) {
+        return new Grouping(Kind.SET).comma(expression);
+    }
+
+    public static <T, R> Grouping set(Function1<R,T> columnGetter) {
+        return new Grouping(Kind.SET).comma(columnGetter);
+    }
+
+    public static <T, R> Grouping set(FunctionOptional1<R,T> columnGetter) {
+        return new Grouping(Kind.SET).comma(columnGetter);
+    }
+
+    public static <T, R> Grouping set(String alias, Function1<R,T> columnGetter) {
+        return new Grouping(Kind.SET).comma(alias, columnGetter);
+    }
+
+    public static <T, R> Grouping set(String alias, FunctionOptional1<R,T> columnGetter) {
+        return new Grouping(Kind.SET).comma(alias, columnGetter);
+    }
+
+    public static <T, R> Grouping set(Alias<R> alias, Function1<R,T> columnGetter) {
+        return new Grouping(Kind.SET).comma(alias, columnGetter);
+    }
+
+    public static <T, R> Grouping set(Alias<R> alias, FunctionOptional1<R,T> columnGetter) {
+        return new Grouping(Kind.SET).comma(alias, columnGetter);
+    }
+
+    public static Grouping groupingSets(Grouping... sets) {
+        Grouping result = new Grouping(Kind.SETS);
+        result.elements.addAll(Arrays.asList(sets));
+        return result;
+    }
+
+    private enum Kind {
+        ROLLUP("rollup "),
+        CUBE("cube "),
+        SET(""),
+        SETS("grouping sets ");
+
+        private final String prefix;
+
+        Kind(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+}
@@ -34,6 +34,11 @@ public class InGroupByExpectingComma<RT> extends ExpectingHaving<RT> {
         super(statement);
     }
 
+    public InGroupByExpectingComma<RT> comma(Grouping grouping) {
+        statement.addGroupBy(grouping);
+        return this;
+    }
+
     public <T> InGroupByExpectingComma<RT> comma(TypedExpression<T> column) {
         statement.addGroupBy(column);
         return this;
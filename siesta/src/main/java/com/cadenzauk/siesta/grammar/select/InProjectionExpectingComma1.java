@@ -120,14 +120,15 @@ public class InProjectionExpectingComma1<T1> extends ExpectingWhere<T1> {
     }
 
     private <T> InProjectionExpectingComma2<T1,T> comma(TypedExpression<T> col, Optional<String> label) {
+        String actualLabel = label.orElseGet(() -> col.label(scope()));
         SelectStatement<Tuple2<T1,T>> select = new SelectStatement<>(
             scope(),
             new TypeToken<Tuple2<T1,T>>() {},
             statement.from(),
             RowMappers.of(
                 statement.rowMapper(),
-                col.rowMapper(scope(), label.orElseGet(() -> col.label(scope())))),
-            Projection.of(statement.projection(), Projection.of(col, label)));
+                col.rowMapper(scope(), actualLabel)),
+            Projection.of(statement.projection(), Projection.of(col, actualLabel)));
         return new InProjectionExpectingComma2<>(select);
     }
 }
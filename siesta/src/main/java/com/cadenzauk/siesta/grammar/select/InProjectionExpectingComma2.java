@@ -123,14 +123,15 @@ public class InProjectionExpectingComma2<T1, T2> extends ExpectingWhere<Tuple2<T
 
     @NotNull
     private <T> InProjectionExpectingComma3<T1,T2,T> comma(TypedExpression<T> col, Optional<String> label) {
+        String actualLabel = label.orElseGet(() -> col.label(scope()));
         SelectStatement<Tuple3<T1,T2,T>> select = new SelectStatement<>(
             scope(),
             new TypeToken<Tuple3<T1,T2,T>>() {},
             statement.from(),
             RowMappers.add3rd(
                 statement.rowMapper(),
-                col.rowMapper(scope(), label.orElseGet(() -> col.label(scope())))),
-            Projection.of(statement.projection(), Projection.of(col, label)));
+                col.rowMapper(scope(), actualLabel)),
+            Projection.of(statement.projection(), Projection.of(col, actualLabel)));
         return new InProjectionExpectingComma3<>(select);
     }
 }
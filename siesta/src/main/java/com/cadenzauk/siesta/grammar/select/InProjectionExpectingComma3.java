@@ -123,14 +123,15 @@ public class InProjectionExpectingComma3<T1, T2, T3> extends ExpectingWhere<Tupl
 
     @NotNull
     private <T> InProjectionExpectingComma4<T1,T2,T3,T> comma(TypedExpression<T> col, Optional<String> label) {
+        String actualLabel = label.orElseGet(() -> col.label(scope()));
         SelectStatement<Tuple4<T1,T2,T3,T>> select = new SelectStatement<>(
             scope(),
             new TypeToken<Tuple4<T1,T2,T3,T>>() {},
             statement.from(),
             RowMappers.add4th(
                 statement.rowMapper(),
-                col.rowMapper(scope(), label.orElseGet(() -> col.label(scope())))),
-            Projection.of(statement.projection(), Projection.of(col, label)));
+                col.rowMapper(scope(), actualLabel)),
+            Projection.of(statement.projection(), Projection.of(col, actualLabel)));
         return new InProjectionExpectingComma4<>(select);
     }
 }
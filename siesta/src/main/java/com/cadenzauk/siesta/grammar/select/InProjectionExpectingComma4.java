@@ -123,14 +123,15 @@ public class InProjectionExpectingComma4<T1, T2, T3, T4> extends ExpectingWhere<
 
     @NotNull
     private <T> InProjectionExpectingComma5<T1,T2,T3,T4,T> comma(TypedExpression<T> col, Optional<String> label) {
+        String actualLabel = label.orElseGet(() -> col.label(scope()));
         SelectStatement<Tuple5<T1,T2,T3,T4,T>> select = new SelectStatement<>(
             scope(),
             new TypeToken<Tuple5<T1,T2,T3,T4,T>>() {},
             statement.from(),
             RowMappers.add5th(
                 statement.rowMapper(),
-                col.rowMapper(scope(), label.orElseGet(() -> col.label(scope())))),
-            Projection.of(statement.projection(), Projection.of(col, label)));
+                col.rowMapper(scope(), actualLabel)),
+            Projection.of(statement.projection(), Projection.of(col, actualLabel)));
         return new InProjectionExpectingComma5<>(select);
     }
 }
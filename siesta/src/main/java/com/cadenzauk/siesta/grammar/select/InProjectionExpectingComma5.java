@@ -123,14 +123,15 @@ public class InProjectionExpectingComma5<T1, T2, T3, T4, T5> extends ExpectingWh
 
     @NotNull
     private <T> InProjectionExpectingComma6<T1,T2,T3,T4,T5,T> comma(TypedExpression<T> col, Optional<String> label) {
+        String actualLabel = label.orElseGet(() -> col.label(scope()));
         SelectStatement<Tuple6<T1,T2,T3,T4,T5,T>> select = new SelectStatement<>(
             scope(),
             new TypeToken<Tuple6<T1,T2,T3,T4,T5,T>>() {},
             statement.from(),
             RowMappers.add6th(
                 statement.rowMapper(),
-                col.rowMapper(scope(), label.orElseGet(() -> col.label(scope())))),
-            Projection.of(statement.projection(), Projection.of(col, label)));
+                col.rowMapper(scope(), actualLabel)),
+            Projection.of(statement.projection(), Projection.of(col, actualLabel)));
         return new InProjectionExpectingComma6<>(select);
     }
 }
@@ -123,14 +123,15 @@ public class InProjectionExpectingComma6<T1, T2, T3, T4, T5, T6> extends Expecti
 
     @NotNull
     private <T> InProjectionExpectingComma7<T1,T2,T3,T4,T5,T6,T> comma(TypedExpression<T> col, Optional<String> label) {
+        String actualLabel = label.orElseGet(() -> col.label(scope()));
         SelectStatement<Tuple7<T1,T2,T3,T4,T5,T6,T>> select = new SelectStatement<>(
             scope(),
             new TypeToken<Tuple7<T1,T2,T3,T4,T5,T6,T>>() {},
             statement.from(),
             RowMappers.add7th(
                 statement.rowMapper(),
-                col.rowMapper(scope(), label.orElseGet(() -> col.label(scope())))),
-            Projection.of(statement.projection(), Projection.of(col, label)));
+                col.rowMapper(scope(), actualLabel)),
+            Projection.of(statement.projection(), Projection.of(col, actualLabel)));
         return new InProjectionExpectingComma7<>(select);
     }
 }
@@ -123,14 +123,15 @@ public class InProjectionExpectingComma7<T1, T2, T3, T4, T5, T6, T7> extends Exp
 
     @NotNull
     private <T> InProjectionExpectingComma8<T1,T2,T3,T4,T5,T6,T7,T> comma(TypedExpression<T> col, Optional<String> label) {
+        String actualLabel = label.orElseGet(() -> col.label(scope()));
         SelectStatement<Tuple8<T1,T2,T3,T4,T5,T6,T7,T>> select = new SelectStatement<>(
             scope(),
             new TypeToken<Tuple8<T1,T2,T3,T4,T5,T6,T7,T>>() {},
             statement.from(),
             RowMappers.add8th(
                 statement.rowMapper(),
-                col.rowMapper(scope(), label.orElseGet(() -> col.label(scope())))),
-            Projection.of(statement.projection(), Projection.of(col, label)));
+                col.rowMapper(scope(), actualLabel)),
+            Projection.of(statement.projection(), Projection.of(col, actualLabel)));
         return new InProjectionExpectingComma8<>(select);
     }
 }
@@ -123,14 +123,15 @@ public class InProjectionExpectingComma8<T1, T2, T3, T4, T5, T6, T7, T8> extends
 
     @NotNull
     private <T> ExpectingWhere<Tuple9<T1,T2,T3,T4,T5,T6,T7,T8,T>> comma(TypedExpression<T> col, Optional<String> label) {
+        String actualLabel = label.orElseGet(() -> col.label(scope()));
         SelectStatement<Tuple9<T1,T2,T3,T4,T5,T6,T7,T8,T>> select = new SelectStatement<>(
             scope(),
             new TypeToken<Tuple9<T1,T2,T3,T4,T5,T6,T7,T8,T>>() {},
             statement.from(),
             RowMappers.add9th(
                 statement.rowMapper(),
-                col.rowMapper(scope(), label.orElseGet(() -> col.label(scope())))),
-            Projection.of(statement.projection(), Projection.of(col, label)));
+                col.rowMapper(scope(), actualLabel)),
+            Projection.of(statement.projection(), Projection.of(col, actualLabel)));
         return new ExpectingWhere<>(select);
     }
 }
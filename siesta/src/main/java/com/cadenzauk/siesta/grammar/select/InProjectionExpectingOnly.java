@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.select;
+
+import com.cadenzauk.core.function.Function1;
+import com.cadenzauk.core.function.FunctionOptional1;
+import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.DynamicRowMapper;
+import com.cadenzauk.siesta.grammar.expression.ResolvedColumn;
+import com.cadenzauk.siesta.grammar.expression.TypedExpression;
+import com.cadenzauk.siesta.projection.DynamicProjection;
+
+public class InProjectionExpectingOnly<R> extends InProjectionExpectingComma1<R> {
+    private final Alias<R> alias;
+
+    public InProjectionExpectingOnly(SelectStatement<R> statement, Alias<R> alias) {
+        super(statement);
+        this.alias = alias;
+    }
+
+    public <T> InOnlyExpectingComma<R> only(Function1<R,T> methodReference) {
+        return only(ResolvedColumn.of(alias, methodReference));
+    }
+
+    public <T> InOnlyExpectingComma<R> only(FunctionOptional1<R,T> methodReference) {
+        return only(ResolvedColumn.of(alias, methodReference));
+    }
+
+    private <T> InOnlyExpectingComma<R> only(TypedExpression<T> column) {
+        DynamicRowMapper<R> rowMapper = alias.dynamicRowMapper();
+        DynamicProjection projection = new DynamicProjection();
+        SelectStatement<R> select = new SelectStatement<>(scope(),
+            alias.type(),
+            statement.from(),
+            rowMapper,
+            projection);
+        return new InOnlyExpectingComma<>(select, alias, rowMapper, projection).comma(column);
+    }
+}
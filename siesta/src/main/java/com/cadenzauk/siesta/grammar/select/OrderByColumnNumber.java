@@ -22,8 +22,13 @@
 
 package com.cadenzauk.siesta.grammar.select;
 
+import com.cadenzauk.core.sql.RuntimeSqlException;
 import com.cadenzauk.siesta.Order;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
 
 public class OrderByColumnNumber implements OrderingClause {
     private final int columnNumber;
@@ -38,4 +43,22 @@ public class OrderByColumnNumber implements OrderingClause {
     public String sql(Scope scope) {
         return columnNumber + " " + order.sql();
     }
+
+    @Override
+    public Order order() {
+        return order;
+    }
+
+    @Override
+    public void renderSortKey(SqlBuilder builder, Scope scope, String label) {
+    }
+
+    @Override
+    public Object sortKey(ResultSet rs, String label) {
+        try {
+            return rs.getObject(columnNumber);
+        } catch (SQLException e) {
+            throw new RuntimeSqlException(e);
+        }
+    }
 }
@@ -22,10 +22,17 @@
 
 package com.cadenzauk.siesta.grammar.select;
 
+import com.cadenzauk.core.sql.RuntimeSqlException;
 import com.cadenzauk.siesta.Order;
+import com.cadenzauk.siesta.Projection;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.grammar.expression.TypedExpression;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.stream.Stream;
+
 public class Ordering<T> implements OrderingClause {
     private final TypedExpression<T> expression;
     private final Order order;
@@ -38,4 +45,47 @@ public class Ordering<T> implements OrderingClause {
     public String sql(Scope scope) {
         return expression.sql(scope) + " " + order.sql();
     }
+
+    public Stream<Object> args(Scope scope) {
+        return expression.args(scope);
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        expression.render(builder, scope);
+        builder.append(' ').append(order.sql());
+    }
+
+    @Override
+    public void renderByColumnNumber(SqlBuilder builder, Scope scope, Projection projection) {
+        String sql = expression.sql(scope);
+        int columnNumber = projection.columnNumberOf(sql, scope)
+            .orElseThrow(() -> new IllegalArgumentException("Cannot order by " + sql + " as it is not in the select list."));
+        builder.append(columnNumber).append(' ').append(order.sql());
+    }
+
+    @Override
+    public Order order() {
+        return order;
+    }
+
+    @Override
+    public void renderSortKey(SqlBuilder builder, Scope scope, String label) {
+        builder.append(", ");
+        if (scope.isRolledUp(expression.sql(scope))) {
+            builder.append("null");
+        } else {
+            expression.render(builder, scope);
+        }
+        builder.append(" as ").append(label);
+    }
+
+    @Override
+    public Object sortKey(ResultSet rs, String label) {
+        try {
+            return rs.getObject(label);
+        } catch (SQLException e) {
+            throw new RuntimeSqlException(e);
+        }
+    }
 }
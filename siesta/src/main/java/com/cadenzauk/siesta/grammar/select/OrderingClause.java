@@ -22,8 +22,27 @@
 
 package com.cadenzauk.siesta.grammar.select;
 
+import com.cadenzauk.siesta.Order;
+import com.cadenzauk.siesta.Projection;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
+
+import java.sql.ResultSet;
 
 public interface OrderingClause {
     String sql(Scope scope);
+
+    default void render(SqlBuilder builder, Scope scope) {
+        builder.append(sql(scope));
+    }
+
+    default void renderByColumnNumber(SqlBuilder builder, Scope scope, Projection projection) {
+        render(builder, scope);
+    }
+
+    Order order();
+
+    void renderSortKey(SqlBuilder builder, Scope scope, String label);
+
+    Object sortKey(ResultSet rs, String label);
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.select;
+
+import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
+import com.cadenzauk.siesta.catalog.Column;
+import com.cadenzauk.siesta.catalog.Table;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+
+public class RecursiveCommonTableExpression<RT> extends CommonTableExpression<RT> {
+    private static final String DEPTH_COLUMN = "siesta_depth";
+
+    private final String recursiveAlias;
+    private final Optional<Integer> maxDepth;
+    private final SelectStatement<RT> recursive;
+
+    RecursiveCommonTableExpression(Table<RT> table, String name, SelectStatement<RT> anchor, String recursiveAlias, Function<Alias<RT>,SelectStatement<RT>> recursive, Optional<Integer> maxDepth) {
+        super(table, name, anchor);
+        if (!anchor.canRenderAsRecursiveMember()) {
+            throw new IllegalArgumentException("The anchor of a recursive common table expression cannot have unions, an order by, a fetch first, grouping sets, hints or locks.");
+        }
+        this.recursiveAlias = recursiveAlias;
+        this.maxDepth = maxDepth;
+        this.recursive = recursive.apply(as(recursiveAlias));
+        if (!this.recursive.canRenderAsRecursiveMember()) {
+            throw new IllegalArgumentException("The recursive member of a recursive common table expression cannot have unions, an order by, a fetch first, grouping sets, hints or locks.");
+        }
+    }
+
+    @Override
+    public String sql(Scope scope) {
+        return SqlBuilder.sqlOf(this::render, scope);
+    }
+
+    @Override
+    public Stream<Object> args(Scope scope) {
+        return SqlBuilder.argsOf(this::render, scope);
+    }
+
+    @Override
+    void render(SqlBuilder builder, Scope scope) {
+        builder.append(name())
+            .append('(')
+            .append(table().columns().map(Column::name).collect(joining(", ")));
+        maxDepth.ifPresent(d -> builder.append(", ").append(DEPTH_COLUMN));
+        builder.append(") as (");
+        select.renderAsRecursiveMember(builder, scope.plus(select.scope()),
+            maxDepth.map(d -> "1"),
+            Optional.empty());
+        builder.append(" union all ");
+        recursive.renderAsRecursiveMember(builder, scope.plus(recursive.scope()),
+            maxDepth.map(d -> recursiveAlias + "." + DEPTH_COLUMN + " + 1"),
+            maxDepth.map(d -> recursiveAlias + "." + DEPTH_COLUMN + " < " + d));
+        builder.append(')');
+    }
+
+    @Override
+    public boolean isRecursive() {
+        return true;
+    }
+
+    @Override
+    public Stream<CommonTableExpression<?>> commonTableExpressions() {
+        Stream<CommonTableExpression<?>> dependencies = Stream.concat(select.commonTableExpressions(), recursive.commonTableExpressions())
+            .filter(cte -> cte != this)
+            .distinct();
+        return Stream.concat(dependencies, Stream.of(this));
+    }
+}
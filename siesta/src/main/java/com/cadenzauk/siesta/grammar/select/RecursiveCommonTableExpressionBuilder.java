@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.select;
+
+import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.Database;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+public class RecursiveCommonTableExpressionBuilder {
+    private final Database database;
+    private final String name;
+    private Optional<Integer> maxDepth = Optional.empty();
+
+    public RecursiveCommonTableExpressionBuilder(Database database, String name) {
+        this.database = database;
+        this.name = name;
+    }
+
+    public RecursiveCommonTableExpressionBuilder maxDepth(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The maximum depth must be at least one.");
+        }
+        maxDepth = Optional.of(depth);
+        return this;
+    }
+
+    public <RT> ExpectingUnionAll<RT> anchor(Select<RT> anchor) {
+        return new ExpectingUnionAll<>(anchor);
+    }
+
+    public class ExpectingUnionAll<RT> {
+        private final Select<RT> anchor;
+
+        private ExpectingUnionAll(Select<RT> anchor) {
+            this.anchor = anchor;
+        }
+
+        public RecursiveCommonTableExpression<RT> unionAll(String aliasName, Function<Alias<RT>,Select<RT>> recursive) {
+            return new RecursiveCommonTableExpression<>(database.table(anchor.type()), name, anchor.statement, aliasName,
+                alias -> recursive.apply(alias).statement, maxDepth);
+        }
+    }
+}
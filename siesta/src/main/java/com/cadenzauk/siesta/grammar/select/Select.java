@@ -26,21 +26,28 @@ import com.cadenzauk.core.lang.CompositeAutoCloseable;
 import com.cadenzauk.core.sql.RowMapper;
 import com.cadenzauk.siesta.Alias;
 import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.FetchSize;
 import com.cadenzauk.siesta.From;
 import com.cadenzauk.siesta.IsolationLevel;
 import com.cadenzauk.siesta.LockLevel;
+import com.cadenzauk.siesta.LockWait;
 import com.cadenzauk.siesta.Projection;
+import com.cadenzauk.siesta.QueryHint;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.SqlExecutor;
 import com.cadenzauk.siesta.Transaction;
 import com.cadenzauk.siesta.catalog.Table;
 import com.cadenzauk.siesta.grammar.expression.Precedence;
 import com.cadenzauk.siesta.grammar.expression.TypedExpression;
 import com.google.common.reflect.TypeToken;
+import org.reactivestreams.Publisher;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 public abstract class Select<RT> implements TypedExpression<RT> {
@@ -86,6 +93,22 @@ public abstract class Select<RT> implements TypedExpression<RT> {
         return statement.stream(transaction, compositeAutoCloseable);
     }
 
+    public Publisher<RT> publish() {
+        return publish(defaultSqlExecutor(), ForkJoinPool.commonPool());
+    }
+
+    public Publisher<RT> publish(Executor executor) {
+        return publish(defaultSqlExecutor(), executor);
+    }
+
+    public Publisher<RT> publish(SqlExecutor sqlExecutor, Executor executor) {
+        return statement.publish(sqlExecutor, executor);
+    }
+
+    public Publisher<RT> publish(Transaction transaction, Executor executor) {
+        return statement.publish(transaction, executor);
+    }
+
     public RT single() {
         return single(defaultSqlExecutor());
     }
@@ -102,6 +125,10 @@ public abstract class Select<RT> implements TypedExpression<RT> {
         return statement.singleAsync(transaction);
     }
 
+    public List<RT> claim(Transaction transaction, int batchSize) {
+        return statement.claim(transaction, batchSize);
+    }
+
     public Select<RT> fetchFirst(long i) {
         statement.fetchFirst(i);
         return this;
@@ -117,6 +144,36 @@ public abstract class Select<RT> implements TypedExpression<RT> {
         return this;
     }
 
+    public Select<RT> fetchSize(int rows) {
+        statement.fetchSize(FetchSize.rows(rows));
+        return this;
+    }
+
+    public Select<RT> adaptiveFetchSize(long targetBytes) {
+        statement.fetchSize(FetchSize.adaptive(targetBytes));
+        return this;
+    }
+
+    public Select<RT> skipLocked() {
+        statement.lockWait(LockWait.SKIP_LOCKED);
+        return this;
+    }
+
+    public Select<RT> noWait() {
+        statement.lockWait(LockWait.NO_WAIT);
+        return this;
+    }
+
+    public Select<RT> waitSeconds(int seconds) {
+        statement.lockWait(LockWait.seconds(seconds));
+        return this;
+    }
+
+    public Select<RT> hint(QueryHint hint) {
+        statement.hint(hint);
+        return this;
+    }
+
     @Override
     public TypeToken<RT> type() {
         return statement.rowType();
@@ -131,6 +188,19 @@ public abstract class Select<RT> implements TypedExpression<RT> {
         return statement.sql(scope);
     }
 
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        statement.render(builder, scope);
+    }
+
+    public boolean canRenderAsExists() {
+        return statement.canRenderAsExists();
+    }
+
+    public void renderAsExists(SqlBuilder builder, Scope scope, TypedExpression<RT> lhs) {
+        statement.renderAsExists(builder, scope, lhs);
+    }
+
     @Override
     public String label(Scope scope) {
         return statement.label();
@@ -24,36 +24,55 @@ package com.cadenzauk.siesta.grammar.select;
 
 import com.cadenzauk.core.lang.CompositeAutoCloseable;
 import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.core.stream.StreamPublisher;
 import com.cadenzauk.core.tuple.Tuple;
 import com.cadenzauk.core.tuple.Tuple2;
 import com.cadenzauk.core.util.OptionalUtil;
+import com.cadenzauk.siesta.FetchSize;
 import com.cadenzauk.siesta.From;
 import com.cadenzauk.siesta.IsolationLevel;
 import com.cadenzauk.siesta.LockLevel;
+import com.cadenzauk.siesta.LockWait;
 import com.cadenzauk.siesta.Order;
 import com.cadenzauk.siesta.Projection;
+import com.cadenzauk.siesta.QueryHint;
+import com.cadenzauk.siesta.RoutingContext;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.SqlExecutor;
 import com.cadenzauk.siesta.Transaction;
 import com.cadenzauk.siesta.grammar.expression.BooleanExpression;
+import com.cadenzauk.siesta.grammar.expression.ColumnRef;
+import com.cadenzauk.siesta.grammar.expression.Expression;
+import com.cadenzauk.siesta.grammar.expression.Precedence;
+import com.cadenzauk.siesta.grammar.expression.ResolvedColumn;
 import com.cadenzauk.siesta.grammar.expression.TypedExpression;
+import com.cadenzauk.siesta.grammar.expression.UnresolvedColumn;
+import com.cadenzauk.siesta.projection.ExpressionProjection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.reflect.TypeToken;
-import org.jetbrains.annotations.NotNull;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Function;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 class SelectStatement<RT> {
     private static final Logger LOG = LoggerFactory.getLogger(SelectStatement.class);
+    private static final int DEFAULT_PUBLISH_BATCH_SIZE = 100;
 
     protected final Scope scope;
     private final List<CommonTableExpression<?>> commonTableExpressions = new ArrayList<>();
@@ -62,13 +81,18 @@ class SelectStatement<RT> {
     private final RowMapper<RT> rowMapper;
     private final Projection projection;
     private BooleanExpression whereClause;
-    private final List<TypedExpression<?>> groupByClauses = new ArrayList<>();
+    private final List<Expression> groupByClauses = new ArrayList<>();
     private BooleanExpression havingClause;
     private final List<Tuple2<UnionType,SelectStatement<RT>>> unions = new ArrayList<>();
     private final List<OrderingClause> orderByClauses = new ArrayList<>();
     private Optional<Long> fetchFirst = Optional.empty();
     private IsolationLevel isolationLevel = IsolationLevel.UNSPECIFIED;
     private Optional<LockLevel> keepLocks = Optional.empty();
+    private LockWait lockWait = LockWait.WAIT;
+    private FetchSize fetchSize = FetchSize.DEFAULT;
+    private final List<QueryHint> hints = new ArrayList<>();
+    private volatile int sqlLengthHint = 256;
+    private volatile int argCountHint = 16;
 
     SelectStatement(Scope scope, TypeToken<RT> rowType, From from, RowMapper<RT> rowMapper, Projection projection) {
         this.scope = scope;
@@ -78,6 +102,22 @@ class SelectStatement<RT> {
         this.projection = projection;
     }
 
+    private SelectStatement(SelectStatement<RT> source) {
+        this(source.scope, source.rowType, source.from, source.rowMapper, source.projection);
+        commonTableExpressions.addAll(source.commonTableExpressions);
+        whereClause = source.whereClause;
+        groupByClauses.addAll(source.groupByClauses);
+        havingClause = source.havingClause;
+        unions.addAll(source.unions);
+        orderByClauses.addAll(source.orderByClauses);
+        fetchFirst = source.fetchFirst;
+        isolationLevel = source.isolationLevel;
+        keepLocks = source.keepLocks;
+        lockWait = source.lockWait;
+        fetchSize = source.fetchSize;
+        hints.addAll(source.hints);
+    }
+
     public TypeToken<RT> rowType() {
         return rowType;
     }
@@ -97,24 +137,77 @@ class SelectStatement<RT> {
     }
 
     String sql(Scope outerScope) {
-        return "(" + sqlImpl(outerScope) + ")";
+        return SqlBuilder.sqlOf(this::render, outerScope);
+    }
+
+    void render(SqlBuilder builder, Scope outerScope) {
+        builder.append('(');
+        renderImpl(builder, outerScope);
+        builder.append(')');
     }
 
     String label() {
         return null;
     }
 
-    Stream<Object> args(Scope outerScope) {
+    boolean canRenderAsExists() {
+        return projection instanceof ExpressionProjection
+            && isColumnReference(((ExpressionProjection<?>) projection).expression())
+            && commonTableExpressions.isEmpty()
+            && groupByClauses.isEmpty()
+            && havingClause == null
+            && unions.isEmpty()
+            && !fetchFirst.isPresent();
+    }
+
+    private static boolean isColumnReference(TypedExpression<?> expression) {
+        return expression instanceof ResolvedColumn
+            || expression instanceof UnresolvedColumn
+            || expression instanceof ColumnRef;
+    }
+
+    void renderAsExists(SqlBuilder builder, Scope outerScope, TypedExpression<RT> lhs) {
+        if (!canRenderAsExists()) {
+            throw new IllegalStateException("Only a simple single column select can be rendered as exists.");
+        }
         Scope innerScope = outerScope.plus(scope);
-        return Stream.of(
-            cteArgs(outerScope),
-            projection.args(innerScope),
-            from.args(innerScope),
-            whereClauseArgs(innerScope),
-            groupByClauseArgs(innerScope),
-            havingClauseArgs(innerScope),
-            unionsArgs(innerScope)
-        ).flatMap(Function.identity());
+        builder.append("(select 1");
+        from.render(builder, innerScope);
+        renderWhereClause(builder, innerScope, b -> {
+            ((ExpressionProjection<?>) projection).expression().render(b, innerScope);
+            b.append(" = ");
+            lhs.render(b, outerScope);
+        });
+        builder.append(')');
+    }
+
+    boolean canRenderAsRecursiveMember() {
+        return unions.isEmpty()
+            && orderByClauses.isEmpty()
+            && !fetchFirst.isPresent()
+            && groupByClauses.stream().noneMatch(g -> g instanceof Grouping)
+            && hints.isEmpty()
+            && isolationLevel == IsolationLevel.UNSPECIFIED
+            && !keepLocks.isPresent();
+    }
+
+    void renderAsRecursiveMember(SqlBuilder builder, Scope outerScope, Optional<String> depth, Optional<String> depthGuard) {
+        Scope innerScope = outerScope.plus(scope);
+        builder.append("select ");
+        projection.render(builder, innerScope);
+        depth.ifPresent(d -> builder.append(", ").append(d));
+        from.render(builder, innerScope);
+        if (depthGuard.isPresent()) {
+            renderWhereClause(builder, innerScope, b -> b.append(depthGuard.get()));
+        } else {
+            renderWhereClause(builder, innerScope);
+        }
+        renderGroupByClause(builder, innerScope, groupByClauses);
+        renderHavingClause(builder, innerScope);
+    }
+
+    Stream<Object> args(Scope outerScope) {
+        return Arrays.stream(render(outerScope).args());
     }
 
     Projection projection() {
@@ -133,25 +226,40 @@ class SelectStatement<RT> {
         keepLocks = Optional.of(level);
     }
 
+    void lockWait(LockWait wait) {
+        lockWait = wait;
+        keepLocks = Optional.of(keepLocks.orElse(LockLevel.UPDATE));
+    }
+
+    void fetchSize(FetchSize size) {
+        fetchSize = size;
+    }
+
+    void hint(QueryHint hint) {
+        hints.add(hint);
+    }
+
     List<RT> list(SqlExecutor sqlExecutor) {
-        Object[] args = args(scope).toArray();
-        String sql = sql();
-        LOG.debug(sql);
-        return sqlExecutor.query(sql, args, rowMapper());
+        SqlExecutor target = readExecutor(sqlExecutor);
+        if (target.scattersAcrossShards()) {
+            return gather(target);
+        }
+        SqlBuilder builder = renderForExecution();
+        return target.query(builder.sql(), builder.args(), rowMapper());
     }
 
     List<RT> list(Transaction transaction) {
-        Object[] args = args(scope).toArray();
-        String sql = sql();
-        LOG.debug(sql);
-        return transaction.query(sql, args, rowMapper());
+        SqlBuilder builder = renderForExecution();
+        return fetchSize == FetchSize.DEFAULT
+            ? transaction.query(builder.sql(), builder.args(), rowMapper())
+            : transaction.query(builder.sql(), builder.args(), rowMapper(), fetchSize);
     }
 
     CompletableFuture<List<RT>> listAsync(Transaction transaction) {
-        Object[] args = args(scope).toArray();
-        String sql = sql();
-        LOG.debug(sql);
-        return transaction.queryAsync(sql, args, rowMapper());
+        SqlBuilder builder = renderForExecution();
+        return fetchSize == FetchSize.DEFAULT
+            ? transaction.queryAsync(builder.sql(), builder.args(), rowMapper())
+            : transaction.queryAsync(builder.sql(), builder.args(), rowMapper(), fetchSize);
     }
 
     Optional<RT> optional(SqlExecutor sqlExecutor) {
@@ -163,17 +271,117 @@ class SelectStatement<RT> {
     }
 
     Stream<RT> stream(SqlExecutor sqlExecutor, CompositeAutoCloseable autoCloseable) {
-        Object[] args = args(scope).toArray();
-        String sql = sql();
-        LOG.debug(sql);
-        return autoCloseable.add(sqlExecutor.stream(sql, args, rowMapper()));
+        return autoCloseable.add(stream(readExecutor(sqlExecutor)));
     }
 
     Stream<RT> stream(Transaction transaction, CompositeAutoCloseable autoCloseable) {
-        Object[] args = args(scope).toArray();
-        String sql = sql();
-        LOG.debug(sql);
-        return autoCloseable.add(transaction.stream(sql, args, rowMapper()));
+        return autoCloseable.add(stream(transaction));
+    }
+
+    Publisher<RT> publish(SqlExecutor sqlExecutor, Executor executor) {
+        SqlExecutor readExecutor = readExecutor(sqlExecutor);
+        int batchSize = readExecutor.fetchSize() > 0 ? readExecutor.fetchSize() : DEFAULT_PUBLISH_BATCH_SIZE;
+        return new StreamPublisher<>(() -> stream(readExecutor), executor, batchSize);
+    }
+
+    Publisher<RT> publish(Transaction transaction, Executor executor) {
+        int batchSize = fetchSize.rows() > 0 ? fetchSize.rows() : DEFAULT_PUBLISH_BATCH_SIZE;
+        return new StreamPublisher<>(() -> stream(transaction), executor, batchSize);
+    }
+
+    private SqlExecutor readExecutor(SqlExecutor sqlExecutor) {
+        SqlExecutor target = sqlExecutor.readExecutor(isolationLevel, keepLocks).route(routingContext());
+        return fetchSize == FetchSize.DEFAULT ? target : target.withFetchSize(fetchSize);
+    }
+
+    private SqlExecutor streamingExecutor(SqlExecutor target) {
+        return scope.dialect().serverSideCursorRequiresTransaction() ? target.withServerSideCursor() : target;
+    }
+
+    private RoutingContext routingContext() {
+        return whereClause == null || !unions.isEmpty() ? RoutingContext.NONE : whereClause.routingContext(scope);
+    }
+
+    private Stream<RT> stream(Transaction transaction) {
+        SqlBuilder builder = renderForExecution();
+        return fetchSize == FetchSize.DEFAULT
+            ? transaction.stream(builder.sql(), builder.args(), rowMapper())
+            : transaction.stream(builder.sql(), builder.args(), rowMapper(), fetchSize);
+    }
+
+    private Stream<RT> stream(SqlExecutor target) {
+        if (target.scattersAcrossShards() && !orderByClauses.isEmpty()) {
+            return gather(target).stream();
+        }
+        SqlBuilder builder = renderForExecution();
+        Stream<RT> stream = streamingExecutor(target).stream(builder.sql(), builder.args(), rowMapper());
+        return target.scattersAcrossShards() && fetchFirst.isPresent()
+            ? stream.limit(fetchFirst.get())
+            : stream;
+    }
+
+    private List<RT> gather(SqlExecutor target) {
+        if (orderByClauses.isEmpty()) {
+            SqlBuilder builder = renderForExecution();
+            return target.query(builder.sql(), builder.args(), rowMapper()).stream()
+                .limit(fetchFirst.orElse(Long.MAX_VALUE))
+                .collect(toList());
+        }
+        if (!unions.isEmpty()) {
+            throw new UnsupportedOperationException("An ordered union cannot be gathered from more than one shard.");
+        }
+        SqlBuilder builder = renderForExecution(true);
+        return target.query(builder.sql(), builder.args(), sortKeyRowMapper()).stream()
+            .sorted(Comparator.comparing(Tuple2::item2, sortKeyOrder()))
+            .limit(fetchFirst.orElse(Long.MAX_VALUE))
+            .map(Tuple2::item1)
+            .collect(toList());
+    }
+
+    private RowMapper<Tuple2<RT,List<Object>>> sortKeyRowMapper() {
+        return rs -> {
+            RT row = rowMapper.mapRow(rs);
+            List<Object> keys = new ArrayList<>(orderByClauses.size());
+            for (int i = 0; i < orderByClauses.size(); i++) {
+                keys.add(orderByClauses.get(i).sortKey(rs, sortKeyLabel(i)));
+            }
+            return Tuple.of(row, keys);
+        };
+    }
+
+    private Comparator<List<Object>> sortKeyOrder() {
+        Comparator<List<Object>> comparator = (a, b) -> 0;
+        for (int i = 0; i < orderByClauses.size(); i++) {
+            int index = i;
+            Comparator<Object> keyOrder = Comparator.nullsLast(SelectStatement::compareSortKeys);
+            comparator = comparator.thenComparing(keys -> keys.get(index), orderByClauses.get(i).order() == Order.DESC ? keyOrder.reversed() : keyOrder);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareSortKeys(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private static String sortKeyLabel(int index) {
+        return "siesta_sort_" + (index + 1);
+    }
+
+    List<RT> claim(Transaction transaction, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+        SelectStatement<RT> claim = new SelectStatement<>(this);
+        claim.lockWait(lockWait.equals(LockWait.WAIT) ? LockWait.SKIP_LOCKED : lockWait);
+        if (scope.dialect().supportsFetchFirstWithLocks()) {
+            claim.fetchFirst(batchSize);
+            return claim.list(transaction);
+        }
+        SqlBuilder builder = claim.renderForExecution();
+        try (Stream<RT> rows = transaction.stream(builder.sql(), builder.args(), rowMapper(), FetchSize.rows(batchSize))) {
+            return rows.limit(batchSize).collect(toList());
+        }
     }
 
     RT single(SqlExecutor sqlExecutor) {
@@ -197,14 +405,14 @@ class SelectStatement<RT> {
     }
 
     String sql() {
-        return sqlImpl(scope.empty());
+        return render(scope.empty()).sql();
     }
 
     RowMapper<RT> rowMapper() {
         return rowMapper;
     }
 
-    <T> void addGroupBy(TypedExpression<T> expression) {
+    void addGroupBy(Expression expression) {
         groupByClauses.add(expression);
     }
 
@@ -234,12 +442,6 @@ class SelectStatement<RT> {
         return new InHavingExpectingAnd<>(this);
     }
 
-    private String commonTableExpressionSql(Scope actualScope) {
-        return commonTableExpressions.isEmpty() || !actualScope.isOutermost()
-            ? ""
-            : "with " + commonTableExpressions().map(cte -> cte.sql(actualScope)).collect(joining(", "));
-    }
-
     void andHaving(BooleanExpression e) {
         havingClause = havingClause.appendAnd(e);
     }
@@ -248,95 +450,182 @@ class SelectStatement<RT> {
         havingClause = havingClause.appendOr(e);
     }
 
-    @NotNull
-    private Stream<Object> cteArgs(Scope actualScope) {
-        return actualScope.isOutermost()
-            ? commonTableExpressions().flatMap(cte -> cte.args(actualScope))
-            : Stream.empty();
+    private SqlBuilder render(Scope outerScope) {
+        return render(outerScope, false);
     }
 
-    @NotNull
-    private Stream<Object> whereClauseArgs(Scope actualScope) {
-        return whereClause == null
-            ? Stream.empty()
-            : whereClause.args(actualScope);
+    private SqlBuilder render(Scope outerScope, boolean withSortKeys) {
+        SqlBuilder builder = new SqlBuilder(sqlLengthHint, argCountHint);
+        renderImpl(builder, outerScope, withSortKeys);
+        sqlLengthHint = builder.length();
+        argCountHint = builder.argCount();
+        return builder;
     }
 
-    @NotNull
-    private String whereClauseSql(Scope actualScope) {
-        return whereClause == null
-            ? ""
-            : " where " + whereClause.sql(actualScope);
+    private SqlBuilder renderForExecution() {
+        return renderForExecution(false);
     }
 
-    @NotNull
-    private Stream<Object> groupByClauseArgs(Scope actualScope) {
-        return groupByClauses
-            .stream()
-            .flatMap(g -> g.args(actualScope));
+    private SqlBuilder renderForExecution(boolean withSortKeys) {
+        SqlBuilder builder = render(scope.empty(), withSortKeys);
+        String sql = builder.sql();
+        LOG.debug(sql);
+        scope.database().sqlShapes().record(sql);
+        return builder;
     }
 
-    @NotNull
-    private String groupByClauseSql(Scope actualScope) {
-        return groupByClauses.isEmpty()
-            ? ""
-            : " group by " + groupByClauses.stream().map(ordering -> ordering.sql(actualScope)).collect(joining(", "));
+    private void renderImpl(SqlBuilder builder, Scope outerScope) {
+        renderImpl(builder, outerScope, false);
     }
 
-    @NotNull
-    private Stream<Object> havingClauseArgs(Scope actualScope) {
-        return havingClause == null
-            ? Stream.empty()
-            : havingClause.args(actualScope);
+    private void renderImpl(SqlBuilder builder, Scope outerScope, boolean withSortKeys) {
+        Scope innerScope = outerScope.plus(scope);
+        int start = builder.length();
+        renderCommonTableExpressions(builder, outerScope);
+        if (emulateGroupingSets()) {
+            renderGroupingSetsAsUnion(builder, outerScope, withSortKeys);
+            renderUnions(builder, innerScope);
+            renderOrderByColumnNumbers(builder, innerScope);
+        } else {
+            renderQuery(builder, innerScope, withSortKeys, groupByClauses);
+            renderUnions(builder, innerScope);
+            renderOrderByClause(builder, innerScope);
+        }
+        fetchFirst.ifPresent(n -> builder.rewriteFrom(start, sql -> scope.dialect().fetchFirst(sql, n)));
+        if (isolationLevel != IsolationLevel.UNSPECIFIED || keepLocks.isPresent()) {
+            builder.rewriteFrom(start, sql -> scope.dialect().isolationLevelSql(sql, isolationLevel, keepLocks, lockWait));
+        }
+        if (!hints.isEmpty() && outerScope.isOutermost()) {
+            builder.rewriteFrom(start, sql -> scope.dialect().queryOptions(sql, hints, fromOrder()));
+        }
     }
 
-    @NotNull
-    private Stream<Object> unionsArgs(Scope actualScope) {
-        return unions.stream().flatMap(u -> u.item2().args(actualScope));
+    private List<String> fromOrder() {
+        return from.aliases()
+            .map(alias -> alias.aliasName().orElseGet(() -> alias.table().tableName()))
+            .collect(toList());
     }
 
-    @NotNull
-    private String havingClauseSql(Scope actualScope) {
-        return havingClause == null
-            ? ""
-            : " having " + havingClause.sql(actualScope);
+    private void renderQuery(SqlBuilder builder, Scope innerScope, boolean withSortKeys, List<Expression> groupBy) {
+        builder.append("select ");
+        if (!hints.isEmpty()) {
+            builder.append(scope.dialect().selectHints(hints));
+        }
+        projection.render(builder, innerScope);
+        if (withSortKeys) {
+            for (int i = 0; i < orderByClauses.size(); i++) {
+                orderByClauses.get(i).renderSortKey(builder, innerScope, sortKeyLabel(i));
+            }
+        }
+        if (keepLocks.isPresent()) {
+            from.render(builder, innerScope, scope.dialect().tableLockHints(keepLocks, lockWait));
+        } else {
+            from.render(builder, innerScope);
+        }
+        renderWhereClause(builder, innerScope);
+        renderGroupByClause(builder, innerScope, groupBy);
+        renderHavingClause(builder, innerScope);
     }
 
-    @NotNull
-    private String unionsSql(Scope actualScope) {
-        return unions.isEmpty()
-            ? ""
-            : " " + unions.stream().map(t -> t.map((u, s) -> u.format(s.sqlImpl(actualScope)))).collect(joining(" "));
+    private boolean emulateGroupingSets() {
+        return !scope.dialect().supportsGroupingSets() && groupByClauses.stream().anyMatch(g -> g instanceof Grouping);
     }
 
-    @NotNull
-    private String orderByClauseSql(Scope actualScope) {
-        return orderByClauses.isEmpty()
-            ? ""
-            : " order by " + orderByClauses.stream().map(ordering -> ordering.sql(actualScope)).collect(joining(", "));
+    private void renderGroupingSetsAsUnion(SqlBuilder builder, Scope outerScope, boolean withSortKeys) {
+        if (isolationLevel != IsolationLevel.UNSPECIFIED || keepLocks.isPresent()) {
+            throw new IllegalArgumentException("Grouping sets cannot be combined with locks or an isolation level when they are emulated with union all.");
+        }
+        Scope innerScope = outerScope.plus(scope);
+        List<List<Expression>> groupingSets = groupByClauses.stream()
+            .map(Grouping::groupingSetsOf)
+            .reduce(ImmutableList.of(ImmutableList.of()), SelectStatement::crossProduct);
+        Set<String> allGrouped = groupingSets.stream()
+            .flatMap(List::stream)
+            .map(e -> e.sql(innerScope))
+            .collect(toSet());
+        for (int i = 0; i < groupingSets.size(); i++) {
+            if (i > 0) {
+                builder.append(" union all ");
+            }
+            List<Expression> groupingSet = groupingSets.get(i);
+            Set<String> grouped = groupingSet.stream().map(e -> e.sql(innerScope)).collect(toSet());
+            Set<String> rolledUp = allGrouped.stream().filter(e -> !grouped.contains(e)).collect(toSet());
+            renderQuery(builder, outerScope.rollingUp(rolledUp).plus(scope), withSortKeys, groupingSet);
+        }
     }
 
-    private String sqlImpl(Scope outerScope) {
-        Scope innerScope = outerScope.plus(scope);
-        String sql = String.format("%sselect %s%s%s%s%s%s%s",
-            commonTableExpressionSql(outerScope),
-            projection().sql(innerScope),
-            from.sql(innerScope),
-            whereClauseSql(innerScope),
-            groupByClauseSql(innerScope),
-            havingClauseSql(innerScope),
-            unionsSql(innerScope),
-            orderByClauseSql(innerScope));
-        sql = fetchFirstSql(sql);
-        sql = isolationLevelSql(sql);
-        return sql;
-    }
-
-    private String fetchFirstSql(String sql) {
-        return fetchFirst.map(n -> scope.dialect().fetchFirst(sql, n)).orElse(sql);
-    }
-
-    private String isolationLevelSql(String sql) {
-        return scope.dialect().isolationLevelSql(sql, isolationLevel, keepLocks);
+    private static List<List<Expression>> crossProduct(List<List<Expression>> lhs, List<List<Expression>> rhs) {
+        return lhs.stream()
+            .flatMap(l -> rhs.stream().map(r -> ImmutableList.<Expression>builder().addAll(l).addAll(r).build()))
+            .collect(toList());
+    }
+
+    private void renderCommonTableExpressions(SqlBuilder builder, Scope actualScope) {
+        if (commonTableExpressions.isEmpty() || !actualScope.isOutermost()) {
+            return;
+        }
+        builder.append(commonTableExpressions.stream().anyMatch(CommonTableExpression::isRecursive)
+            ? actualScope.dialect().withRecursive() + " "
+            : "with ");
+        for (int i = 0; i < commonTableExpressions.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            commonTableExpressions.get(i).render(builder, actualScope);
+        }
+        builder.append(' ');
+    }
+
+    private void renderWhereClause(SqlBuilder builder, Scope actualScope) {
+        if (whereClause != null) {
+            builder.append(" where ");
+            whereClause.render(builder, actualScope);
+        }
+    }
+
+    private void renderWhereClause(SqlBuilder builder, Scope actualScope, Consumer<SqlBuilder> andAlso) {
+        builder.append(" where ");
+        if (whereClause != null) {
+            boolean parenthesise = whereClause.precedence().compareTo(Precedence.AND) < 0;
+            builder.append(parenthesise ? "(" : "");
+            whereClause.render(builder, actualScope);
+            builder.append(parenthesise ? ")" : "").append(" and ");
+        }
+        andAlso.accept(builder);
+    }
+
+    private void renderGroupByClause(SqlBuilder builder, Scope actualScope, List<Expression> groupBy) {
+        for (int i = 0; i < groupBy.size(); i++) {
+            builder.append(i == 0 ? " group by " : ", ");
+            groupBy.get(i).render(builder, actualScope);
+        }
+    }
+
+    private void renderHavingClause(SqlBuilder builder, Scope actualScope) {
+        if (havingClause != null) {
+            builder.append(" having ");
+            havingClause.render(builder, actualScope);
+        }
+    }
+
+    private void renderUnions(SqlBuilder builder, Scope actualScope) {
+        for (Tuple2<UnionType,SelectStatement<RT>> union : unions) {
+            builder.append(' ').append(union.item1().sql()).append(' ');
+            union.item2().renderImpl(builder, actualScope);
+        }
+    }
+
+    private void renderOrderByClause(SqlBuilder builder, Scope actualScope) {
+        for (int i = 0; i < orderByClauses.size(); i++) {
+            builder.append(i == 0 ? " order by " : ", ");
+            orderByClauses.get(i).render(builder, actualScope);
+        }
+    }
+
+    private void renderOrderByColumnNumbers(SqlBuilder builder, Scope actualScope) {
+        for (int i = 0; i < orderByClauses.size(); i++) {
+            builder.append(i == 0 ? " order by " : ", ");
+            orderByClauses.get(i).renderByColumnNumber(builder, actualScope, projection);
+        }
     }
 }
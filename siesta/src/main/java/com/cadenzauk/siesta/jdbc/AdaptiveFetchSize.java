@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.jdbc;
+
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.core.sql.RuntimeSqlException;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+class AdaptiveFetchSize<T> implements RowMapper<T> {
+    static final int INITIAL_ROWS = 100;
+    private static final int MIN_ROWS = 10;
+    private static final int MAX_ROWS = 10_000;
+    private static final int MAX_COLUMN_WIDTH = 4096;
+    private static final int FIXED_COLUMN_WIDTH = 16;
+
+    private final ResultSet resultSet;
+    private final long targetBytes;
+    private final RowMapper<T> rowMapper;
+    private final boolean[] sampled;
+    private final int unsampledWidth;
+    private long sampledBytes;
+    private int sampledRows;
+
+    AdaptiveFetchSize(ResultSet resultSet, long targetBytes, RowMapper<T> rowMapper) {
+        this.resultSet = resultSet;
+        this.targetBytes = targetBytes;
+        this.rowMapper = rowMapper;
+        try {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            sampled = new boolean[columnCount];
+            int estimatedWidth = 0;
+            int lobWidth = 0;
+            for (int i = 0; i < columnCount; i++) {
+                int width = Math.max(1, Math.min(metaData.getColumnDisplaySize(i + 1), MAX_COLUMN_WIDTH));
+                estimatedWidth += width;
+                if (isLob(metaData.getColumnType(i + 1))) {
+                    lobWidth += width;
+                } else {
+                    sampled[i] = true;
+                }
+            }
+            unsampledWidth = lobWidth;
+            resultSet.setFetchSize(rowsFor(estimatedWidth));
+        } catch (SQLException e) {
+            throw new RuntimeSqlException(e);
+        }
+    }
+
+    @Override
+    public T mapRow(ResultSet rs) {
+        T row = rowMapper.mapRow(rs);
+        if (sampledRows < INITIAL_ROWS) {
+            sample(rs);
+        }
+        return row;
+    }
+
+    private void sample(ResultSet rs) {
+        try {
+            long width = unsampledWidth;
+            for (int i = 0; i < sampled.length; i++) {
+                if (sampled[i]) {
+                    width += widthOf(rs.getObject(i + 1));
+                }
+            }
+            sampledBytes += width;
+            sampledRows++;
+            if (sampledRows == INITIAL_ROWS) {
+                resultSet.setFetchSize(rowsFor(sampledBytes / sampledRows));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeSqlException(e);
+        }
+    }
+
+    private int rowsFor(long rowWidth) {
+        long rows = targetBytes / Math.max(1, rowWidth);
+        return (int) Math.max(MIN_ROWS, Math.min(MAX_ROWS, rows));
+    }
+
+    private static long widthOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 2L * ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        return FIXED_COLUMN_WIDTH;
+    }
+
+    private static boolean isLob(int sqlType) {
+        return sqlType == Types.BLOB
+            || sqlType == Types.CLOB
+            || sqlType == Types.NCLOB
+            || sqlType == Types.LONGVARBINARY
+            || sqlType == Types.LONGVARCHAR
+            || sqlType == Types.LONGNVARCHAR;
+    }
+}
@@ -22,6 +22,9 @@
 
 package com.cadenzauk.siesta.jdbc;
 
+import com.cadenzauk.siesta.BlobStream;
+import com.cadenzauk.siesta.ClobStream;
+import com.cadenzauk.siesta.SqlArray;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.apache.commons.lang3.tuple.Pair;
@@ -57,11 +60,30 @@ public class JdbcDataTypeRegistry {
         return ImmutableMap.copyOf(
             ImmutableList.of(
                 entry(Timestamp.class, (ps, i, ts) -> ps.setTimestamp(i, ts, new GregorianCalendar(TimeZone.getDefault()))),
-                entry(Time.class, (ps, i, ts) -> ps.setTime(i, ts, new GregorianCalendar(TimeZone.getDefault())))
+                entry(Time.class, (ps, i, ts) -> ps.setTime(i, ts, new GregorianCalendar(TimeZone.getDefault()))),
+                entry(SqlArray.class, (ps, i, a) -> ps.setArray(i, ps.getConnection().createArrayOf(a.typeName(), a.elements()))),
+                entry(BlobStream.class, JdbcDataTypeRegistry::setBlobStream),
+                entry(ClobStream.class, JdbcDataTypeRegistry::setClobStream)
             )
         );
     }
 
+    private static void setBlobStream(PreparedStatement ps, int i, BlobStream blob) throws SQLException {
+        if (blob.length().isPresent()) {
+            ps.setBinaryStream(i, blob.inputStream(), blob.length().getAsLong());
+        } else {
+            ps.setBinaryStream(i, blob.inputStream());
+        }
+    }
+
+    private static void setClobStream(PreparedStatement ps, int i, ClobStream clob) throws SQLException {
+        if (clob.length().isPresent()) {
+            ps.setCharacterStream(i, clob.reader(), clob.length().getAsLong());
+        } else {
+            ps.setCharacterStream(i, clob.reader());
+        }
+    }
+
     private static <D> Map.Entry<Class<?>,JdbcParameterSetter<Object>> entry(Class<D> klass, JdbcParameterSetter<D> setter) {
         return Pair.of(klass, (ps, i, o) -> setter.setParameter(ps, i, klass.cast(o)));
     }
@@ -28,7 +28,9 @@ import com.cadenzauk.core.sql.DataSourceUtil;
 import com.cadenzauk.core.sql.PreparedStatementUtil;
 import com.cadenzauk.core.sql.ResultSetSpliterator;
 import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.core.sql.RuntimeSqlException;
 import com.cadenzauk.siesta.Dialect;
+import com.cadenzauk.siesta.FetchSize;
 import com.cadenzauk.siesta.SqlExecutor;
 import com.cadenzauk.siesta.dialect.AutoDetectDialect;
 
@@ -36,10 +38,14 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -47,19 +53,59 @@ import java.util.stream.StreamSupport;
 import static java.util.stream.Collectors.toList;
 
 public class JdbcSqlExecutor implements SqlExecutor {
+    private static final int DEFAULT_CURSOR_FETCH_SIZE = 1000;
+
     private final DataSource dataSource;
     private final int fetchSize;
     private final Executor executor;
-    private final JdbcDataTypeRegistry registry = new JdbcDataTypeRegistry();
+    private final Optional<Semaphore> connectionPermits;
+    private final JdbcDataTypeRegistry registry;
+    private final ThreadLocal<JdbcTransaction> currentTransaction;
+    private final FetchSize queryFetchSize;
+    private final boolean serverSideCursor;
 
     private JdbcSqlExecutor(DataSource dataSource, int fetchSize, Executor executor) {
+        this(dataSource, fetchSize, executor, Optional.empty());
+    }
+
+    private JdbcSqlExecutor(DataSource dataSource, int fetchSize, Executor executor, Optional<Integer> maxConnections) {
         this.dataSource = dataSource;
         this.fetchSize = fetchSize;
         this.executor = executor;
+        this.connectionPermits = maxConnections.map(n -> new Semaphore(n, true));
+        this.registry = new JdbcDataTypeRegistry();
+        this.currentTransaction = new ThreadLocal<>();
+        this.queryFetchSize = FetchSize.DEFAULT;
+        this.serverSideCursor = false;
+    }
+
+    private JdbcSqlExecutor(JdbcSqlExecutor base, FetchSize queryFetchSize, boolean serverSideCursor) {
+        this.dataSource = base.dataSource;
+        this.fetchSize = base.fetchSize;
+        this.executor = base.executor;
+        this.connectionPermits = base.connectionPermits;
+        this.registry = base.registry;
+        this.currentTransaction = base.currentTransaction;
+        this.queryFetchSize = queryFetchSize;
+        this.serverSideCursor = serverSideCursor;
     }
 
-    Connection connect() {
-        return DataSourceUtil.connection(dataSource);
+    Connection connect(CompositeAutoCloseable closeable) {
+        if (!connectionPermits.isPresent()) {
+            return closeable.add(DataSourceUtil.connection(dataSource));
+        }
+        Semaphore permits = connectionPermits.get();
+        permits.acquireUninterruptibly();
+        Connection connection;
+        try {
+            connection = DataSourceUtil.connection(dataSource);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AutoCloseable releasePermit = permits::release;
+        closeable.add(releasePermit);
+        return closeable.add(connection);
     }
 
     @Override
@@ -67,30 +113,96 @@ public class JdbcSqlExecutor implements SqlExecutor {
         return AutoDetectDialect.from(dataSource);
     }
 
+    @Override
+    public int fetchSize() {
+        return queryFetchSize.rows() > 0 ? queryFetchSize.rows() : fetchSize;
+    }
+
+    @Override
+    public JdbcSqlExecutor withFetchSize(FetchSize fetchSize) {
+        return new JdbcSqlExecutor(this, fetchSize, serverSideCursor);
+    }
+
+    @Override
+    public JdbcSqlExecutor withServerSideCursor() {
+        return new JdbcSqlExecutor(this, queryFetchSize, true);
+    }
+
     @Override
     public JdbcTransaction beginTransaction() {
-        return new JdbcTransaction(this);
+        Optional<JdbcTransaction> outer = currentTransaction();
+        JdbcTransaction transaction = outer
+            .map(JdbcTransaction::nested)
+            .orElseGet(() -> new JdbcTransaction(this));
+        currentTransaction.set(transaction);
+        Thread owner = Thread.currentThread();
+        transaction.onClose(() -> restoreTransaction(owner, transaction));
+        return transaction;
+    }
+
+    @Override
+    public boolean inTransaction() {
+        return currentTransaction().isPresent();
+    }
+
+    public Optional<JdbcTransaction> currentTransaction() {
+        return openTransaction(Optional.ofNullable(currentTransaction.get()));
+    }
+
+    private void restoreTransaction(Thread owner, JdbcTransaction transaction) {
+        if (Thread.currentThread() != owner || currentTransaction.get() != transaction) {
+            return;
+        }
+        Optional<JdbcTransaction> outer = openTransaction(transaction.outer());
+        if (outer.isPresent()) {
+            currentTransaction.set(outer.get());
+        } else {
+            currentTransaction.remove();
+        }
+    }
+
+    private static Optional<JdbcTransaction> openTransaction(Optional<JdbcTransaction> transaction) {
+        Optional<JdbcTransaction> candidate = transaction;
+        while (candidate.isPresent() && candidate.get().isClosed()) {
+            candidate = candidate.get().outer();
+        }
+        return candidate;
     }
 
     @Override
     public <T> List<T> query(String sql, Object[] args, RowMapper<T> rowMapper) {
+        Optional<JdbcTransaction> transaction = currentTransaction();
+        if (transaction.isPresent()) {
+            return query(transaction.get().connection(), sql, args, rowMapper);
+        }
         try (CompositeAutoCloseable autoCloseable = new CompositeAutoCloseable()) {
-            Connection connection = autoCloseable.add(connect());
+            Connection connection = connect(autoCloseable);
             return query(connection, sql, args, rowMapper);
         }
     }
 
     @Override
     public <T> Stream<T> stream(String sql, Object[] args, RowMapper<T> rowMapper) {
+        Optional<JdbcTransaction> transaction = currentTransaction();
+        if (transaction.isPresent()) {
+            return stream(transaction.get().connection(), sql, args, rowMapper, new CompositeAutoCloseable());
+        }
         CompositeAutoCloseable closeable = new CompositeAutoCloseable();
-        Connection connection = closeable.add(connect());
+        Connection connection = connect(closeable);
+        if (serverSideCursor) {
+            suspendAutoCommit(connection, closeable);
+        }
         return stream(connection, sql, args, rowMapper, closeable);
     }
 
     @Override
     public int update(String sql, Object[] args) {
+        Optional<JdbcTransaction> transaction = currentTransaction();
+        if (transaction.isPresent()) {
+            return transaction.get().update(sql, args);
+        }
         try (CompositeAutoCloseable autoCloseable = new CompositeAutoCloseable()) {
-            Connection connection = autoCloseable.add(connect());
+            Connection connection = connect(autoCloseable);
             return update(connection, sql, args);
         }
     }
@@ -102,16 +214,19 @@ public class JdbcSqlExecutor implements SqlExecutor {
     }
 
     <T> CompletableFuture<List<T>> queryAsync(Connection connection, String sql, Object[] args, RowMapper<T> rowMapper) {
-        return CompletableFuture.supplyAsync(() -> query(connection, sql, args, rowMapper));
+        return CompletableFuture.supplyAsync(() -> query(connection, sql, args, rowMapper), executor);
     }
 
     <T> Stream<T> stream(Connection connection, String sql, Object[] args, RowMapper<T> rowMapper, CompositeAutoCloseable closeable) {
         try {
             PreparedStatement preparedStatement = prepare(connection, sql, args, closeable);
-            preparedStatement.setFetchSize(fetchSize);
+            preparedStatement.setFetchSize(statementFetchSize());
             ResultSet resultSet = closeable.add(preparedStatement.executeQuery());
+            RowMapper<T> mapper = queryFetchSize.targetBytes()
+                .<RowMapper<T>>map(targetBytes -> new AdaptiveFetchSize<>(resultSet, targetBytes, rowMapper))
+                .orElse(rowMapper);
             return StreamSupport
-                .stream(new ResultSetSpliterator<>(resultSet, rowMapper), false)
+                .stream(new ResultSetSpliterator<>(resultSet, mapper), false)
                 .onClose(closeable::close);
         } catch (RuntimeException e) {
             closeable.close();
@@ -122,6 +237,28 @@ public class JdbcSqlExecutor implements SqlExecutor {
         }
     }
 
+    private int statementFetchSize() {
+        if (queryFetchSize.isAdaptive()) {
+            return AdaptiveFetchSize.INITIAL_ROWS;
+        }
+        if (queryFetchSize.rows() > 0) {
+            return queryFetchSize.rows();
+        }
+        return fetchSize == 0 && serverSideCursor ? DEFAULT_CURSOR_FETCH_SIZE : fetchSize;
+    }
+
+    private static void suspendAutoCommit(Connection connection, CompositeAutoCloseable closeable) {
+        try {
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                closeable.add(() -> connection.setAutoCommit(true));
+            }
+        } catch (SQLException e) {
+            closeable.close();
+            throw new RuntimeSqlException(e);
+        }
+    }
+
     int update(Connection connection, String sql, Object[] args) {
         try (CompositeAutoCloseable closeable = new CompositeAutoCloseable()) {
             PreparedStatement preparedStatement = prepare(connection, sql, args, closeable);
@@ -154,4 +291,54 @@ public class JdbcSqlExecutor implements SqlExecutor {
     public static JdbcSqlExecutor of(DataSource dataSource, int fetchSize, Executor executor) {
         return new JdbcSqlExecutor(dataSource, fetchSize, executor);
     }
+
+    public static Builder newBuilder(DataSource dataSource) {
+        return new Builder(dataSource);
+    }
+
+    private static Optional<Executor> virtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of((Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static final class Builder {
+        private final DataSource dataSource;
+        private int fetchSize = 0;
+        private Executor executor = ForkJoinPool.commonPool();
+        private Optional<Integer> maxConnections = Optional.empty();
+
+        private Builder(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        public Builder fetchSize(int val) {
+            fetchSize = val;
+            return this;
+        }
+
+        public Builder executor(Executor val) {
+            executor = val;
+            return this;
+        }
+
+        public Builder virtualThreads() {
+            executor = virtualThreadPerTaskExecutor().orElseGet(ForkJoinPool::commonPool);
+            return this;
+        }
+
+        public Builder maxConnections(int val) {
+            if (val <= 0) {
+                throw new IllegalArgumentException("The maximum number of connections must be positive.");
+            }
+            maxConnections = Optional.of(val);
+            return this;
+        }
+
+        public JdbcSqlExecutor build() {
+            return new JdbcSqlExecutor(dataSource, fetchSize, executor, maxConnections);
+        }
+    }
 }
@@ -25,11 +25,14 @@ package com.cadenzauk.siesta.jdbc;
 import com.cadenzauk.core.lang.CompositeAutoCloseable;
 import com.cadenzauk.core.sql.ConnectionUtil;
 import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.FetchSize;
 import com.cadenzauk.siesta.Transaction;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
@@ -37,10 +40,15 @@ public class JdbcTransaction implements Transaction {
     private final CompositeAutoCloseable autoCloseable = new CompositeAutoCloseable();
     private final Connection connection;
     private final JdbcSqlExecutor sqlExecutor;
+    private final Optional<JdbcTransaction> outer;
+    private Optional<Savepoint> savepoint;
+    private volatile boolean closed;
 
     public JdbcTransaction(JdbcSqlExecutor sqlExecutor) {
         this.sqlExecutor = sqlExecutor;
-        connection = autoCloseable.add(sqlExecutor.connect());
+        connection = sqlExecutor.connect(autoCloseable);
+        outer = Optional.empty();
+        savepoint = Optional.empty();
         try {
             connection.setAutoCommit(false);
         } catch (SQLException e) {
@@ -48,14 +56,30 @@ public class JdbcTransaction implements Transaction {
         }
     }
 
+    private JdbcTransaction(JdbcTransaction outer) {
+        sqlExecutor = outer.sqlExecutor;
+        connection = outer.connection;
+        this.outer = Optional.of(outer);
+        savepoint = Optional.of(ConnectionUtil.setSavepoint(connection));
+    }
+
     @Override
     public void commit() {
-        ConnectionUtil.commit(connection);
+        if (savepoint.isPresent()) {
+            ConnectionUtil.releaseSavepoint(connection, savepoint.get());
+            savepoint = Optional.of(ConnectionUtil.setSavepoint(connection));
+        } else {
+            ConnectionUtil.commit(connection);
+        }
     }
 
     @Override
     public void rollback() {
-        ConnectionUtil.rollback(connection);
+        if (savepoint.isPresent()) {
+            ConnectionUtil.rollback(connection, savepoint.get());
+        } else {
+            ConnectionUtil.rollback(connection);
+        }
     }
 
     @Override
@@ -63,16 +87,31 @@ public class JdbcTransaction implements Transaction {
         return sqlExecutor.query(connection, sql, args, rowMapper);
     }
 
+    @Override
+    public <T> List<T> query(String sql, Object[] args, RowMapper<T> rowMapper, FetchSize fetchSize) {
+        return sqlExecutor.withFetchSize(fetchSize).query(connection, sql, args, rowMapper);
+    }
+
     @Override
     public <T> CompletableFuture<List<T>> queryAsync(String sql, Object[] args, RowMapper<T> rowMapper) {
         return sqlExecutor.queryAsync(connection, sql, args, rowMapper);
     }
 
+    @Override
+    public <T> CompletableFuture<List<T>> queryAsync(String sql, Object[] args, RowMapper<T> rowMapper, FetchSize fetchSize) {
+        return sqlExecutor.withFetchSize(fetchSize).queryAsync(connection, sql, args, rowMapper);
+    }
+
     @Override
     public <T> Stream<T> stream(String sql, Object[] args, RowMapper<T> rowMapper) {
         return sqlExecutor.stream(connection, sql, args, rowMapper, new CompositeAutoCloseable());
     }
 
+    @Override
+    public <T> Stream<T> stream(String sql, Object[] args, RowMapper<T> rowMapper, FetchSize fetchSize) {
+        return sqlExecutor.withFetchSize(fetchSize).stream(connection, sql, args, rowMapper, new CompositeAutoCloseable());
+    }
+
     @Override
     public int update(String sql, Object[] args) {
         return sqlExecutor.update(connection, sql, args);
@@ -85,11 +124,39 @@ public class JdbcTransaction implements Transaction {
 
     @Override
     public void close() {
-        commit();
-        autoCloseable.close();
+        try {
+            if (savepoint.isPresent()) {
+                ConnectionUtil.releaseSavepoint(connection, savepoint.get());
+            } else {
+                commit();
+            }
+        } finally {
+            closed = true;
+            autoCloseable.close();
+        }
+    }
+
+    public boolean isNested() {
+        return savepoint.isPresent();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    Optional<JdbcTransaction> outer() {
+        return outer;
     }
 
     Connection connection() {
         return connection;
     }
+
+    JdbcTransaction nested() {
+        return new JdbcTransaction(this);
+    }
+
+    void onClose(AutoCloseable action) {
+        autoCloseable.add(action);
+    }
 }
@@ -25,8 +25,11 @@ package com.cadenzauk.siesta.projection;
 import com.cadenzauk.siesta.Alias;
 import com.cadenzauk.siesta.Projection;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.catalog.Column;
 
+import java.util.Iterator;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
@@ -40,12 +43,25 @@ public class AliasColumns<R> implements Projection {
 
     @Override
     public String sql(Scope outer) {
-        return alias
-            .table()
-            .columns()
-            .map(Column::name)
-            .map(c -> String.format("%s as %s", alias.inSelectClauseSql(c), alias.inSelectClauseLabel(c)))
-            .collect(joining(", "));
+        return SqlBuilder.sqlOf(this::render, outer);
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope outer) {
+        Iterator<Column<?,R>> columns = alias.table().columns().iterator();
+        while (columns.hasNext()) {
+            String name = columns.next().name();
+            if (outer.isRolledUp(alias.inSelectClauseSql(name))) {
+                builder.append("null");
+            } else {
+                alias.renderInSelectClause(builder, name);
+            }
+            builder.append(" as ");
+            alias.renderSelectClauseLabel(builder, name);
+            if (columns.hasNext()) {
+                builder.append(", ");
+            }
+        }
     }
 
     @Override
@@ -62,4 +78,15 @@ public class AliasColumns<R> implements Projection {
             .map(alias::inSelectClauseLabel)
             .collect(joining(", "));
     }
+
+    @Override
+    public Optional<String> labelOf(String sql, Scope scope) {
+        return alias
+            .table()
+            .columns()
+            .map(Column::name)
+            .filter(name -> alias.inSelectClauseSql(name).equals(sql))
+            .map(alias::inSelectClauseLabel)
+            .findFirst();
+    }
 }
@@ -26,10 +26,12 @@ import com.cadenzauk.core.tuple.Tuple;
 import com.cadenzauk.core.tuple.Tuple2;
 import com.cadenzauk.siesta.Projection;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.grammar.expression.TypedExpression;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
@@ -39,14 +41,28 @@ public class DynamicProjection implements Projection {
 
     @Override
     public String sql(Scope scope) {
-        return columns.stream()
-            .map(p -> p.map((s, t) -> s.sql(scope) + " as " + t.label(scope)))
-            .collect(joining(", "));
+        return SqlBuilder.sqlOf(this::render, scope);
     }
 
     @Override
     public Stream<Object> args(Scope scope) {
-        return columns.stream().flatMap(p -> p.item1().args(scope));
+        return SqlBuilder.argsOf(this::render, scope);
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            Tuple2<TypedExpression<?>,TypedExpression<?>> column = columns.get(i);
+            if (scope.isRolledUp(column.item1().sql(scope))) {
+                builder.append("null");
+            } else {
+                column.item1().render(builder, scope);
+            }
+            builder.append(" as ").append(column.item2().label(scope));
+        }
     }
 
     @Override
@@ -56,6 +72,14 @@ public class DynamicProjection implements Projection {
             .collect(joining(", "));
     }
 
+    @Override
+    public Optional<String> labelOf(String sql, Scope scope) {
+        return columns.stream()
+            .filter(p -> p.item1().sql(scope).equals(sql))
+            .map(p -> p.item2().label(scope))
+            .findFirst();
+    }
+
     public <T> void add(TypedExpression<T> source, TypedExpression<T> target) {
         columns.add(Tuple.of(source, target));
     }
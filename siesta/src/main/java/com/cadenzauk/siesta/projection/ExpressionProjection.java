@@ -24,6 +24,7 @@ package com.cadenzauk.siesta.projection;
 
 import com.cadenzauk.siesta.Projection;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import com.cadenzauk.siesta.grammar.expression.TypedExpression;
 
 import java.util.Optional;
@@ -38,14 +39,30 @@ public class ExpressionProjection<T> implements Projection {
         this.label = label;
     }
 
+    public TypedExpression<T> expression() {
+        return expression;
+    }
+
     @Override
     public String sql(Scope scope) {
-        return String.format("%s as %s", expression.sql(scope), label(scope));
+        return SqlBuilder.sqlOf(this::render, scope);
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        if (isRolledUp(scope)) {
+            builder.append("null");
+        } else {
+            expression.render(builder, scope);
+        }
+        builder.append(" as ").append(label(scope));
     }
 
     @Override
     public Stream<Object> args(Scope scope) {
-        return expression.args(scope);
+        return isRolledUp(scope)
+            ? Stream.empty()
+            : expression.args(scope);
     }
 
     @Override
@@ -53,6 +70,17 @@ public class ExpressionProjection<T> implements Projection {
         return label(scope);
     }
 
+    @Override
+    public Optional<String> labelOf(String sql, Scope scope) {
+        return expression.sql(scope).equals(sql)
+            ? Optional.of(label(scope))
+            : Optional.empty();
+    }
+
+    private boolean isRolledUp(Scope scope) {
+        return scope.isRolledUp(expression.sql(scope));
+    }
+
     private String label(Scope scope) {
         return label.orElseGet(() -> expression.label(scope));
     }
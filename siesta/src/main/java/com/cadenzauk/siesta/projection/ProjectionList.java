@@ -24,8 +24,10 @@ package com.cadenzauk.siesta.projection;
 
 import com.cadenzauk.siesta.Projection;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
@@ -39,14 +41,22 @@ public class ProjectionList implements Projection {
 
     @Override
     public String sql(Scope scope) {
-        return Arrays.stream(p)
-            .map(x -> x.sql(scope))
-            .collect(joining(", "));
+        return SqlBuilder.sqlOf(this::render, scope);
     }
 
     @Override
     public Stream<Object> args(Scope scope) {
-        return Arrays.stream(p).flatMap(x -> x.args(scope));
+        return SqlBuilder.argsOf(this::render, scope);
+    }
+
+    @Override
+    public void render(SqlBuilder builder, Scope scope) {
+        for (int i = 0; i < p.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            p[i].render(builder, scope);
+        }
     }
 
     @Override
@@ -55,4 +65,13 @@ public class ProjectionList implements Projection {
             .map(x -> x.labelList(scope))
             .collect(joining(", "));
     }
+
+    @Override
+    public Optional<String> labelOf(String sql, Scope scope) {
+        return Arrays.stream(p)
+            .map(x -> x.labelOf(sql, scope))
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .findFirst();
+    }
 }
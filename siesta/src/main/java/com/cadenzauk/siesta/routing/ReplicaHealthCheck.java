@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.routing;
+
+import com.cadenzauk.core.sql.RuntimeSqlException;
+import com.cadenzauk.siesta.SqlExecutor;
+import com.google.common.collect.Iterables;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+@FunctionalInterface
+public interface ReplicaHealthCheck {
+    Duration lag(SqlExecutor replica);
+
+    static ReplicaHealthCheck ping(String sql) {
+        return replica -> {
+            replica.query(sql, new Object[0], rs -> 1);
+            return Duration.ZERO;
+        };
+    }
+
+    static ReplicaHealthCheck lagInSeconds(String sql) {
+        return replica -> {
+            Number seconds = Iterables.getOnlyElement(replica.query(sql, new Object[0], rs -> {
+                try {
+                    return (Number) rs.getObject(1);
+                } catch (SQLException e) {
+                    throw new RuntimeSqlException(e);
+                }
+            }));
+            return seconds == null ? Duration.ZERO : Duration.ofMillis((long) (seconds.doubleValue() * 1000));
+        };
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.routing;
+
+import java.time.Duration;
+
+public final class ReplicaMetrics {
+    private final String name;
+    private final boolean available;
+    private final Duration lag;
+    private final int outstanding;
+    private final long requests;
+    private final long failures;
+
+    ReplicaMetrics(String name, boolean available, Duration lag, int outstanding, long requests, long failures) {
+        this.name = name;
+        this.available = available;
+        this.lag = lag;
+        this.outstanding = outstanding;
+        this.requests = requests;
+        this.failures = failures;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public boolean available() {
+        return available;
+    }
+
+    public Duration lag() {
+        return lag;
+    }
+
+    public int outstanding() {
+        return outstanding;
+    }
+
+    public long requests() {
+        return requests;
+    }
+
+    public long failures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplicaMetrics{" +
+            "name='" + name + '\'' +
+            ", available=" + available +
+            ", lag=" + lag +
+            ", outstanding=" + outstanding +
+            ", requests=" + requests +
+            ", failures=" + failures +
+            '}';
+    }
+}
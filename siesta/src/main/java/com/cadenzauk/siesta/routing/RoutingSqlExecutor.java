@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.routing;
+
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.core.stream.StreamUtil;
+import com.cadenzauk.siesta.Dialect;
+import com.cadenzauk.siesta.IsolationLevel;
+import com.cadenzauk.siesta.LockLevel;
+import com.cadenzauk.siesta.SqlExecutor;
+import com.cadenzauk.siesta.Transaction;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+public class RoutingSqlExecutor implements SqlExecutor, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(RoutingSqlExecutor.class);
+
+    private final SqlExecutor primary;
+    private final List<Replica> replicas;
+    private final Optional<ReplicaHealthCheck> healthCheck;
+    private final long maxLagNanos;
+    private final long retryAfterNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Optional<ScheduledExecutorService> scheduler;
+
+    private RoutingSqlExecutor(Builder builder) {
+        primary = builder.primary;
+        replicas = builder.replicas.entrySet().stream()
+            .map(e -> new Replica(e.getKey(), e.getValue()))
+            .collect(toList());
+        healthCheck = builder.healthCheck;
+        maxLagNanos = builder.maxLag.toNanos();
+        retryAfterNanos = builder.retryAfter.toNanos();
+        scheduler = healthCheck.map(check -> Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    @Override
+    public Dialect dialect() {
+        return primary.dialect();
+    }
+
+    @Override
+    public Transaction beginTransaction() {
+        return primary.beginTransaction();
+    }
+
+    @Override
+    public int fetchSize() {
+        return primary.fetchSize();
+    }
+
+    @Override
+    public boolean inTransaction() {
+        return primary.inTransaction();
+    }
+
+    @Override
+    public SqlExecutor readExecutor(IsolationLevel isolationLevel, Optional<LockLevel> keepLocks) {
+        if (keepLocks.isPresent() || isolationLevel == IsolationLevel.REPEATABLE_READ || isolationLevel == IsolationLevel.SERIALIZABLE) {
+            return primary.readExecutor(isolationLevel, keepLocks);
+        }
+        return this;
+    }
+
+    @Override
+    public <T> List<T> query(String sql, Object[] args, RowMapper<T> rowMapper) {
+        Optional<Replica> replica = chooseReplica();
+        if (!replica.isPresent()) {
+            return primary.query(sql, args, rowMapper);
+        }
+        Replica chosen = replica.get();
+        chosen.begin();
+        try {
+            return chosen.executor.query(sql, args, rowMapper);
+        } catch (RuntimeException e) {
+            if (!isConnectionFailure(e)) {
+                throw e;
+            }
+            chosen.failed(e);
+            return primary.query(sql, args, rowMapper);
+        } finally {
+            chosen.end();
+        }
+    }
+
+    @Override
+    public <T> Stream<T> stream(String sql, Object[] args, RowMapper<T> rowMapper) {
+        Optional<Replica> replica = chooseReplica();
+        if (!replica.isPresent()) {
+            return primary.stream(sql, args, rowMapper);
+        }
+        Replica chosen = replica.get();
+        chosen.begin();
+        try {
+            return StreamUtil.whenDone(chosen.executor.stream(sql, args, rowMapper), chosen::end);
+        } catch (RuntimeException e) {
+            chosen.end();
+            if (!isConnectionFailure(e)) {
+                throw e;
+            }
+            chosen.failed(e);
+            return primary.stream(sql, args, rowMapper);
+        }
+    }
+
+    @Override
+    public int update(String sql, Object[] args) {
+        return primary.update(sql, args);
+    }
+
+    public List<ReplicaMetrics> replicaMetrics() {
+        long now = System.nanoTime();
+        return replicas.stream()
+            .map(r -> r.metrics(now))
+            .collect(toList());
+    }
+
+    public void checkHealth() {
+        healthCheck.ifPresent(check -> replicas.forEach(r -> r.check(check)));
+    }
+
+    @Override
+    public void close() {
+        scheduler.ifPresent(ScheduledExecutorService::shutdownNow);
+    }
+
+    private void startHealthChecks(Duration interval) {
+        long nanos = interval.toNanos();
+        scheduler.ifPresent(service -> service.scheduleWithFixedDelay(this::checkHealth, nanos, nanos, TimeUnit.NANOSECONDS));
+    }
+
+    private Optional<Replica> chooseReplica() {
+        if (replicas.isEmpty() || primary.inTransaction()) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        Replica best = null;
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (candidate.isAvailable(now) && (best == null || candidate.outstanding.get() < best.outstanding.get())) {
+                best = candidate;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private static boolean isConnectionFailure(RuntimeException e) {
+        return ExceptionUtils.getThrowableList(e).stream()
+            .filter(SQLException.class::isInstance)
+            .map(SQLException.class::cast)
+            .anyMatch(sqlException -> sqlException instanceof SQLTransientConnectionException
+                || sqlException instanceof SQLNonTransientConnectionException
+                || (sqlException.getSQLState() != null && sqlException.getSQLState().startsWith("08")));
+    }
+
+    public static Builder newBuilder(SqlExecutor primary) {
+        return new Builder(primary);
+    }
+
+    private final class Replica {
+        private final String name;
+        private final SqlExecutor executor;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile boolean healthy = true;
+        private volatile Duration lag = Duration.ZERO;
+        private volatile long downUntil;
+
+        private Replica(String name, SqlExecutor executor) {
+            this.name = name;
+            this.executor = executor;
+            downUntil = System.nanoTime();
+        }
+
+        private boolean isAvailable(long now) {
+            return healthy && lag.toNanos() <= maxLagNanos && now - downUntil >= 0;
+        }
+
+        private void begin() {
+            outstanding.incrementAndGet();
+            requests.increment();
+        }
+
+        private void end() {
+            outstanding.decrementAndGet();
+        }
+
+        private void failed(RuntimeException e) {
+            failures.increment();
+            downUntil = System.nanoTime() + retryAfterNanos;
+            LOG.warn("Query against replica {} failed, routing reads elsewhere for now", name, e);
+        }
+
+        private void check(ReplicaHealthCheck check) {
+            try {
+                lag = check.lag(executor);
+                healthy = true;
+            } catch (RuntimeException e) {
+                healthy = false;
+                LOG.warn("Health check of replica {} failed", name, e);
+            }
+        }
+
+        private ReplicaMetrics metrics(long now) {
+            return new ReplicaMetrics(name, isAvailable(now), lag, outstanding.get(), requests.sum(), failures.sum());
+        }
+    }
+
+    public static final class Builder {
+        private final SqlExecutor primary;
+        private final Map<String,SqlExecutor> replicas = new LinkedHashMap<>();
+        private Optional<ReplicaHealthCheck> healthCheck = Optional.empty();
+        private Duration healthCheckInterval = Duration.ofSeconds(10);
+        private Duration maxLag = Duration.ofSeconds(30);
+        private Duration retryAfter = Duration.ofSeconds(30);
+
+        private Builder(SqlExecutor primary) {
+            this.primary = primary;
+        }
+
+        public Builder replica(String name, SqlExecutor val) {
+            if (replicas.putIfAbsent(name, val) != null) {
+                throw new IllegalArgumentException("A replica called " + name + " has already been added.");
+            }
+            return this;
+        }
+
+        public Builder healthCheck(ReplicaHealthCheck val) {
+            healthCheck = Optional.of(val);
+            return this;
+        }
+
+        public Builder healthCheckInterval(Duration val) {
+            healthCheckInterval = val;
+            return this;
+        }
+
+        public Builder maxLag(Duration val) {
+            maxLag = val;
+            return this;
+        }
+
+        public Builder retryAfter(Duration val) {
+            retryAfter = val;
+            return this;
+        }
+
+        public RoutingSqlExecutor build() {
+            RoutingSqlExecutor executor = new RoutingSqlExecutor(this);
+            executor.startHealthChecks(healthCheckInterval);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.routing;
+
+import com.cadenzauk.core.function.Function1;
+import com.cadenzauk.core.function.FunctionOptional1;
+import com.cadenzauk.core.reflect.MethodInfo;
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.Dialect;
+import com.cadenzauk.siesta.RoutingContext;
+import com.cadenzauk.siesta.SqlExecutor;
+import com.cadenzauk.siesta.Transaction;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+public class ShardedSqlExecutor<K> implements SqlExecutor {
+    private final List<MethodInfo<?,K>> shardKeys;
+    private final Executor executor;
+    private volatile Shards<K> shards;
+
+    private ShardedSqlExecutor(Builder<K> builder) {
+        shardKeys = builder.shardKeys.build();
+        executor = builder.executor;
+        shards = new Shards<>(builder.shardFunction, builder.shards.build());
+    }
+
+    public SqlExecutor shardFor(K key) {
+        return shards.shardFor(key);
+    }
+
+    public List<SqlExecutor> shards() {
+        return shards.executors;
+    }
+
+    public void reconfigure(ShardFunction<K> shardFunction, List<SqlExecutor> executors) {
+        shards = new Shards<>(shardFunction, ImmutableList.copyOf(executors));
+    }
+
+    @Override
+    public SqlExecutor route(RoutingContext context) {
+        for (MethodInfo<?,K> shardKey : shardKeys) {
+            Optional<Object> key = context.fixedValue(shardKey.declaringClass(), shardKey);
+            if (key.isPresent()) {
+                @SuppressWarnings("unchecked") K value = (K) key.get();
+                return shardFor(value);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public boolean scattersAcrossShards() {
+        return true;
+    }
+
+    @Override
+    public Dialect dialect() {
+        return shards.executors.get(0).dialect();
+    }
+
+    @Override
+    public Transaction beginTransaction() {
+        throw new UnsupportedOperationException("A transaction cannot span shards, begin it on shardFor(key) instead.");
+    }
+
+    @Override
+    public int fetchSize() {
+        return shards.executors.get(0).fetchSize();
+    }
+
+    @Override
+    public boolean inTransaction() {
+        return shards.executors.stream().anyMatch(SqlExecutor::inTransaction);
+    }
+
+    @Override
+    public <T> List<T> query(String sql, Object[] args, RowMapper<T> rowMapper) {
+        List<CompletableFuture<List<T>>> results = shards.executors.stream()
+            .map(shard -> CompletableFuture.supplyAsync(() -> shard.query(sql, args, rowMapper), executor))
+            .collect(toList());
+        List<T> gathered = new ArrayList<>();
+        results.forEach(result -> gathered.addAll(result.join()));
+        return gathered;
+    }
+
+    @Override
+    public <T> Stream<T> stream(String sql, Object[] args, RowMapper<T> rowMapper) {
+        return shards.executors.stream()
+            .flatMap(shard -> shard.stream(sql, args, rowMapper));
+    }
+
+    @Override
+    public int update(String sql, Object[] args) {
+        return shards.executors.stream()
+            .mapToInt(shard -> shard.update(sql, args))
+            .sum();
+    }
+
+    public static <K> Builder<K> newBuilder() {
+        return new Builder<>();
+    }
+
+    private static final class Shards<K> {
+        private final ShardFunction<K> shardFunction;
+        private final List<SqlExecutor> executors;
+
+        private Shards(ShardFunction<K> shardFunction, List<SqlExecutor> executors) {
+            if (executors.isEmpty()) {
+                throw new IllegalArgumentException("At least one shard is required.");
+            }
+            this.shardFunction = shardFunction;
+            this.executors = executors;
+        }
+
+        private SqlExecutor shardFor(K key) {
+            return executors.get(shardFunction.shardOf(key, executors.size()));
+        }
+    }
+
+    public static final class Builder<K> {
+        private final ImmutableList.Builder<MethodInfo<?,K>> shardKeys = ImmutableList.builder();
+        private final ImmutableList.Builder<SqlExecutor> shards = ImmutableList.builder();
+        private ShardFunction<K> shardFunction = ShardFunction.hash();
+        private Executor executor = ForkJoinPool.commonPool();
+
+        private Builder() {
+        }
+
+        public <R> Builder<K> shardKey(Function1<R,K> getter) {
+            shardKeys.add(MethodInfo.of(getter));
+            return this;
+        }
+
+        public <R> Builder<K> shardKey(FunctionOptional1<R,K> getter) {
+            shardKeys.add(MethodInfo.of(getter));
+            return this;
+        }
+
+        public Builder<K> shard(SqlExecutor val) {
+            shards.add(val);
+            return this;
+        }
+
+        public Builder<K> shardFunction(ShardFunction<K> val) {
+            shardFunction = val;
+            return this;
+        }
+
+        public Builder<K> executor(Executor val) {
+            executor = val;
+            return this;
+        }
+
+        public ShardedSqlExecutor<K> build() {
+            return new ShardedSqlExecutor<>(this);
+        }
+    }
+}
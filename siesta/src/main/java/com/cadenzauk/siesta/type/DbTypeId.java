@@ -22,8 +22,10 @@
 
 package com.cadenzauk.siesta.type;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import com.cadenzauk.core.tuple.Tuple;
+import com.cadenzauk.core.tuple.Tuple3;
+import com.cadenzauk.siesta.BlobStream;
+import com.cadenzauk.siesta.ClobStream;
 
 import java.math.BigDecimal;
 import java.sql.Types;
@@ -31,8 +33,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DbTypeId<T> {
+    private static final ConcurrentMap<Tuple3<String,Integer,Class<?>>,Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
     public final static DbTypeId<Byte> TINYINT = new DbTypeId<>("tinyint", Types.TINYINT, Byte.class);
     public final static DbTypeId<Short> SMALLINT = new DbTypeId<>("smallint", Types.SMALLINT, Short.class);
     public final static DbTypeId<Integer> INTEGER = new DbTypeId<>("integer", Types.INTEGER, Integer.class);
@@ -40,6 +48,7 @@ public class DbTypeId<T> {
 
     public final static DbTypeId<byte[]> BINARY = new DbTypeId<>("binary", Types.BINARY, byte[].class);
     public final static DbTypeId<byte[]> VARBINARY = new DbTypeId<>("varbinary", Types.VARBINARY, byte[].class);
+    public final static DbTypeId<BlobStream> BLOB = new DbTypeId<>("blob", Types.BLOB, BlobStream.class);
 
     public final static DbTypeId<Double> DOUBLE = new DbTypeId<>("double precision", Types.DOUBLE, Double.class);
     public final static DbTypeId<Float> REAL = new DbTypeId<>("real", Types.FLOAT, Float.class);
@@ -52,15 +61,22 @@ public class DbTypeId<T> {
 
     public final static DbTypeId<String> CHAR = new DbTypeId<>("char", Types.CHAR, String.class);
     public final static DbTypeId<String> VARCHAR = new DbTypeId<>("varchar", Types.VARCHAR, String.class);
+    public final static DbTypeId<ClobStream> CLOB = new DbTypeId<>("clob", Types.CLOB, ClobStream.class);
 
     private final String name;
     private final int typeCode;
     private final Class<T> javaClass;
+    private final int id;
 
     public DbTypeId(String name, int typeCode, Class<T> javaClass) {
         this.name = name;
         this.typeCode = typeCode;
         this.javaClass = javaClass;
+        this.id = intern(name, typeCode, javaClass);
+    }
+
+    public int id() {
+        return id;
     }
 
     public String name() {
@@ -79,19 +95,15 @@ public class DbTypeId<T> {
 
         DbTypeId<?> dbTypeId = (DbTypeId<?>) o;
 
-        return new EqualsBuilder()
-            .append(typeCode, dbTypeId.typeCode)
-            .append(name, dbTypeId.name)
-            .append(javaClass, dbTypeId.javaClass)
-            .isEquals();
+        return id == dbTypeId.id;
     }
 
     @Override
     public int hashCode() {
-        return new HashCodeBuilder(17, 37)
-            .append(name)
-            .append(typeCode)
-            .append(javaClass)
-            .toHashCode();
+        return id;
+    }
+
+    private static int intern(String name, int typeCode, Class<?> javaClass) {
+        return IDS.computeIfAbsent(Tuple.of(name, typeCode, javaClass), k -> NEXT_ID.getAndIncrement());
     }
 }
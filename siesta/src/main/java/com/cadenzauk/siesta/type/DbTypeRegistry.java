@@ -22,12 +22,11 @@
 
 package com.cadenzauk.siesta.type;
 
-import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
 
 public class DbTypeRegistry {
-    private final Map<DbTypeId<?>,DbType<?>> types = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile DbType<?>[] types = new DbType<?>[0];
 
     public DbTypeRegistry() {
         this
@@ -35,6 +34,7 @@ public class DbTypeRegistry {
             .register(DbTypeId.TINYINT, new DefaultTinyint())
             .register(DbTypeId.BINARY, new DefaultVarbinary("binary"))
             .register(DbTypeId.VARBINARY, new DefaultVarbinary())
+            .register(DbTypeId.BLOB, new DefaultBlob())
             .register(DbTypeId.DOUBLE, new DefaultDouble())
             .register(DbTypeId.REAL, new DefaultReal())
             .register(DbTypeId.INTEGER, new DefaultInteger())
@@ -45,19 +45,27 @@ public class DbTypeRegistry {
             .register(DbTypeId.SMALLINT, new DefaultSmallint())
             .register(DbTypeId.CHAR, new DefaultVarchar("char"))
             .register(DbTypeId.VARCHAR, new DefaultVarchar())
+            .register(DbTypeId.CLOB, new DefaultClob())
             .register(DbTypeId.UTC_TIMESTAMP, new DefaultUtcTimestamp())
         ;
     }
 
     public <T> DbTypeRegistry register(DbTypeId<T> dbTypeId, DbType<T> type) {
-        types.put(dbTypeId, type);
+        synchronized (lock) {
+            DbType<?>[] copy = types.length > dbTypeId.id() ? types.clone() : Arrays.copyOf(types, dbTypeId.id() + 1);
+            copy[dbTypeId.id()] = type;
+            types = copy;
+        }
         return this;
     }
 
     @SuppressWarnings("unchecked")
     public <T> DbType<T> get(DbTypeId<T> dbTypeId) {
-        return Optional.ofNullable(types.get(dbTypeId))
-            .map(dt -> (DbType<T>) dt)
-            .orElseThrow(() -> new IllegalArgumentException("No dialect type for " + dbTypeId + " registered"));
+        DbType<?>[] current = types;
+        int id = dbTypeId.id();
+        if (id >= current.length || current[id] == null) {
+            throw new IllegalArgumentException("No dialect type for " + dbTypeId + " registered");
+        }
+        return (DbType<T>) current[id];
     }
 }
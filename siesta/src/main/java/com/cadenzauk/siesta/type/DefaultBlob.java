@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.type;
+
+import com.cadenzauk.siesta.BlobStream;
+import com.cadenzauk.siesta.Database;
+
+import java.sql.Blob;
+import java.sql.ResultSet;
+
+public class DefaultBlob extends DefaultDbType<BlobStream> {
+    public DefaultBlob() {
+        this("blob");
+    }
+
+    public DefaultBlob(String sqlType) {
+        super(sqlType,
+            (rs, col) -> wrap(rs.getBlob(col)),
+            (rs, col) -> wrap(rs.getBlob(col)));
+    }
+
+    private DefaultBlob(String sqlType, SqlBiFunction<ResultSet,String,BlobStream> byLabel, SqlBiFunction<ResultSet,Integer,BlobStream> byColNo) {
+        super(sqlType, byLabel, byColNo);
+    }
+
+    @Override
+    public String literal(Database database, BlobStream value) {
+        throw new IllegalArgumentException("Streamed " + sqlType() + " values cannot be rendered as literals.");
+    }
+
+    public static DefaultBlob byValue(String sqlType) {
+        return new DefaultBlob(sqlType,
+            (rs, col) -> wrap(rs.getBytes(col)),
+            (rs, col) -> wrap(rs.getBytes(col)));
+    }
+
+    private static BlobStream wrap(Blob blob) {
+        return blob == null ? null : BlobStream.of(blob);
+    }
+
+    private static BlobStream wrap(byte[] bytes) {
+        return bytes == null ? null : BlobStream.of(bytes);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.type;
+
+import com.cadenzauk.siesta.ClobStream;
+import com.cadenzauk.siesta.Database;
+
+import java.sql.Clob;
+import java.sql.ResultSet;
+
+public class DefaultClob extends DefaultDbType<ClobStream> {
+    public DefaultClob() {
+        this("clob");
+    }
+
+    public DefaultClob(String sqlType) {
+        super(sqlType,
+            (rs, col) -> wrap(rs.getClob(col)),
+            (rs, col) -> wrap(rs.getClob(col)));
+    }
+
+    private DefaultClob(String sqlType, SqlBiFunction<ResultSet,String,ClobStream> byLabel, SqlBiFunction<ResultSet,Integer,ClobStream> byColNo) {
+        super(sqlType, byLabel, byColNo);
+    }
+
+    @Override
+    public String literal(Database database, ClobStream value) {
+        throw new IllegalArgumentException("Streamed " + sqlType() + " values cannot be rendered as literals.");
+    }
+
+    public static DefaultClob byValue(String sqlType) {
+        return new DefaultClob(sqlType,
+            (rs, col) -> wrap(rs.getString(col)),
+            (rs, col) -> wrap(rs.getString(col)));
+    }
+
+    private static ClobStream wrap(Clob clob) {
+        return clob == null ? null : ClobStream.of(clob);
+    }
+
+    private static ClobStream wrap(String value) {
+        return value == null ? null : ClobStream.of(value);
+    }
+}
@@ -26,8 +26,10 @@ import com.cadenzauk.core.reflect.util.ClassUtil;
 import org.junit.jupiter.api.Test;
 
 import javax.xml.bind.annotation.XmlElement;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
@@ -98,6 +100,27 @@ class MethodInfoTest {
         assertThat(result.effectiveType(), equalTo(Integer.class));
     }
 
+    @Test
+    void ofGetterNameOptional() {
+        MethodInfo<MethodInfoTestClass,Integer> result = MethodInfo.of(MethodInfoTestClass.class, "optionalInteger", Integer.class);
+
+        assertThat(result.method(), equalTo(ClassUtil.getDeclaredMethod(MethodInfoTestClass.class, "optionalInteger")));
+        assertThat(result.actualType(), equalTo(Optional.class));
+        assertThat(result.effectiveType(), equalTo(Integer.class));
+    }
+
+    @Test
+    void ofGetterNameWrongType() {
+        calling(() -> MethodInfo.of(MethodInfoTestClass.class, "string", Integer.class))
+            .shouldThrow(IllegalArgumentException.class);
+    }
+
+    @Test
+    void ofGetterNameMissing() {
+        calling(() -> MethodInfo.of(MethodInfoTestClass.class, "noSuchMethod", String.class))
+            .shouldThrow(NoSuchElementException.class);
+    }
+
     @SuppressWarnings("unused")
     private static class MethodInfoTestClass {
         private String noPrefix;
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.core.sql;
+
+import com.cadenzauk.core.MockitoTest;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionPoolTest extends MockitoTest {
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Connection otherConnection;
+
+    @Test
+    void connectionIsReusedAfterClose() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource).build()) {
+            sut.getConnection().close();
+            sut.getConnection().close();
+        }
+
+        verify(dataSource, times(1)).getConnection();
+        verify(connection).close();
+    }
+
+    @Test
+    void closedConnectionRejectsCalls() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource).build()) {
+            Connection leased = sut.getConnection();
+            leased.close();
+            leased.close();
+
+            assertThat(leased.isClosed(), is(true));
+            calling(() -> ConnectionUtil.prepare(leased, "select 1 from dual"))
+                .shouldThrow(RuntimeSqlException.class)
+                .withCause(SQLException.class)
+                .withMessage(is("The connection has already been returned to the pool."));
+        }
+    }
+
+    @Test
+    void uncommittedWorkIsRolledBackOnReturn() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource).build()) {
+            sut.getConnection().close();
+        }
+
+        verify(connection).rollback();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    void invalidConnectionIsReplaced() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection, otherConnection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.isValid(5)).thenReturn(false);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource)
+            .validateAfterIdle(Duration.ZERO)
+            .build()) {
+            sut.getConnection().close();
+            Connection leased = sut.getConnection();
+
+            assertThat(leased.toString(), is("Pooled(" + otherConnection + ")"));
+        }
+
+        verify(connection).close();
+    }
+
+    @Test
+    void expiredConnectionIsClosedOnReturn() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource)
+            .maxLifetime(Duration.ZERO)
+            .build()) {
+            sut.getConnection().close();
+
+            assertThat(sut.metrics().total(), is(0));
+        }
+
+        verify(connection).close();
+    }
+
+    @Test
+    void borrowTimesOutWhenExhausted() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource)
+            .maxSize(1)
+            .connectionTimeout(Duration.ofMillis(10))
+            .build()) {
+            sut.getConnection();
+
+            calling(() -> DataSourceUtil.connection(sut))
+                .shouldThrow(RuntimeSqlException.class)
+                .withCause(SQLTransientConnectionException.class);
+            assertThat(sut.metrics().timeoutCount(), is(1L));
+        }
+    }
+
+    @Test
+    void metricsCountActiveAndIdle() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection, otherConnection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource).build()) {
+            Connection first = sut.getConnection();
+            sut.getConnection();
+            first.close();
+
+            ConnectionPoolMetrics metrics = sut.metrics();
+            assertThat(metrics.active(), is(1));
+            assertThat(metrics.idle(), is(1));
+            assertThat(metrics.borrowCount(), is(2L));
+        }
+    }
+
+    @Test
+    void maxSizeMustBePositive() {
+        calling(() -> ConnectionPool.newBuilder(dataSource).maxSize(0))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("The maximum pool size must be positive."));
+    }
+
+    @Test
+    void subSecondValidationTimeoutIsRoundedUpToOneSecond() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.isValid(1)).thenReturn(true);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource)
+            .validateAfterIdle(Duration.ZERO)
+            .validationTimeout(Duration.ofMillis(250))
+            .build()) {
+            sut.getConnection().close();
+            sut.getConnection().close();
+        }
+
+        verify(connection).isValid(1);
+    }
+
+    @Test
+    void concurrentBorrowersNeverExceedMaxSize() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection, otherConnection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(otherConnection.getAutoCommit()).thenReturn(true);
+        int threads = 8;
+        int borrowsPerThread = 200;
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource)
+            .maxSize(2)
+            .build()) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < borrowsPerThread; j++) {
+                        Connection leased = sut.getConnection();
+                        maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                        inUse.decrementAndGet();
+                        leased.close();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+
+            ConnectionPoolMetrics metrics = sut.metrics();
+            assertThat(maxInUse.get(), lessThanOrEqualTo(2));
+            assertThat(metrics.borrowCount(), is((long) threads * borrowsPerThread));
+            assertThat(metrics.active(), is(0));
+            assertThat(metrics.timeoutCount(), is(0L));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(dataSource, atMost(2)).getConnection();
+    }
+
+    @Test
+    void waiterIsWokenWhenConnectionIsReturned() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource)
+            .maxSize(1)
+            .build()) {
+            Connection held = sut.getConnection();
+            Future<Connection> waiter = executor.submit(() -> sut.getConnection());
+            while (sut.metrics().waiting() == 0) {
+                Thread.sleep(1);
+            }
+            held.close();
+            Connection handedOver = waiter.get(5, TimeUnit.SECONDS);
+
+            assertThat(handedOver.toString(), is("Pooled(" + connection + ")"));
+            assertThat(sut.metrics().waiting(), is(0));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void connectionHeldPastThresholdIsReportedAsLeak() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource)
+            .leakDetectionThreshold(Duration.ofMillis(10))
+            .build()) {
+            sut.getConnection();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sut.metrics().leakCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            assertThat(sut.metrics().leakCount(), is(1L));
+        }
+    }
+
+    @Test
+    void connectionReturnedBeforeThresholdIsNotReportedAsLeak() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        try (ConnectionPool sut = ConnectionPool.newBuilder(dataSource)
+            .leakDetectionThreshold(Duration.ofMillis(50))
+            .build()) {
+            sut.getConnection().close();
+            Thread.sleep(150);
+
+            assertThat(sut.metrics().leakCount(), is(0L));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.core.stream;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+class StreamPublisherTest {
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final AtomicBoolean opened = new AtomicBoolean();
+
+    private StreamPublisher<Integer> publisher(int count, int batchSize) {
+        return new StreamPublisher<>(() -> {
+            opened.set(true);
+            return IntStream.range(0, count).boxed().onClose(() -> closed.set(true));
+        }, tasks::add, batchSize);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    @Test
+    void honoursDemand() {
+        RecordingSubscriber sut = new RecordingSubscriber();
+        publisher(10, 100).subscribe(sut);
+
+        sut.subscription.request(3);
+        runTasks();
+
+        assertThat(sut.items, contains(0, 1, 2));
+        assertThat(sut.complete, is(false));
+        assertThat(closed.get(), is(false));
+    }
+
+    @Test
+    void completesAndClosesStream() {
+        RecordingSubscriber sut = new RecordingSubscriber();
+        publisher(3, 100).subscribe(sut);
+
+        sut.subscription.request(Long.MAX_VALUE);
+        runTasks();
+
+        assertThat(sut.items, contains(0, 1, 2));
+        assertThat(sut.complete, is(true));
+        assertThat(closed.get(), is(true));
+    }
+
+    @Test
+    void yieldsBetweenBatches() {
+        RecordingSubscriber sut = new RecordingSubscriber();
+        publisher(10, 2).subscribe(sut);
+
+        sut.subscription.request(5);
+        tasks.remove(0).run();
+
+        assertThat(sut.items, contains(0, 1));
+        assertThat(tasks.size(), is(1));
+    }
+
+    @Test
+    void cancelClosesStream() {
+        RecordingSubscriber sut = new RecordingSubscriber();
+        publisher(10, 100).subscribe(sut);
+
+        sut.subscription.request(2);
+        runTasks();
+        sut.subscription.cancel();
+        runTasks();
+
+        assertThat(sut.items, contains(0, 1));
+        assertThat(sut.complete, is(false));
+        assertThat(closed.get(), is(true));
+    }
+
+    @Test
+    void cancelBeforeRequestDoesNotOpenStream() {
+        RecordingSubscriber sut = new RecordingSubscriber();
+        publisher(10, 100).subscribe(sut);
+
+        sut.subscription.cancel();
+        runTasks();
+
+        assertThat(opened.get(), is(false));
+    }
+
+    @Test
+    void nonPositiveRequestSignalsError() {
+        RecordingSubscriber sut = new RecordingSubscriber();
+        publisher(10, 100).subscribe(sut);
+
+        sut.subscription.request(0);
+        runTasks();
+
+        assertThat(sut.error, instanceOf(IllegalArgumentException.class));
+    }
+
+    private static class RecordingSubscriber implements Subscriber<Integer> {
+        private final List<Integer> items = new ArrayList<>();
+        private Subscription subscription;
+        private Throwable error;
+        private boolean complete;
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onComplete() {
+            complete = true;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.cadenzauk.core.tuple.Tuple;
+import com.cadenzauk.core.tuple.Tuple3;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+class AggregateTest {
+    private static Aggregate<Tuple3<String,String,String>,String> customerOrderLines() {
+        return Aggregate.<Tuple3<String,String,String>,String>newBuilder(Tuple3::item1, customer -> customer)
+            .child(Aggregate.<Tuple3<String,String,String>,String>newBuilder(Tuple3::item2, order -> order)
+                .child(Aggregate.<Tuple3<String,String,String>,String>newBuilder(Tuple3::item3, line -> line).build(),
+                    (order, lines) -> order + lines)
+                .build(), (customer, orders) -> customer + orders)
+            .build();
+    }
+
+    @Test
+    void assembleBuildsOneAggregatePerRunOfRootKeys() {
+        List<String> result = customerOrderLines()
+            .assemble(Stream.of(
+                Tuple.of("C1", "O1", "L1"),
+                Tuple.of("C1", "O1", "L2"),
+                Tuple.of("C1", "O2", "L3"),
+                Tuple.of("C2", null, null),
+                Tuple.of("C3", "O3", "L4")))
+            .collect(Collectors.toList());
+
+        assertThat(result, contains("C1[O1[L1, L2], O2[L3]]", "C2[]", "C3[O3[L4]]"));
+    }
+
+    @Test
+    void assembleDeduplicatesChildrenWithinTheirParent() {
+        List<String> result = customerOrderLines()
+            .assemble(Stream.of(
+                Tuple.of("C1", "O1", "L1"),
+                Tuple.of("C1", "O2", "L2"),
+                Tuple.of("C1", "O1", "L1")))
+            .collect(Collectors.toList());
+
+        assertThat(result, contains("C1[O1[L1], O2[L2]]"));
+    }
+
+    @Test
+    void assembleIsLazy() {
+        AtomicBoolean thirdRowRead = new AtomicBoolean();
+        Stream<Tuple3<String,String,String>> rows = Stream.of(
+            Tuple.of("C1", "O1", "L1"),
+            Tuple.of("C2", "O2", "L2"),
+            Tuple.of("C3", "O3", "L3"))
+            .peek(row -> thirdRowRead.compareAndSet(false, row.item1().equals("C3")));
+
+        String first = customerOrderLines().assemble(rows).findFirst().orElse("");
+
+        assertThat(first, is("C1[O1[L1]]"));
+        assertThat(thirdRowRead.get(), is(false));
+    }
+
+    @Test
+    void closingTheAggregateStreamClosesTheRows() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Tuple3<String,String,String>> rows = Stream.of(Tuple.of("C1", "O1", "L1"))
+            .onClose(() -> closed.set(true));
+
+        customerOrderLines().assemble(rows).close();
+
+        assertThat(closed.get(), is(true));
+    }
+}
@@ -42,6 +42,7 @@ import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -219,4 +220,17 @@ class AliasTest extends MockitoTest {
 
         assertThat(result, containsInAnyOrder(sut));
     }
-}
\ No newline at end of file
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void aliasesOfTablesWithSameQualifiedNameAreEqual() {
+        Table<WidgetRow> otherTable = mock(Table.class);
+        when(widgetTable.qualifiedName()).thenReturn("SIESTA.WIDGET");
+        when(otherTable.qualifiedName()).thenReturn("SIESTA.WIDGET");
+        Alias<WidgetRow> sut = Alias.of(widgetTable, "w");
+
+        assertThat(sut, is(Alias.of(otherTable, "w")));
+        assertThat(sut.hashCode(), is(Alias.of(otherTable, "w").hashCode()));
+        assertThat(sut, not(is(Alias.of(otherTable, "x"))));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.cadenzauk.core.MockitoTest;
+import com.cadenzauk.siesta.dialect.AnsiDialect;
+import com.cadenzauk.siesta.grammar.expression.ValueExpression;
+import com.cadenzauk.siesta.model.WidgetRow;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import static com.cadenzauk.siesta.model.TestDatabase.testDatabaseBuilder;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+class CanonicalSqlTest extends MockitoTest {
+    @Mock
+    private Transaction transaction;
+
+    @Test
+    void sharedExpressionKeepsFirstLabelByDefault() {
+        Database database = testDatabaseBuilder(new AnsiDialect()).build();
+        ValueExpression<Integer> shared = ValueExpression.of(1);
+        database.select(ValueExpression.of(2)).comma(shared).sql();
+
+        String sql = database.select(shared).sql();
+
+        assertThat(sql, startsWith("select ? as value_2 "));
+    }
+
+    @Test
+    void sharedExpressionIsRelabelledPerStatementInCanonicalMode() {
+        Database database = testDatabaseBuilder(new AnsiDialect()).canonicalSql(true).build();
+        ValueExpression<Integer> shared = ValueExpression.of(1);
+        database.select(ValueExpression.of(2)).comma(shared).sql();
+
+        String sql = database.select(shared).sql();
+
+        assertThat(sql, startsWith("select ? as value_1 "));
+    }
+
+    @Test
+    void shortInListIsPaddedInCanonicalMode() {
+        Database database = testDatabaseBuilder(new AnsiDialect()).canonicalSql(true).build();
+
+        String sql = database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isIn(1L, 2L, 3L)
+            .sql();
+
+        assertThat(sql, endsWith("where w.WIDGET_ID in (?, ?, ?, ?)"));
+    }
+
+    @Test
+    void sqlShapesNotTrackedByDefault() {
+        Database database = testDatabaseBuilder(new AnsiDialect()).build();
+
+        database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isEqualTo(1L)
+            .list(transaction);
+
+        assertThat(database.sqlShapes().isEnabled(), is(false));
+        assertThat(database.sqlShapes().distinctCount(), is(0));
+    }
+
+    @Test
+    void sqlShapesCountDistinctStatements() {
+        Database database = testDatabaseBuilder(new AnsiDialect()).trackSqlShapes(true).build();
+
+        database.from(WidgetRow.class, "w").where(WidgetRow::widgetId).isIn(1L, 2L, 3L).list(transaction);
+        database.from(WidgetRow.class, "w").where(WidgetRow::widgetId).isIn(1L, 2L, 3L, 4L).list(transaction);
+        database.from(WidgetRow.class, "w").where(WidgetRow::widgetId).isIn(5L, 6L, 7L, 8L).list(transaction);
+
+        assertThat(database.sqlShapes().distinctCount(), is(2));
+    }
+
+    @Test
+    void canonicalSqlReducesDistinctShapes() {
+        Database database = testDatabaseBuilder(new AnsiDialect()).canonicalSql(true).trackSqlShapes(true).build();
+
+        database.from(WidgetRow.class, "w").where(WidgetRow::widgetId).isIn(1L, 2L, 3L).list(transaction);
+        database.from(WidgetRow.class, "w").where(WidgetRow::widgetId).isIn(1L, 2L, 3L, 4L).list(transaction);
+        String sql = database.from(WidgetRow.class, "w").where(WidgetRow::widgetId).isIn(5L, 6L, 7L, 8L).sql();
+
+        assertThat(database.sqlShapes().distinctCount(), is(1));
+        assertThat(database.sqlShapes().executionCount(sql), is(2L));
+    }
+}
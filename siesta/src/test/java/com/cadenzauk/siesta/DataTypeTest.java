@@ -28,14 +28,22 @@ import com.cadenzauk.core.lang.UncheckedAutoCloseable;
 import com.cadenzauk.core.sql.ResultSetGet;
 import com.cadenzauk.core.sql.SqlBiConsumer;
 import com.cadenzauk.siesta.dialect.AnsiDialect;
+import com.cadenzauk.siesta.dialect.PostgresDialect;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.RandomUtils;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -45,6 +53,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Stream;
 
 import static com.cadenzauk.core.RandomValues.randomLocalDate;
@@ -56,6 +65,8 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.params.provider.ObjectArrayArguments.create;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class DataTypeTest extends MockitoTest {
@@ -65,12 +76,20 @@ class DataTypeTest extends MockitoTest {
     @Mock
     private Database db;
 
+    @Mock
+    private Blob blob;
+
+    @Mock
+    private Clob clob;
+
     @SuppressWarnings("unused")
     static Stream<Arguments> parametersForJavaClass() {
         return Stream.of(
             create(DataType.BIG_DECIMAL, BigDecimal.class),
+            create(DataType.BLOB_STREAM, BlobStream.class),
             create(DataType.BYTE, Byte.class),
             create(DataType.BYTE_ARRAY, byte[].class),
+            create(DataType.CLOB_STREAM, ClobStream.class),
             create(DataType.DOUBLE, Double.class),
             create(DataType.FLOAT, Float.class),
             create(DataType.INTEGER, Integer.class),
@@ -221,6 +240,74 @@ class DataTypeTest extends MockitoTest {
         assertThat(result, is(Optional.of(expected)));
     }
 
+    @Test
+    void getBlobStreamOpensStreamFromLocatorWhenRead() throws SQLException {
+        InputStream expected = new ByteArrayInputStream(new byte[]{0x01, 0x02});
+        when(db.dialect()).thenReturn(new AnsiDialect());
+        when(rs.getBlob("someColumn")).thenReturn(blob);
+
+        Optional<BlobStream> result = DataType.BLOB_STREAM.get(rs, "someColumn", db);
+
+        verify(blob, never()).getBinaryStream();
+        when(blob.getBinaryStream()).thenReturn(expected);
+        assertThat(result.map(BlobStream::inputStream), is(Optional.of(expected)));
+    }
+
+    @Test
+    void closingBlobStreamFreesLocator() throws SQLException {
+        when(db.dialect()).thenReturn(new AnsiDialect());
+        when(rs.getBlob("someColumn")).thenReturn(blob);
+
+        DataType.BLOB_STREAM.get(rs, "someColumn", db).ifPresent(BlobStream::close);
+
+        verify(blob).free();
+    }
+
+    @Test
+    void getBlobStreamOfNullIsEmpty() throws SQLException {
+        when(db.dialect()).thenReturn(new AnsiDialect());
+        when(rs.getBlob("someColumn")).thenReturn(null);
+
+        Optional<BlobStream> result = DataType.BLOB_STREAM.get(rs, "someColumn", db);
+
+        assertThat(result, is(Optional.empty()));
+    }
+
+    @Test
+    void getBlobStreamOnPostgresReadsBytes() throws SQLException {
+        when(db.dialect()).thenReturn(new PostgresDialect());
+        when(rs.getBytes("someColumn")).thenReturn(new byte[]{0x01, 0x02, 0x03});
+
+        Optional<BlobStream> result = DataType.BLOB_STREAM.get(rs, "someColumn", db);
+
+        assertThat(result.map(BlobStream::length), is(Optional.of(OptionalLong.of(3))));
+    }
+
+    @Test
+    void getClobStreamOpensReaderFromLocatorWhenRead() throws SQLException {
+        Reader expected = new StringReader("Hello");
+        when(db.dialect()).thenReturn(new AnsiDialect());
+        when(rs.getClob(3)).thenReturn(clob);
+        when(clob.getCharacterStream()).thenReturn(expected);
+
+        Optional<ClobStream> result = DataType.CLOB_STREAM.get(rs, 3, db);
+
+        assertThat(result.map(ClobStream::reader), is(Optional.of(expected)));
+        result.ifPresent(ClobStream::close);
+        verify(clob).free();
+    }
+
+    @Test
+    void getClobStreamOnPostgresReadsString() throws SQLException {
+        when(db.dialect()).thenReturn(new PostgresDialect());
+        when(rs.getString(3)).thenReturn("Hello");
+
+        Optional<ClobStream> result = DataType.CLOB_STREAM.get(rs, 3, db);
+
+        assertThat(result.map(ClobStream::length), is(Optional.of(OptionalLong.of(5))));
+        verify(rs, never()).getClob(3);
+    }
+
     @SuppressWarnings("unused")
     private static Stream<String> timeZones() {
         return Stream.of("UTC", "America/Anchorage", "Europe/London", "Europe/Berlin", "Africa/Johannesburg", "Pacific/Chatham");
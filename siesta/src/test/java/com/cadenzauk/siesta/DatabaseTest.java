@@ -23,6 +23,7 @@
 package com.cadenzauk.siesta;
 
 import com.cadenzauk.siesta.name.UppercaseUnderscores;
+import com.google.common.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
@@ -138,6 +139,27 @@ class DatabaseTest {
         assertThat(sql, is("select p.FIRST_NAME as p_FIRST_NAME from CUSTOMERS.CUSTOMER p where p.ROW_ID = ?"));
     }
 
+    @Test
+    void warmUpBuildsTablesAndReportsTimings() {
+        Database database = Database.newBuilder()
+            .defaultSchema("CUSTOMERS")
+            .warmUp(Person.class)
+            .build();
+
+        WarmUpReport report = database.warmUpReport();
+
+        assertThat(report.tables().size(), is(1));
+        assertThat(report.tables().containsKey(TypeToken.of(Person.class)), is(true));
+        assertThat(database.table(Person.class).columnList(), is("ROW_ID, FIRST_NAME, MIDDLE_NAMES, SURNAME"));
+    }
+
+    @Test
+    void noWarmUpGivesEmptyReport() {
+        Database database = siesta();
+
+        assertThat(database.warmUpReport().tables().isEmpty(), is(true));
+    }
+
     @NotNull
     private Database siesta() {
         return Database.newBuilder()
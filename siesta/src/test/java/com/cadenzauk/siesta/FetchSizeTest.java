@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import org.junit.jupiter.api.Test;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class FetchSizeTest {
+    @Test
+    void rows() {
+        FetchSize sut = FetchSize.rows(250);
+
+        assertThat(sut.rows(), is(250));
+        assertThat(sut.isAdaptive(), is(false));
+    }
+
+    @Test
+    void fetchSizeMustBePositive() {
+        calling(() -> FetchSize.rows(0))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("The fetch size must be positive."));
+    }
+
+    @Test
+    void adaptive() {
+        FetchSize sut = FetchSize.adaptive(65536L);
+
+        assertThat(sut.isAdaptive(), is(true));
+        assertThat(sut.targetBytes().orElse(0L), is(65536L));
+    }
+
+    @Test
+    void adaptiveTargetMustBePositive() {
+        calling(() -> FetchSize.adaptive(0L))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("The target fetch size in bytes must be positive."));
+    }
+}
@@ -23,19 +23,36 @@
 package com.cadenzauk.siesta;
 
 import com.cadenzauk.siesta.dialect.AnsiDialect;
+import com.cadenzauk.siesta.dialect.FirebirdDialect;
+import com.cadenzauk.siesta.dialect.OracleDialect;
+import com.cadenzauk.siesta.dialect.PostgresDialect;
+import com.cadenzauk.siesta.dialect.SqlServerDialect;
+import com.cadenzauk.siesta.grammar.expression.BooleanExpression;
+import com.cadenzauk.siesta.grammar.expression.ExistsExpression;
+import com.cadenzauk.siesta.grammar.select.InWhereExpectingAnd;
+import com.cadenzauk.siesta.grammar.select.Select;
 import com.cadenzauk.siesta.model.ManufacturerRow;
 import com.cadenzauk.siesta.model.WidgetRow;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.stream.LongStream;
 
+import static com.cadenzauk.siesta.grammar.expression.Aggregates.max;
 import static com.cadenzauk.siesta.grammar.expression.CoalesceFunction.coalesce;
 import static com.cadenzauk.siesta.grammar.expression.StringFunctions.substr;
 import static com.cadenzauk.siesta.grammar.expression.TypedExpression.column;
 import static com.cadenzauk.siesta.grammar.expression.TypedExpression.value;
 import static com.cadenzauk.siesta.model.TestDatabase.testDatabase;
+import static java.util.stream.Collectors.joining;
+import static org.apache.commons.lang3.ArrayUtils.toArray;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 
 class SelectExpressionTest {
     @Test
@@ -102,6 +119,82 @@ class SelectExpressionTest {
             "where WIDGET.WIDGET_ID not in (?, ?, ?)"));
     }
 
+    @Test
+    void isInSelect() {
+        Database database = testDatabase(new AnsiDialect());
+
+        String sql = database.from(ManufacturerRow.class, "m")
+            .where(ManufacturerRow::manufacturerId).isIn(database.from(WidgetRow.class, "w")
+                .select(WidgetRow::manufacturerId)
+                .where(WidgetRow::name).isEqualTo("Dodacky"))
+            .sql();
+
+        assertThat(sql, is("select m.MANUFACTURER_ID as m_MANUFACTURER_ID, m.NAME as m_NAME, m.CHECKED as m_CHECKED " +
+            "from SIESTA.MANUFACTURER m " +
+            "where m.MANUFACTURER_ID in (select w.MANUFACTURER_ID as w_MANUFACTURER_ID from SIESTA.WIDGET w where w.NAME = ?)"));
+    }
+
+    @Test
+    void isInSelectRewrittenAsExists() {
+        Database database = testDatabase(new FirebirdDialect());
+
+        String sql = database.from(ManufacturerRow.class, "m")
+            .where(ManufacturerRow::manufacturerId).isIn(database.from(WidgetRow.class, "w")
+                .select(WidgetRow::manufacturerId)
+                .where(WidgetRow::name).isEqualTo("Dodacky").or(WidgetRow::name).isEqualTo("Gizmo"))
+            .sql();
+
+        assertThat(sql, is("select m.MANUFACTURER_ID as m_MANUFACTURER_ID, m.NAME as m_NAME, m.CHECKED as m_CHECKED " +
+            "from MANUFACTURER m " +
+            "where exists (select 1 from WIDGET w where (w.NAME = ? or w.NAME = ?) and w.MANUFACTURER_ID = m.MANUFACTURER_ID)"));
+    }
+
+    @Test
+    void isInAggregateSelectIsNotRewrittenAsExists() {
+        Database database = testDatabase(new FirebirdDialect());
+
+        String sql = database.from(ManufacturerRow.class, "m")
+            .where(ManufacturerRow::manufacturerId).isIn(database.from(WidgetRow.class, "w")
+                .select(max(WidgetRow::manufacturerId))
+                .where(WidgetRow::name).isEqualTo("Dodacky"))
+            .sql();
+
+        assertThat(sql, is("select m.MANUFACTURER_ID as m_MANUFACTURER_ID, m.NAME as m_NAME, m.CHECKED as m_CHECKED " +
+            "from MANUFACTURER m " +
+            "where m.MANUFACTURER_ID in (select max(w.MANUFACTURER_ID) as max_w_MANUFACTURER_ID from WIDGET w where w.NAME = ?)"));
+    }
+
+    @Test
+    void exists() {
+        Database database = testDatabase(new AnsiDialect());
+
+        String sql = database.from(ManufacturerRow.class, "m")
+            .where(ExistsExpression.exists(database.from(WidgetRow.class, "w")
+                .select(WidgetRow::widgetId)
+                .where(WidgetRow::manufacturerId).isEqualTo("m", ManufacturerRow::manufacturerId)))
+            .sql();
+
+        assertThat(sql, is("select m.MANUFACTURER_ID as m_MANUFACTURER_ID, m.NAME as m_NAME, m.CHECKED as m_CHECKED " +
+            "from SIESTA.MANUFACTURER m " +
+            "where exists (select w.WIDGET_ID as w_WIDGET_ID from SIESTA.WIDGET w where w.MANUFACTURER_ID = m.MANUFACTURER_ID)"));
+    }
+
+    @Test
+    void notExists() {
+        Database database = testDatabase(new AnsiDialect());
+
+        String sql = database.from(ManufacturerRow.class, "m")
+            .where(ManufacturerRow::name).isEqualTo("Acme")
+            .and(ExistsExpression.notExists(database.from(WidgetRow.class, "w")
+                .select(WidgetRow::widgetId)
+                .where(WidgetRow::manufacturerId).isEqualTo("m", ManufacturerRow::manufacturerId)))
+            .sql();
+
+        assertThat(sql, is("select m.MANUFACTURER_ID as m_MANUFACTURER_ID, m.NAME as m_NAME, m.CHECKED as m_CHECKED " +
+            "from SIESTA.MANUFACTURER m " +
+            "where m.NAME = ? and (not exists (select w.WIDGET_ID as w_WIDGET_ID from SIESTA.WIDGET w where w.MANUFACTURER_ID = m.MANUFACTURER_ID))"));
+    }
+
     @Test
     void isLike() {
         Database database = testDatabase(new AnsiDialect());
@@ -274,4 +367,159 @@ class SelectExpressionTest {
             "from SIESTA.WIDGET w " +
             "where w.NAME || w.DESCRIPTION = ? || w.DESCRIPTION"));
     }
+
+    @Test
+    void isInWithTenThousandValues() {
+        Database database = testDatabase(new AnsiDialect());
+        Long[] ids = LongStream.range(0, 10000).boxed().toArray(Long[]::new);
+        Select<WidgetRow> select = database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isIn(ids);
+
+        String sql = select.sql();
+        Object[] args = select.args(new Scope(database)).toArray();
+
+        String chunk = "w.WIDGET_ID in (" + String.join(", ", Collections.nCopies(1000, "?")) + ")";
+        assertThat(sql, endsWith("where (" + String.join(" or ", Collections.nCopies(10, chunk)) + ")"));
+        assertThat(args, is(ids));
+    }
+
+    @Test
+    void shortInListIsNotPadded() {
+        Database database = testDatabase(new AnsiDialect());
+        Select<WidgetRow> select = database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isIn(1L, 2L, 3L, 4L, 5L);
+
+        String sql = select.sql();
+        Object[] args = select.args(new Scope(database)).toArray();
+
+        assertThat(sql, endsWith("where w.WIDGET_ID in (?, ?, ?, ?, ?)"));
+        assertThat(args, is(toArray(1L, 2L, 3L, 4L, 5L)));
+    }
+
+    @Test
+    void longInListIsPaddedToPowerOfTwo() {
+        Database database = testDatabase(new AnsiDialect());
+        Select<WidgetRow> select = database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isNotIn(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+
+        String sql = select.sql();
+        Object[] args = select.args(new Scope(database)).toArray();
+
+        assertThat(sql, endsWith("where w.WIDGET_ID not in (" + String.join(", ", Collections.nCopies(16, "?")) + ")"));
+        assertThat(args, is(toArray(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 9L, 9L, 9L, 9L, 9L, 9L, 9L)));
+    }
+
+    @Test
+    void inListLongerThanDialectMaximumIsChunked() {
+        Database database = testDatabase(new OracleDialect());
+        Long[] ids = LongStream.range(0, 1500).boxed().toArray(Long[]::new);
+        Select<WidgetRow> select = database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isIn(ids)
+            .and(WidgetRow::name).isEqualTo("Fred");
+
+        String sql = select.sql();
+        Object[] args = select.args(new Scope(database)).toArray();
+
+        assertThat(sql, endsWith("where (w.WIDGET_ID in (" + String.join(", ", Collections.nCopies(1000, "?")) + ")" +
+            " or w.WIDGET_ID in (" + String.join(", ", Collections.nCopies(512, "?")) + ")) and w.NAME = ?"));
+        assertThat(args, arrayWithSize(1513));
+        assertThat(args[1511], is(1499L));
+        assertThat(args[1512], is("Fred"));
+    }
+
+    @Test
+    void paddingIsCappedAtDialectMaximum() {
+        Database database = testDatabase(new AnsiDialect());
+        Long[] ids = LongStream.range(0, 600).boxed().toArray(Long[]::new);
+        Select<WidgetRow> select = database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isIn(ids);
+
+        String sql = select.sql();
+        Object[] args = select.args(new Scope(database)).toArray();
+
+        assertThat(sql, endsWith("where w.WIDGET_ID in (" + String.join(", ", Collections.nCopies(1000, "?")) + ")"));
+        assertThat(args, arrayWithSize(1000));
+    }
+
+    @Test
+    void inListOnPostgresBindsAnArray() {
+        Database database = testDatabase(new PostgresDialect());
+        Long[] ids = LongStream.range(0, 20).boxed().toArray(Long[]::new);
+        Select<WidgetRow> select = database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isNotIn(ids);
+
+        String sql = select.sql();
+        Object[] args = select.args(new Scope(database)).toArray();
+
+        assertThat(sql, endsWith("where w.WIDGET_ID <> all(?)"));
+        assertThat(args, arrayWithSize(1));
+        assertThat(((SqlArray) args[0]).typeName(), is("bigint"));
+        assertThat(((SqlArray) args[0]).elements(), is(LongStream.range(0, 20).boxed().toArray()));
+    }
+
+    @Test
+    void veryLongInListOnSqlServerIsChunkedIntoParameters() {
+        Database database = testDatabase(new SqlServerDialect());
+        Long[] ids = LongStream.range(0, 2000).boxed().toArray(Long[]::new);
+        Select<WidgetRow> select = database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isIn(ids);
+
+        String sql = select.sql();
+        Object[] args = select.args(new Scope(database)).toArray();
+
+        assertThat(sql, endsWith("where (w.WIDGET_ID in (" + String.join(", ", Collections.nCopies(1000, "?")) + ")" +
+            " or w.WIDGET_ID in (" + String.join(", ", Collections.nCopies(1000, "?")) + "))"));
+        assertThat(args, is(LongStream.range(0, 2000).boxed().toArray()));
+    }
+
+    @Test
+    void inListOverSqlServerParameterLimitIsInlined() {
+        Database database = testDatabase(new SqlServerDialect());
+        Long[] ids = LongStream.range(0, 3000).boxed().toArray(Long[]::new);
+        Select<WidgetRow> select = database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isIn(ids)
+            .and(WidgetRow::name).isEqualTo("Fred");
+
+        String sql = select.sql();
+        Object[] args = select.args(new Scope(database)).toArray();
+
+        assertThat(sql, endsWith("where w.WIDGET_ID in (" + LongStream.range(0, 3000).mapToObj(Long::toString).collect(joining(", ")) + ") and w.NAME = ?"));
+        assertThat(args, is(toArray("Fred")));
+    }
+
+    @Test
+    void thousandTermAndChain() {
+        Database database = testDatabase(new AnsiDialect());
+        InWhereExpectingAnd<WidgetRow> select = database.from(WidgetRow.class, "w")
+            .where(WidgetRow::widgetId).isNotEqualTo(0L);
+        for (long i = 1; i < 1000; i++) {
+            select = select.and(WidgetRow::widgetId).isNotEqualTo(i);
+        }
+
+        String sql = select.sql();
+        Object[] args = select.args(new Scope(database)).toArray();
+
+        assertThat(sql, endsWith("where " + String.join(" and ", Collections.nCopies(1000, "w.WIDGET_ID <> ?"))));
+        assertThat(args, is(LongStream.range(0, 1000).boxed().toArray()));
+    }
+
+    @Test
+    void deeplyNestedAndOrRendersWithoutRecursion() {
+        Database database = testDatabase(new AnsiDialect());
+        BooleanExpression expression = column(WidgetRow::widgetId).isEqualTo(0L);
+        for (long i = 1; i < 5000; i++) {
+            expression = i % 2 == 0
+                ? column(WidgetRow::widgetId).isEqualTo(i).and(expression)
+                : column(WidgetRow::widgetId).isEqualTo(i).or(expression);
+        }
+        Select<WidgetRow> select = database.from(WidgetRow.class, "w")
+            .where(expression);
+
+        SqlBuilder builder = new SqlBuilder();
+        select.render(builder, new Scope(database));
+
+        assertThat(builder.sql(), startsWith("(select "));
+        assertThat(builder.sql(), endsWith("w.WIDGET_ID = ? and (w.WIDGET_ID = ? or w.WIDGET_ID = ?))" + StringUtils.repeat(')', 2498)));
+        assertThat(builder.args(), is(LongStream.range(0, 5000).map(i -> 4999 - i).boxed().toArray()));
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.cadenzauk.core.MockitoTest;
+import com.cadenzauk.core.lang.CompositeAutoCloseable;
+import com.cadenzauk.siesta.dialect.AnsiDialect;
+import com.cadenzauk.siesta.model.WidgetRow;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static com.cadenzauk.siesta.model.TestDatabase.testDatabase;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SelectFetchSizeTest extends MockitoTest {
+    @Mock
+    private SqlExecutor sqlExecutor;
+
+    @Mock
+    private SqlExecutor sizedExecutor;
+
+    @Mock
+    private Transaction transaction;
+
+    @Test
+    void listWithoutFetchSizeUsesReadExecutor() {
+        readExecutor();
+        when(sqlExecutor.query(anyString(), any(), any())).thenReturn(ImmutableList.of());
+        Database database = testDatabase(new AnsiDialect());
+
+        database.from(WidgetRow.class, "w")
+            .list(sqlExecutor);
+
+        verify(sqlExecutor, never()).withFetchSize(any());
+        verify(sqlExecutor).query(anyString(), any(), any());
+    }
+
+    @Test
+    void listWithFetchSizeUsesSizedExecutor() {
+        readExecutor();
+        when(sqlExecutor.withFetchSize(argThat(f -> f.rows() == 500 && !f.isAdaptive()))).thenReturn(sizedExecutor);
+        when(sizedExecutor.query(anyString(), any(), any())).thenReturn(ImmutableList.of());
+        Database database = testDatabase(new AnsiDialect());
+
+        database.from(WidgetRow.class, "w")
+            .fetchSize(500)
+            .list(sqlExecutor);
+
+        verify(sizedExecutor).query(anyString(), any(), any());
+    }
+
+    @Test
+    void streamWithAdaptiveFetchSizeUsesSizedExecutor() {
+        readExecutor();
+        when(sqlExecutor.withFetchSize(argThat(f -> f.targetBytes().orElse(0L) == 65536L))).thenReturn(sizedExecutor);
+        when(sizedExecutor.stream(anyString(), any(), any())).thenReturn(Stream.empty());
+        Database database = testDatabase(new AnsiDialect());
+
+        try (CompositeAutoCloseable closeable = new CompositeAutoCloseable()) {
+            database.from(WidgetRow.class, "w")
+                .adaptiveFetchSize(65536L)
+                .stream(sqlExecutor, closeable)
+                .forEach(w -> {});
+        }
+
+        verify(sizedExecutor).stream(anyString(), any(), any());
+    }
+
+    @Test
+    void listInTransactionWithoutFetchSize() {
+        when(transaction.query(anyString(), any(), any())).thenReturn(ImmutableList.of());
+        Database database = testDatabase(new AnsiDialect());
+
+        database.from(WidgetRow.class, "w")
+            .list(transaction);
+
+        verify(transaction).query(anyString(), any(), any());
+    }
+
+    @Test
+    void listInTransactionWithFetchSize() {
+        when(transaction.query(anyString(), any(), any(), argThat(f -> f.rows() == 500))).thenReturn(ImmutableList.of());
+        Database database = testDatabase(new AnsiDialect());
+
+        database.from(WidgetRow.class, "w")
+            .fetchSize(500)
+            .list(transaction);
+
+        verify(transaction).query(anyString(), any(), any(), argThat(f -> f.rows() == 500));
+    }
+
+    @Test
+    void singleAsyncInTransactionWithFetchSize() {
+        when(transaction.queryAsync(anyString(), any(), any(), argThat(f -> f.rows() == 500))).thenReturn(CompletableFuture.completedFuture(ImmutableList.of()));
+        Database database = testDatabase(new AnsiDialect());
+
+        database.from(WidgetRow.class, "w")
+            .fetchSize(500)
+            .singleAsync(transaction);
+
+        verify(transaction).queryAsync(anyString(), any(), any(), argThat(f -> f.rows() == 500));
+    }
+
+    @Test
+    void streamInTransactionWithAdaptiveFetchSize() {
+        when(transaction.stream(anyString(), any(), any(), argThat(f -> f.targetBytes().orElse(0L) == 65536L))).thenReturn(Stream.empty());
+        Database database = testDatabase(new AnsiDialect());
+
+        try (CompositeAutoCloseable closeable = new CompositeAutoCloseable()) {
+            database.from(WidgetRow.class, "w")
+                .adaptiveFetchSize(65536L)
+                .stream(transaction, closeable)
+                .forEach(w -> {});
+        }
+
+        verify(transaction).stream(anyString(), any(), any(), argThat(f -> f.targetBytes().orElse(0L) == 65536L));
+    }
+
+    private void readExecutor() {
+        when(sqlExecutor.readExecutor(any(), any())).thenReturn(sqlExecutor);
+        when(sqlExecutor.route(any())).thenReturn(sqlExecutor);
+    }
+}
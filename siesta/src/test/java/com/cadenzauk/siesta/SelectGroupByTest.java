@@ -25,6 +25,7 @@ package com.cadenzauk.siesta;
 import com.cadenzauk.core.MockitoTest;
 import com.cadenzauk.core.sql.RowMapper;
 import com.cadenzauk.siesta.dialect.AnsiDialect;
+import com.cadenzauk.siesta.dialect.H2Dialect;
 import com.cadenzauk.siesta.model.ManufacturerRow;
 import com.cadenzauk.siesta.model.TestDatabase;
 import com.cadenzauk.siesta.model.WidgetRow;
@@ -33,7 +34,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static com.cadenzauk.siesta.grammar.expression.Aggregates.grouping;
 import static com.cadenzauk.siesta.grammar.expression.Aggregates.max;
+import static com.cadenzauk.siesta.grammar.select.Grouping.cube;
+import static com.cadenzauk.siesta.grammar.select.Grouping.groupingSets;
+import static com.cadenzauk.siesta.grammar.select.Grouping.rollup;
+import static com.cadenzauk.siesta.grammar.select.Grouping.set;
+import static org.apache.commons.lang3.ArrayUtils.toArray;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsArrayWithSize.arrayWithSize;
@@ -143,4 +151,153 @@ class SelectGroupByTest extends MockitoTest {
         assertThat(args.getValue()[0], is("ABC%"));
     }
 
+    @Test
+    void groupByRollup() {
+        Database database = TestDatabase.testDatabase(new AnsiDialect());
+
+        database.from(WidgetRow.class, "w")
+            .select(WidgetRow::manufacturerId, "id").comma(WidgetRow::description, "description").comma(max(WidgetRow::name), "name")
+            .groupBy(rollup(WidgetRow::manufacturerId).comma(WidgetRow::description))
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.MANUFACTURER_ID as id, w.DESCRIPTION as description, max(w.NAME) as name " +
+            "from SIESTA.WIDGET w " +
+            "group by rollup (w.MANUFACTURER_ID, w.DESCRIPTION)"));
+    }
+
+    @Test
+    void groupByCube() {
+        Database database = TestDatabase.testDatabase(new AnsiDialect());
+
+        database.from(WidgetRow.class, "w")
+            .select(WidgetRow::manufacturerId, "id").comma(WidgetRow::description, "description").comma(max(WidgetRow::name), "name")
+            .groupBy(cube(WidgetRow::manufacturerId).comma(WidgetRow::description))
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.MANUFACTURER_ID as id, w.DESCRIPTION as description, max(w.NAME) as name " +
+            "from SIESTA.WIDGET w " +
+            "group by cube (w.MANUFACTURER_ID, w.DESCRIPTION)"));
+    }
+
+    @Test
+    void groupByGroupingSets() {
+        Database database = TestDatabase.testDatabase(new AnsiDialect());
+
+        database.from(WidgetRow.class, "w")
+            .select(WidgetRow::manufacturerId, "id").comma(grouping(WidgetRow::manufacturerId), "level").comma(max(WidgetRow::name), "name")
+            .groupBy(groupingSets(set(WidgetRow::manufacturerId), set()))
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.MANUFACTURER_ID as id, grouping(w.MANUFACTURER_ID) as level, max(w.NAME) as name " +
+            "from SIESTA.WIDGET w " +
+            "group by grouping sets ((w.MANUFACTURER_ID), ())"));
+    }
+
+    @Test
+    void groupByRollupEmulatedWithUnionAll() {
+        Database database = TestDatabase.testDatabase(new H2Dialect());
+
+        database.from(WidgetRow.class, "w")
+            .select(WidgetRow::manufacturerId, "id").comma(grouping(WidgetRow::manufacturerId), "level").comma(max(WidgetRow::name), "name")
+            .where(WidgetRow::description).isLike("ABC%")
+            .groupBy(rollup(WidgetRow::manufacturerId))
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.MANUFACTURER_ID as id, 0 as level, max(w.NAME) as name " +
+            "from SIESTA.WIDGET w " +
+            "where w.DESCRIPTION like ? " +
+            "group by w.MANUFACTURER_ID " +
+            "union all " +
+            "select null as id, 1 as level, max(w.NAME) as name " +
+            "from SIESTA.WIDGET w " +
+            "where w.DESCRIPTION like ?"));
+        assertThat(args.getValue(), is(toArray("ABC%", "ABC%")));
+    }
+
+    @Test
+    void groupByRollupEmulatedWithUnionAllOrdersByColumnNumber() {
+        Database database = TestDatabase.testDatabase(new H2Dialect());
+
+        database.from(WidgetRow.class, "w")
+            .select(WidgetRow::manufacturerId, "id").comma(max(WidgetRow::name), "name")
+            .groupBy(rollup(WidgetRow::manufacturerId))
+            .orderBy(WidgetRow::manufacturerId).then(max(WidgetRow::name), Order.DESC).then(1)
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.MANUFACTURER_ID as id, max(w.NAME) as name " +
+            "from SIESTA.WIDGET w " +
+            "group by w.MANUFACTURER_ID " +
+            "union all " +
+            "select null as id, max(w.NAME) as name " +
+            "from SIESTA.WIDGET w " +
+            "order by 1 asc, 2 desc, 1 asc"));
+    }
+
+    @Test
+    void groupByRollupEmulatedWithUnionAllOrderedByColumnNotSelected() {
+        Database database = TestDatabase.testDatabase(new H2Dialect());
+
+        calling(() -> database.from(WidgetRow.class, "w")
+            .select(WidgetRow::manufacturerId, "id")
+            .groupBy(rollup(WidgetRow::manufacturerId))
+            .orderBy(max(WidgetRow::name))
+            .list(transaction))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("Cannot order by max(w.NAME) as it is not in the select list."));
+    }
+
+    @Test
+    void groupByRollupEmulatedWithUnionAllNullsRolledUpRowColumns() {
+        Database database = TestDatabase.testDatabase(new H2Dialect());
+
+        database.from(ManufacturerRow.class, "m")
+            .groupBy(rollup(ManufacturerRow::manufacturerId)).comma(ManufacturerRow::name).comma(ManufacturerRow::checked)
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select m.MANUFACTURER_ID as m_MANUFACTURER_ID, m.NAME as m_NAME, m.CHECKED as m_CHECKED " +
+            "from SIESTA.MANUFACTURER m " +
+            "group by m.MANUFACTURER_ID, m.NAME, m.CHECKED " +
+            "union all " +
+            "select null as m_MANUFACTURER_ID, m.NAME as m_NAME, m.CHECKED as m_CHECKED " +
+            "from SIESTA.MANUFACTURER m " +
+            "group by m.NAME, m.CHECKED"));
+    }
+
+    @Test
+    void groupByRollupEmulatedWithUnionAllNullsRolledUpOnlyColumns() {
+        Database database = TestDatabase.testDatabase(new H2Dialect());
+
+        database.from(WidgetRow.class, "w")
+            .select(WidgetRow.class)
+            .only(WidgetRow::manufacturerId)
+            .groupBy(rollup(WidgetRow::manufacturerId))
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.MANUFACTURER_ID as w_MANUFACTURER_ID " +
+            "from SIESTA.WIDGET w " +
+            "group by w.MANUFACTURER_ID " +
+            "union all " +
+            "select null as w_MANUFACTURER_ID " +
+            "from SIESTA.WIDGET w"));
+    }
+
+    @Test
+    void groupByRollupEmulatedWithUnionAllCannotKeepLocks() {
+        Database database = TestDatabase.testDatabase(new H2Dialect());
+
+        calling(() -> database.from(WidgetRow.class, "w")
+            .select(WidgetRow::manufacturerId, "id")
+            .groupBy(rollup(WidgetRow::manufacturerId))
+            .keepLocks(LockLevel.UPDATE)
+            .list(transaction))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("Grouping sets cannot be combined with locks or an isolation level when they are emulated with union all."));
+    }
 }
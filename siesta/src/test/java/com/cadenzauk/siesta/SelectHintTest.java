@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.cadenzauk.siesta.dialect.AnsiDialect;
+import com.cadenzauk.siesta.dialect.OracleDialect;
+import com.cadenzauk.siesta.dialect.SqlServerDialect;
+import com.cadenzauk.siesta.model.ManufacturerRow;
+import com.cadenzauk.siesta.model.WidgetRow;
+import org.junit.jupiter.api.Test;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static com.cadenzauk.siesta.QueryHint.index;
+import static com.cadenzauk.siesta.QueryHint.leading;
+import static com.cadenzauk.siesta.QueryHint.parallel;
+import static com.cadenzauk.siesta.QueryHint.recompile;
+import static com.cadenzauk.siesta.model.TestDatabase.testDatabase;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class SelectHintTest {
+    @Test
+    void hintsIgnoredWhereUnsupported() {
+        Database database = testDatabase(new AnsiDialect());
+
+        String sql = database.from(WidgetRow.class, "w")
+            .select(WidgetRow::name)
+            .where(WidgetRow::manufacturerId).isEqualTo(2L)
+            .hint(index("w", "WIDGET_IX1"))
+            .hint(recompile())
+            .sql();
+
+        assertThat(sql, is("select w.NAME as w_NAME from SIESTA.WIDGET w where w.MANUFACTURER_ID = ?"));
+    }
+
+    @Test
+    void oracleHints() {
+        Database database = testDatabase(new OracleDialect());
+
+        String sql = database.from(WidgetRow.class, "w")
+            .join(ManufacturerRow.class, "m").on(ManufacturerRow::manufacturerId).isEqualTo(WidgetRow::manufacturerId)
+            .select(WidgetRow::name)
+            .hint(index("w", "WIDGET_IX1"))
+            .hint(leading("m", "w"))
+            .hint(parallel(4))
+            .hint(recompile())
+            .sql();
+
+        assertThat(sql, is("select /*+ INDEX(w WIDGET_IX1) LEADING(m w) PARALLEL(4) */ w.NAME as w_NAME " +
+            "from SIESTA.WIDGET w " +
+            "join SIESTA.MANUFACTURER m on m.MANUFACTURER_ID = w.MANUFACTURER_ID"));
+    }
+
+    @Test
+    void sqlServerHints() {
+        Database database = testDatabase(new SqlServerDialect());
+
+        String sql = database.from(WidgetRow.class, "w")
+            .select(WidgetRow::name)
+            .where(WidgetRow::manufacturerId).isEqualTo(2L)
+            .hint(index("w", "WIDGET_IX1"))
+            .hint(parallel(2))
+            .hint(recompile())
+            .sql();
+
+        assertThat(sql, is("select w.NAME as w_NAME from SIESTA.WIDGET w where w.MANUFACTURER_ID = ? " +
+            "option (table hint(w, index(WIDGET_IX1)), maxdop 2, recompile)"));
+    }
+
+    @Test
+    void sqlServerForcesOrderWhenLeadingMatchesFromOrder() {
+        Database database = testDatabase(new SqlServerDialect());
+
+        String sql = database.from(ManufacturerRow.class, "m")
+            .join(WidgetRow.class, "w").on(WidgetRow::manufacturerId).isEqualTo(ManufacturerRow::manufacturerId)
+            .select(WidgetRow::name)
+            .hint(leading("m", "w"))
+            .sql();
+
+        assertThat(sql, is("select w.NAME as w_NAME " +
+            "from SIESTA.MANUFACTURER m " +
+            "join SIESTA.WIDGET w on w.MANUFACTURER_ID = m.MANUFACTURER_ID " +
+            "option (force order)"));
+    }
+
+    @Test
+    void sqlServerDropsLeadingThatDiffersFromFromOrder() {
+        Database database = testDatabase(new SqlServerDialect());
+
+        String sql = database.from(WidgetRow.class, "w")
+            .join(ManufacturerRow.class, "m").on(ManufacturerRow::manufacturerId).isEqualTo(WidgetRow::manufacturerId)
+            .select(WidgetRow::name)
+            .hint(leading("m", "w"))
+            .sql();
+
+        assertThat(sql, is("select w.NAME as w_NAME " +
+            "from SIESTA.WIDGET w " +
+            "join SIESTA.MANUFACTURER m on m.MANUFACTURER_ID = w.MANUFACTURER_ID"));
+    }
+
+    @Test
+    void indexNameMustBeAnIdentifier() {
+        calling(() -> index("w", "WIDGET_IX1) drop table WIDGET --"))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("'WIDGET_IX1) drop table WIDGET --' is not a valid identifier for a query hint."));
+    }
+
+    @Test
+    void leadingAliasMustBeAnIdentifier() {
+        calling(() -> leading("m", "w w2"))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("'w w2' is not a valid identifier for a query hint."));
+    }
+
+    @Test
+    void parallelDegreeMustBePositive() {
+        calling(() -> parallel(0))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("The degree of parallelism must be positive."));
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.cadenzauk.core.MockitoTest;
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.dialect.Db2Dialect;
+import com.cadenzauk.siesta.dialect.H2Dialect;
+import com.cadenzauk.siesta.dialect.OracleDialect;
+import com.cadenzauk.siesta.dialect.PostgresDialect;
+import com.cadenzauk.siesta.dialect.SqlServerDialect;
+import com.cadenzauk.siesta.grammar.select.Select;
+import com.cadenzauk.siesta.model.ManufacturerRow;
+import com.cadenzauk.siesta.model.WidgetRow;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static com.cadenzauk.siesta.model.TestDatabase.testDatabase;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SelectLockTest extends MockitoTest {
+    @Mock
+    private Transaction transaction;
+
+    @Captor
+    private ArgumentCaptor<String> sql;
+
+    @Captor
+    private ArgumentCaptor<Object[]> args;
+
+    @Captor
+    private ArgumentCaptor<RowMapper<WidgetRow>> rowMapper;
+
+    @Test
+    void postgresSkipLocked() {
+        Database database = testDatabase(new PostgresDialect());
+
+        database.from(WidgetRow.class, "w")
+            .where(WidgetRow::manufacturerId).isEqualTo(2L)
+            .skipLocked()
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "where w.MANUFACTURER_ID = ? " +
+            "for update skip locked"));
+        assertThat(args.getValue(), arrayContaining(2L));
+    }
+
+    @Test
+    void postgresShareNoWait() {
+        Database database = testDatabase(new PostgresDialect());
+
+        database.from(WidgetRow.class, "w")
+            .keepLocks(LockLevel.SHARE)
+            .noWait()
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "for share nowait"));
+    }
+
+    @Test
+    void oracleWaitSeconds() {
+        Database database = testDatabase(new OracleDialect());
+
+        database.from(WidgetRow.class, "w")
+            .waitSeconds(5)
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "for update wait 5"));
+    }
+
+    @Test
+    void sqlServerSkipLocked() {
+        Database database = testDatabase(new SqlServerDialect());
+
+        database.from(WidgetRow.class, "w")
+            .join(ManufacturerRow.class, "m").on(ManufacturerRow::manufacturerId).isEqualTo(WidgetRow::manufacturerId)
+            .select(WidgetRow::name)
+            .skipLocked()
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), any());
+        assertThat(sql.getValue(), is("select w.NAME as w_NAME " +
+            "from SIESTA.WIDGET w with (updlock, readpast) " +
+            "join SIESTA.MANUFACTURER m with (updlock, readpast) on m.MANUFACTURER_ID = w.MANUFACTURER_ID"));
+    }
+
+    @Test
+    void db2SkipLocked() {
+        Database database = testDatabase(new Db2Dialect());
+
+        database.from(WidgetRow.class, "w")
+            .skipLocked()
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "for read only with rs use and keep UPDATE locks skip locked data"));
+    }
+
+    @Test
+    void db2NoWaitIsRejected() {
+        Database database = testDatabase(new Db2Dialect());
+
+        calling(() -> database.from(WidgetRow.class, "w")
+            .noWait()
+            .list(transaction))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("DB2 does not support a lock wait of NO_WAIT on a select; set the CURRENT LOCK TIMEOUT special register instead."));
+    }
+
+    @Test
+    void db2WaitSecondsIsRejected() {
+        Database database = testDatabase(new Db2Dialect());
+
+        calling(() -> database.from(WidgetRow.class, "w")
+            .waitSeconds(5)
+            .list(transaction))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("DB2 does not support a lock wait of WAIT_SECONDS(5) on a select; set the CURRENT LOCK TIMEOUT special register instead."));
+    }
+
+    @Test
+    void h2NoWait() {
+        Database database = testDatabase(new H2Dialect());
+
+        database.from(WidgetRow.class, "w")
+            .noWait()
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "for update nowait"));
+    }
+
+    @Test
+    void h2SkipLocked() {
+        Database database = testDatabase(new H2Dialect());
+
+        database.from(WidgetRow.class, "w")
+            .skipLocked()
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "for update skip locked"));
+    }
+
+    @Test
+    void h2WaitSeconds() {
+        Database database = testDatabase(new H2Dialect());
+
+        database.from(WidgetRow.class, "w")
+            .waitSeconds(5)
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "for update wait 5"));
+    }
+
+    @Test
+    void h2ShareLockWithNoWaitIsRejected() {
+        Database database = testDatabase(new H2Dialect());
+
+        calling(() -> database.from(WidgetRow.class, "w")
+            .keepLocks(LockLevel.SHARE)
+            .noWait()
+            .list(transaction))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("H2 only supports a lock wait of NO_WAIT with update locks."));
+    }
+
+    @Test
+    void claimFetchesFirstRowsSkippingLocked() {
+        Database database = testDatabase(new PostgresDialect());
+        WidgetRow row = WidgetRow.newBuilder().widgetId(1L).name("Dodacky").manufacturerId(2L).build();
+        when(transaction.query(any(), any(), any())).thenReturn(ImmutableList.of(row));
+
+        List<WidgetRow> result = database.from(WidgetRow.class, "w")
+            .claim(transaction, 10);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "offset 0 rows fetch next 10 rows only " +
+            "for update skip locked"));
+        assertThat(result, contains(row));
+    }
+
+    @Test
+    void claimLimitsStreamWhenFetchFirstCannotLock() {
+        Database database = testDatabase(new OracleDialect());
+        WidgetRow row1 = WidgetRow.newBuilder().widgetId(1L).name("Dodacky").manufacturerId(2L).build();
+        WidgetRow row2 = WidgetRow.newBuilder().widgetId(2L).name("Gizmo").manufacturerId(2L).build();
+        WidgetRow row3 = WidgetRow.newBuilder().widgetId(3L).name("Sprocket").manufacturerId(2L).build();
+        when(transaction.stream(any(), any(), any(), any())).thenReturn(Stream.of(row1, row2, row3));
+
+        List<WidgetRow> result = database.from(WidgetRow.class, "w")
+            .claim(transaction, 2);
+
+        verify(transaction).stream(sql.capture(), args.capture(), rowMapper.capture(), argThat(f -> f.rows() == 2));
+        assertThat(sql.getValue(), is("select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "for update skip locked"));
+        assertThat(result, contains(row1, row2));
+    }
+
+    @Test
+    void claimLeavesSelectUnchanged() {
+        Database database = testDatabase(new PostgresDialect());
+        when(transaction.query(any(), any(), any())).thenReturn(ImmutableList.of());
+        Select<WidgetRow> select = database.from(WidgetRow.class, "w");
+
+        select.claim(transaction, 10);
+
+        assertThat(select.sql(), is("select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w"));
+    }
+
+    @Test
+    void claimBatchSizeMustBePositive() {
+        Database database = testDatabase(new PostgresDialect());
+
+        calling(() -> database.from(WidgetRow.class, "w").claim(transaction, 0))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("The batch size must be positive."));
+    }
+}
@@ -34,15 +34,25 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.arrayWithSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class SelectProjectionTest extends MockitoTest {
     @Mock
     private Transaction transaction;
 
+    @Mock
+    private ResultSet resultSet;
+
     @Captor
     private ArgumentCaptor<String> sql;
 
@@ -106,4 +116,33 @@ class SelectProjectionTest extends MockitoTest {
             "join SIESTA.MANUFACTURER m on m.MANUFACTURER_ID = w.MANUFACTURER_ID"));
         assertThat(args.getValue(), arrayWithSize(0));
     }
+
+    @Test
+    void projectOnlySomeColumns() throws SQLException {
+        Database database = TestDatabase.testDatabase(new AnsiDialect());
+
+        database
+            .from(WidgetRow.class, "w")
+            .select(WidgetRow.class)
+            .only(WidgetRow::widgetId)
+            .comma(WidgetRow::description)
+            .where(WidgetRow::name).isEqualTo("Bob")
+            .list(transaction);
+
+        verify(transaction).query(sql.capture(), args.capture(), rowMapper.capture());
+        assertThat(sql.getValue(), is("select w.WIDGET_ID as w_WIDGET_ID, " +
+            "w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "where w.NAME = ?"));
+        assertThat(args.getValue(), arrayWithSize(1));
+
+        when(resultSet.getLong("w_WIDGET_ID")).thenReturn(4L);
+        when(resultSet.getString("w_DESCRIPTION")).thenReturn("Gizmo");
+        WidgetRow row = (WidgetRow) rowMapper.getValue().mapRow(resultSet);
+
+        assertThat(row.widgetId(), is(4L));
+        assertThat(row.description(), is(Optional.of("Gizmo")));
+        assertThat(row.name(), nullValue());
+        verify(resultSet, never()).getString("w_NAME");
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import com.cadenzauk.siesta.dialect.AnsiDialect;
+import com.cadenzauk.siesta.dialect.SqlServerDialect;
+import com.cadenzauk.siesta.grammar.select.CommonTableExpression;
+import com.cadenzauk.siesta.grammar.select.Select;
+import com.cadenzauk.siesta.model.WidgetRow;
+import org.junit.jupiter.api.Test;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static com.cadenzauk.siesta.model.TestDatabase.testDatabase;
+import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class SelectRecursiveTest {
+    @Test
+    void withRecursive() {
+        Database database = testDatabase(new AnsiDialect());
+        Alias<WidgetRow> w = database.table(WidgetRow.class).as("w");
+
+        CommonTableExpression<WidgetRow> tree = database.withRecursive("TREE")
+            .anchor(database.from(WidgetRow.class, "a").where(WidgetRow::widgetId).isEqualTo(1L))
+            .unionAll("t", t -> database.from(w)
+                .join(t).on(w, WidgetRow::manufacturerId).isEqualTo(t, WidgetRow::widgetId)
+                .select(w));
+        String sql = database.from(tree, "r").sql();
+
+        assertThat(sql, is("with recursive TREE(WIDGET_ID, NAME, MANUFACTURER_ID, DESCRIPTION) as (" +
+            "select a.WIDGET_ID as a_WIDGET_ID, a.NAME as a_NAME, a.MANUFACTURER_ID as a_MANUFACTURER_ID, a.DESCRIPTION as a_DESCRIPTION " +
+            "from SIESTA.WIDGET a " +
+            "where a.WIDGET_ID = ? " +
+            "union all " +
+            "select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION " +
+            "from SIESTA.WIDGET w " +
+            "join TREE t on w.MANUFACTURER_ID = t.WIDGET_ID) " +
+            "select r.WIDGET_ID as r_WIDGET_ID, r.NAME as r_NAME, r.MANUFACTURER_ID as r_MANUFACTURER_ID, r.DESCRIPTION as r_DESCRIPTION " +
+            "from TREE r"));
+    }
+
+    @Test
+    void withRecursiveMaxDepth() {
+        Database database = testDatabase(new SqlServerDialect());
+        Alias<WidgetRow> w = database.table(WidgetRow.class).as("w");
+
+        CommonTableExpression<WidgetRow> tree = database.withRecursive("TREE")
+            .maxDepth(5)
+            .anchor(database.from(WidgetRow.class, "a").where(WidgetRow::widgetId).isEqualTo(1L))
+            .unionAll("t", t -> database.from(w)
+                .join(t).on(w, WidgetRow::manufacturerId).isEqualTo(t, WidgetRow::widgetId)
+                .select(w)
+                .where(w, WidgetRow::name).isEqualTo("x").or(w, WidgetRow::name).isEqualTo("y"));
+        Select<WidgetRow> select = database.from(tree, "r");
+
+        assertThat(select.sql(), is("with TREE(WIDGET_ID, NAME, MANUFACTURER_ID, DESCRIPTION, siesta_depth) as (" +
+            "select a.WIDGET_ID as a_WIDGET_ID, a.NAME as a_NAME, a.MANUFACTURER_ID as a_MANUFACTURER_ID, a.DESCRIPTION as a_DESCRIPTION, 1 " +
+            "from SIESTA.WIDGET a " +
+            "where a.WIDGET_ID = ? " +
+            "union all " +
+            "select w.WIDGET_ID as w_WIDGET_ID, w.NAME as w_NAME, w.MANUFACTURER_ID as w_MANUFACTURER_ID, w.DESCRIPTION as w_DESCRIPTION, t.siesta_depth + 1 " +
+            "from SIESTA.WIDGET w " +
+            "join TREE t on w.MANUFACTURER_ID = t.WIDGET_ID " +
+            "where (w.NAME = ? or w.NAME = ?) and t.siesta_depth < 5) " +
+            "select r.WIDGET_ID as r_WIDGET_ID, r.NAME as r_NAME, r.MANUFACTURER_ID as r_MANUFACTURER_ID, r.DESCRIPTION as r_DESCRIPTION " +
+            "from TREE r"));
+        assertThat(select.args(new Scope(database)).toArray(), is(toArray(1L, "x", "y")));
+    }
+
+    @Test
+    void recursiveMemberCannotKeepLocks() {
+        Database database = testDatabase(new AnsiDialect());
+        Alias<WidgetRow> w = database.table(WidgetRow.class).as("w");
+
+        calling(() -> database.withRecursive("TREE")
+            .anchor(database.from(WidgetRow.class, "a").where(WidgetRow::widgetId).isEqualTo(1L))
+            .unionAll("t", t -> database.from(w)
+                .join(t).on(w, WidgetRow::manufacturerId).isEqualTo(t, WidgetRow::widgetId)
+                .select(w)
+                .keepLocks(LockLevel.UPDATE)))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("The recursive member of a recursive common table expression cannot have unions, an order by, a fetch first, grouping sets, hints or locks."));
+    }
+
+    @Test
+    void anchorCannotHaveHints() {
+        Database database = testDatabase(new AnsiDialect());
+        Alias<WidgetRow> w = database.table(WidgetRow.class).as("w");
+
+        calling(() -> database.withRecursive("TREE")
+            .anchor(database.from(WidgetRow.class, "a").where(WidgetRow::widgetId).isEqualTo(1L).hint(QueryHint.parallel(2)))
+            .unionAll("t", t -> database.from(w)
+                .join(t).on(w, WidgetRow::manufacturerId).isEqualTo(t, WidgetRow::widgetId)
+                .select(w)))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("The anchor of a recursive common table expression cannot have unions, an order by, a fetch first, grouping sets, hints or locks."));
+    }
+
+    @Test
+    void maxDepthMustBePositive() {
+        Database database = testDatabase(new AnsiDialect());
+
+        calling(() -> database.withRecursive("TREE").maxDepth(0))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("The maximum depth must be at least one."));
+    }
+}
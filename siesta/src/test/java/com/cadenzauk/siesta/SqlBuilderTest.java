@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.is;
+
+class SqlBuilderTest {
+    @Test
+    void appendsSqlAndArgsInOrder() {
+        SqlBuilder sut = new SqlBuilder();
+
+        sut.append("select ").append('?').arg("ABC").append(", ").append(42L).append(" from dual");
+
+        assertThat(sut.sql(), is("select ?, 42 from dual"));
+        assertThat(sut.args(), is(toArray("ABC")));
+        assertThat(sut.argCount(), is(1));
+    }
+
+    @Test
+    void noArgsIsEmpty() {
+        SqlBuilder sut = new SqlBuilder(16, 0);
+
+        sut.append("select 1");
+
+        assertThat(sut.args(), emptyArray());
+    }
+
+    @Test
+    void argsGrowBeyondInitialCapacity() {
+        SqlBuilder sut = new SqlBuilder(16, 0);
+
+        IntStream.range(0, 1000).forEach(sut::arg);
+
+        assertThat(sut.args(), arrayWithSize(1000));
+        assertThat(sut.args()[999], is(999));
+    }
+
+    @Test
+    void argsIsACopyWhenFull() {
+        SqlBuilder sut = new SqlBuilder(16, 1);
+        sut.append("?").arg("A");
+
+        sut.args()[0] = "B";
+
+        assertThat(sut.args(), is(toArray("A")));
+    }
+
+    @Test
+    void rewriteFromOnlyRewritesTheTail() {
+        SqlBuilder sut = new SqlBuilder().append("(");
+        int start = sut.length();
+        sut.append("select 1").arg("X");
+
+        sut.rewriteFrom(start, s -> s + " limit 5").append(")");
+
+        assertThat(sut.sql(), is("(select 1 limit 5)"));
+        assertThat(sut.args(), is(toArray("X")));
+    }
+
+    @Test
+    void sqlOfAndArgsOf() {
+        String sql = SqlBuilder.sqlOf((b, s) -> b.append("a = ?").arg(1), null);
+        Object[] args = SqlBuilder.argsOf((b, s) -> b.append("a = ?").arg(1), null).toArray();
+
+        assertThat(sql, is("a = ?"));
+        assertThat(args, is(toArray(1)));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class SqlShapesTest {
+    @Test
+    void disabledRecordsNothing() {
+        SqlShapes sut = new SqlShapes(false);
+
+        sut.record("select 1");
+
+        assertThat(sut.distinctCount(), is(0));
+        assertThat(sut.executionCount("select 1"), is(0L));
+    }
+
+    @Test
+    void recordCountsExecutionsPerShape() {
+        SqlShapes sut = new SqlShapes(true);
+
+        sut.record("select 1");
+        sut.record("select 2");
+        sut.record("select 1");
+
+        assertThat(sut.distinctCount(), is(2));
+        assertThat(sut.executionCount("select 1"), is(2L));
+        assertThat(sut.executionCount("select 2"), is(1L));
+        assertThat(sut.executionCount("select 3"), is(0L));
+    }
+
+    @Test
+    void stopsRecordingNewShapesAtCapacity() {
+        SqlShapes sut = new SqlShapes(true, 2);
+
+        sut.record("select 1");
+        sut.record("select 2");
+        sut.record("select 3");
+        sut.record("select 1");
+
+        assertThat(sut.distinctCount(), is(2));
+        assertThat(sut.executionCount("select 1"), is(2L));
+        assertThat(sut.executionCount("select 3"), is(0L));
+        assertThat(sut.untrackedCount(), is(1L));
+    }
+
+    @Test
+    void snapshot() {
+        SqlShapes sut = new SqlShapes(true);
+        sut.record("select 1");
+        sut.record("select 1");
+
+        Map<String,Long> result = sut.snapshot();
+
+        assertThat(result.size(), is(1));
+        assertThat(result.get("select 1"), is(2L));
+    }
+
+    @Test
+    void clear() {
+        SqlShapes sut = new SqlShapes(true);
+        sut.record("select 1");
+
+        sut.clear();
+
+        assertThat(sut.distinctCount(), is(0));
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        calling(() -> new SqlShapes(true, 0))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("The SQL shape capacity must be positive."));
+    }
+}
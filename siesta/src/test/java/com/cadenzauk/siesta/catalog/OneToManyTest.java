@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.catalog;
+
+import com.cadenzauk.core.MockitoTest;
+import com.cadenzauk.core.tuple.Tuple;
+import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.SqlExecutor;
+import com.cadenzauk.siesta.model.WidgetRow;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OneToManyTest extends MockitoTest {
+    @Mock
+    private SqlExecutor sqlExecutor;
+
+    @Captor
+    private ArgumentCaptor<String> sql;
+
+    @Captor
+    private ArgumentCaptor<Object[]> args;
+
+    @SuppressWarnings("unused")
+    public static class ManufacturerWithWidgets {
+        private Long manufacturerId;
+        private List<WidgetRow> widgets = new ArrayList<>();
+
+        public ManufacturerWithWidgets() {
+        }
+
+        private ManufacturerWithWidgets(long manufacturerId) {
+            this.manufacturerId = manufacturerId;
+        }
+
+        public Long manufacturerId() {
+            return manufacturerId;
+        }
+
+        public List<WidgetRow> widgets() {
+            return widgets;
+        }
+
+        public void widgets(List<WidgetRow> val) {
+            widgets = val;
+        }
+    }
+
+    private static Database database() {
+        return Database.newBuilder()
+            .defaultSchema("SIESTA")
+            .table(ManufacturerWithWidgets.class, t -> t
+                .tableName("MANUFACTURER")
+                .oneToMany(ManufacturerWithWidgets::manufacturerId, WidgetRow.class, WidgetRow::manufacturerId, ManufacturerWithWidgets::widgets, 2))
+            .build();
+    }
+
+    private static WidgetRow widget(long widgetId, long manufacturerId) {
+        return WidgetRow.newBuilder()
+            .widgetId(widgetId)
+            .manufacturerId(manufacturerId)
+            .name("Widget " + widgetId)
+            .build();
+    }
+
+    @Test
+    void fetchChildrenQueriesOnceForEachChunkOfKeys() {
+        when(sqlExecutor.readExecutor(any(), any())).thenReturn(sqlExecutor);
+        when(sqlExecutor.route(any())).thenReturn(sqlExecutor);
+        when(sqlExecutor.query(any(), any(), any())).thenReturn(ImmutableList.of(), ImmutableList.of());
+        List<ManufacturerWithWidgets> parents = ImmutableList.of(new ManufacturerWithWidgets(1L), new ManufacturerWithWidgets(2L), new ManufacturerWithWidgets(3L));
+
+        database().fetchChildren(sqlExecutor, parents);
+
+        verify(sqlExecutor, times(2)).query(sql.capture(), args.capture(), any());
+        assertThat(sql.getAllValues().get(0), endsWith("where WIDGET.MANUFACTURER_ID in (?, ?)"));
+        assertThat(args.getAllValues().get(0), is(toArray(1L, 2L)));
+        assertThat(sql.getAllValues().get(1), endsWith("where WIDGET.MANUFACTURER_ID in (?)"));
+        assertThat(args.getAllValues().get(1), is(toArray(3L)));
+    }
+
+    @Test
+    void fetchChildrenAttachesChildrenToTheirParent() {
+        WidgetRow widget1 = widget(1L, 1L);
+        WidgetRow widget2 = widget(2L, 2L);
+        WidgetRow widget3 = widget(3L, 1L);
+        when(sqlExecutor.readExecutor(any(), any())).thenReturn(sqlExecutor);
+        when(sqlExecutor.route(any())).thenReturn(sqlExecutor);
+        when(sqlExecutor.query(any(), any(), any())).thenReturn(ImmutableList.of(widget1, widget2, widget3));
+        List<ManufacturerWithWidgets> parents = ImmutableList.of(new ManufacturerWithWidgets(1L), new ManufacturerWithWidgets(2L));
+
+        List<ManufacturerWithWidgets> result = database().fetchChildren(sqlExecutor, parents);
+
+        assertThat(result.get(0).widgets(), contains(widget1, widget3));
+        assertThat(result.get(1).widgets(), contains(widget2));
+    }
+
+    @Test
+    void fetchChildrenOfNoParentsDoesNotQuery() {
+        List<ManufacturerWithWidgets> result = database().fetchChildren(sqlExecutor, ImmutableList.of());
+
+        assertThat(result, empty());
+    }
+
+    @Test
+    void assembleCollapsesAdjacentRowsForTheSameParent() {
+        WidgetRow widget1 = widget(1L, 1L);
+        WidgetRow widget2 = widget(2L, 1L);
+        ManufacturerWithWidgets manufacturer1 = new ManufacturerWithWidgets(1L);
+        ManufacturerWithWidgets manufacturer2 = new ManufacturerWithWidgets(2L);
+        Table<ManufacturerWithWidgets> table = database().table(ManufacturerWithWidgets.class);
+
+        List<ManufacturerWithWidgets> result = table.assemble(WidgetRow.class, Stream.of(
+            Tuple.of(manufacturer1, widget1),
+            Tuple.of(new ManufacturerWithWidgets(1L), widget2),
+            Tuple.of(manufacturer2, (WidgetRow) null)))
+            .collect(Collectors.toList());
+
+        assertThat(result, contains(manufacturer1, manufacturer2));
+        assertThat(manufacturer1.widgets(), contains(widget1, widget2));
+        assertThat(manufacturer2.widgets(), empty());
+    }
+
+    @Test
+    void assembleWithoutMappedRelationshipThrows() {
+        Table<ManufacturerWithWidgets> table = database().table(ManufacturerWithWidgets.class);
+
+        calling(() -> table.assemble(String.class, Stream.empty()))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("No one-to-many relationship to java.lang.String has been mapped for SIESTA.MANUFACTURER"));
+    }
+}
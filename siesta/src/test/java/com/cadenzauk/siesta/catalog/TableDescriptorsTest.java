@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.catalog;
+
+import com.cadenzauk.siesta.Database;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TableDescriptorsTest {
+    @SuppressWarnings("unused")
+    public static class DescribedRow {
+        private Long id;
+        private Optional<String> name;
+
+        public Long id() {
+            return id;
+        }
+
+        public Optional<String> name() {
+            return name;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class UndescribedRow {
+        private Long id;
+    }
+
+    @Test
+    void descriptorClassNameFlattensNestedClasses() {
+        String result = TableDescriptors.descriptorClassName(DescribedRow.class);
+
+        assertThat(result, is("com.cadenzauk.siesta.catalog.TableDescriptorsTest_DescribedRowTableDescriptor"));
+    }
+
+    @Test
+    void findReturnsGeneratedDescriptor() {
+        Optional<TableDescriptor<DescribedRow>> result = TableDescriptors.find(DescribedRow.class);
+
+        assertThat(result.isPresent(), is(true));
+        assertThat(result.get().rowClass(), equalTo(DescribedRow.class));
+    }
+
+    @Test
+    void findReturnsEmptyWithoutDescriptor() {
+        Optional<TableDescriptor<UndescribedRow>> result = TableDescriptors.find(UndescribedRow.class);
+
+        assertThat(result.isPresent(), is(false));
+    }
+
+    @Test
+    void tableIsBuiltFromDescriptor() {
+        Database database = Database.newBuilder().build();
+
+        Table<DescribedRow> result = database.table(DescribedRow.class);
+
+        assertThat(result.columnList(), is("ID, LABEL"));
+    }
+
+    @Test
+    void tableMapsRowsWithDescriptorRowMapper() throws SQLException {
+        Database database = Database.newBuilder().build();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("d_ID")).thenReturn(42L);
+        when(rs.getString("d_LABEL")).thenReturn("Fred");
+
+        DescribedRow result = database.table(DescribedRow.class).rowMapper("d_").mapRow(rs);
+
+        assertThat(result.id(), is(42L));
+        assertThat(result.name(), is(Optional.of("Fred")));
+    }
+
+    @Test
+    void fieldAccessorsSetPrivateFields() {
+        DescribedRow row = new DescribedRow();
+
+        TableDescriptors.<DescribedRow,String>fieldSetter(DescribedRow.class, "name").accept(row, Optional.of("Fred"));
+
+        assertThat(TableDescriptors.<DescribedRow,String>fieldGetter(DescribedRow.class, "name").apply(row), is(Optional.of("Fred")));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.catalog;
+
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.DataType;
+import com.cadenzauk.siesta.Database;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+public final class TableDescriptorsTest_DescribedRowTableDescriptor implements TableDescriptor<TableDescriptorsTest.DescribedRow> {
+    private static final BiConsumer<TableDescriptorsTest.DescribedRow,Optional<Long>> ID_SETTER = TableDescriptors.fieldSetter(TableDescriptorsTest.DescribedRow.class, "id");
+    private static final BiConsumer<TableDescriptorsTest.DescribedRow,Optional<String>> NAME_SETTER = TableDescriptors.fieldSetter(TableDescriptorsTest.DescribedRow.class, "name");
+
+    @Override
+    public Class<TableDescriptorsTest.DescribedRow> rowClass() {
+        return TableDescriptorsTest.DescribedRow.class;
+    }
+
+    @Override
+    public void describe(Table.Builder<TableDescriptorsTest.DescribedRow,TableDescriptorsTest.DescribedRow> builder) {
+        builder.newBuilder(TableDescriptorsTest.DescribedRow::new);
+        builder.field("id", Optional.empty(), Long.class, row -> Optional.ofNullable(row.id()), ID_SETTER);
+        builder.field("name", Optional.of("LABEL"), String.class, row -> row.name(), NAME_SETTER);
+    }
+
+    @Override
+    public Optional<RowMapper<TableDescriptorsTest.DescribedRow>> rowMapper(Database database, List<String> labels) {
+        DataType<Long> type0 = database.getDataTypeOf(Long.class);
+        String label0 = labels.get(0);
+        DataType<String> type1 = database.getDataTypeOf(String.class);
+        String label1 = labels.get(1);
+        return Optional.of(rs -> {
+            Optional<Long> value0 = type0.get(rs, label0, database);
+            Optional<String> value1 = type1.get(rs, label1, database);
+            if (!value0.isPresent() && !value1.isPresent()) {
+                return null;
+            }
+            TableDescriptorsTest.DescribedRow row = new TableDescriptorsTest.DescribedRow();
+            ID_SETTER.accept(row, value0);
+            NAME_SETTER.accept(row, value1);
+            return row;
+        });
+    }
+}
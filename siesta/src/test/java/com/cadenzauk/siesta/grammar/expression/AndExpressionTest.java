@@ -25,11 +25,12 @@ package com.cadenzauk.siesta.grammar.expression;
 import com.cadenzauk.core.MockitoTest;
 import com.cadenzauk.core.reflect.util.FieldUtil;
 import com.cadenzauk.siesta.Scope;
+import com.cadenzauk.siesta.SqlBuilder;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
 import java.math.BigDecimal;
-import java.util.stream.Stream;
+import java.util.Optional;
 
 import static org.apache.commons.lang3.ArrayUtils.toArray;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -37,6 +38,9 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -56,8 +60,8 @@ class AndExpressionTest extends MockitoTest {
 
     @Test
     void sql() {
-        when(lhs.sql(scope)).thenReturn("lhsSql");
-        when(rhs.sql(scope)).thenReturn("rhsSql");
+        doAnswer(i -> i.<SqlBuilder>getArgument(0).append("lhsSql")).when(lhs).render(any(SqlBuilder.class), eq(scope));
+        doAnswer(i -> i.<SqlBuilder>getArgument(0).append("rhsSql")).when(rhs).render(any(SqlBuilder.class), eq(scope));
         when(lhs.precedence()).thenReturn(Precedence.OR);
         when(rhs.precedence()).thenReturn(Precedence.UNARY);
         AndExpression sut = new AndExpression(lhs, rhs);
@@ -65,8 +69,8 @@ class AndExpressionTest extends MockitoTest {
         String sql = sut.sql(scope);
 
         assertThat(sql, is("(lhsSql) and rhsSql"));
-        verify(lhs).sql(scope);
-        verify(rhs).sql(scope);
+        verify(lhs).render(any(SqlBuilder.class), eq(scope));
+        verify(rhs).render(any(SqlBuilder.class), eq(scope));
         verify(lhs).precedence();
         verify(rhs).precedence();
         verifyNoMoreInteractions(lhs, rhs, scope);
@@ -74,18 +78,37 @@ class AndExpressionTest extends MockitoTest {
 
     @Test
     void args() {
-        when(lhs.args(scope)).thenReturn(Stream.of("ABC", 124L));
-        when(rhs.args(scope)).thenReturn(Stream.of(BigDecimal.ONE, null));
+        doAnswer(i -> i.<SqlBuilder>getArgument(0).arg("ABC").arg(124L)).when(lhs).render(any(SqlBuilder.class), eq(scope));
+        doAnswer(i -> i.<SqlBuilder>getArgument(0).arg(BigDecimal.ONE).arg(null)).when(rhs).render(any(SqlBuilder.class), eq(scope));
+        when(lhs.precedence()).thenReturn(Precedence.AND);
+        when(rhs.precedence()).thenReturn(Precedence.AND);
         AndExpression sut = new AndExpression(lhs, rhs);
 
         Object[] args = sut.args(scope).toArray();
 
         assertThat(args, is(toArray("ABC", 124L, BigDecimal.ONE, null)));
-        verify(lhs).args(scope);
-        verify(rhs).args(scope);
+        verify(lhs).render(any(SqlBuilder.class), eq(scope));
+        verify(rhs).render(any(SqlBuilder.class), eq(scope));
+        verify(lhs).precedence();
+        verify(rhs).precedence();
         verifyNoMoreInteractions(lhs, rhs, scope);
     }
 
+    @Test
+    void render() {
+        doAnswer(i -> i.<SqlBuilder>getArgument(0).append("lhsSql").arg("ABC")).when(lhs).render(any(SqlBuilder.class), eq(scope));
+        doAnswer(i -> i.<SqlBuilder>getArgument(0).append("rhsSql").arg(124L)).when(rhs).render(any(SqlBuilder.class), eq(scope));
+        when(lhs.precedence()).thenReturn(Precedence.COMPARISON);
+        when(rhs.precedence()).thenReturn(Precedence.OR);
+        AndExpression sut = new AndExpression(lhs, rhs);
+        SqlBuilder builder = new SqlBuilder().append("where ").arg("X");
+
+        sut.render(builder, scope);
+
+        assertThat(builder.sql(), is("where lhsSql and (rhsSql)"));
+        assertThat(builder.args(), is(toArray("X", "ABC", 124L)));
+    }
+
     @Test
     void precedence() {
         AndExpression sut = new AndExpression(lhs, rhs);
@@ -120,4 +143,26 @@ class AndExpressionTest extends MockitoTest {
         verifyNoMoreInteractions(lhs, rhs, scope, appended);
     }
 
+    @Test
+    void equalityValueFromEitherSide() {
+        when(lhs.equalityValue(scope, "s.SALESPERSON_ID")).thenReturn(Optional.empty());
+        when(rhs.equalityValue(scope, "s.SALESPERSON_ID")).thenReturn(Optional.of(3L));
+        AndExpression sut = new AndExpression(lhs, rhs);
+
+        Optional<Object> result = sut.equalityValue(scope, "s.SALESPERSON_ID");
+
+        assertThat(result, is(Optional.of(3L)));
+    }
+
+    @Test
+    void equalityValueWhenNeitherSideFixesColumn() {
+        when(lhs.equalityValue(scope, "s.SALESPERSON_ID")).thenReturn(Optional.empty());
+        when(rhs.equalityValue(scope, "s.SALESPERSON_ID")).thenReturn(Optional.empty());
+        AndExpression sut = new AndExpression(lhs, rhs);
+
+        Optional<Object> result = sut.equalityValue(scope, "s.SALESPERSON_ID");
+
+        assertThat(result, is(Optional.empty()));
+    }
+
 }
\ No newline at end of file
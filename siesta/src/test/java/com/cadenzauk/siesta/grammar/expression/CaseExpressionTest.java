@@ -122,6 +122,7 @@ class CaseExpressionTest extends MockitoTest {
         CaseExpression<String> sut1 = new CaseExpression<>(condition, expression1);
         CaseExpression<String> sut2 = new CaseExpression<>(condition, expression2);
         when(scope.newLabel()).thenReturn(1L).thenReturn(2L);
+        when(scope.labelScope()).thenReturn(scope);
 
         String label1 = sut1.label(scope);
         String label2 = sut1.label(scope);
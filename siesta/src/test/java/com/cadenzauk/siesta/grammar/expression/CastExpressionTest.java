@@ -107,6 +107,7 @@ class CastExpressionTest extends MockitoTest {
         CastBuilder<String> builder = new CastBuilder<>(expression);
         CastExpression<String,Integer> sut = builder.asInteger();
         when(scope.newLabel()).thenReturn(345L);
+        when(scope.labelScope()).thenReturn(scope);
 
         String result = sut.label(scope);
 
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression;
+
+import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.Database;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.Table;
+import java.util.Optional;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static com.cadenzauk.siesta.grammar.expression.Aggregates.max;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class ColumnRefTest {
+    @SuppressWarnings("unused")
+    @Table(name = "PERSON")
+    public static class Person {
+        private long id;
+        private Optional<String> name;
+
+        public long id() {
+            return id;
+        }
+
+        public Optional<String> name() {
+            return name;
+        }
+    }
+
+    public static final class Person_ {
+        public static final ColumnRef<Person,Long> ID = ColumnRef.of(Person.class, "id", long.class);
+        public static final ColumnRef<Person,String> NAME = ColumnRef.of(Person.class, "name", String.class);
+    }
+
+    @Test
+    void whereAndSelect() {
+        Database database = Database.newBuilder().defaultSchema("SIESTA").build();
+
+        String sql = database.from(Person.class)
+            .select(Person_.NAME)
+            .where(Person_.ID).isEqualTo(1L)
+            .sql();
+
+        assertThat(sql, is("select PERSON.NAME as PERSON_NAME from SIESTA.PERSON PERSON where PERSON.ID = ?"));
+    }
+
+    @Test
+    void matchesMethodReference() {
+        Database database = Database.newBuilder().defaultSchema("SIESTA").build();
+
+        String expected = database.from(Person.class)
+            .select(max(Person::id))
+            .where(Person::name).isEqualTo("Fred")
+            .sql();
+        String sql = database.from(Person.class)
+            .select(max(Person_.ID))
+            .where(Person_.NAME).isEqualTo("Fred")
+            .sql();
+
+        assertThat(sql, is(expected));
+    }
+
+    @Test
+    void inAlias() {
+        Database database = Database.newBuilder().defaultSchema("SIESTA").build();
+        Alias<Person> p = database.table(Person.class).as("p");
+
+        String sql = database.from(p)
+            .select(Person_.NAME.in(p))
+            .where(Person_.ID.in("p")).isEqualTo(1L)
+            .sql();
+
+        assertThat(sql, is("select p.NAME as p_NAME from SIESTA.PERSON p where p.ID = ?"));
+    }
+
+    @Test
+    void wrongTypeFailsOnFirstUse() {
+        ColumnRef<Person,Integer> ref = ColumnRef.of(Person.class, "id", Integer.class);
+
+        calling(ref::getterMethod)
+            .shouldThrow(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression;
+
+import com.cadenzauk.core.MockitoTest;
+import com.cadenzauk.siesta.Condition;
+import com.cadenzauk.siesta.Scope;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+class FullExpressionTest extends MockitoTest {
+    @Mock
+    private Scope scope;
+
+    @Mock
+    private TypedExpression<Long> lhs;
+
+    @Mock
+    private Condition<Long> rhs;
+
+    @Test
+    void equalityValueOfMatchingColumn() {
+        when(rhs.equalityValue()).thenReturn(Optional.of(3L));
+        when(lhs.sql(scope)).thenReturn("s.SALESPERSON_ID");
+        FullExpression<Long> sut = new FullExpression<>(lhs, rhs);
+
+        Optional<Object> result = sut.equalityValue(scope, "s.SALESPERSON_ID");
+
+        assertThat(result, is(Optional.of(3L)));
+    }
+
+    @Test
+    void equalityValueOfOtherColumn() {
+        when(rhs.equalityValue()).thenReturn(Optional.of(3L));
+        when(lhs.sql(scope)).thenReturn("s.NUMBER_OF_SALES");
+        FullExpression<Long> sut = new FullExpression<>(lhs, rhs);
+
+        Optional<Object> result = sut.equalityValue(scope, "s.SALESPERSON_ID");
+
+        assertThat(result, is(Optional.empty()));
+    }
+
+    @Test
+    void equalityValueWhenConditionIsNotAnEquality() {
+        when(rhs.equalityValue()).thenReturn(Optional.empty());
+        FullExpression<Long> sut = new FullExpression<>(lhs, rhs);
+
+        Optional<Object> result = sut.equalityValue(scope, "s.SALESPERSON_ID");
+
+        assertThat(result, is(Optional.empty()));
+        verifyZeroInteractions(lhs);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.grammar.expression;
+
+import com.cadenzauk.siesta.Order;
+import com.cadenzauk.siesta.model.TestRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.provider.Arguments;
+
+import java.util.stream.Stream;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static com.cadenzauk.core.testutil.IsUtilityClass.isUtilityClass;
+import static com.cadenzauk.siesta.grammar.expression.Aggregates.count;
+import static com.cadenzauk.siesta.grammar.expression.Aggregates.sum;
+import static com.cadenzauk.siesta.grammar.expression.WindowFunctions.denseRank;
+import static com.cadenzauk.siesta.grammar.expression.WindowFunctions.firstValue;
+import static com.cadenzauk.siesta.grammar.expression.WindowFunctions.lag;
+import static com.cadenzauk.siesta.grammar.expression.WindowFunctions.lastValue;
+import static com.cadenzauk.siesta.grammar.expression.WindowFunctions.lead;
+import static com.cadenzauk.siesta.grammar.expression.WindowFunctions.ntile;
+import static com.cadenzauk.siesta.grammar.expression.WindowFunctions.rank;
+import static com.cadenzauk.siesta.grammar.expression.WindowFunctions.rowNumber;
+import static com.cadenzauk.siesta.grammar.expression.window.FrameBound.currentRow;
+import static com.cadenzauk.siesta.grammar.expression.window.FrameBound.following;
+import static com.cadenzauk.siesta.grammar.expression.window.FrameBound.preceding;
+import static com.cadenzauk.siesta.grammar.expression.window.FrameBound.unboundedFollowing;
+import static com.cadenzauk.siesta.grammar.expression.window.FrameBound.unboundedPreceding;
+import static com.cadenzauk.siesta.grammar.expression.window.Window.orderBy;
+import static com.cadenzauk.siesta.grammar.expression.window.Window.partitionBy;
+import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class WindowFunctionsTest extends FunctionTest {
+    @Test
+    void isUtility() {
+        assertThat(WindowFunctions.class, isUtilityClass());
+    }
+
+    @Test
+    void ntileNeedsAtLeastOneBucket() {
+        calling(() -> ntile(0))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("The number of buckets must be positive."));
+    }
+
+    @SuppressWarnings("unused")
+    static Stream<Arguments> parametersForFunctionTest() {
+        return Stream.of(
+            testCase(s -> rowNumber().over(), "row_number() over ()", toArray()),
+            testCase(s -> rowNumber().over(orderBy(TestRow::stringReq)), "row_number() over (order by s.STRING_REQ asc)", toArray()),
+            testCase(s -> rank().over(partitionBy(TestRow::stringReq).orderBy(TestRow::integerReq, Order.DESC)), "rank() over (partition by s.STRING_REQ order by s.INTEGER_REQ desc)", toArray()),
+            testCase(s -> denseRank().over(partitionBy(s, TestRow::stringReq).partitionBy(s, TestRow::stringOpt).orderBy(s, TestRow::integerOpt)), "dense_rank() over (partition by s.STRING_REQ, s.STRING_OPT order by s.INTEGER_OPT asc)", toArray()),
+            testCase(s -> ntile(4).over(orderBy("s", TestRow::decimalReq)), "ntile(4) over (order by s.DECIMAL_REQ asc)", toArray()),
+
+            testCase(s -> sum(TestRow::integerReq).over(partitionBy(TestRow::stringReq)), "sum(s.INTEGER_REQ) over (partition by s.STRING_REQ)", toArray()),
+            testCase(s -> sum(TestRow::integerReq).over(orderBy(TestRow::localDateReq).rows(unboundedPreceding(), currentRow())), "sum(s.INTEGER_REQ) over (order by s.LOCAL_DATE_REQ asc rows between unbounded preceding and current row)", toArray()),
+            testCase(s -> sum(TestRow::integerReq).over(orderBy(TestRow::localDateReq).rows(preceding(2))), "sum(s.INTEGER_REQ) over (order by s.LOCAL_DATE_REQ asc rows 2 preceding)", toArray()),
+            testCase(s -> sum(TestRow::integerReq).over(orderBy(TestRow::localDateReq).range(currentRow(), unboundedFollowing())), "sum(s.INTEGER_REQ) over (order by s.LOCAL_DATE_REQ asc range between current row and unbounded following)", toArray()),
+            testCase(s -> count().over(partitionBy(TypedExpression.value("X"))), "count(*) over (partition by ?)", toArray("X")),
+
+            testCase(s -> lag(TestRow::stringReq).over(orderBy(TestRow::integerReq)), "lag(s.STRING_REQ) over (order by s.INTEGER_REQ asc)", toArray()),
+            testCase(s -> lag(TestRow::stringOpt, 2).over(orderBy(TestRow::integerReq)), "lag(s.STRING_OPT, 2) over (order by s.INTEGER_REQ asc)", toArray()),
+            testCase(s -> lead(s, TestRow::stringReq).over(orderBy(TestRow::integerReq)), "lead(s.STRING_REQ) over (order by s.INTEGER_REQ asc)", toArray()),
+            testCase(s -> lead("s", TestRow::stringOpt, 3).over(orderBy(TestRow::integerReq)), "lead(s.STRING_OPT, 3) over (order by s.INTEGER_REQ asc)", toArray()),
+            testCase(s -> firstValue(TestRow::stringReq).over(orderBy(TestRow::integerReq).rows(unboundedPreceding(), following(1))), "first_value(s.STRING_REQ) over (order by s.INTEGER_REQ asc rows between unbounded preceding and 1 following)", toArray()),
+            testCase(s -> lastValue(s, TestRow::stringOpt).over(orderBy(TestRow::integerReq)), "last_value(s.STRING_OPT) over (order by s.INTEGER_REQ asc)", toArray())
+        );
+    }
+}
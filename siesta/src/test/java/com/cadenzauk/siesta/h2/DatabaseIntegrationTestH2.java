@@ -22,7 +22,81 @@
 
 package com.cadenzauk.siesta.h2;
 
+import com.cadenzauk.core.tuple.Tuple;
+import com.cadenzauk.core.tuple.Tuple2;
+import com.cadenzauk.siesta.Alias;
+import com.cadenzauk.siesta.Database;
 import com.cadenzauk.siesta.DatabaseIntegrationTest;
+import com.cadenzauk.siesta.Order;
+import com.cadenzauk.siesta.grammar.select.CommonTableExpression;
+import com.cadenzauk.siesta.model.WidgetRow;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.cadenzauk.siesta.grammar.expression.Aggregates.max;
+import static com.cadenzauk.siesta.grammar.select.Grouping.rollup;
+import static com.cadenzauk.siesta.model.TestDatabase.testDatabase;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
 
 public class DatabaseIntegrationTestH2 extends DatabaseIntegrationTest {
+    @Test
+    public void withRecursiveStopsAtMaxDepthInCyclicHierarchy() {
+        Database database = testDatabase(dataSource, dialect);
+        long first = newId();
+        long second = newId();
+        long third = newId();
+        database.insert(
+            aWidget(first, third, "First"),
+            aWidget(second, first, "Second"),
+            aWidget(third, second, "Third"));
+        Alias<WidgetRow> w = database.table(WidgetRow.class).as("w");
+
+        CommonTableExpression<WidgetRow> tree = database.withRecursive("TREE")
+            .maxDepth(5)
+            .anchor(database.from(WidgetRow.class, "a").where(WidgetRow::widgetId).isEqualTo(first))
+            .unionAll("t", t -> database.from(w)
+                .join(t).on(w, WidgetRow::manufacturerId).isEqualTo(t, WidgetRow::widgetId)
+                .select(w));
+        List<String> names = database.from(tree, "r").list().stream()
+            .map(WidgetRow::name)
+            .collect(toList());
+
+        assertThat(names, containsInAnyOrder("First", "Second", "Third", "First", "Second"));
+    }
+
+    @Test
+    public void rollupEmulatedWithUnionAllOrdersByColumnNumber() {
+        Database database = testDatabase(dataSource, dialect);
+        long first = newId();
+        long second = newId();
+        String prefix = "Rollup" + first + "-";
+        database.insert(
+            aWidget(newId(), second, prefix + "A"),
+            aWidget(newId(), first, prefix + "B"),
+            aWidget(newId(), first, prefix + "C"));
+
+        List<Tuple2<Long,String>> result = database.from(WidgetRow.class, "w")
+            .select(WidgetRow::manufacturerId).comma(max(WidgetRow::name))
+            .where(WidgetRow::name).isLike(prefix + "%")
+            .groupBy(rollup(WidgetRow::manufacturerId))
+            .orderBy(max(WidgetRow::name), Order.DESC).then(WidgetRow::manufacturerId)
+            .list();
+
+        assertThat(result, contains(
+            Tuple.of(null, prefix + "C"),
+            Tuple.of(first, prefix + "C"),
+            Tuple.of(second, prefix + "A")));
+    }
+
+    private static WidgetRow aWidget(long widgetId, long parentId, String name) {
+        return WidgetRow.newBuilder()
+            .widgetId(widgetId)
+            .manufacturerId(parentId)
+            .name(name)
+            .build();
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.jdbc;
+
+import com.cadenzauk.core.MockitoTest;
+import com.cadenzauk.core.sql.RowMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdaptiveFetchSizeTest extends MockitoTest {
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private ResultSetMetaData metaData;
+
+    @Mock
+    private RowMapper<String> rowMapper;
+
+    @Test
+    void initialSizeEstimatedFromMetadata() throws SQLException {
+        columns(column(Types.VARCHAR, 100), column(Types.INTEGER, 10));
+
+        new AdaptiveFetchSize<>(resultSet, 11_000L, rowMapper);
+
+        verify(resultSet).setFetchSize(100);
+    }
+
+    @Test
+    void initialSizeClampedToMinimum() throws SQLException {
+        columns(column(Types.VARCHAR, 4000));
+
+        new AdaptiveFetchSize<>(resultSet, 1000L, rowMapper);
+
+        verify(resultSet).setFetchSize(10);
+    }
+
+    @Test
+    void initialSizeClampedToMaximum() throws SQLException {
+        columns(column(Types.INTEGER, 1));
+
+        new AdaptiveFetchSize<>(resultSet, 1_000_000L, rowMapper);
+
+        verify(resultSet).setFetchSize(10_000);
+    }
+
+    @Test
+    void resizedFromSampleAfterInitialRows() throws SQLException {
+        columns(column(Types.VARCHAR, 1000));
+        when(rowMapper.mapRow(resultSet)).thenReturn("row");
+        when(resultSet.getObject(1)).thenReturn("abcdefghijklmnopqrstuvwxyz0123456789abcdefghijklmn");
+        AdaptiveFetchSize<String> sut = new AdaptiveFetchSize<>(resultSet, 50_000L, rowMapper);
+
+        for (int i = 0; i < AdaptiveFetchSize.INITIAL_ROWS - 1; i++) {
+            assertThat(sut.mapRow(resultSet), is("row"));
+        }
+        verify(resultSet).setFetchSize(50);
+        verify(resultSet, never()).setFetchSize(500);
+
+        sut.mapRow(resultSet);
+        sut.mapRow(resultSet);
+
+        verify(resultSet).setFetchSize(500);
+        verify(resultSet, times(AdaptiveFetchSize.INITIAL_ROWS)).getObject(1);
+    }
+
+    @Test
+    void resizeClampedToMaximum() throws SQLException {
+        columns(column(Types.VARCHAR, 1000));
+        when(resultSet.getObject(1)).thenReturn(null);
+        AdaptiveFetchSize<String> sut = new AdaptiveFetchSize<>(resultSet, 1_000_000L, rowMapper);
+
+        for (int i = 0; i < AdaptiveFetchSize.INITIAL_ROWS; i++) {
+            sut.mapRow(resultSet);
+        }
+
+        verify(resultSet).setFetchSize(1000);
+        verify(resultSet).setFetchSize(10_000);
+    }
+
+    @Test
+    void lobColumnsAreNotSampled() throws SQLException {
+        columns(column(Types.INTEGER, 100), column(Types.CLOB, 2000));
+        when(resultSet.getObject(1)).thenReturn(42);
+        AdaptiveFetchSize<String> sut = new AdaptiveFetchSize<>(resultSet, 201_600L, rowMapper);
+
+        for (int i = 0; i < AdaptiveFetchSize.INITIAL_ROWS; i++) {
+            sut.mapRow(resultSet);
+        }
+
+        verify(resultSet).setFetchSize(96);
+        verify(resultSet).setFetchSize(100);
+        verify(resultSet, never()).getObject(2);
+    }
+
+    @Test
+    void rowIsMappedBeforeItIsSampled() throws SQLException {
+        columns(column(Types.VARCHAR, 100));
+        when(resultSet.getObject(1)).thenReturn("value");
+        AdaptiveFetchSize<String> sut = new AdaptiveFetchSize<>(resultSet, 10_000L, rowMapper);
+
+        sut.mapRow(resultSet);
+
+        InOrder inOrder = inOrder(rowMapper, resultSet);
+        inOrder.verify(rowMapper).mapRow(resultSet);
+        inOrder.verify(resultSet).getObject(1);
+    }
+
+    private void columns(int[]... columns) throws SQLException {
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            doReturn(columns[i][0]).when(metaData).getColumnType(i + 1);
+            doReturn(columns[i][1]).when(metaData).getColumnDisplaySize(i + 1);
+        }
+    }
+
+    private static int[] column(int sqlType, int displaySize) {
+        return new int[]{sqlType, displaySize};
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.jdbc;
+
+import com.cadenzauk.core.MockitoTest;
+import com.cadenzauk.siesta.BlobStream;
+import com.cadenzauk.siesta.ClobStream;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class JdbcDataTypeRegistryTest extends MockitoTest {
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Test
+    void setBlobStreamWithLength() throws SQLException {
+        InputStream inputStream = new ByteArrayInputStream(new byte[10]);
+        JdbcDataTypeRegistry sut = new JdbcDataTypeRegistry();
+
+        sut.setParameter(preparedStatement, 2, BlobStream.of(inputStream, 10L));
+
+        verify(preparedStatement).setBinaryStream(2, inputStream, 10L);
+        verifyNoMoreInteractions(preparedStatement);
+    }
+
+    @Test
+    void setBlobStreamWithoutLength() throws SQLException {
+        InputStream inputStream = new ByteArrayInputStream(new byte[10]);
+        JdbcDataTypeRegistry sut = new JdbcDataTypeRegistry();
+
+        sut.setParameter(preparedStatement, 1, BlobStream.of(inputStream));
+
+        verify(preparedStatement).setBinaryStream(1, inputStream);
+        verifyNoMoreInteractions(preparedStatement);
+    }
+
+    @Test
+    void setClobStreamWithLength() throws SQLException {
+        Reader reader = new StringReader("Hello");
+        JdbcDataTypeRegistry sut = new JdbcDataTypeRegistry();
+
+        sut.setParameter(preparedStatement, 3, ClobStream.of(reader, 5L));
+
+        verify(preparedStatement).setCharacterStream(3, reader, 5L);
+        verifyNoMoreInteractions(preparedStatement);
+    }
+
+    @Test
+    void setClobStreamWithoutLength() throws SQLException {
+        Reader reader = new StringReader("Hello");
+        JdbcDataTypeRegistry sut = new JdbcDataTypeRegistry();
+
+        sut.setParameter(preparedStatement, 4, ClobStream.of(reader));
+
+        verify(preparedStatement).setCharacterStream(4, reader);
+        verifyNoMoreInteractions(preparedStatement);
+    }
+
+    @Test
+    void otherValuesUseSetObject() throws SQLException {
+        JdbcDataTypeRegistry sut = new JdbcDataTypeRegistry();
+
+        sut.setParameter(preparedStatement, 1, "Fred");
+
+        verify(preparedStatement).setObject(1, "Fred");
+        verifyNoMoreInteractions(preparedStatement);
+    }
+}
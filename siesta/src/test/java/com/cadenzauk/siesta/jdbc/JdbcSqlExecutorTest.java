@@ -26,8 +26,10 @@ import com.cadenzauk.core.MockitoTest;
 import com.cadenzauk.core.lang.CompositeAutoCloseable;
 import com.cadenzauk.core.sql.RowMapper;
 import com.cadenzauk.core.sql.RuntimeSqlException;
+import com.cadenzauk.siesta.FetchSize;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 
 import javax.sql.DataSource;
@@ -35,16 +37,22 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.cadenzauk.core.testutil.FluentAssert.calling;
 import static org.apache.commons.lang3.ArrayUtils.toArray;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -66,6 +74,9 @@ class JdbcSqlExecutorTest extends MockitoTest {
     @Mock
     private ResultSet resultSet;
 
+    @Mock
+    private Savepoint savepoint;
+
     @Mock
     private RowMapper<String> rowMapper;
 
@@ -122,6 +133,38 @@ class JdbcSqlExecutorTest extends MockitoTest {
         assertThat(result, contains("Fred", "Barney"));
     }
 
+    @Test
+    void withFetchSizeOverridesDefault() throws SQLException {
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+        JdbcSqlExecutor sut = JdbcSqlExecutor.of(dataSource, 100).withFetchSize(FetchSize.rows(250));
+
+        List<String> result = sut.query(connection, "select name from foo", toArray(), rowMapper);
+
+        verify(preparedStatement).setFetchSize(250);
+        assertThat(sut.fetchSize(), is(250));
+        assertThat(result, empty());
+    }
+
+    @Test
+    void streamWithServerSideCursorSuspendsAutoCommit() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(false);
+        JdbcSqlExecutor sut = JdbcSqlExecutor.of(dataSource).withServerSideCursor();
+
+        try (Stream<String> stream = sut.stream("select name from foo", toArray(), rowMapper)) {
+            assertThat(stream.count(), is(0L));
+        }
+
+        InOrder inOrder = inOrder(connection, preparedStatement);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(preparedStatement).setFetchSize(1000);
+        inOrder.verify(connection).setAutoCommit(true);
+        inOrder.verify(connection).close();
+    }
+
     @Test
     void streamWhenMapperThrows() throws SQLException {
         CompositeAutoCloseable closeable = new CompositeAutoCloseable();
@@ -253,4 +296,116 @@ class JdbcSqlExecutorTest extends MockitoTest {
         verify(connection).prepareStatement(sql);
         verifyNoMoreInteractions(connection, preparedStatement, resultSet, rowMapper);
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateInsideTransactionUsesItsConnection() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        JdbcSqlExecutor sut = JdbcSqlExecutor.of(dataSource);
+
+        try (JdbcTransaction transaction = sut.beginTransaction()) {
+            sut.update("update foo set num = 1", toArray());
+            sut.update("update foo set num = 2", toArray());
+
+            assertThat(sut.currentTransaction().isPresent(), is(true));
+        }
+
+        assertThat(sut.currentTransaction().isPresent(), is(false));
+        verify(dataSource).getConnection();
+        verify(connection).setAutoCommit(false);
+        verify(connection).commit();
+        verify(connection).close();
+    }
+
+    @Test
+    void nestedTransactionRollsBackToSavepoint() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        JdbcSqlExecutor sut = JdbcSqlExecutor.of(dataSource);
+
+        try (JdbcTransaction outer = sut.beginTransaction()) {
+            try (JdbcTransaction nested = sut.beginTransaction()) {
+                assertThat(nested.isNested(), is(true));
+                assertThat(sut.currentTransaction().orElse(null), sameInstance(nested));
+                sut.update("delete from foo", toArray());
+                nested.rollback();
+            }
+            assertThat(sut.currentTransaction().orElse(null), sameInstance(outer));
+        }
+
+        verify(dataSource).getConnection();
+        verify(connection).rollback(savepoint);
+        verify(connection).releaseSavepoint(savepoint);
+        verify(connection).commit();
+        verify(connection).close();
+    }
+
+    @Test
+    void closingOuterBeforeNestedDoesNotRebindClosedOuter() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        JdbcSqlExecutor sut = JdbcSqlExecutor.of(dataSource);
+
+        JdbcTransaction outer = sut.beginTransaction();
+        JdbcTransaction nested = sut.beginTransaction();
+        sut.update("delete from foo", toArray());
+        outer.close();
+        nested.close();
+
+        assertThat(sut.currentTransaction().isPresent(), is(false));
+        assertThat(sut.inTransaction(), is(false));
+    }
+
+    @Test
+    void closingOnAnotherThreadOnlyUnbindsOwningThread() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        JdbcSqlExecutor sut = JdbcSqlExecutor.of(dataSource);
+
+        try (JdbcTransaction outer = sut.beginTransaction()) {
+            JdbcTransaction nested = sut.beginTransaction();
+            sut.update("delete from foo", toArray());
+            boolean otherThreadInTransaction = CompletableFuture.supplyAsync(() -> {
+                nested.close();
+                return sut.inTransaction();
+            }).get(5, TimeUnit.SECONDS);
+
+            assertThat(otherThreadInTransaction, is(false));
+            assertThat(sut.currentTransaction().orElse(null), sameInstance(outer));
+        }
+
+        assertThat(sut.currentTransaction().isPresent(), is(false));
+    }
+
+    @Test
+    void maxConnectionsReleasesPermitWhenConnectionCloses() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        JdbcSqlExecutor sut = JdbcSqlExecutor.newBuilder(dataSource)
+            .maxConnections(1)
+            .build();
+
+        sut.update("update foo set num = 1", toArray());
+        sut.update("update foo set num = 2", toArray());
+
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void maxConnectionsReleasesPermitWhenConnectFails() throws SQLException {
+        when(dataSource.getConnection()).thenThrow(new SQLException("No connection")).thenReturn(connection);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+        JdbcSqlExecutor sut = JdbcSqlExecutor.newBuilder(dataSource)
+            .maxConnections(1)
+            .build();
+
+        calling(() -> sut.update("update foo set num = 1", toArray()))
+            .shouldThrow(RuntimeException.class);
+        int result = sut.update("update foo set num = 2", toArray());
+
+        assertThat(result, is(1));
+    }
+}
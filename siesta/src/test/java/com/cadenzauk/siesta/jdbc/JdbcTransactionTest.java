@@ -24,7 +24,9 @@ package com.cadenzauk.siesta.jdbc;
 
 import com.cadenzauk.core.MockitoTest;
 import com.cadenzauk.core.RandomValues;
+import com.cadenzauk.core.lang.CompositeAutoCloseable;
 import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.FetchSize;
 import com.google.common.collect.ImmutableList;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Test;
@@ -33,6 +35,7 @@ import org.mockito.Mock;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -48,12 +51,15 @@ class JdbcTransactionTest extends MockitoTest {
     @Mock
     private JdbcSqlExecutor sqlExecutor;
 
+    @Mock
+    private JdbcSqlExecutor sizedExecutor;
+
     @Mock
     private Connection connection;
 
     @Test
     void connection() throws SQLException {
-        when(sqlExecutor.connect()).thenReturn(connection);
+        when(sqlExecutor.connect(any())).thenAnswer(i -> i.<CompositeAutoCloseable>getArgument(0).add(connection));
         JdbcTransaction sut = new JdbcTransaction(sqlExecutor);
 
         Connection result = sut.connection();
@@ -65,7 +71,7 @@ class JdbcTransactionTest extends MockitoTest {
 
     @Test
     void commit() throws SQLException {
-        when(sqlExecutor.connect()).thenReturn(connection);
+        when(sqlExecutor.connect(any())).thenAnswer(i -> i.<CompositeAutoCloseable>getArgument(0).add(connection));
         JdbcTransaction sut = new JdbcTransaction(sqlExecutor);
 
         sut.commit();
@@ -77,7 +83,7 @@ class JdbcTransactionTest extends MockitoTest {
 
     @Test
     void rollback() throws SQLException {
-        when(sqlExecutor.connect()).thenReturn(connection);
+        when(sqlExecutor.connect(any())).thenAnswer(i -> i.<CompositeAutoCloseable>getArgument(0).add(connection));
         JdbcTransaction sut = new JdbcTransaction(sqlExecutor);
 
         sut.rollback();
@@ -89,7 +95,7 @@ class JdbcTransactionTest extends MockitoTest {
 
     @Test
     void query() throws SQLException {
-        when(sqlExecutor.connect()).thenReturn(connection);
+        when(sqlExecutor.connect(any())).thenAnswer(i -> i.<CompositeAutoCloseable>getArgument(0).add(connection));
         JdbcTransaction sut = new JdbcTransaction(sqlExecutor);
         String sql = RandomStringUtils.randomAlphabetic(20, 30);
         Object[] args = new Object[0];
@@ -107,7 +113,7 @@ class JdbcTransactionTest extends MockitoTest {
 
     @Test
     void stream() throws SQLException {
-        when(sqlExecutor.connect()).thenReturn(connection);
+        when(sqlExecutor.connect(any())).thenAnswer(i -> i.<CompositeAutoCloseable>getArgument(0).add(connection));
         JdbcTransaction sut = new JdbcTransaction(sqlExecutor);
         String sql = RandomStringUtils.randomAlphabetic(20, 30);
         Object[] args = new Object[0];
@@ -123,9 +129,61 @@ class JdbcTransactionTest extends MockitoTest {
         verifyNoMoreInteractions(sqlExecutor, connection);
     }
 
+    @Test
+    void streamWithFetchSize() throws SQLException {
+        when(sqlExecutor.connect(any())).thenAnswer(i -> i.<CompositeAutoCloseable>getArgument(0).add(connection));
+        JdbcTransaction sut = new JdbcTransaction(sqlExecutor);
+        String sql = RandomStringUtils.randomAlphabetic(20, 30);
+        Object[] args = new Object[0];
+        RowMapper<String> rowMapper = s -> "Hello";
+        Stream<String> stream = Stream.of("Hello");
+        FetchSize fetchSize = FetchSize.rows(5);
+        when(sqlExecutor.withFetchSize(fetchSize)).thenReturn(sizedExecutor);
+        when(sizedExecutor.stream(eq(connection), eq(sql), eq(args), eq(rowMapper), any())).thenReturn(stream);
+
+        Stream<String> result = sut.stream(sql, args, rowMapper, fetchSize);
+
+        assertThat(result, sameInstance(stream));
+        verify(sizedExecutor).stream(eq(connection), eq(sql), eq(args), eq(rowMapper), any());
+    }
+
+    @Test
+    void queryWithFetchSize() throws SQLException {
+        when(sqlExecutor.connect(any())).thenAnswer(i -> i.<CompositeAutoCloseable>getArgument(0).add(connection));
+        JdbcTransaction sut = new JdbcTransaction(sqlExecutor);
+        String sql = RandomStringUtils.randomAlphabetic(20, 30);
+        Object[] args = new Object[0];
+        RowMapper<String> rowMapper = s -> "Hello";
+        List<String> rows = ImmutableList.of("Hello");
+        FetchSize fetchSize = FetchSize.adaptive(65536L);
+        when(sqlExecutor.withFetchSize(fetchSize)).thenReturn(sizedExecutor);
+        when(sizedExecutor.query(connection, sql, args, rowMapper)).thenReturn(rows);
+
+        List<String> result = sut.query(sql, args, rowMapper, fetchSize);
+
+        assertThat(result, sameInstance(rows));
+    }
+
+    @Test
+    void queryAsyncWithFetchSize() throws SQLException {
+        when(sqlExecutor.connect(any())).thenAnswer(i -> i.<CompositeAutoCloseable>getArgument(0).add(connection));
+        JdbcTransaction sut = new JdbcTransaction(sqlExecutor);
+        String sql = RandomStringUtils.randomAlphabetic(20, 30);
+        Object[] args = new Object[0];
+        RowMapper<String> rowMapper = s -> "Hello";
+        CompletableFuture<List<String>> rows = CompletableFuture.completedFuture(ImmutableList.of("Hello"));
+        FetchSize fetchSize = FetchSize.rows(5);
+        when(sqlExecutor.withFetchSize(fetchSize)).thenReturn(sizedExecutor);
+        when(sizedExecutor.queryAsync(connection, sql, args, rowMapper)).thenReturn(rows);
+
+        CompletableFuture<List<String>> result = sut.queryAsync(sql, args, rowMapper, fetchSize);
+
+        assertThat(result, sameInstance(rows));
+    }
+
     @Test
     void update() throws SQLException {
-        when(sqlExecutor.connect()).thenReturn(connection);
+        when(sqlExecutor.connect(any())).thenAnswer(i -> i.<CompositeAutoCloseable>getArgument(0).add(connection));
         JdbcTransaction sut = new JdbcTransaction(sqlExecutor);
         String sql = RandomStringUtils.randomAlphabetic(20, 30);
         Object[] args = new Object[0];
@@ -142,7 +200,7 @@ class JdbcTransactionTest extends MockitoTest {
 
     @Test
     void close() throws SQLException {
-        when(sqlExecutor.connect()).thenReturn(connection);
+        when(sqlExecutor.connect(any())).thenAnswer(i -> i.<CompositeAutoCloseable>getArgument(0).add(connection));
         JdbcTransaction sut = new JdbcTransaction(sqlExecutor);
 
         sut.close();
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.routing;
+
+import com.cadenzauk.core.MockitoTest;
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.core.sql.RuntimeSqlException;
+import com.cadenzauk.siesta.IsolationLevel;
+import com.cadenzauk.siesta.LockLevel;
+import com.cadenzauk.siesta.SqlExecutor;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLSyntaxErrorException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class RoutingSqlExecutorTest extends MockitoTest {
+    private static final String SQL = "select NAME from FOO";
+    private static final Object[] ARGS = toArray();
+
+    @Mock
+    private SqlExecutor primary;
+
+    @Mock
+    private SqlExecutor replica;
+
+    @Mock
+    private RowMapper<String> rowMapper;
+
+    @Test
+    void updateGoesToPrimary() {
+        when(primary.update("delete from FOO", ARGS)).thenReturn(3);
+        RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary).replica("r1", replica).build();
+
+        int result = sut.update("delete from FOO", ARGS);
+
+        assertThat(result, is(3));
+        verifyNoMoreInteractions(replica);
+    }
+
+    @Test
+    void queryGoesToReplica() {
+        when(replica.query(SQL, ARGS, rowMapper)).thenReturn(ImmutableList.of("Fred"));
+        RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary).replica("r1", replica).build();
+
+        List<String> result = sut.query(SQL, ARGS, rowMapper);
+
+        assertThat(result, contains("Fred"));
+        assertThat(sut.replicaMetrics().get(0).requests(), is(1L));
+        assertThat(sut.replicaMetrics().get(0).outstanding(), is(0));
+    }
+
+    @Test
+    void queryInTransactionGoesToPrimary() {
+        when(primary.inTransaction()).thenReturn(true);
+        when(primary.query(SQL, ARGS, rowMapper)).thenReturn(ImmutableList.of("Barney"));
+        RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary).replica("r1", replica).build();
+
+        List<String> result = sut.query(SQL, ARGS, rowMapper);
+
+        assertThat(result, contains("Barney"));
+        verifyNoMoreInteractions(replica);
+    }
+
+    @Test
+    void exhaustedStreamIsNoLongerOutstanding() {
+        when(replica.stream(SQL, ARGS, rowMapper)).thenReturn(Stream.of("Pebbles", "Dino"));
+        RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary).replica("r1", replica).build();
+
+        Stream<String> stream = sut.stream(SQL, ARGS, rowMapper);
+        assertThat(sut.replicaMetrics().get(0).outstanding(), is(1));
+        List<String> result = stream.collect(toList());
+
+        assertThat(result, contains("Pebbles", "Dino"));
+        assertThat(sut.replicaMetrics().get(0).outstanding(), is(0));
+        stream.close();
+        assertThat(sut.replicaMetrics().get(0).outstanding(), is(0));
+    }
+
+    @Test
+    void closedStreamIsNoLongerOutstanding() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(replica.stream(SQL, ARGS, rowMapper)).thenReturn(Stream.of("Pebbles", "Dino").onClose(() -> closed.set(true)));
+        RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary).replica("r1", replica).build();
+
+        try (Stream<String> stream = sut.stream(SQL, ARGS, rowMapper)) {
+            assertThat(stream.findFirst(), is(Optional.of("Pebbles")));
+            assertThat(sut.replicaMetrics().get(0).outstanding(), is(1));
+        }
+
+        assertThat(sut.replicaMetrics().get(0).outstanding(), is(0));
+        assertThat(closed.get(), is(true));
+    }
+
+    @Test
+    void lockingReadUsesPrimary() {
+        when(primary.readExecutor(IsolationLevel.UNSPECIFIED, Optional.of(LockLevel.UPDATE))).thenReturn(primary);
+        RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary).replica("r1", replica).build();
+
+        SqlExecutor result = sut.readExecutor(IsolationLevel.UNSPECIFIED, Optional.of(LockLevel.UPDATE));
+
+        assertThat(result, sameInstance(primary));
+    }
+
+    @Test
+    void uncommittedReadUsesReplicas() {
+        RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary).replica("r1", replica).build();
+
+        SqlExecutor result = sut.readExecutor(IsolationLevel.UNCOMMITTED_READ, Optional.empty());
+
+        assertThat(result, sameInstance(sut));
+    }
+
+    @Test
+    void failedReplicaFallsBackToPrimary() {
+        when(replica.query(SQL, ARGS, rowMapper)).thenThrow(new RuntimeSqlException(new SQLNonTransientConnectionException("Connection refused")));
+        when(primary.query(SQL, ARGS, rowMapper)).thenReturn(ImmutableList.of("Wilma"), ImmutableList.of("Betty"));
+        RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary).replica("r1", replica).build();
+
+        List<String> first = sut.query(SQL, ARGS, rowMapper);
+        List<String> second = sut.query(SQL, ARGS, rowMapper);
+
+        assertThat(first, contains("Wilma"));
+        assertThat(second, contains("Betty"));
+        verify(replica).query(SQL, ARGS, rowMapper);
+        ReplicaMetrics metrics = sut.replicaMetrics().get(0);
+        assertThat(metrics.failures(), is(1L));
+        assertThat(metrics.available(), is(false));
+    }
+
+    @Test
+    void replicaWithConnectionSqlStateFallsBackToPrimary() {
+        when(replica.stream(SQL, ARGS, rowMapper)).thenThrow(new RuntimeSqlException(new SQLException("Link failure", "08S01")));
+        when(primary.stream(SQL, ARGS, rowMapper)).thenReturn(Stream.of("Bamm-Bamm"));
+        RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary).replica("r1", replica).build();
+
+        List<String> result = sut.stream(SQL, ARGS, rowMapper).collect(toList());
+
+        assertThat(result, contains("Bamm-Bamm"));
+        assertThat(sut.replicaMetrics().get(0).failures(), is(1L));
+        assertThat(sut.replicaMetrics().get(0).outstanding(), is(0));
+    }
+
+    @Test
+    void otherReplicaFailureIsRethrown() {
+        RuntimeSqlException failure = new RuntimeSqlException(new SQLSyntaxErrorException("Bad SQL", "42000"));
+        when(replica.query(SQL, ARGS, rowMapper)).thenThrow(failure);
+        RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary).replica("r1", replica).build();
+
+        calling(() -> sut.query(SQL, ARGS, rowMapper))
+            .shouldThrow(RuntimeSqlException.class)
+            .withCause(SQLSyntaxErrorException.class);
+        ReplicaMetrics metrics = sut.replicaMetrics().get(0);
+        assertThat(metrics.failures(), is(0L));
+        assertThat(metrics.available(), is(true));
+        verify(primary).inTransaction();
+        verifyNoMoreInteractions(primary);
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() {
+        when(primary.query(SQL, ARGS, rowMapper)).thenReturn(ImmutableList.of("Pebbles"));
+        try (RoutingSqlExecutor sut = RoutingSqlExecutor.newBuilder(primary)
+            .replica("r1", replica)
+            .healthCheck(r -> Duration.ofMinutes(1))
+            .healthCheckInterval(Duration.ofHours(1))
+            .maxLag(Duration.ofSeconds(10))
+            .build()) {
+            sut.checkHealth();
+
+            List<String> result = sut.query(SQL, ARGS, rowMapper);
+
+            assertThat(result, contains("Pebbles"));
+            assertThat(sut.replicaMetrics().get(0).lag(), is(Duration.ofMinutes(1)));
+            verifyNoMoreInteractions(replica);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.routing;
+
+import com.cadenzauk.core.MockitoTest;
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.Database;
+import com.cadenzauk.siesta.Order;
+import com.cadenzauk.siesta.SqlExecutor;
+import com.cadenzauk.siesta.dialect.AnsiDialect;
+import com.cadenzauk.siesta.model.SalespersonRow;
+import com.cadenzauk.siesta.model.TestDatabase;
+import com.cadenzauk.siesta.model.WidgetRow;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.stubbing.Answer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+class ShardRoutingTest extends MockitoTest {
+    @Mock
+    private SqlExecutor shard0;
+
+    @Mock
+    private SqlExecutor shard1;
+
+    @Captor
+    private ArgumentCaptor<String> sql;
+
+    @Test
+    void updateWithShardKeyInWhereClauseGoesToOwningShard() {
+        when(shard1.update(anyString(), any())).thenReturn(1);
+        Database database = database();
+
+        int result = database.update(SalespersonRow.class)
+            .set(SalespersonRow::numberOfSales).to(4)
+            .where(SalespersonRow::surname).isEqualTo("Flintstone")
+            .and(SalespersonRow::salespersonId).isEqualTo(3L)
+            .execute();
+
+        assertThat(result, is(1));
+        verifyZeroInteractions(shard0);
+    }
+
+    @Test
+    void selectWithShardKeyInWhereClauseGoesToOwningShard() {
+        when(shard0.query(anyString(), any(), any())).thenReturn(ImmutableList.of());
+        Database database = database();
+
+        database.from(SalespersonRow.class)
+            .where(SalespersonRow::salespersonId).isEqualTo(2L)
+            .list();
+
+        verifyZeroInteractions(shard1);
+    }
+
+    @Test
+    void selectWithoutShardKeyEqualityRunsOnEveryShard() {
+        when(shard0.query(anyString(), any(), any())).thenReturn(ImmutableList.of());
+        when(shard1.query(anyString(), any(), any())).thenReturn(ImmutableList.of());
+        Database database = database();
+
+        database.from(SalespersonRow.class)
+            .where(SalespersonRow::salespersonId).isGreaterThan(2L)
+            .list();
+
+        verify(shard0).query(anyString(), any(), any());
+        verify(shard1).query(anyString(), any(), any());
+    }
+
+    @Test
+    void insertGroupsRowsByOwningShard() {
+        when(shard0.update(anyString(), any())).thenReturn(1);
+        when(shard1.update(anyString(), any())).thenReturn(1);
+        Database database = database();
+
+        database.insert(salesperson(1L), salesperson(2L), salesperson(3L), salesperson(4L));
+
+        assertThat(insertedIds(shard0), containsInAnyOrder(2L, 4L));
+        assertThat(insertedIds(shard1), containsInAnyOrder(1L, 3L));
+    }
+
+    @Test
+    void insertWithoutShardKeyIsRejected() {
+        Database database = database();
+        WidgetRow widget = WidgetRow.newBuilder()
+            .widgetId(1L)
+            .manufacturerId(2L)
+            .name("Sprocket")
+            .build();
+
+        calling(() -> database.insert(widget))
+            .shouldThrow(IllegalArgumentException.class)
+            .withMessage(is("Cannot insert into SIESTA.WIDGET across shards without a value for the shard key salespersonId."));
+        verifyZeroInteractions(shard0, shard1);
+    }
+
+    @Test
+    void orderedSelectMergesShardsAndAppliesFetchFirst() throws SQLException {
+        List<ResultSet> shard0Rows = resultSets("Wilma", "Betty");
+        List<ResultSet> shard1Rows = resultSets("Fred", "Barney");
+        when(shard0.query(sql.capture(), any(), any())).thenAnswer(mapRows(shard0Rows));
+        when(shard1.query(anyString(), any(), any())).thenAnswer(mapRows(shard1Rows));
+        Database database = database();
+
+        List<String> result = database.from(SalespersonRow.class, "s")
+            .select(SalespersonRow::surname, "n")
+            .orderBy(SalespersonRow::surname, Order.DESC)
+            .fetchFirst(3)
+            .list();
+
+        assertThat(result, contains("Wilma", "Fred", "Betty"));
+        assertThat(sql.getValue(), is("select * from (select *, row_number() over() as x_row_number from (" +
+            "select s.SURNAME as n, s.SURNAME as siesta_sort_1 " +
+            "from SIESTA.SALESPERSON s " +
+            "order by s.SURNAME desc)) " +
+            "where x_row_number <= 3"));
+    }
+
+    private Database database() {
+        return TestDatabase.testDatabaseBuilder(new AnsiDialect())
+            .defaultSqlExecutor(ShardedSqlExecutor.<Long>newBuilder()
+                .shardKey(SalespersonRow::salespersonId)
+                .shard(shard0)
+                .shard(shard1)
+                .executor(Runnable::run)
+                .build())
+            .build();
+    }
+
+    private List<Object> insertedIds(SqlExecutor shard) {
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(shard, atLeastOnce()).update(anyString(), args.capture());
+        return args.getAllValues().stream()
+            .flatMap(Arrays::stream)
+            .filter(Long.class::isInstance)
+            .collect(toList());
+    }
+
+    private static SalespersonRow salesperson(long salespersonId) {
+        return SalespersonRow.newBuilder()
+            .salespersonId(salespersonId)
+            .firstName("Fred")
+            .surname("Flintstone")
+            .build();
+    }
+
+    private static List<ResultSet> resultSets(String... surnames) throws SQLException {
+        List<ResultSet> resultSets = new ArrayList<>();
+        for (String surname : surnames) {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("n")).thenReturn(surname);
+            when(rs.getObject("siesta_sort_1")).thenReturn(surname);
+            resultSets.add(rs);
+        }
+        return resultSets;
+    }
+
+    private static Answer<List<Object>> mapRows(List<ResultSet> resultSets) {
+        return invocation -> {
+            RowMapper<?> rowMapper = invocation.getArgument(2);
+            List<Object> rows = new ArrayList<>();
+            for (ResultSet rs : resultSets) {
+                rows.add(rowMapper.mapRow(rs));
+            }
+            return rows;
+        };
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.routing;
+
+import com.cadenzauk.core.MockitoTest;
+import com.cadenzauk.core.sql.RowMapper;
+import com.cadenzauk.siesta.RoutingContext;
+import com.cadenzauk.siesta.SqlExecutor;
+import com.cadenzauk.siesta.model.SalespersonRow;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.when;
+
+class ShardedSqlExecutorTest extends MockitoTest {
+    private static final String SQL = "select NAME from SALESPERSON";
+    private static final Object[] ARGS = toArray();
+
+    @Mock
+    private SqlExecutor shard0;
+
+    @Mock
+    private SqlExecutor shard1;
+
+    @Mock
+    private RowMapper<String> rowMapper;
+
+    private ShardedSqlExecutor<Long> sut() {
+        return ShardedSqlExecutor.<Long>newBuilder()
+            .shardKey(SalespersonRow::salespersonId)
+            .shard(shard0)
+            .shard(shard1)
+            .executor(Runnable::run)
+            .build();
+    }
+
+    @Test
+    void routeWithKeyGoesToOwningShard() {
+        ShardedSqlExecutor<Long> sut = sut();
+        RoutingContext context = (rowClass, getter) -> rowClass == SalespersonRow.class ? Optional.of(3L) : Optional.empty();
+
+        SqlExecutor result = sut.route(context);
+
+        assertThat(result, sameInstance(shard1));
+    }
+
+    @Test
+    void routeWithoutKeyScatters() {
+        ShardedSqlExecutor<Long> sut = sut();
+
+        SqlExecutor result = sut.route(RoutingContext.NONE);
+
+        assertThat(result, sameInstance(sut));
+        assertThat(result.scattersAcrossShards(), is(true));
+    }
+
+    @Test
+    void queryGathersFromEveryShard() {
+        when(shard0.query(SQL, ARGS, rowMapper)).thenReturn(ImmutableList.of("Fred"));
+        when(shard1.query(SQL, ARGS, rowMapper)).thenReturn(ImmutableList.of("Barney", "Wilma"));
+        ShardedSqlExecutor<Long> sut = sut();
+
+        List<String> result = sut.query(SQL, ARGS, rowMapper);
+
+        assertThat(result, containsInAnyOrder("Fred", "Barney", "Wilma"));
+    }
+
+    @Test
+    void updateRunsOnEveryShard() {
+        when(shard0.update("delete from SALESPERSON", ARGS)).thenReturn(2);
+        when(shard1.update("delete from SALESPERSON", ARGS)).thenReturn(3);
+        ShardedSqlExecutor<Long> sut = sut();
+
+        int result = sut.update("delete from SALESPERSON", ARGS);
+
+        assertThat(result, is(5));
+    }
+
+    @Test
+    void reconfigureChangesOwningShard() {
+        ShardedSqlExecutor<Long> sut = sut();
+
+        sut.reconfigure((key, shardCount) -> 0, ImmutableList.of(shard1, shard0));
+
+        assertThat(sut.shardFor(3L), sameInstance(shard1));
+    }
+
+    @Test
+    void transactionsMustBeBegunOnAShard() {
+        ShardedSqlExecutor<Long> sut = sut();
+
+        calling(sut::beginTransaction)
+            .shouldThrow(UnsupportedOperationException.class)
+            .withMessage(is("A transaction cannot span shards, begin it on shardFor(key) instead."));
+    }
+}
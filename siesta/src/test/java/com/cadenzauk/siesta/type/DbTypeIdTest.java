@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017 Cadenza United Kingdom Limited
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.cadenzauk.siesta.type;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Types;
+
+import static com.cadenzauk.core.testutil.FluentAssert.calling;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+class DbTypeIdTest {
+    @Test
+    void equalIdsShareTheSameDenseId() {
+        DbTypeId<String> first = new DbTypeId<>("json", Types.VARCHAR, String.class);
+        DbTypeId<String> second = new DbTypeId<>("json", Types.VARCHAR, String.class);
+
+        assertThat(first.id(), is(second.id()));
+        assertThat(first, is(second));
+        assertThat(first.hashCode(), is(second.hashCode()));
+    }
+
+    @Test
+    void differentIdsHaveDifferentDenseIds() {
+        DbTypeId<String> first = new DbTypeId<>("json", Types.VARCHAR, String.class);
+        DbTypeId<String> second = new DbTypeId<>("jsonb", Types.VARCHAR, String.class);
+
+        assertThat(first.id(), not(is(second.id())));
+        assertThat(first, not(is(second)));
+    }
+
+    @Test
+    void registryFindsTypeByEqualId() {
+        DbTypeRegistry sut = new DbTypeRegistry();
+        sut.register(new DbTypeId<>("xml", Types.SQLXML, String.class), new DefaultVarchar("xml"));
+
+        DbType<String> result = sut.get(new DbTypeId<>("xml", Types.SQLXML, String.class));
+
+        assertThat(result.sqlType(), is("xml"));
+    }
+
+    @Test
+    void registryReturnsDefaults() {
+        DbTypeRegistry sut = new DbTypeRegistry();
+
+        assertThat(sut.get(DbTypeId.INTEGER), instanceOf(DefaultInteger.class));
+    }
+
+    @Test
+    void registryThrowsForUnregisteredId() {
+        DbTypeRegistry sut = new DbTypeRegistry();
+        DbTypeId<String> unregistered = new DbTypeId<>("unregistered", Types.OTHER, String.class);
+
+        calling(() -> sut.get(unregistered))
+            .shouldThrow(IllegalArgumentException.class);
+    }
+}
@@ -27,6 +27,7 @@ import org.junit.AssumptionViolatedException;
 import org.junit.Test;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static com.cadenzauk.siesta.grammar.expression.Aggregates.count;
 import static com.cadenzauk.siesta.model.TestDatabase.testDatabase;
@@ -76,12 +77,13 @@ public abstract class TransactionIntegrationTest extends IntegrationTest {
         try (Transaction transaction = database.beginTransaction()) {
             database.insert(transaction, salesperson);
 
-            Optional<Long> result = database.from(SalespersonRow.class)
+            Optional<Long> result = CompletableFuture.supplyAsync(() -> database.from(SalespersonRow.class)
                 .select(SalespersonRow::salespersonId)
                 .where(SalespersonRow::salespersonId).isEqualTo(salesperson.salespersonId())
                 .withIsolation(IsolationLevel.REPEATABLE_READ)
                 .keepLocks(LockLevel.UPDATE)
-                .optional();
+                .optional())
+                .join();
 
             assertThat(result.isPresent(), is(false));
         }
@@ -98,12 +100,13 @@ public abstract class TransactionIntegrationTest extends IntegrationTest {
         try (Transaction transaction = database.beginTransaction()) {
             database.insert(transaction, salesperson);
 
-            Integer count = database.from(SalespersonRow.class)
+            Integer count = CompletableFuture.supplyAsync(() -> database.from(SalespersonRow.class)
                 .select(count())
                 .where(SalespersonRow::salespersonId).isEqualTo(salesperson.salespersonId())
                 .fetchFirst(1)
                 .withIsolation(IsolationLevel.UNCOMMITTED_READ)
-                .single();
+                .single())
+                .join();
 
             assertThat(count, is(1));
         }
@@ -129,4 +132,43 @@ public abstract class TransactionIntegrationTest extends IntegrationTest {
         }
     }
 
+    @Test
+    public void whenUncommittedThenVisibleOnSameThread() {
+        Database database = testDatabase(dataSource, dialect);
+
+        SalespersonRow salesperson = aRandomSalesperson();
+        try (Transaction transaction = database.beginTransaction()) {
+            database.insert(transaction, salesperson);
+
+            Integer count = database.from(SalespersonRow.class)
+                .select(count())
+                .where(SalespersonRow::salespersonId).isEqualTo(salesperson.salespersonId())
+                .single();
+
+            assertThat(count, is(1));
+            transaction.rollback();
+        }
+    }
+
+    @Test
+    public void whenNestedRolledBackThenOuterKept() {
+        Database database = testDatabase(dataSource, dialect);
+
+        SalespersonRow kept = aRandomSalesperson();
+        SalespersonRow discarded = aRandomSalesperson();
+        try (Transaction transaction = database.beginTransaction()) {
+            database.insert(transaction, kept);
+            try (Transaction nested = database.beginTransaction()) {
+                database.insert(nested, discarded);
+                nested.rollback();
+            }
+            transaction.commit();
+        }
+
+        Integer count = database.from(SalespersonRow.class)
+            .select(count())
+            .where(SalespersonRow::salespersonId).isIn(kept.salespersonId(), discarded.salespersonId())
+            .single();
+        assertThat(count, is(1));
+    }
 }